@@ -0,0 +1,147 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.BugPattern.StandardTags.LIKELY_ERROR;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.Matchers.equalsMethodDeclaration;
+import static com.google.errorprone.matchers.Matchers.isSameType;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.Tree.Kind;
+import com.sun.tools.javac.code.Symbol;
+import java.math.BigDecimal;
+import java.util.Objects;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags equality checks between {@link BigDecimal}s that also compare
+ * their scale.
+ *
+ * <p>{@link BigDecimal#equals(Object)} considers two values equal only if they have the same scale,
+ * such that e.g. {@code 2.0} and {@code 2.00} are considered unequal. When only the numerical
+ * values should be compared, {@link BigDecimal#compareTo(BigDecimal)} should be used instead.
+ *
+ * <p>Equality checks inside {@link Object#equals(Object)} implementations are not flagged, as those
+ * must remain consistent with {@link Object#hashCode()}. As {@link
+ * BigDecimal#compareTo(BigDecimal)} does not accept {@code null} values, a fix is suggested only if
+ * the argument of {@link BigDecimal#equals(Object)} is known to be non-null: a newly created
+ * instance or one of {@link BigDecimal}'s own constants. No fix is suggested for {@link
+ * Objects#equals(Object, Object)} and similar methods.
+ */
+// XXX: Also flag `BigDecimal`-keyed hash-based collections, which suffer from the same issue.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "`BigDecimal#equals` also compares the scale of its operands; prefer `compareTo` to "
+            + "compare only their numerical values",
+    link = BUG_PATTERNS_BASE_URL + "BigDecimalEquality",
+    linkType = CUSTOM,
+    severity = WARNING,
+    tags = LIKELY_ERROR)
+public final class BigDecimalEquality extends BugChecker implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final Matcher<ExpressionTree> BIG_DECIMAL = isSameType(BigDecimal.class);
+  private static final Matcher<ExpressionTree> BIG_DECIMAL_EQUALS =
+      instanceMethod().onExactClass(BigDecimal.class.getName()).named("equals");
+  private static final Matcher<ExpressionTree> STATIC_EQUALS =
+      anyOf(
+          staticMethod().onClass(Objects.class.getName()).named("equals"),
+          staticMethod().onClass("com.google.common.base.Objects").named("equal"));
+  private static final Matcher<MethodTree> EQUALS_METHOD_DECLARATION = equalsMethodDeclaration();
+
+  /** Instantiates a new {@link BigDecimalEquality} instance. */
+  public BigDecimalEquality() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    boolean isInstanceEquals = BIG_DECIMAL_EQUALS.matches(tree, state);
+    if ((!isInstanceEquals && !STATIC_EQUALS.matches(tree, state))
+        || !tree.getArguments().stream().allMatch(argument -> BIG_DECIMAL.matches(argument, state))
+        || isInsideEqualsMethodDeclaration(state)) {
+      return Description.NO_MATCH;
+    }
+
+    if (!isInstanceEquals) {
+      return describeMatch(tree);
+    }
+
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    if (receiver == null) {
+      return Description.NO_MATCH;
+    }
+
+    return isKnownNonNull(tree.getArguments().get(0))
+        ? describeMatch(tree, compareInstead(tree, receiver, state))
+        : describeMatch(tree);
+  }
+
+  /**
+   * Tells whether the given {@link BigDecimal} expression is guaranteed to be non-null, such that
+   * it can be passed to {@link BigDecimal#compareTo(BigDecimal)}.
+   */
+  private static boolean isKnownNonNull(ExpressionTree tree) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (expression instanceof NewClassTree) {
+      return true;
+    }
+
+    Symbol symbol = ASTHelpers.getSymbol(expression);
+    return symbol != null
+        && symbol.getKind() == ElementKind.FIELD
+        && symbol.owner.getQualifiedName().contentEquals(BigDecimal.class.getName())
+        && ASTHelpers.isStatic(symbol)
+        && symbol.getModifiers().contains(Modifier.FINAL);
+  }
+
+  private static boolean isInsideEqualsMethodDeclaration(VisitorState state) {
+    MethodTree method = state.findEnclosing(MethodTree.class);
+    return method != null && EQUALS_METHOD_DECLARATION.matches(method, state);
+  }
+
+  private static SuggestedFix compareInstead(
+      MethodInvocationTree tree, ExpressionTree receiver, VisitorState state) {
+    String comparison =
+        String.format(
+            "%s.compareTo(%s)",
+            SourceCode.treeToString(receiver, state),
+            SourceCode.treeToString(tree.getArguments().get(0), state));
+
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    if (parent.getKind() == Kind.LOGICAL_COMPLEMENT) {
+      return SuggestedFix.replace(parent, comparison + " != 0");
+    }
+
+    return SuggestedFix.replace(
+        tree, requiresParentheses(parent) ? '(' + comparison + " == 0)" : comparison + " == 0");
+  }
+
+  /**
+   * Tells whether an equality expression that replaces a child of the given tree must be wrapped in
+   * parentheses to preserve its meaning.
+   */
+  private static boolean requiresParentheses(Tree parent) {
+    return parent instanceof BinaryTree
+        && parent.getKind() != Kind.CONDITIONAL_AND
+        && parent.getKind() != Kind.CONDITIONAL_OR;
+  }
+}
@@ -0,0 +1,369 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.CONCURRENCY;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.SynchronizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Source;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.inject.Inject;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.BlockingMethods;
+
+/**
+ * A {@link BugChecker} that flags fixed-size and cached thread pools to which only tasks that
+ * perform blocking operations are submitted, and suggests using a virtual thread per task instead.
+ *
+ * <p>Platform threads are a scarce resource: a thread pool that mainly waits for blocking I/O
+ * either limits throughput or requires a large number of threads. As of Java 21, {@link
+ * Executors}{@code #newVirtualThreadPerTaskExecutor()} creates an executor that runs each task on a
+ * cheap virtual thread, which releases its carrier thread while blocked. This check only flags
+ * executors created in code that targets Java 21 or later, unless the {@value
+ * #IGNORE_TARGET_VERSION_FLAG} flag is set.
+ *
+ * <p>A virtual thread that blocks while holding a monitor pins its carrier thread. As such, no
+ * suggestion is made if any of the submitted tasks contains a {@code synchronized} block or invokes
+ * a {@code synchronized} method declared in the current compilation unit.
+ *
+ * <p>Only executors stored in a local variable or a private field are considered. All tasks
+ * submitted to such an executor must be lambda expressions, method references or anonymous classes
+ * whose implementation is available in the current compilation unit. Invocations of methods
+ * declared in the current compilation unit are analyzed transitively.
+ *
+ * <p>The set of methods considered to be blocking can be extended using the {@value
+ * #EXTRA_BLOCKING_METHODS_FLAG} flag.
+ */
+// XXX: A fixed-size thread pool also bounds the number of concurrently executed tasks; with virtual
+// threads this bound must be enforced by other means, such as a `Semaphore`, if the blocking
+// operations access a resource of limited capacity.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Tasks submitted to this executor perform blocking operations; consider running them on "
+            + "virtual threads using `Executors#newVirtualThreadPerTaskExecutor`",
+    link = BUG_PATTERNS_BASE_URL + "BlockingTaskExecutor",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = {CONCURRENCY, PERFORMANCE})
+@SuppressWarnings("java:S2160" /* Super class equality definition suffices. */)
+public final class BlockingTaskExecutor extends BugChecker implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String EXTRA_BLOCKING_METHODS_FLAG =
+      "BlockingTaskExecutor:ExtraBlockingMethods";
+  private static final String IGNORE_TARGET_VERSION_FLAG =
+      "BlockingTaskExecutor:IgnoreTargetVersion";
+  private static final Supplier<Boolean> TARGETS_JAVA_21_OR_LATER =
+      VisitorState.memoize(BlockingTaskExecutor::targetsJava21OrLater);
+  private static final Matcher<ExpressionTree> PLATFORM_THREAD_POOL =
+      anyOf(
+          staticMethod()
+              .onClass(Executors.class.getName())
+              .named("newFixedThreadPool")
+              .withParameters(int.class.getName()),
+          staticMethod()
+              .onClass(Executors.class.getName())
+              .named("newCachedThreadPool")
+              .withNoParameters());
+  private static final Matcher<ExpressionTree> TASK_SUBMISSION =
+      instanceMethod().onDescendantOf(Executor.class.getName()).namedAnyOf("execute", "submit");
+  private static final Matcher<ExpressionTree> LIFECYCLE_OPERATION =
+      instanceMethod()
+          .onDescendantOf(ExecutorService.class.getName())
+          .namedAnyOf(
+              "awaitTermination", "close", "isShutdown", "isTerminated", "shutdown", "shutdownNow");
+  private static final Matcher<ExpressionTree> ASYNC_TASK_SUBMISSION =
+      staticMethod()
+          .onClass(CompletableFuture.class.getName())
+          .namedAnyOf("runAsync", "supplyAsync");
+
+  private final Matcher<ExpressionTree> blockingMethod;
+  private final boolean ignoreTargetVersion;
+
+  /** Instantiates a default {@link BlockingTaskExecutor} instance. */
+  public BlockingTaskExecutor() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link BlockingTaskExecutor}.
+   *
+   * @param flags Any provided command line flags.
+   */
+  @Inject
+  BlockingTaskExecutor(ErrorProneFlags flags) {
+    blockingMethod = BlockingMethods.blockingMethod(flags, EXTRA_BLOCKING_METHODS_FLAG);
+    ignoreTargetVersion = flags.getBoolean(IGNORE_TARGET_VERSION_FLAG).orElse(Boolean.FALSE);
+  }
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!PLATFORM_THREAD_POOL.matches(tree, state)
+        || (!ignoreTargetVersion && !TARGETS_JAVA_21_OR_LATER.get(state))) {
+      return Description.NO_MATCH;
+    }
+
+    Symbol executor = getAssignedVariable(tree, state);
+    if (executor == null) {
+      return Description.NO_MATCH;
+    }
+
+    TreePath scope =
+        executor.getKind() == ElementKind.LOCAL_VARIABLE
+            ? state.findPathToEnclosing(BlockTree.class)
+            : state.findPathToEnclosing(ClassTree.class);
+    if (scope == null) {
+      return Description.NO_MATCH;
+    }
+
+    Optional<ImmutableList<ExpressionTree>> tasks = findSubmittedTasks(executor, scope, state);
+    if (tasks.isEmpty() || tasks.orElseThrow().isEmpty()) {
+      return Description.NO_MATCH;
+    }
+
+    if (!tasks.orElseThrow().stream().allMatch(task -> isBlockingWithoutPinning(task, state))) {
+      return Description.NO_MATCH;
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String executors = SuggestedFixes.qualifyType(state, fix, Executors.class.getName());
+    return describeMatch(
+        tree, fix.replace(tree, executors + ".newVirtualThreadPerTaskExecutor()").build());
+  }
+
+  /**
+   * Returns the local variable or private field to which the given expression is assigned, if any.
+   */
+  private static @Nullable Symbol getAssignedVariable(
+      MethodInvocationTree tree, VisitorState state) {
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    if (parent instanceof VariableTree && ((VariableTree) parent).getInitializer() == tree) {
+      Symbol symbol = ASTHelpers.getSymbol((VariableTree) parent);
+      return symbol.getKind() == ElementKind.LOCAL_VARIABLE || isPrivateField(symbol)
+          ? symbol
+          : null;
+    }
+
+    if (parent instanceof AssignmentTree && ((AssignmentTree) parent).getExpression() == tree) {
+      Symbol symbol = ASTHelpers.getSymbol(((AssignmentTree) parent).getVariable());
+      return symbol != null && isPrivateField(symbol) ? symbol : null;
+    }
+
+    return null;
+  }
+
+  private static boolean isPrivateField(Symbol symbol) {
+    return symbol.getKind() == ElementKind.FIELD
+        && symbol.getModifiers().contains(Modifier.PRIVATE);
+  }
+
+  /**
+   * Returns the tasks submitted to the given executor within the given scope, or {@link
+   * Optional#empty()} if the executor is used in some other way, such that the set of submitted
+   * tasks cannot be determined.
+   */
+  private static Optional<ImmutableList<ExpressionTree>> findSubmittedTasks(
+      Symbol executor, TreePath scope, VisitorState state) {
+    SubmittedTaskCollector collector = new SubmittedTaskCollector(executor, state);
+    collector.scan(scope, null);
+    return collector.escapes ? Optional.empty() : Optional.of(collector.tasks.build());
+  }
+
+  /**
+   * Tells whether the given task performs a blocking operation, without possibly pinning its
+   * carrier thread.
+   */
+  private boolean isBlockingWithoutPinning(ExpressionTree task, VisitorState state) {
+    TaskScanner scanner = new TaskScanner(state);
+    return scanner.scanTask(task) && scanner.isBlocking && !scanner.mayPin;
+  }
+
+  private static boolean targetsJava21OrLater(VisitorState state) {
+    /* `Source.JDK21` is not defined by all supported JDKs. */
+    Source java21 = Source.lookup("21");
+    return java21 != null && Source.instance(state.context).compareTo(java21) >= 0;
+  }
+
+  /**
+   * A {@link TreePathScanner} that collects the tasks submitted to a given executor, and that
+   * tracks whether said executor is used in any other way.
+   */
+  private static final class SubmittedTaskCollector
+      extends TreePathScanner<@Nullable Void, @Nullable Void> {
+    private final ImmutableList.Builder<ExpressionTree> tasks = ImmutableList.builder();
+    private final Symbol executor;
+    private final VisitorState state;
+    private boolean escapes;
+
+    SubmittedTaskCollector(Symbol executor, VisitorState state) {
+      this.executor = executor;
+      this.state = state;
+    }
+
+    @Override
+    public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+      visitReference(node);
+      return super.visitIdentifier(node, unused);
+    }
+
+    @Override
+    public @Nullable Void visitMemberSelect(MemberSelectTree node, @Nullable Void unused) {
+      visitReference(node);
+      return super.visitMemberSelect(node, unused);
+    }
+
+    private void visitReference(ExpressionTree node) {
+      if (!executor.equals(ASTHelpers.getSymbol(node))) {
+        return;
+      }
+
+      TreePath parentPath = getCurrentPath().getParentPath();
+      Tree parent = parentPath.getLeaf();
+      Tree grandParent = parentPath.getParentPath().getLeaf();
+      if (parent instanceof MemberSelectTree && grandParent instanceof MethodInvocationTree) {
+        MethodInvocationTree invocation = (MethodInvocationTree) grandParent;
+        if (TASK_SUBMISSION.matches(invocation, state)) {
+          tasks.add(invocation.getArguments().get(0));
+        } else if (!LIFECYCLE_OPERATION.matches(invocation, state)) {
+          escapes = true;
+        }
+      } else if (parent instanceof MethodInvocationTree
+          && ASYNC_TASK_SUBMISSION.matches((MethodInvocationTree) parent, state)
+          && ((MethodInvocationTree) parent).getArguments().indexOf(node) == 1) {
+        tasks.add(((MethodInvocationTree) parent).getArguments().get(0));
+      } else if (!(parent instanceof AssignmentTree
+          && ((AssignmentTree) parent).getVariable().equals(node))) {
+        escapes = true;
+      }
+    }
+  }
+
+  /**
+   * A {@link TreeScanner} that determines whether a task performs blocking operations and whether
+   * it may pin its carrier thread, following invocations of methods declared in the current
+   * compilation unit.
+   */
+  private final class TaskScanner extends TreeScanner<@Nullable Void, @Nullable Void> {
+    private final Set<Symbol> visitedMethods = new HashSet<>();
+    private final VisitorState state;
+    private boolean isBlocking;
+    private boolean mayPin;
+
+    TaskScanner(VisitorState state) {
+      this.state = state;
+    }
+
+    /**
+     * Scans the given task, returning {@code false} if its implementation is not available for
+     * analysis.
+     */
+    boolean scanTask(ExpressionTree task) {
+      if (task instanceof LambdaExpressionTree) {
+        scan(((LambdaExpressionTree) task).getBody(), null);
+        return true;
+      }
+
+      if (task instanceof NewClassTree && ((NewClassTree) task).getClassBody() != null) {
+        scan(((NewClassTree) task).getClassBody(), null);
+        return true;
+      }
+
+      if (task instanceof MemberReferenceTree) {
+        MethodTree method = findMethod(ASTHelpers.getSymbol(task));
+        if (method != null) {
+          visitedMethods.add(ASTHelpers.getSymbol(method));
+          scanMethod(method);
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    @Override
+    public @Nullable Void visitSynchronized(SynchronizedTree node, @Nullable Void unused) {
+      mayPin = true;
+      return super.visitSynchronized(node, unused);
+    }
+
+    @Override
+    public @Nullable Void visitMethodInvocation(MethodInvocationTree node, @Nullable Void unused) {
+      visitInvocation(node);
+      return super.visitMethodInvocation(node, unused);
+    }
+
+    @Override
+    public @Nullable Void visitMemberReference(MemberReferenceTree node, @Nullable Void unused) {
+      visitInvocation(node);
+      return super.visitMemberReference(node, unused);
+    }
+
+    private void visitInvocation(ExpressionTree node) {
+      if (blockingMethod.matches(node, state)) {
+        isBlocking = true;
+      }
+
+      MethodTree method = findMethod(ASTHelpers.getSymbol(node));
+      if (method != null && visitedMethods.add(ASTHelpers.getSymbol(method))) {
+        scanMethod(method);
+      }
+    }
+
+    private void scanMethod(MethodTree method) {
+      if (method.getModifiers().getFlags().contains(Modifier.SYNCHRONIZED)) {
+        mayPin = true;
+      }
+      scan(method.getBody(), null);
+    }
+
+    private @Nullable MethodTree findMethod(@Nullable Symbol symbol) {
+      return symbol instanceof MethodSymbol
+          ? ASTHelpers.findMethod((MethodSymbol) symbol, state)
+          : null;
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static java.util.stream.Collectors.joining;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.Ascii;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.VariableTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.suppliers.Suppliers;
+import com.google.errorprone.util.ASTHelpers;
+import com.google.errorprone.util.Signatures;
+import com.sun.source.tree.DoWhileLoopTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.tree.WhileLoopTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.code.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.BaseStream;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.ThirdPartyLibrary;
+
+/**
+ * A {@link BugChecker} that flags fields and local variables of a {@link List}, {@link Set} or
+ * {@link Map} type parameterized with boxed primitives, if said variables are accessed inside a
+ * loop or a lambda expression passed to a {@link java.util.stream.Stream} operation.
+ *
+ * <p>Each access of such a collection's elements on a hot code path may incur (un)boxing overhead,
+ * and the boxed elements themselves put pressure on the garbage collector. Primitive arrays,
+ * primitive streams such as {@link java.util.stream.IntStream}, or the primitive-specialized
+ * collections offered by Fastutil and Eclipse Collections avoid this cost. Concrete types from the
+ * latter libraries are suggested only if they are available on the classpath; otherwise boxed
+ * {@link Set}s and {@link Map}s for which no JDK alternative exists are still flagged, but without
+ * naming a specific replacement type.
+ *
+ * <p>NB: {@link Boolean} and {@link Byte} are not considered, as all their boxed values are cached,
+ * such that boxing never allocates.
+ */
+// XXX: Consider also flagging method parameters and return types.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Boxed-primitive collections accessed on hot code paths incur (un)boxing overhead; "
+            + "consider a primitive-specialized alternative",
+    link = BUG_PATTERNS_BASE_URL + "BoxedPrimitiveCollection",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class BoxedPrimitiveCollection extends BugChecker implements VariableTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final ImmutableSet<TypeTag> SUPPORTED_PRIMITIVES =
+      ImmutableSet.of(
+          TypeTag.CHAR, TypeTag.DOUBLE, TypeTag.FLOAT, TypeTag.INT, TypeTag.LONG, TypeTag.SHORT);
+  private static final ImmutableSet<TypeTag> STREAMABLE_PRIMITIVES =
+      ImmutableSet.of(TypeTag.DOUBLE, TypeTag.INT, TypeTag.LONG);
+  private static final Supplier<Type> LIST = Suppliers.typeFromClass(List.class);
+  private static final Supplier<Type> SET = Suppliers.typeFromClass(Set.class);
+  private static final Supplier<Type> MAP = Suppliers.typeFromClass(Map.class);
+  private static final String LIBRARY_ALTERNATIVE =
+      "a primitive-specialized collection, such as those offered by Fastutil or Eclipse Collections";
+  private static final Matcher<ExpressionTree> STREAM_OPERATION =
+      instanceMethod().onDescendantOf(BaseStream.class.getName());
+
+  /** Instantiates a new {@link BoxedPrimitiveCollection} instance. */
+  public BoxedPrimitiveCollection() {}
+
+  @Override
+  public Description matchVariable(VariableTree tree, VisitorState state) {
+    VarSymbol symbol = ASTHelpers.getSymbol(tree);
+    if (symbol.getKind() != ElementKind.FIELD && symbol.getKind() != ElementKind.LOCAL_VARIABLE) {
+      return Description.NO_MATCH;
+    }
+
+    ImmutableList<String> alternatives = getAlternatives(symbol.type, state);
+    if (alternatives.isEmpty()
+        || !isAccessedOnHotPath(symbol, state.getPath().getParentPath().getLeaf(), state)) {
+      return Description.NO_MATCH;
+    }
+
+    return buildDescription(tree)
+        .setMessage(
+            String.format(
+                "`%s` is accessed inside a loop or stream operation, incurring (un)boxing "
+                    + "overhead; consider using %s instead",
+                Signatures.prettyType(symbol.type), String.join(" or ", alternatives)))
+        .build();
+  }
+
+  private static ImmutableList<String> getAlternatives(Type type, VisitorState state) {
+    ImmutableList.Builder<String> alternatives = ImmutableList.builder();
+
+    Optional<ImmutableList<Type>> listElementTypes = getUnboxedTypeArguments(type, LIST, state);
+    if (listElementTypes.isPresent()) {
+      Type elementType = listElementTypes.orElseThrow().get(0);
+      alternatives.add(String.format("`%s[]`", elementType));
+      addStreamAlternative(elementType, alternatives);
+      addLibraryAlternatives("list", "List", listElementTypes.orElseThrow(), alternatives, state);
+      return alternatives.build();
+    }
+
+    Optional<ImmutableList<Type>> setElementTypes = getUnboxedTypeArguments(type, SET, state);
+    if (setElementTypes.isPresent()) {
+      addStreamAlternative(setElementTypes.orElseThrow().get(0), alternatives);
+      addLibraryAlternatives("set", "Set", setElementTypes.orElseThrow(), alternatives, state);
+      return withFallback(alternatives.build());
+    }
+
+    Optional<ImmutableList<Type>> mapTypes = getUnboxedTypeArguments(type, MAP, state);
+    if (mapTypes.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    addLibraryAlternatives("map", "Map", mapTypes.orElseThrow(), alternatives, state);
+    return withFallback(alternatives.build());
+  }
+
+  private static ImmutableList<String> withFallback(ImmutableList<String> alternatives) {
+    return alternatives.isEmpty() ? ImmutableList.of(LIBRARY_ALTERNATIVE) : alternatives;
+  }
+
+  /**
+   * Returns the unboxed type arguments of the given type, when viewed as an instance of the
+   * specified collection type, provided that all of them are supported boxed primitives.
+   */
+  private static Optional<ImmutableList<Type>> getUnboxedTypeArguments(
+      Type type, Supplier<Type> collectionType, VisitorState state) {
+    Type collection = collectionType.get(state);
+    Types types = state.getTypes();
+    Type asCollection = collection == null ? null : types.asSuper(type, collection.tsym);
+    if (asCollection == null || asCollection.getTypeArguments().isEmpty()) {
+      return Optional.empty();
+    }
+
+    ImmutableList<Type> unboxed =
+        asCollection.getTypeArguments().stream().map(types::unboxedType).collect(toImmutableList());
+    return unboxed.stream().allMatch(t -> SUPPORTED_PRIMITIVES.contains(t.getTag()))
+        ? Optional.of(unboxed)
+        : Optional.empty();
+  }
+
+  private static void addStreamAlternative(
+      Type elementType, ImmutableList.Builder<String> alternatives) {
+    if (STREAMABLE_PRIMITIVES.contains(elementType.getTag())) {
+      alternatives.add(String.format("`%sStream`", capitalize(elementType)));
+    }
+  }
+
+  private static void addLibraryAlternatives(
+      String collectionPackage,
+      String collectionName,
+      ImmutableList<Type> typeArguments,
+      ImmutableList.Builder<String> alternatives,
+      VisitorState state) {
+    if (ThirdPartyLibrary.FASTUTIL.isIntroductionAllowed(state)) {
+      alternatives.add(
+          String.format(
+              "`it.unimi.dsi.fastutil.%ss.%s%s`",
+              typeArguments.get(0),
+              typeArguments.stream()
+                  .map(BoxedPrimitiveCollection::capitalize)
+                  .collect(joining("2")),
+              collectionName));
+    }
+
+    if (ThirdPartyLibrary.ECLIPSE_COLLECTIONS.isIntroductionAllowed(state)) {
+      alternatives.add(
+          String.format(
+              "`org.eclipse.collections.api.%s.primitive.%s%s`",
+              collectionPackage,
+              typeArguments.stream().map(BoxedPrimitiveCollection::capitalize).collect(joining()),
+              collectionName));
+    }
+  }
+
+  private static String capitalize(Type primitiveType) {
+    String name = primitiveType.toString();
+    return Ascii.toUpperCase(name.substring(0, 1)) + name.substring(1);
+  }
+
+  /**
+   * Tells whether the given variable is referenced inside a loop or a lambda expression or method
+   * reference passed to a stream operation, within the given scope.
+   */
+  private static boolean isAccessedOnHotPath(Symbol symbol, Tree scope, VisitorState state) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, Boolean>() {
+          @Override
+          public Boolean visitIdentifier(IdentifierTree node, Boolean onHotPath) {
+            return onHotPath && symbol.equals(ASTHelpers.getSymbol(node));
+          }
+
+          @Override
+          public Boolean visitMemberSelect(MemberSelectTree node, Boolean onHotPath) {
+            return (onHotPath && symbol.equals(ASTHelpers.getSymbol(node)))
+                || Boolean.TRUE.equals(super.visitMemberSelect(node, onHotPath));
+          }
+
+          @Override
+          public Boolean visitForLoop(ForLoopTree node, Boolean onHotPath) {
+            return super.visitForLoop(node, true);
+          }
+
+          @Override
+          public Boolean visitEnhancedForLoop(EnhancedForLoopTree node, Boolean onHotPath) {
+            return super.visitEnhancedForLoop(node, true);
+          }
+
+          @Override
+          public Boolean visitWhileLoop(WhileLoopTree node, Boolean onHotPath) {
+            return super.visitWhileLoop(node, true);
+          }
+
+          @Override
+          public Boolean visitDoWhileLoop(DoWhileLoopTree node, Boolean onHotPath) {
+            return super.visitDoWhileLoop(node, true);
+          }
+
+          @Override
+          public Boolean visitMethodInvocation(MethodInvocationTree node, Boolean onHotPath) {
+            if (!STREAM_OPERATION.matches(node, state)) {
+              return super.visitMethodInvocation(node, onHotPath);
+            }
+
+            return Boolean.TRUE.equals(scan(node.getMethodSelect(), onHotPath))
+                || Boolean.TRUE.equals(scan(node.getArguments(), true));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(scope, false));
+  }
+}
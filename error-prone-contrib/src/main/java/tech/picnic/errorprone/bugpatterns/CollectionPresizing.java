@@ -0,0 +1,367 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.VariableTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.suppliers.Suppliers;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParameterizedTypeTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+import tech.picnic.errorprone.bugpatterns.util.ThirdPartyLibrary;
+
+/**
+ * A {@link BugChecker} that flags collections and immutable collection builders that are created
+ * without an expected size, and are subsequently populated by a loop with a known number of
+ * iterations.
+ *
+ * <p>Such collections are resized (and, in the case of hash-based collections, rehashed) several
+ * times while being populated. Presizing them avoids this overhead. In line with {@code
+ * ImmutableListRules} and {@code ImmutableMapRules}, the suggested fixes prefer static factory
+ * methods such as {@link com.google.common.collect.ImmutableList#builderWithExpectedSize(int)} and
+ * {@link com.google.common.collect.Maps#newHashMapWithExpectedSize(int)}. Note that the latter
+ * account for the load factor of the resulting hash table, while e.g. {@link
+ * java.util.HashMap#HashMap(int)} does not.
+ */
+// XXX: Consider also recognizing loops that are not immediately preceded by the collection's
+// declaration, and collections populated using `Iterable#forEach` or `Stream#forEach`.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Collections populated by a loop with a known number of iterations should be created "
+            + "with a matching expected size",
+    link = BUG_PATTERNS_BASE_URL + "CollectionPresizing",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class CollectionPresizing extends BugChecker implements VariableTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String EXPECTED_SIZE_SUFFIX = "WithExpectedSize";
+  private static final ImmutableSet<String> POPULATING_METHODS = ImmutableSet.of("add", "put");
+  private static final ImmutableMap<String, String> GUAVA_FACTORIES_BY_COLLECTION_TYPE =
+      ImmutableMap.of(
+          "java.util.HashMap", "com.google.common.collect.Maps.newHashMap",
+          "java.util.HashSet", "com.google.common.collect.Sets.newHashSet",
+          "java.util.LinkedHashMap", "com.google.common.collect.Maps.newLinkedHashMap",
+          "java.util.LinkedHashSet", "com.google.common.collect.Sets.newLinkedHashSet");
+  private static final String ARRAY_LIST = "java.util.ArrayList";
+  private static final Matcher<ExpressionTree> UNSIZED_FACTORY =
+      anyOf(
+          staticMethod()
+              .onClass("com.google.common.collect.Lists")
+              .named("newArrayList")
+              .withNoParameters(),
+          staticMethod()
+              .onClass("com.google.common.collect.Maps")
+              .namedAnyOf("newHashMap", "newLinkedHashMap")
+              .withNoParameters(),
+          staticMethod()
+              .onClass("com.google.common.collect.Sets")
+              .namedAnyOf("newHashSet", "newLinkedHashSet")
+              .withNoParameters(),
+          staticMethod()
+              .onClassAny(
+                  "com.google.common.collect.ImmutableBiMap",
+                  "com.google.common.collect.ImmutableList",
+                  "com.google.common.collect.ImmutableMap",
+                  "com.google.common.collect.ImmutableSet")
+              .named("builder")
+              .withNoParameters());
+  private static final Matcher<ExpressionTree> MAP_COLLECTION_VIEW =
+      instanceMethod()
+          .onDescendantOf("java.util.Map")
+          .namedAnyOf("entrySet", "keySet", "values")
+          .withNoParameters();
+  private static final Matcher<ExpressionTree> COLLECTION_SIZE =
+      instanceMethod().onDescendantOf(Collection.class.getName()).named("size").withNoParameters();
+  private static final Supplier<Type> COLLECTION = Suppliers.typeFromClass(Collection.class);
+
+  /** Instantiates a new {@link CollectionPresizing} instance. */
+  public CollectionPresizing() {}
+
+  @Override
+  public Description matchVariable(VariableTree tree, VisitorState state) {
+    ExpressionTree initializer = tree.getInitializer();
+    VarSymbol symbol = ASTHelpers.getSymbol(tree);
+    if (initializer == null
+        || symbol.getKind() != ElementKind.LOCAL_VARIABLE
+        || !isUnsizedCollectionCreation(initializer, state)) {
+      return Description.NO_MATCH;
+    }
+
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    if (!(parent instanceof BlockTree)) {
+      return Description.NO_MATCH;
+    }
+
+    List<? extends StatementTree> statements = ((BlockTree) parent).getStatements();
+    int index = statements.indexOf(tree);
+    if (index < 0 || index + 1 >= statements.size()) {
+      return Description.NO_MATCH;
+    }
+
+    StatementTree loop = statements.get(index + 1);
+    return getIterationCount(loop, state)
+        .filter(unused -> isPopulatedBy(loop, symbol))
+        .map(size -> describeMatch(initializer, presize(initializer, size, state)))
+        .orElse(Description.NO_MATCH);
+  }
+
+  private static boolean isUnsizedCollectionCreation(ExpressionTree tree, VisitorState state) {
+    if (tree instanceof NewClassTree) {
+      NewClassTree newClass = (NewClassTree) tree;
+      String type = ASTHelpers.getSymbol(newClass).owner.getQualifiedName().toString();
+      return newClass.getArguments().isEmpty()
+          && newClass.getClassBody() == null
+          && (type.equals(ARRAY_LIST) || GUAVA_FACTORIES_BY_COLLECTION_TYPE.containsKey(type));
+    }
+
+    return UNSIZED_FACTORY.matches(tree, state);
+  }
+
+  /**
+   * Returns source code representing the number of iterations performed by the given loop, if it
+   * can be determined up front without side effects.
+   */
+  private static Optional<String> getIterationCount(StatementTree loop, VisitorState state) {
+    if (loop instanceof EnhancedForLoopTree) {
+      return getElementCount(((EnhancedForLoopTree) loop).getExpression(), state);
+    }
+
+    if (loop instanceof ForLoopTree) {
+      return getForLoopIterationCount((ForLoopTree) loop, state);
+    }
+
+    return Optional.empty();
+  }
+
+  private static Optional<String> getElementCount(ExpressionTree tree, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    Type type = ASTHelpers.getType(expression);
+    if (type == null) {
+      return Optional.empty();
+    }
+
+    if (state.getTypes().isArray(type)) {
+      return isPure(expression)
+          ? Optional.of(SourceCode.treeToString(expression, state) + ".length")
+          : Optional.empty();
+    }
+
+    Type collectionType = COLLECTION.get(state);
+    if (collectionType == null || !ASTHelpers.isSubtype(type, collectionType, state)) {
+      return Optional.empty();
+    }
+
+    /* The size of a map's collection view equals the size of the map itself. */
+    ExpressionTree collection =
+        MAP_COLLECTION_VIEW.matches(expression, state)
+            ? ASTHelpers.getReceiver(expression)
+            : expression;
+    return collection != null && isPure(collection)
+        ? Optional.of(SourceCode.treeToString(collection, state) + ".size()")
+        : Optional.empty();
+  }
+
+  /**
+   * Returns the upper bound of a loop of the form {@code for (int i = 0; i < bound; i++)}, if said
+   * bound can be evaluated up front without side effects.
+   *
+   * <p>Both the loop variable and the bound must be of type {@code int}, as the bound is passed
+   * as-is to a collection factory method, and a bound that is a negative constant is rejected, as
+   * such factory methods throw an {@link IllegalArgumentException} for negative sizes.
+   */
+  private static Optional<String> getForLoopIterationCount(ForLoopTree loop, VisitorState state) {
+    if (loop.getInitializer().size() != 1
+        || !(loop.getInitializer().get(0) instanceof VariableTree)
+        || loop.getUpdate().size() != 1
+        || !(loop.getCondition() instanceof BinaryTree)) {
+      return Optional.empty();
+    }
+
+    VariableTree counter = (VariableTree) loop.getInitializer().get(0);
+    ExpressionTree initialValue = counter.getInitializer();
+    Integer start =
+        initialValue == null ? null : ASTHelpers.constValue(initialValue, Integer.class);
+    BinaryTree condition = (BinaryTree) loop.getCondition();
+    VarSymbol counterSymbol = ASTHelpers.getSymbol(counter);
+    if (start == null
+        || start != 0
+        || condition.getKind() != Tree.Kind.LESS_THAN
+        || !counterSymbol.equals(ASTHelpers.getSymbol(condition.getLeftOperand()))
+        || !isIncrementOf(loop.getUpdate().get(0).getExpression(), counterSymbol)) {
+      return Optional.empty();
+    }
+
+    ExpressionTree bound = condition.getRightOperand();
+    Integer constantBound = ASTHelpers.constValue(bound, Integer.class);
+    if (!isInt(counterSymbol.type)
+        || !isInt(ASTHelpers.getType(bound))
+        || (constantBound != null && constantBound < 0)) {
+      return Optional.empty();
+    }
+
+    return isSideEffectFreeBound(bound, state)
+        ? Optional.of(SourceCode.treeToString(bound, state))
+        : Optional.empty();
+  }
+
+  private static boolean isInt(@Nullable Type type) {
+    return type != null && type.getTag() == TypeTag.INT;
+  }
+
+  private static boolean isIncrementOf(ExpressionTree tree, Symbol symbol) {
+    return (tree.getKind() == Tree.Kind.POSTFIX_INCREMENT
+            || tree.getKind() == Tree.Kind.PREFIX_INCREMENT)
+        && symbol.equals(ASTHelpers.getSymbol(((UnaryTree) tree).getExpression()));
+  }
+
+  private static boolean isSideEffectFreeBound(ExpressionTree tree, VisitorState state) {
+    if (ASTHelpers.constValue(tree) != null || isPure(tree)) {
+      return true;
+    }
+
+    return COLLECTION_SIZE.matches(tree, state) && isPure(ASTHelpers.getReceiver(tree));
+  }
+
+  /**
+   * Tells whether the given expression is a (possibly qualified) reference to a variable, such that
+   * evaluating it an additional time has no side effects.
+   */
+  private static boolean isPure(@Nullable ExpressionTree tree) {
+    if (tree == null) {
+      return false;
+    }
+
+    Symbol symbol = ASTHelpers.getSymbol(tree);
+    if (tree instanceof IdentifierTree) {
+      return symbol instanceof VarSymbol || symbol instanceof ClassSymbol;
+    }
+
+    return tree instanceof MemberSelectTree
+        && symbol instanceof VarSymbol
+        && isPure(((MemberSelectTree) tree).getExpression());
+  }
+
+  /**
+   * Tells whether the given loop unconditionally adds an element to the collection referenced by
+   * the given symbol during each iteration.
+   */
+  private static boolean isPopulatedBy(StatementTree loop, Symbol collection) {
+    StatementTree body =
+        loop instanceof EnhancedForLoopTree
+            ? ((EnhancedForLoopTree) loop).getStatement()
+            : ((ForLoopTree) loop).getStatement();
+    List<? extends StatementTree> statements =
+        body instanceof BlockTree ? ((BlockTree) body).getStatements() : List.of(body);
+
+    return statements.stream()
+        .filter(ExpressionStatementTree.class::isInstance)
+        .map(statement -> ((ExpressionStatementTree) statement).getExpression())
+        .filter(MethodInvocationTree.class::isInstance)
+        .map(MethodInvocationTree.class::cast)
+        .anyMatch(invocation -> isPopulatingInvocation(invocation, collection));
+  }
+
+  private static boolean isPopulatingInvocation(MethodInvocationTree tree, Symbol collection) {
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    return receiver != null
+        && POPULATING_METHODS.contains(ASTHelpers.getSymbol(tree).getSimpleName().toString())
+        && collection.equals(ASTHelpers.getSymbol(receiver));
+  }
+
+  private static SuggestedFix presize(ExpressionTree tree, String size, VisitorState state) {
+    if (tree instanceof NewClassTree) {
+      NewClassTree newClass = (NewClassTree) tree;
+      String type = ASTHelpers.getSymbol(newClass).owner.getQualifiedName().toString();
+      String factory = GUAVA_FACTORIES_BY_COLLECTION_TYPE.get(type);
+      if (factory == null || !ThirdPartyLibrary.GUAVA.isIntroductionAllowed(state)) {
+        /* `ArrayList#ArrayList(int)` accepts the expected size; hash-based collections do not. */
+        return type.equals(ARRAY_LIST)
+            ? insertArgument(tree, size, state)
+            : SuggestedFix.emptyFix();
+      }
+
+      SuggestedFix.Builder fix = SuggestedFix.builder();
+      int separator = factory.lastIndexOf('.');
+      String factoryType = SuggestedFixes.qualifyType(state, fix, factory.substring(0, separator));
+      return fix.replace(
+              tree,
+              String.format(
+                  "%s.%s%s%s(%s)",
+                  factoryType,
+                  getExplicitTypeArguments(newClass, state),
+                  factory.substring(separator + 1),
+                  EXPECTED_SIZE_SUFFIX,
+                  size))
+          .build();
+    }
+
+    MethodInvocationTree invocation = (MethodInvocationTree) tree;
+    return SuggestedFix.builder()
+        .merge(
+            SuggestedFixes.renameMethodInvocation(
+                invocation,
+                ASTHelpers.getSymbol(invocation).getSimpleName() + EXPECTED_SIZE_SUFFIX,
+                state))
+        .merge(insertArgument(tree, size, state))
+        .build();
+  }
+
+  private static String getExplicitTypeArguments(NewClassTree tree, VisitorState state) {
+    Tree identifier = tree.getIdentifier();
+    if (!(identifier instanceof ParameterizedTypeTree)
+        || ((ParameterizedTypeTree) identifier).getTypeArguments().isEmpty()) {
+      return "";
+    }
+
+    String source = SourceCode.treeToString(identifier, state);
+    return source.substring(source.indexOf('<'));
+  }
+
+  private static SuggestedFix insertArgument(Tree tree, String argument, VisitorState state) {
+    /* The given tree is a no-argument invocation; insert the argument before its closing paren. */
+    int closingParen = state.getEndPosition(tree) - 1;
+    return SuggestedFix.replace(closingParen, closingParen, argument);
+  }
+}
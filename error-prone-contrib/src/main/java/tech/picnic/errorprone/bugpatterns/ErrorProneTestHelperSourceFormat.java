@@ -8,10 +8,13 @@ import static com.google.errorprone.matchers.Matchers.instanceMethod;
 import static java.util.stream.Collectors.joining;
 import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.auto.service.AutoService;
 import com.google.common.base.Splitter;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
 import com.google.errorprone.fixes.SuggestedFix;
@@ -43,6 +46,9 @@ import java.util.Optional;
  * refactoring operation is allowed to have unused imports, as most {@link BugChecker}s do not (and
  * are not able to) remove imports that become obsolete as a result of applying their suggested
  * fix(es).
+ *
+ * <p>Formatting is relatively expensive, while test code is often repeated verbatim across test
+ * methods. As such, the outcome of formatting a given piece of source code is cached.
  */
 // XXX: Once we target JDK 17 (optionally?) suggest text block fixes.
 // XXX: GJF guesses the line separator to be used by inspecting the source. When using text blocks
@@ -59,6 +65,22 @@ public final class ErrorProneTestHelperSourceFormat extends BugChecker
     implements MethodInvocationTreeMatcher {
   private static final long serialVersionUID = 1L;
   private static final Formatter FORMATTER = new Formatter();
+  /**
+   * The maximum number of formatted sources to retain per cache. Each entry is a small test source
+   * file, so this bounds the memory footprint of the caches to a few megabytes.
+   */
+  private static final long MAX_CACHED_SOURCES = 1024;
+  /** Formatted input source code, keyed by the associated unformatted source code. */
+  private static final Cache<String, String> FORMATTED_INPUT_SOURCES =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_SOURCES).build();
+  /**
+   * Formatted output source code, keyed by the associated unformatted source code. These are
+   * tracked separately from {@link #FORMATTED_INPUT_SOURCES}, as output source code may contain
+   * unused imports.
+   */
+  private static final Cache<String, String> FORMATTED_OUTPUT_SOURCES =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_SOURCES).build();
+
   private static final Matcher<ExpressionTree> INPUT_SOURCE_ACCEPTING_METHOD =
       anyOf(
           instanceMethod()
@@ -141,6 +163,23 @@ public final class ErrorProneTestHelperSourceFormat extends BugChecker
 
   private static String formatSourceCode(String source, boolean retainUnusedImports)
       throws FormatterException {
+    Cache<String, String> cache =
+        retainUnusedImports ? FORMATTED_OUTPUT_SOURCES : FORMATTED_INPUT_SOURCES;
+    @Var String formatted = cache.getIfPresent(source);
+    if (formatted == null) {
+      formatted = doFormatSourceCode(source, retainUnusedImports);
+      cache.put(source, formatted);
+    }
+    return formatted;
+  }
+
+  private static String doFormatSourceCode(String source, boolean retainUnusedImports)
+      throws FormatterException {
+    if (!source.contains("import")) {
+      /* There are no imports to be reordered or removed; skip the associated (re)parsing. */
+      return FORMATTER.formatSource(source);
+    }
+
     String withReorderedImports = ImportOrderer.reorderImports(source, Style.GOOGLE);
     String withOptionallyRemovedImports =
         retainUnusedImports
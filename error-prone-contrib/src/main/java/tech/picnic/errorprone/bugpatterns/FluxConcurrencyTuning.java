@@ -0,0 +1,202 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.util.TreeScanner;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link BugChecker} that flags {@link reactor.core.publisher.Flux} operators whose concurrency
+ * settings are likely a poor fit for the work they perform.
+ *
+ * <p>Two cases are distinguished:
+ *
+ * <ul>
+ *   <li>{@code Flux#concatMap} subscribes to inner publishers one at a time. When said publishers
+ *       perform I/O, such as requests issued using {@code WebClient}, R2DBC or reactive MongoDB
+ *       operations, this needlessly serializes work that could proceed concurrently. {@code
+ *       Flux#flatMapSequential(Function, int, int)} preserves the ordering of emitted values while
+ *       allowing the desired number of concurrent subscriptions and the prefetch size to be
+ *       specified explicitly.
+ *   <li>{@code Flux#flatMap} and {@code Flux#flatMapSequential} invocations that specify a
+ *       concurrency of {@link Integer#MAX_VALUE} on a {@link reactor.core.publisher.Flux} derived
+ *       from an in-memory collection eagerly subscribe to an inner publisher for each element of
+ *       said collection. For large collections this may exhaust resources such as connection pools
+ *       and memory.
+ * </ul>
+ *
+ * <p>As with {@link FluxFlatMapUsage}, the suggested fixes reference {@code MAX_CONCURRENCY} and
+ * {@code PREFETCH} constants that are expected to be defined by the user.
+ */
+// XXX: Consider also recognizing I/O performed by methods invoked from the lambda expression, and
+// making the set of I/O-bound types configurable.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "The concurrency settings of this `Flux` operator are likely suboptimal",
+    link = BUG_PATTERNS_BASE_URL + "FluxConcurrencyTuning",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class FluxConcurrencyTuning extends BugChecker implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String MAX_CONCURRENCY_ARG_NAME = "MAX_CONCURRENCY";
+  private static final String PREFETCH_ARG_NAME = "PREFETCH";
+  private static final Matcher<ExpressionTree> FLUX_CONCAT_MAP =
+      instanceMethod().onDescendantOf("reactor.core.publisher.Flux").named("concatMap");
+  private static final Matcher<ExpressionTree> FLUX_FLATMAP_WITH_CONCURRENCY =
+      instanceMethod()
+          .onDescendantOf("reactor.core.publisher.Flux")
+          .namedAnyOf("flatMap", "flatMapDelayError", "flatMapSequential");
+  private static final Matcher<ExpressionTree> FLUX_FROM_COLLECTION =
+      staticMethod()
+          .onClass("reactor.core.publisher.Flux")
+          .namedAnyOf("fromArray", "fromIterable", "fromStream");
+  private static final Matcher<ExpressionTree> IO_BOUND_OPERATION =
+      instanceMethod()
+          .onDescendantOfAny(
+              "com.mongodb.reactivestreams.client.MongoCollection",
+              "io.r2dbc.spi.Connection",
+              "io.r2dbc.spi.Statement",
+              "org.springframework.data.mongodb.core.ReactiveMongoOperations",
+              "org.springframework.data.r2dbc.core.R2dbcEntityOperations",
+              "org.springframework.data.repository.reactive.ReactiveCrudRepository",
+              "org.springframework.r2dbc.core.DatabaseClient",
+              "org.springframework.web.reactive.function.client.WebClient");
+
+  /** Instantiates a new {@link FluxConcurrencyTuning} instance. */
+  public FluxConcurrencyTuning() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (FLUX_CONCAT_MAP.matches(tree, state)) {
+      return matchConcatMap(tree, state);
+    }
+
+    if (FLUX_FLATMAP_WITH_CONCURRENCY.matches(tree, state)) {
+      return matchFlatMap(tree, state);
+    }
+
+    return Description.NO_MATCH;
+  }
+
+  private Description matchConcatMap(MethodInvocationTree tree, VisitorState state) {
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    if (arguments.isEmpty() || !performsIo(arguments.get(0), state)) {
+      return Description.NO_MATCH;
+    }
+
+    SuggestedFix.Builder fix =
+        SuggestedFix.builder()
+            .merge(SuggestedFixes.renameMethodInvocation(tree, "flatMapSequential", state));
+    if (arguments.size() == 1) {
+      fix.postfixWith(arguments.get(0), ", " + MAX_CONCURRENCY_ARG_NAME + ", " + PREFETCH_ARG_NAME);
+    } else {
+      fix.postfixWith(arguments.get(0), ", " + MAX_CONCURRENCY_ARG_NAME);
+      Integer prefetch = ASTHelpers.constValue(arguments.get(1), Integer.class);
+      if (prefetch != null && prefetch < 1) {
+        /* Unlike `Flux#concatMap`, `Flux#flatMapSequential` requires a positive prefetch size. */
+        fix.replace(arguments.get(1), PREFETCH_ARG_NAME);
+      }
+    }
+
+    return buildDescription(tree)
+        .setMessage(
+            "`Flux#concatMap` subscribes to I/O-bound inner publishers one at a time; consider "
+                + "using `Flux#flatMapSequential(Function, int, int)` with an explicit "
+                + "concurrency and prefetch size instead")
+        .addFix(fix.build())
+        .build();
+  }
+
+  private Description matchFlatMap(MethodInvocationTree tree, VisitorState state) {
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    if (arguments.size() < 2
+        || !isUnbounded(arguments.get(1))
+        || !isDerivedFromCollection(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    return buildDescription(tree)
+        .setMessage(
+            "Unbounded concurrency over a `Flux` derived from a collection subscribes to an inner "
+                + "publisher for each element at once; consider specifying a bounded "
+                + "concurrency instead")
+        .addFix(SuggestedFix.replace(arguments.get(1), MAX_CONCURRENCY_ARG_NAME))
+        .build();
+  }
+
+  private static boolean isUnbounded(ExpressionTree concurrency) {
+    Integer value = ASTHelpers.constValue(concurrency, Integer.class);
+    return value != null && value == Integer.MAX_VALUE;
+  }
+
+  /**
+   * Tells whether the {@link reactor.core.publisher.Flux} on which the given operator is invoked is
+   * (transitively) derived from an array, {@link Iterable} or {@link java.util.stream.Stream}.
+   */
+  private static boolean isDerivedFromCollection(MethodInvocationTree tree, VisitorState state) {
+    for (ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+        receiver instanceof MethodInvocationTree;
+        receiver = ASTHelpers.getReceiver(receiver)) {
+      if (FLUX_FROM_COLLECTION.matches(receiver, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given mapping function (directly) invokes or references a method that is
+   * known to perform I/O.
+   */
+  private static boolean performsIo(ExpressionTree function, VisitorState state) {
+    if (function instanceof MemberReferenceTree) {
+      return IO_BOUND_OPERATION.matches(function, state);
+    }
+
+    if (!(function instanceof LambdaExpressionTree)) {
+      return false;
+    }
+
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitMethodInvocation(MethodInvocationTree node, @Nullable Void unused) {
+            return IO_BOUND_OPERATION.matches(node, state)
+                || Boolean.TRUE.equals(super.visitMethodInvocation(node, unused));
+          }
+
+          @Override
+          public Boolean visitMemberReference(MemberReferenceTree node, @Nullable Void unused) {
+            return IO_BOUND_OPERATION.matches(node, state)
+                || Boolean.TRUE.equals(super.visitMemberReference(node, unused));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(((LambdaExpressionTree) function).getBody(), null));
+  }
+}
@@ -0,0 +1,227 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.suppliers.Suppliers;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link reactor.core.publisher.Flux} operators that buffer all
+ * elements emitted by a source that may never complete.
+ *
+ * <p>Operators such as {@code collectList()}, {@code collectMap(...)}, {@code buffer()}, {@code
+ * sort()}, and {@code collect(...)} and {@code reduce(...)} into a collection, retain all emitted
+ * elements until the upstream completes. Applied to an unbounded source, such as {@code
+ * Flux.interval(...)}, a WebClient {@code bodyToFlux(...)} response or a Kafka receiver, this
+ * eventually exhausts the available memory.
+ *
+ * <p>This check follows the operator chain upstream, including through effectively final local
+ * variables, to determine whether the buffered elements originate from such a source, without an
+ * intermediate operator such as {@code take(...)} that limits the number of elements. Consider
+ * {@code buffer(n)}, {@code window(n)} or processing elements as they are emitted instead.
+ */
+// XXX: Also track provenance through fields, method return values and operators that combine
+// multiple sources, such as `Flux#merge` and `Flux#concatWith`.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid buffering all elements emitted by an unbounded `Flux`",
+    link = BUG_PATTERNS_BASE_URL + "FluxUnboundedBuffering",
+    linkType = CUSTOM,
+    severity = WARNING,
+    tags = PERFORMANCE)
+public final class FluxUnboundedBuffering extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String MAX_BUFFER_SIZE_ARG_NAME = "MAX_BUFFER_SIZE";
+  private static final Supplier<Type> FLUX =
+      Suppliers.typeFromString("reactor.core.publisher.Flux");
+  private static final Supplier<Type> COLLECTION = Suppliers.typeFromClass(Collection.class);
+  private static final Supplier<Type> MAP = Suppliers.typeFromClass(Map.class);
+  private static final Matcher<ExpressionTree> BUFFERING_OPERATOR =
+      anyOf(
+          instanceMethod()
+              .onDescendantOf(FLUX)
+              .namedAnyOf(
+                  "collectList", "collectMap", "collectMultimap", "collectSortedList", "sort"),
+          instanceMethod().onDescendantOf(FLUX).named("buffer").withNoParameters());
+  private static final Matcher<ExpressionTree> ACCUMULATING_OPERATOR =
+      instanceMethod().onDescendantOf(FLUX).namedAnyOf("reduce", "reduceWith");
+  private static final Matcher<ExpressionTree> COLLECTING_OPERATOR =
+      instanceMethod().onDescendantOf(FLUX).named("collect");
+  private static final Matcher<ExpressionTree> UNBOUNDED_SOURCE =
+      anyOf(
+          staticMethod().onClass(FLUX).named("interval"),
+          instanceMethod().onDescendantOf(FLUX).named("repeat").withNoParameters(),
+          instanceMethod()
+              .onDescendantOfAny(
+                  "org.springframework.web.reactive.function.client.WebClient.ResponseSpec",
+                  "org.springframework.web.reactive.function.client.ClientResponse")
+              .named("bodyToFlux"),
+          instanceMethod()
+              .onDescendantOf("reactor.kafka.receiver.KafkaReceiver")
+              .namedAnyOf("receive", "receiveAtmostOnce", "receiveAutoAck", "receiveExactlyOnce"));
+  private static final Matcher<ExpressionTree> LIMITING_OPERATOR =
+      instanceMethod()
+          .onDescendantOf(FLUX)
+          .namedAnyOf(
+              "elementAt",
+              "limitRequest",
+              "next",
+              "take",
+              "takeLast",
+              "takeUntil",
+              "takeUntilOther",
+              "takeWhile");
+
+  /** Instantiates a new {@link FluxUnboundedBuffering} instance. */
+  public FluxUnboundedBuffering() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    boolean isBuffering = BUFFERING_OPERATOR.matches(tree, state);
+    if (!isBuffering && !isAccumulatingIntoCollection(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    if (receiver == null) {
+      return Description.NO_MATCH;
+    }
+
+    Optional<ExpressionTree> source = findUnboundedSource(receiver, state);
+    if (source.isEmpty()) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description =
+        buildDescription(tree)
+            .setMessage(
+                String.format(
+                    "`%s` buffers all elements emitted by the unbounded source `%s`; consider "
+                        + "`buffer(n)`, `window(n)` or processing elements as they are emitted",
+                    ASTHelpers.getSymbol(tree).getSimpleName(),
+                    SourceCode.treeToString(source.orElseThrow(), state)));
+    if (ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("buffer")) {
+      /* Insert an explicit maximum buffer size before the closing parenthesis. */
+      int position = state.getEndPosition(tree) - 1;
+      description.addFix(SuggestedFix.replace(position, position, MAX_BUFFER_SIZE_ARG_NAME));
+    }
+
+    return description.build();
+  }
+
+  /**
+   * Tells whether the given expression collects or reduces a {@link reactor.core.publisher.Flux}
+   * into a (presumably growing) collection or map.
+   */
+  private static boolean isAccumulatingIntoCollection(
+      MethodInvocationTree tree, VisitorState state) {
+    if (!COLLECTING_OPERATOR.matches(tree, state)
+        && !(ACCUMULATING_OPERATOR.matches(tree, state) && tree.getArguments().size() == 2)) {
+      return false;
+    }
+
+    Type type = ASTHelpers.getType(tree);
+    if (type == null || type.getTypeArguments().size() != 1) {
+      return false;
+    }
+
+    Type resultType = type.getTypeArguments().get(0);
+    return ASTHelpers.isSubtype(resultType, COLLECTION.get(state), state)
+        || ASTHelpers.isSubtype(resultType, MAP.get(state), state);
+  }
+
+  /**
+   * Returns the unbounded source from which the given expression emits elements, without an
+   * intermediate operator that limits the number of emitted elements, if any.
+   */
+  private static Optional<ExpressionTree> findUnboundedSource(
+      ExpressionTree tree, VisitorState state) {
+    @Var
+    @Nullable
+    ExpressionTree current = ASTHelpers.stripParentheses(tree);
+    while (current != null) {
+      if (UNBOUNDED_SOURCE.matches(current, state)) {
+        return Optional.of(current);
+      }
+
+      if (LIMITING_OPERATOR.matches(current, state)) {
+        return Optional.empty();
+      }
+
+      if (current instanceof IdentifierTree) {
+        current = findEffectivelyFinalInitializer((IdentifierTree) current, state);
+      } else if (current instanceof MethodInvocationTree
+          && ASTHelpers.isSubtype(ASTHelpers.getType(current), FLUX.get(state), state)) {
+        ExpressionTree receiver = ASTHelpers.getReceiver(current);
+        current = receiver == null ? null : ASTHelpers.stripParentheses(receiver);
+      } else {
+        current = null;
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the initializer of the effectively final local variable referenced by the given
+   * identifier, if any.
+   */
+  private static @Nullable ExpressionTree findEffectivelyFinalInitializer(
+      IdentifierTree tree, VisitorState state) {
+    Symbol symbol = ASTHelpers.getSymbol(tree);
+    MethodTree method = state.findEnclosing(MethodTree.class);
+    if (symbol == null
+        || symbol.getKind() != ElementKind.LOCAL_VARIABLE
+        || (symbol.flags() & (Flags.FINAL | Flags.EFFECTIVELY_FINAL)) == 0
+        || method == null) {
+      return null;
+    }
+
+    return new TreeScanner<@Nullable ExpressionTree, @Nullable Void>() {
+      @Override
+      public @Nullable ExpressionTree visitVariable(VariableTree node, @Nullable Void unused) {
+        return symbol.equals(ASTHelpers.getSymbol(node))
+            ? node.getInitializer()
+            : super.visitVariable(node, unused);
+      }
+
+      @Override
+      public @Nullable ExpressionTree reduce(
+          @Nullable ExpressionTree r1, @Nullable ExpressionTree r2) {
+        return r2 != null ? r2 : r1;
+      }
+    }.scan(method, null);
+  }
+}
@@ -6,6 +6,7 @@ import static com.google.errorprone.BugPattern.StandardTags.SIMPLIFICATION;
 import static com.google.errorprone.matchers.Matchers.allOf;
 import static com.google.errorprone.matchers.Matchers.anyMethod;
 import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.Matchers.anything;
 import static com.google.errorprone.matchers.Matchers.instanceMethod;
 import static com.google.errorprone.matchers.Matchers.not;
 import static com.google.errorprone.matchers.Matchers.staticMethod;
@@ -15,6 +16,8 @@ import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS
 import com.google.auto.service.AutoService;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.FormatMethod;
+import com.google.errorprone.annotations.FormatString;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
 import com.google.errorprone.fixes.SuggestedFix;
@@ -29,6 +32,8 @@ import com.sun.source.tree.ParenthesizedTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.Tree.Kind;
 import com.sun.source.util.SimpleTreeVisitor;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -39,10 +44,12 @@ import tech.picnic.errorprone.bugpatterns.util.SourceCode;
  * A {@link BugChecker} that flags string concatenations that produce a format string; in such cases
  * the string concatenation should instead be deferred to the invoked method.
  *
+ * <p>Besides a number of well-known AssertJ, Guava, JDK and SLF4J methods, this check supports
+ * arbitrary methods annotated with {@link FormatMethod}.
+ *
  * @implNote This checker is based on the implementation of {@link
  *     com.google.errorprone.bugpatterns.flogger.FloggerStringConcatenation}.
  */
-// XXX: Support arbitrary `@FormatMethod`-annotated methods.
 // XXX: For (explicit or delegated) invocations of `java.util.Formatter` _strictly speaking_ we
 // should introduce special handling of `Formattable` arguments, as this check would replace a
 // `Formattable#toString` invocation with a `Formattable#formatTo` invocation. But likely that
@@ -125,30 +132,79 @@ public final class FormatStringConcatenation extends BugChecker
           staticMethod().onClass("java.lang.String").named("format"),
           instanceMethod().onExactClass("java.util.Formatter").named("format"));
   private static final Matcher<ExpressionTree> SLF4J_FORMAT_METHOD =
-      instanceMethod()
-          .onDescendantOf("org.slf4j.Logger")
-          .namedAnyOf("debug", "error", "info", "trace", "warn");
+      anyOf(
+          instanceMethod()
+              .onDescendantOf("org.slf4j.Logger")
+              .namedAnyOf("debug", "error", "info", "trace", "warn"),
+          instanceMethod().onDescendantOf("org.slf4j.spi.LoggingEventBuilder").named("log"));
 
   /** Instantiates a new {@link FormatStringConcatenation} instance. */
   public FormatStringConcatenation() {}
 
   @Override
   public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    return flagKnownFormatMethodViolation(tree, state)
+        .or(() -> flagAnnotatedFormatMethodViolation(tree, state))
+        .orElse(Description.NO_MATCH);
+  }
+
+  private Optional<Description> flagKnownFormatMethodViolation(
+      MethodInvocationTree tree, VisitorState state) {
     if (hasNonConstantStringConcatenationArgument(tree, 0, state)) {
       return flagViolation(tree, ASSERTJ_FORMAT_METHOD, 0, "%s", state)
           .or(() -> flagViolation(tree, JDK_FORMAT_METHOD, 0, "%s", state))
-          .or(() -> flagViolation(tree, SLF4J_FORMAT_METHOD, 0, "{}", state))
-          .orElse(Description.NO_MATCH);
+          .or(() -> flagViolation(tree, SLF4J_FORMAT_METHOD, 0, "{}", state));
     }
 
     if (hasNonConstantStringConcatenationArgument(tree, 1, state)) {
       return flagViolation(tree, GUAVA_FORMAT_METHOD, 1, "%s", state)
           .or(() -> flagViolation(tree, JDK_FORMAT_METHOD, 1, "%s", state))
-          .or(() -> flagViolation(tree, SLF4J_FORMAT_METHOD, 1, "{}", state))
-          .orElse(Description.NO_MATCH);
+          .or(() -> flagViolation(tree, SLF4J_FORMAT_METHOD, 1, "{}", state));
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Flags the given method invocation if it invokes a {@link FormatMethod}-annotated method and
+   * passes a non-compile time constant string concatenation as a format string.
+   *
+   * <p>In line with Error Prone's interpretation of this annotation, the format string is the
+   * parameter annotated with {@link FormatString} or, absent such a parameter, the first {@link
+   * String} parameter. Only methods whose format string parameter is followed by a varargs
+   * parameter are supported, as only those can accept the arguments extracted from the string
+   * concatenation.
+   */
+  private Optional<Description> flagAnnotatedFormatMethodViolation(
+      MethodInvocationTree tree, VisitorState state) {
+    MethodSymbol method = ASTHelpers.getSymbol(tree);
+    if (!method.isVarArgs()
+        || !ASTHelpers.hasAnnotation(method, FormatMethod.class.getName(), state)) {
+      return Optional.empty();
+    }
+
+    int formatStringParam = getFormatStringParameterIndex(method, state);
+    return formatStringParam == method.getParameters().size() - 2
+            && hasNonConstantStringConcatenationArgument(tree, formatStringParam, state)
+        ? flagViolation(tree, anything(), formatStringParam, "%s", state)
+        : Optional.empty();
+  }
+
+  private static int getFormatStringParameterIndex(MethodSymbol method, VisitorState state) {
+    List<VarSymbol> params = method.getParameters();
+    for (int i = 0; i < params.size(); i++) {
+      if (ASTHelpers.hasAnnotation(params.get(i), FormatString.class.getName(), state)) {
+        return i;
+      }
+    }
+
+    for (int i = 0; i < params.size(); i++) {
+      if (ASTHelpers.isSameType(params.get(i).type, state.getSymtab().stringType, state)) {
+        return i;
+      }
     }
 
-    return Description.NO_MATCH;
+    return -1;
   }
 
   /**
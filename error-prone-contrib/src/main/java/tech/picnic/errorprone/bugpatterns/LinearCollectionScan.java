@@ -0,0 +1,484 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.Matchers.isSubtypeOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MemberReferenceTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Symbol.TypeSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags linear-time lookups in {@link List}s and other non-{@link Set}
+ * collections that are performed repeatedly, resulting in quadratic running time.
+ *
+ * <p>The following operations are flagged:
+ *
+ * <ul>
+ *   <li>{@link Collection#contains(Object)}, {@link List#indexOf(Object)}, {@link
+ *       List#lastIndexOf(Object)} and {@link Collection#remove(Object)} invocations on a
+ *       loop-invariant collection, inside a loop or inside a lambda expression or method reference
+ *       passed to a {@link java.util.stream.Stream} operation or similar iterating method.
+ *   <li>{@link Collection#removeAll(Collection)} and {@link Collection#retainAll(Collection)}
+ *       invocations with a {@link List} argument, as these perform a lookup in said argument for
+ *       each element of the receiver.
+ * </ul>
+ *
+ * <p>The reported message indicates whether the scanned collection is known to have a small, fixed
+ * size, as is the case for e.g. {@code List.of("a", "b")}. Such findings are unlikely to cause
+ * performance issues, while lookups in collections of unbounded size should be addressed first.
+ *
+ * <p>For {@link Collection#contains(Object)} lookups on a local variable a fix is suggested that
+ * copies the collection into a {@link HashSet} before the loop. This fix assumes that the
+ * collection is not modified through another reference while the loop executes.
+ */
+// XXX: Also consider lambda expressions passed to `reactor.core.publisher.Flux` operators.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Avoid repeated linear-time lookups in a collection; consider converting it into a `Set` "
+            + "once instead",
+    link = BUG_PATTERNS_BASE_URL + "LinearCollectionScan",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class LinearCollectionScan extends BugChecker
+    implements MemberReferenceTreeMatcher, MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final Matcher<ExpressionTree> CONTAINS =
+      anyOf(
+          instanceMethod().onDescendantOf(List.class.getName()).named("contains"),
+          instanceMethod().onExactClass(Collection.class.getName()).named("contains"));
+  private static final Matcher<ExpressionTree> LINEAR_SCAN =
+      anyOf(
+          CONTAINS,
+          instanceMethod()
+              .onDescendantOf(List.class.getName())
+              .namedAnyOf("indexOf", "lastIndexOf"),
+          instanceMethod()
+              .onDescendantOf(List.class.getName())
+              .named("remove")
+              .withParameters(Object.class.getName()),
+          instanceMethod()
+              .onExactClass(Collection.class.getName())
+              .named("remove")
+              .withParameters(Object.class.getName()));
+  private static final Matcher<ExpressionTree> BULK_REMOVAL =
+      instanceMethod()
+          .onDescendantOf(Collection.class.getName())
+          .namedAnyOf("removeAll", "retainAll");
+  private static final Matcher<ExpressionTree> LIST = isSubtypeOf(List.class);
+  private static final Matcher<ExpressionTree> ITERATING_OPERATION =
+      anyOf(
+          instanceMethod().onDescendantOf("java.util.stream.BaseStream"),
+          instanceMethod().onDescendantOf(Iterable.class.getName()).named("forEach"),
+          instanceMethod().onDescendantOf(Map.class.getName()).named("forEach"),
+          instanceMethod().onDescendantOf(Collection.class.getName()).named("removeIf"));
+  private static final Matcher<ExpressionTree> FIXED_SIZE_LIST_FACTORY =
+      anyOf(
+          staticMethod().onClass(List.class.getName()).named("of"),
+          staticMethod().onClass("com.google.common.collect.ImmutableList").named("of"),
+          staticMethod().onClass(Arrays.class.getName()).named("asList"),
+          staticMethod()
+              .onClass(Collections.class.getName())
+              .namedAnyOf("emptyList", "singletonList"));
+
+  /** Instantiates a new {@link LinearCollectionScan} instance. */
+  public LinearCollectionScan() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (BULK_REMOVAL.matches(tree, state)) {
+      return matchBulkRemoval(tree, state);
+    }
+
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    if (receiver == null || !LINEAR_SCAN.matches(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    TreePath context = findRepeatedContext(state.getPath(), state);
+    if (context == null || !isInvariant(receiver, context.getLeaf())) {
+      return Description.NO_MATCH;
+    }
+
+    return describeLinearScan(tree, ASTHelpers.getSymbol(tree), receiver, state);
+  }
+
+  @Override
+  public Description matchMemberReference(MemberReferenceTree tree, VisitorState state) {
+    ExpressionTree qualifier = tree.getQualifierExpression();
+    if (!LINEAR_SCAN.matches(tree, state)
+        || ASTHelpers.getSymbol(qualifier) instanceof TypeSymbol
+        || findRepeatedContext(state.getPath(), state) == null) {
+      return Description.NO_MATCH;
+    }
+
+    return describeLinearScan(tree, ASTHelpers.getSymbol(tree), qualifier, state);
+  }
+
+  private Description matchBulkRemoval(MethodInvocationTree tree, VisitorState state) {
+    ExpressionTree argument = tree.getArguments().get(0);
+    if (!LIST.matches(argument, state)) {
+      return Description.NO_MATCH;
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String hashSet = SuggestedFixes.qualifyType(state, fix, HashSet.class.getName());
+    return buildDescription(tree)
+        .setMessage(
+            String.format(
+                "`%s` looks up each element of the receiver in the given `List`%s; consider "
+                    + "passing a `Set` instead",
+                ASTHelpers.getSymbol(tree).getSimpleName(), describeSize(argument, state)))
+        .addFix(
+            fix.replace(
+                    argument,
+                    String.format(
+                        "new %s<>(%s)", hashSet, SourceCode.treeToString(argument, state)))
+                .build())
+        .build();
+  }
+
+  private Description describeLinearScan(
+      ExpressionTree tree, MethodSymbol method, ExpressionTree collection, VisitorState state) {
+    Description.Builder description =
+        buildDescription(tree)
+            .setMessage(
+                String.format(
+                    "`%s` performs a linear scan of `%s`%s each time it is evaluated; consider "
+                        + "converting the collection into a `Set` once, before the loop",
+                    method.getSimpleName(),
+                    SourceCode.treeToString(collection, state),
+                    describeSize(collection, state)));
+    if (CONTAINS.matches(tree, state)) {
+      hoistAsSet(collection, state).ifPresent(description::addFix);
+    }
+    return description.build();
+  }
+
+  private static String describeSize(ExpressionTree collection, VisitorState state) {
+    return hasSmallFixedSize(collection, state)
+        ? " (of small, fixed size)"
+        : " (of unbounded size)";
+  }
+
+  /**
+   * Returns the tree, at or enclosing the given path, that is executed repeatedly; this is either a
+   * loop or a lambda expression or method reference passed to an iterating method.
+   */
+  private static @Nullable TreePath findRepeatedContext(TreePath path, VisitorState state) {
+    @Var
+    @Nullable
+    Tree child = null;
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof ClassTree || leaf instanceof MethodTree) {
+        return null;
+      }
+
+      if (leaf instanceof LambdaExpressionTree || leaf instanceof MemberReferenceTree) {
+        return isPassedToIteratingOperation(current, state) ? current : null;
+      }
+
+      if (MoreASTHelpers.isRepeatedlyExecutedPart(leaf, child)) {
+        return current;
+      }
+
+      child = leaf;
+    }
+
+    return null;
+  }
+
+  private static boolean isPassedToIteratingOperation(TreePath path, VisitorState state) {
+    Tree parent = path.getParentPath().getLeaf();
+    return parent instanceof MethodInvocationTree
+        && ((MethodInvocationTree) parent).getArguments().contains(path.getLeaf())
+        && ITERATING_OPERATION.matches((MethodInvocationTree) parent, state);
+  }
+
+  /**
+   * Tells whether the given expression references a variable that is declared outside the given
+   * repeatedly executed context.
+   */
+  private static boolean isInvariant(ExpressionTree tree, Tree context) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    Symbol symbol = ASTHelpers.getSymbol(expression);
+    if (!(symbol instanceof VarSymbol)) {
+      return false;
+    }
+
+    if (expression instanceof MemberSelectTree) {
+      return isInvariant(((MemberSelectTree) expression).getExpression(), context);
+    }
+
+    return expression instanceof IdentifierTree && !declares(context, symbol);
+  }
+
+  private static boolean declares(Tree tree, Symbol symbol) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitVariable(VariableTree node, @Nullable Void unused) {
+            return symbol.equals(ASTHelpers.getSymbol(node)) || super.visitVariable(node, unused);
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  /**
+   * Tells whether the given expression is known to evaluate to a collection with a small, fixed
+   * number of elements.
+   */
+  private static boolean hasSmallFixedSize(ExpressionTree tree, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (expression instanceof MethodInvocationTree) {
+      return isFixedSizeListFactoryInvocation((MethodInvocationTree) expression, state);
+    }
+
+    Symbol symbol = ASTHelpers.getSymbol(expression);
+    if (!(symbol instanceof VarSymbol)
+        || (symbol.flags() & (Flags.FINAL | Flags.EFFECTIVELY_FINAL)) == 0) {
+      return false;
+    }
+
+    ExpressionTree initializer = findInitializer(symbol, state);
+    return initializer instanceof MethodInvocationTree
+        && isFixedSizeListFactoryInvocation((MethodInvocationTree) initializer, state);
+  }
+
+  private static boolean isFixedSizeListFactoryInvocation(
+      MethodInvocationTree tree, VisitorState state) {
+    if (!FIXED_SIZE_LIST_FACTORY.matches(tree, state)) {
+      return false;
+    }
+
+    /* Exclude varargs invocations that pass an array of arbitrary size. */
+    MethodSymbol symbol = ASTHelpers.getSymbol(tree);
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    return !symbol.isVarArgs()
+        || arguments.size() != symbol.getParameters().size()
+        || !(ASTHelpers.getType(arguments.get(arguments.size() - 1)) instanceof Type.ArrayType);
+  }
+
+  private static @Nullable ExpressionTree findInitializer(Symbol symbol, VisitorState state) {
+    return new TreeScanner<@Nullable ExpressionTree, @Nullable Void>() {
+      @Override
+      public @Nullable ExpressionTree visitVariable(VariableTree node, @Nullable Void unused) {
+        ExpressionTree initializer = node.getInitializer();
+        return symbol.equals(ASTHelpers.getSymbol(node)) && initializer != null
+            ? ASTHelpers.stripParentheses(initializer)
+            : super.visitVariable(node, unused);
+      }
+
+      @Override
+      public @Nullable ExpressionTree reduce(
+          @Nullable ExpressionTree r1, @Nullable ExpressionTree r2) {
+        return r1 != null ? r1 : r2;
+      }
+    }.scan(state.getPath().getCompilationUnit(), null);
+  }
+
+  /**
+   * Attempts to copy the given collection into a {@link HashSet} before the statement that contains
+   * the repeatedly executed lookup, such that the lookup can be performed on said set.
+   *
+   * <p>A fix is suggested only if the collection is an effectively final local variable, all
+   * lookups in the collection can be moved to the same set, and the collection is not otherwise
+   * referenced by the statement.
+   */
+  private static Optional<SuggestedFix> hoistAsSet(ExpressionTree collection, VisitorState state) {
+    Symbol symbol = ASTHelpers.getSymbol(collection);
+    TreePath methodPath = findEnclosingMethod(state.getPath());
+    if (!(collection instanceof IdentifierTree)
+        || symbol == null
+        || (symbol.getKind() != ElementKind.LOCAL_VARIABLE
+            && symbol.getKind() != ElementKind.PARAMETER)
+        || (symbol.flags() & (Flags.FINAL | Flags.EFFECTIVELY_FINAL)) == 0
+        || methodPath == null) {
+      return Optional.empty();
+    }
+
+    Optional<StatementTree> target = findHoistTarget(state.getPath(), state);
+    Optional<Type> elementType = getElementType(collection, state);
+    if (target.isEmpty() || elementType.isEmpty()) {
+      return Optional.empty();
+    }
+
+    List<TreePath> lookups = findHoistableLookups(methodPath, symbol, state);
+    if (!lookups.stream().allMatch(lookup -> findHoistTarget(lookup, state).equals(target))
+        || countReferences(target.orElseThrow(), symbol) != lookups.size()) {
+      return Optional.empty();
+    }
+
+    String setName =
+        MoreASTHelpers.getUnusedName(symbol.getSimpleName() + "Set", methodPath.getLeaf());
+    SuggestedFix.Builder fix = SuggestedFix.builder().replace(collection, setName);
+    if (lookups.get(0).getLeaf().equals(state.getPath().getLeaf())) {
+      fix.prefixWith(
+          target.orElseThrow(),
+          String.format(
+              "%s<%s> %s = new %s<>(%s);\n",
+              SuggestedFixes.qualifyType(state, fix, Set.class.getName()),
+              SuggestedFixes.prettyType(state, fix, elementType.orElseThrow()),
+              setName,
+              SuggestedFixes.qualifyType(state, fix, HashSet.class.getName()),
+              symbol.getSimpleName()));
+    }
+    return Optional.of(fix.build());
+  }
+
+  private static @Nullable TreePath findEnclosingMethod(TreePath path) {
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      if (current.getLeaf() instanceof MethodTree) {
+        return current;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the statement before which a set can be declared to replace the lookup at the given
+   * path, being the block statement that contains the lookup's repeatedly executed context.
+   */
+  private static Optional<StatementTree> findHoistTarget(TreePath path, VisitorState state) {
+    TreePath context = findRepeatedContext(path, state);
+    if (context == null) {
+      return Optional.empty();
+    }
+
+    for (TreePath current = context; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf != context.getLeaf()
+          && (leaf instanceof LambdaExpressionTree
+              || leaf instanceof ClassTree
+              || leaf instanceof MethodTree)) {
+        return Optional.empty();
+      }
+
+      if (leaf instanceof StatementTree && current.getParentPath().getLeaf() instanceof BlockTree) {
+        return Optional.of((StatementTree) leaf);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the paths of all {@link Collection#contains(Object)} lookups in the given variable
+   * inside the given method that are executed repeatedly, in source order.
+   */
+  private static List<TreePath> findHoistableLookups(
+      TreePath methodPath, Symbol symbol, VisitorState state) {
+    List<TreePath> lookups = new ArrayList<>();
+    new TreePathScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitMethodInvocation(
+          MethodInvocationTree node, @Nullable Void unused) {
+        ExpressionTree receiver = ASTHelpers.getReceiver(node);
+        if (receiver != null) {
+          register(receiver, node);
+        }
+        return super.visitMethodInvocation(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitMemberReference(MemberReferenceTree node, @Nullable Void unused) {
+        register(node.getQualifierExpression(), node);
+        return super.visitMemberReference(node, unused);
+      }
+
+      private void register(ExpressionTree collection, ExpressionTree lookup) {
+        if (collection instanceof IdentifierTree
+            && symbol.equals(ASTHelpers.getSymbol(collection))
+            && CONTAINS.matches(lookup, state.withPath(getCurrentPath()))
+            && findRepeatedContext(getCurrentPath(), state) != null) {
+          lookups.add(getCurrentPath());
+        }
+      }
+    }.scan(methodPath, null);
+    return lookups;
+  }
+
+  private static int countReferences(Tree tree, Symbol symbol) {
+    Integer count =
+        new TreeScanner<Integer, @Nullable Void>() {
+          @Override
+          public Integer visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+            return symbol.equals(ASTHelpers.getSymbol(node)) ? 1 : 0;
+          }
+
+          @Override
+          public Integer reduce(@Nullable Integer r1, @Nullable Integer r2) {
+            return (r1 == null ? 0 : r1) + (r2 == null ? 0 : r2);
+          }
+        }.scan(tree, null);
+    return count == null ? 0 : count;
+  }
+
+  private static Optional<Type> getElementType(ExpressionTree collection, VisitorState state) {
+    Type type = ASTHelpers.getType(collection);
+    Type collectionType = state.getTypeFromString(Collection.class.getName());
+    Type asCollection =
+        type == null || collectionType == null
+            ? null
+            : state.getTypes().asSuper(type, collectionType.tsym);
+    return asCollection == null || asCollection.getTypeArguments().isEmpty()
+        ? Optional.empty()
+        : Optional.of(state.getTypes().wildUpperBound(asCollection.getTypeArguments().get(0)));
+  }
+}
@@ -0,0 +1,435 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree.BodyKind;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.Tree.Kind;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.Flags;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link Optional} chains that are created and consumed within a
+ * single expression inside a loop.
+ *
+ * <p>Such chains allocate one or more {@link Optional} instances per iteration. While the JIT
+ * compiler's escape analysis often eliminates these allocations, it does not always do so. On hot
+ * paths an equivalent {@code null} check is cheaper.
+ *
+ * <p>As such chains are generally more readable than their {@code null}-checking counterparts, this
+ * check is opt-in: it only reports code in the packages (and their subpackages) listed using the
+ * {@code -XepOpt:OptionalAllocationInLoop:Packages} flag.
+ *
+ * <p>A fix is suggested only if the rewritten code is guaranteed to have the same semantics; this
+ * requires that the wrapped value can be evaluated multiple times without side effects.
+ */
+// XXX: Also flag chains inside lambda expressions passed to `Stream` operations.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid allocating `Optional` chains inside loops on performance-sensitive code paths",
+    link = BUG_PATTERNS_BASE_URL + "OptionalAllocationInLoop",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+@SuppressWarnings("java:S2160" /* Super class equality definition suffices. */)
+public final class OptionalAllocationInLoop extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String PACKAGES_FLAG = "OptionalAllocationInLoop:Packages";
+  private static final Matcher<ExpressionTree> OPTIONAL_OF_NULLABLE =
+      staticMethod().onClass(Optional.class.getName()).named("ofNullable");
+  private static final Matcher<ExpressionTree> OPTIONAL_OPERATION =
+      instanceMethod().onExactClass(Optional.class.getName());
+  private static final Matcher<ExpressionTree> OPTIONAL_MAP =
+      instanceMethod().onExactClass(Optional.class.getName()).named("map");
+  private static final Matcher<ExpressionTree> OPTIONAL_TERMINAL_OPERATION =
+      instanceMethod()
+          .onExactClass(Optional.class.getName())
+          .namedAnyOf("isEmpty", "isPresent", "orElse", "orElseGet");
+
+  private final ImmutableList<String> packages;
+
+  /** Instantiates a default {@link OptionalAllocationInLoop} instance. */
+  public OptionalAllocationInLoop() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link OptionalAllocationInLoop} instance.
+   *
+   * @param flags Any provided command line flags.
+   */
+  @Inject
+  OptionalAllocationInLoop(ErrorProneFlags flags) {
+    packages = Flags.getList(flags, PACKAGES_FLAG);
+  }
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!OPTIONAL_TERMINAL_OPERATION.matches(tree, state)
+        || !isInSelectedPackage(state)
+        || !isInLoop(state.getPath())) {
+      return Description.NO_MATCH;
+    }
+
+    ImmutableList<MethodInvocationTree> operations = getIntermediateOperations(tree, state);
+    if (operations.isEmpty()) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    tryRewriteAsNullCheck(tree, operations, state).ifPresent(description::addFix);
+    return description.build();
+  }
+
+  private boolean isInSelectedPackage(VisitorState state) {
+    ClassTree enclosingClass = state.findEnclosing(ClassTree.class);
+    String name =
+        enclosingClass == null
+            ? ""
+            : ASTHelpers.enclosingPackage(ASTHelpers.getSymbol(enclosingClass))
+                .getQualifiedName()
+                .toString();
+    return packages.stream().anyMatch(p -> name.equals(p) || name.startsWith(p + '.'));
+  }
+
+  private static boolean isInLoop(TreePath path) {
+    @Var
+    @Nullable
+    Tree child = null;
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof ClassTree
+          || leaf instanceof MethodTree
+          || leaf instanceof LambdaExpressionTree) {
+        return false;
+      }
+
+      if (MoreASTHelpers.isRepeatedlyExecutedPart(leaf, child)) {
+        return true;
+      }
+
+      child = leaf;
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the operations preceding the given terminal operation, starting with the {@link
+   * Optional#ofNullable(Object)} invocation that creates the chain, or an empty list if the chain's
+   * {@link Optional} is not created within the same expression.
+   */
+  private static ImmutableList<MethodInvocationTree> getIntermediateOperations(
+      MethodInvocationTree tree, VisitorState state) {
+    List<MethodInvocationTree> operations = new ArrayList<>();
+    for (ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+        receiver instanceof MethodInvocationTree;
+        receiver = ASTHelpers.getReceiver(receiver)) {
+      operations.add(0, (MethodInvocationTree) receiver);
+      if (OPTIONAL_OF_NULLABLE.matches(receiver, state)) {
+        return ImmutableList.copyOf(operations);
+      }
+
+      if (!OPTIONAL_OPERATION.matches(receiver, state)) {
+        break;
+      }
+    }
+
+    return ImmutableList.of();
+  }
+
+  private static Optional<SuggestedFix> tryRewriteAsNullCheck(
+      MethodInvocationTree tree,
+      ImmutableList<MethodInvocationTree> operations,
+      VisitorState state) {
+    ExpressionTree value = operations.get(0).getArguments().get(0);
+    if (operations.size() > 2
+        || (operations.size() == 2 && !OPTIONAL_MAP.matches(operations.get(1), state))
+        || !isRepeatable(value)) {
+      return Optional.empty();
+    }
+
+    String valueSource = SourceCode.treeToString(value, state);
+    Optional<String> mappedValue =
+        operations.size() == 1
+            ? Optional.of(valueSource)
+            : applyMapper(operations.get(1).getArguments().get(0), valueSource, state);
+
+    boolean isUnmapped = operations.size() == 1;
+    boolean mapsToPrimitive =
+        !isUnmapped && hasPrimitiveResult(operations.get(1).getArguments().get(0));
+    return mappedValue
+        .flatMap(
+            mapped -> getNullCheck(tree, valueSource, mapped, isUnmapped, mapsToPrimitive, state))
+        .map(
+            replacement ->
+                SuggestedFix.replace(
+                    tree, requiresParentheses(state) ? '(' + replacement + ')' : replacement));
+  }
+
+  /**
+   * Returns a null check equivalent to the given terminal operation.
+   *
+   * <p>No emptiness check is suggested for a mapper that yields a primitive value: such a value
+   * cannot be compared to {@code null}, while omitting the mapper invocation would drop any
+   * exceptions or side effects it may have.
+   */
+  private static Optional<String> getNullCheck(
+      MethodInvocationTree tree,
+      String value,
+      String mappedValue,
+      boolean isUnmapped,
+      boolean mapsToPrimitive,
+      VisitorState state) {
+    switch (ASTHelpers.getSymbol(tree).getSimpleName().toString()) {
+      case "isEmpty":
+        if (mapsToPrimitive) {
+          return Optional.empty();
+        }
+
+        return Optional.of(
+            isUnmapped
+                ? String.format("%s == null", value)
+                : String.format("%s == null || %s == null", value, mappedValue));
+      case "isPresent":
+        if (mapsToPrimitive) {
+          return Optional.empty();
+        }
+
+        return Optional.of(
+            isUnmapped
+                ? String.format("%s != null", value)
+                : String.format("%s != null && %s != null", value, mappedValue));
+      case "orElse":
+        ExpressionTree other = tree.getArguments().get(0);
+        if (isUnmapped && isRepeatable(other)) {
+          return Optional.of(
+              String.format("%s != null ? %s : %s", value, value, treeToOperand(other, state)));
+        }
+        /*
+         * A mapper may yield `null`, in which case the alternative value is returned. This is
+         * equivalent to returning the mapper's result only if said alternative is `null`.
+         */
+        return other.getKind() == Kind.NULL_LITERAL
+            ? Optional.of(String.format("%s == null ? null : %s", value, mappedValue))
+            : Optional.empty();
+      case "orElseGet":
+        return isUnmapped
+            ? getSuppliedValue(tree.getArguments().get(0), state)
+                .map(supplied -> String.format("%s != null ? %s : %s", value, value, supplied))
+            : Optional.empty();
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Tells whether the given expression can be evaluated more than once without changing the
+   * program's semantics.
+   */
+  private static boolean isRepeatable(ExpressionTree tree) {
+    if (tree instanceof LiteralTree || ASTHelpers.constValue(tree) != null) {
+      return true;
+    }
+
+    if (!(tree instanceof IdentifierTree) && !(tree instanceof MemberSelectTree)) {
+      return false;
+    }
+
+    Symbol symbol = ASTHelpers.getSymbol(tree);
+    if (symbol == null || symbol.getKind() == ElementKind.FIELD) {
+      return symbol != null
+          && symbol.getModifiers().contains(Modifier.FINAL)
+          && (tree instanceof IdentifierTree
+              || isRepeatable(((MemberSelectTree) tree).getExpression()));
+    }
+
+    return tree instanceof IdentifierTree
+        && (symbol.getKind() == ElementKind.LOCAL_VARIABLE
+            || symbol.getKind() == ElementKind.PARAMETER
+            || symbol.getKind() == ElementKind.EXCEPTION_PARAMETER
+            || symbol.getKind() == ElementKind.RESOURCE_VARIABLE);
+  }
+
+  /**
+   * Tells whether the given mapper yields a primitive value, which is boxed by {@link
+   * Optional#map(java.util.function.Function)}.
+   */
+  private static boolean hasPrimitiveResult(ExpressionTree mapper) {
+    if (mapper instanceof LambdaExpressionTree) {
+      Type type = ASTHelpers.getType(((LambdaExpressionTree) mapper).getBody());
+      return type != null && type.isPrimitive();
+    }
+
+    Symbol symbol = ASTHelpers.getSymbol(mapper);
+    return symbol instanceof MethodSymbol && ((MethodSymbol) symbol).getReturnType().isPrimitive();
+  }
+
+  /**
+   * Returns source code that applies the given mapper function to the given (repeatable) value, if
+   * this can be expressed without a functional interface.
+   */
+  private static Optional<String> applyMapper(
+      ExpressionTree mapper, String value, VisitorState state) {
+    if (mapper instanceof LambdaExpressionTree) {
+      LambdaExpressionTree lambda = (LambdaExpressionTree) mapper;
+      return lambda.getBodyKind() == BodyKind.EXPRESSION
+          ? substituteParameter(lambda, value, state)
+              .map(body -> treeToOperand(lambda.getBody(), body))
+          : Optional.empty();
+    }
+
+    if (!(mapper instanceof MemberReferenceTree)) {
+      return Optional.empty();
+    }
+
+    MemberReferenceTree reference = (MemberReferenceTree) mapper;
+    Symbol symbol = ASTHelpers.getSymbol(reference);
+    if (!(symbol instanceof MethodSymbol)
+        || reference.getMode() != MemberReferenceTree.ReferenceMode.INVOKE
+        || reference.getTypeArguments() != null) {
+      return Optional.empty();
+    }
+
+    ExpressionTree qualifier = reference.getQualifierExpression();
+    String qualifierSource = SourceCode.treeToString(qualifier, state);
+    if (ASTHelpers.isStatic(symbol)) {
+      return Optional.of(String.format("%s.%s(%s)", qualifierSource, reference.getName(), value));
+    }
+
+    if (ASTHelpers.getSymbol(qualifier) instanceof ClassSymbol) {
+      return Optional.of(String.format("%s.%s()", value, reference.getName()));
+    }
+
+    return isRepeatable(qualifier)
+        ? Optional.of(String.format("%s.%s(%s)", qualifierSource, reference.getName(), value))
+        : Optional.empty();
+  }
+
+  /**
+   * Returns the source code of the given single-parameter lambda expression's body, with all
+   * references to said parameter replaced with the given value.
+   */
+  private static Optional<String> substituteParameter(
+      LambdaExpressionTree lambda, String value, VisitorState state) {
+    if (lambda.getParameters().size() != 1) {
+      return Optional.empty();
+    }
+
+    Symbol parameter = ASTHelpers.getSymbol(lambda.getParameters().get(0));
+    Tree body = lambda.getBody();
+    String source = SourceCode.treeToString(body, state);
+    int offset = ASTHelpers.getStartPosition(body);
+    List<IdentifierTree> references = new ArrayList<>();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+        if (parameter.equals(ASTHelpers.getSymbol(node))) {
+          references.add(node);
+        }
+        return super.visitIdentifier(node, unused);
+      }
+    }.scan(body, null);
+
+    StringBuilder result = new StringBuilder();
+    @Var int copiedUpTo = 0;
+    for (IdentifierTree reference : references) {
+      int referenceBegin = ASTHelpers.getStartPosition(reference) - offset;
+      int referenceEnd = state.getEndPosition(reference) - offset;
+      if (referenceBegin < copiedUpTo || referenceEnd > source.length()) {
+        return Optional.empty();
+      }
+      result.append(source, copiedUpTo, referenceBegin).append(value);
+      copiedUpTo = referenceEnd;
+    }
+
+    return Optional.of(result.append(source.substring(copiedUpTo)).toString());
+  }
+
+  private static Optional<String> getSuppliedValue(ExpressionTree supplier, VisitorState state) {
+    if (!(supplier instanceof LambdaExpressionTree)) {
+      return Optional.empty();
+    }
+
+    LambdaExpressionTree lambda = (LambdaExpressionTree) supplier;
+    return lambda.getBodyKind() == BodyKind.EXPRESSION
+        ? Optional.of(
+            treeToOperand(lambda.getBody(), SourceCode.treeToString(lambda.getBody(), state)))
+        : Optional.empty();
+  }
+
+  private static String treeToOperand(ExpressionTree tree, VisitorState state) {
+    return treeToOperand(tree, SourceCode.treeToString(tree, state));
+  }
+
+  private static String treeToOperand(Tree tree, String source) {
+    return tree instanceof IdentifierTree
+            || tree instanceof LiteralTree
+            || tree instanceof MemberSelectTree
+            || tree instanceof MethodInvocationTree
+            || tree instanceof ParenthesizedTree
+        ? source
+        : '(' + source + ')';
+  }
+
+  /**
+   * Tells whether the expression at the current path must be parenthesized when replaced with a
+   * conditional or boolean expression.
+   */
+  private static boolean requiresParentheses(VisitorState state) {
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    return !(parent instanceof VariableTree
+        || parent instanceof AssignmentTree
+        || parent instanceof ReturnTree
+        || parent instanceof ExpressionStatementTree
+        || parent instanceof ParenthesizedTree
+        || (parent instanceof MethodInvocationTree
+            && ((MethodInvocationTree) parent).getArguments().contains(state.getPath().getLeaf())));
+  }
+}
@@ -0,0 +1,269 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.BaseStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags parallel streams that are unlikely to outperform their sequential
+ * counterparts.
+ *
+ * <p>Parallel streams are executed on the common {@link java.util.concurrent.ForkJoinPool}, which
+ * is shared by all code running in the JVM. Splitting work across said pool only pays off if there
+ * is enough (independent) work to be split. This check flags parallel streams:
+ *
+ * <ul>
+ *   <li>over a small number of explicitly enumerated elements;
+ *   <li>over sources that cannot be split efficiently, such as {@link LinkedList} and {@link
+ *       Stream#iterate(Object, java.util.function.UnaryOperator)};
+ *   <li>whose terminal operation is {@link Stream#forEachOrdered(java.util.function.Consumer)} or
+ *       {@link Stream#findFirst()}, as these force elements to be processed in encounter order;
+ *   <li>nested inside the operations of another parallel stream;
+ *   <li>executed by Reactor operators or {@code @Scheduled} methods, where blocking on the common
+ *       pool starves other work sharing the same threads.
+ * </ul>
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "This parallel stream is unlikely to outperform its sequential counterpart",
+    link = BUG_PATTERNS_BASE_URL + "ParallelStreamMisuse",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class ParallelStreamMisuse extends BugChecker implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final ImmutableSet<String> ORDER_SENSITIVE_OPERATIONS =
+      ImmutableSet.of("findFirst", "forEachOrdered");
+  private static final Matcher<ExpressionTree> PARALLEL_STREAM =
+      instanceMethod().onDescendantOf(Collection.class.getName()).named("parallelStream");
+  private static final Matcher<ExpressionTree> PARALLEL =
+      instanceMethod().onDescendantOf(BaseStream.class.getName()).named("parallel");
+  private static final Matcher<ExpressionTree> COLLECTION_STREAM =
+      instanceMethod().onDescendantOf(Collection.class.getName()).named("stream");
+  private static final Matcher<ExpressionTree> ENUMERATED_ELEMENTS =
+      anyOf(
+          staticMethod().onClass(Arrays.class.getName()).named("asList"),
+          staticMethod()
+              .onClassAny(
+                  List.class.getName(),
+                  Set.class.getName(),
+                  Stream.class.getName(),
+                  "com.google.common.collect.ImmutableList",
+                  "com.google.common.collect.ImmutableSet")
+              .named("of"));
+  private static final Matcher<ExpressionTree> RANGE =
+      staticMethod()
+          .onClassAny(IntStream.class.getName(), LongStream.class.getName())
+          .namedAnyOf("range", "rangeClosed");
+  private static final Matcher<ExpressionTree> POORLY_SPLITTING_SOURCE =
+      anyOf(
+          staticMethod().onClass(Stream.class.getName()).named("iterate"),
+          instanceMethod().onDescendantOf(LinkedList.class.getName()).named("stream"));
+  private static final Matcher<ExpressionTree> REACTOR_OPERATOR =
+      instanceMethod().onDescendantOf("org.reactivestreams.Publisher");
+  private static final String SCHEDULED_ANNOTATION =
+      "org.springframework.scheduling.annotation.Scheduled";
+  private static final int SMALL_SOURCE_SIZE = 1_000;
+
+  /** Instantiates a new {@link ParallelStreamMisuse} instance. */
+  public ParallelStreamMisuse() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    boolean isParallelStream = PARALLEL_STREAM.matches(tree, state);
+    if (!isParallelStream && !PARALLEL.matches(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    return getReason(tree, isParallelStream, state)
+        .map(
+            reason ->
+                buildDescription(tree)
+                    .setMessage(String.format("%s; prefer a sequential stream instead", reason))
+                    .addFix(makeSequential(tree, isParallelStream, state))
+                    .build())
+        .orElse(Description.NO_MATCH);
+  }
+
+  private static Optional<String> getReason(
+      MethodInvocationTree tree, boolean isParallelStream, VisitorState state) {
+    ExpressionTree source = getSource(tree, isParallelStream, state);
+    if (source != null && isSmall(source, state)) {
+      return Optional.of("Parallelizing the processing of a small number of elements is costly");
+    }
+
+    if (source != null && isPoorlySplitting(source, state)) {
+      return Optional.of("The source of this parallel stream cannot be split efficiently");
+    }
+
+    if (hasOrderSensitiveTerminalOperation(state.getPath())) {
+      return Optional.of(
+          "The terminal operation of this parallel stream requires elements to be processed in "
+              + "encounter order");
+    }
+
+    return getEnclosingContextReason(state);
+  }
+
+  /**
+   * Returns the expression that produces the elements of the parallel stream, if it can be
+   * identified.
+   */
+  private static @Nullable ExpressionTree getSource(
+      MethodInvocationTree tree, boolean isParallelStream, VisitorState state) {
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    if (isParallelStream || !(receiver instanceof MethodInvocationTree)) {
+      return receiver;
+    }
+
+    return COLLECTION_STREAM.matches(receiver, state)
+            && !POORLY_SPLITTING_SOURCE.matches(receiver, state)
+        ? ASTHelpers.getReceiver(receiver)
+        : receiver;
+  }
+
+  private static boolean isSmall(ExpressionTree source, VisitorState state) {
+    if (ENUMERATED_ELEMENTS.matches(source, state)) {
+      /* A single array argument may hold an arbitrary number of elements. */
+      List<? extends ExpressionTree> arguments = ((MethodInvocationTree) source).getArguments();
+      return arguments.size() != 1
+          || !state.getTypes().isArray(ASTHelpers.getType(arguments.get(0)));
+    }
+
+    if (RANGE.matches(source, state)) {
+      List<? extends ExpressionTree> arguments = ((MethodInvocationTree) source).getArguments();
+      Number from = ASTHelpers.constValue(arguments.get(0), Number.class);
+      Number to = ASTHelpers.constValue(arguments.get(1), Number.class);
+      return from != null && to != null && to.longValue() - from.longValue() < SMALL_SOURCE_SIZE;
+    }
+
+    return false;
+  }
+
+  private static boolean isPoorlySplitting(ExpressionTree source, VisitorState state) {
+    return POORLY_SPLITTING_SOURCE.matches(source, state)
+        || ASTHelpers.isSubtype(
+            ASTHelpers.getType(source), state.getTypeFromString(LinkedList.class.getName()), state);
+  }
+
+  /**
+   * Tells whether the stream pipeline of which the invocation at the given path is part, is
+   * terminated by an operation that processes elements in encounter order.
+   */
+  private static boolean hasOrderSensitiveTerminalOperation(TreePath path) {
+    for (TreePath current = path.getParentPath();
+        current.getLeaf() instanceof MemberSelectTree
+            && current.getParentPath().getLeaf() instanceof MethodInvocationTree;
+        current = current.getParentPath().getParentPath()) {
+      MethodInvocationTree invocation = (MethodInvocationTree) current.getParentPath().getLeaf();
+      if (ORDER_SENSITIVE_OPERATIONS.contains(
+          ASTHelpers.getSymbol(invocation).getSimpleName().toString())) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns a reason for which the code enclosing the current location should not run a parallel
+   * stream, if any.
+   */
+  private static Optional<String> getEnclosingContextReason(VisitorState state) {
+    TreePath path = state.getPath();
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof ClassTree) {
+        return Optional.empty();
+      }
+
+      if (leaf instanceof MethodTree) {
+        return ASTHelpers.hasAnnotation(
+                ASTHelpers.getSymbol((MethodTree) leaf), SCHEDULED_ANNOTATION, state)
+            ? Optional.of(
+                "Parallel streams inside `@Scheduled` methods compete with other tasks for the "
+                    + "common pool")
+            : Optional.empty();
+      }
+
+      if (leaf instanceof LambdaExpressionTree || leaf instanceof MemberReferenceTree) {
+        Tree parent = current.getParentPath().getLeaf();
+        if (parent instanceof MethodInvocationTree) {
+          if (isParallelPipeline((MethodInvocationTree) parent, state)) {
+            return Optional.of("Nesting parallel streams floods the common pool");
+          }
+
+          if (REACTOR_OPERATOR.matches((MethodInvocationTree) parent, state)) {
+            return Optional.of(
+                "Parallel streams inside Reactor operators block the subscribing thread and "
+                    + "compete for the common pool");
+          }
+        }
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /** Tells whether the given stream operation is part of a parallel stream pipeline. */
+  private static boolean isParallelPipeline(MethodInvocationTree tree, VisitorState state) {
+    for (ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+        receiver instanceof MethodInvocationTree;
+        receiver = ASTHelpers.getReceiver(receiver)) {
+      if (PARALLEL_STREAM.matches(receiver, state) || PARALLEL.matches(receiver, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static SuggestedFix makeSequential(
+      MethodInvocationTree tree, boolean isParallelStream, VisitorState state) {
+    if (isParallelStream) {
+      return SuggestedFixes.renameMethodInvocation(tree, "stream", state);
+    }
+
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    return receiver == null
+        ? SuggestedFix.emptyFix()
+        : SuggestedFix.replace(tree, SourceCode.treeToString(receiver, state));
+  }
+}
@@ -0,0 +1,219 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.BugPattern.StandardTags.CONCURRENCY;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MemberReferenceTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import javax.inject.Inject;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.BlockingMethods;
+
+/**
+ * A {@link BugChecker} that flags blocking method invocations inside lambda expressions and method
+ * references passed to {@link reactor.core.publisher.Mono} and {@link reactor.core.publisher.Flux}
+ * operators.
+ *
+ * <p>Such operators are generally executed on a thread that must not be blocked, such as a Netty
+ * event loop thread or one of the {@link reactor.core.scheduler.Schedulers#parallel()} threads.
+ * Blocking such a thread stalls all other work scheduled on it. Instead, blocking work should be
+ * wrapped using e.g. {@link
+ * reactor.core.publisher.Mono#fromCallable(java.util.concurrent.Callable)} and offloaded using
+ * {@code subscribeOn(Schedulers.boundedElastic())}.
+ *
+ * <p>Operators that are preceded by a {@code publishOn} operator, or that are part of a chain with
+ * a {@code subscribeOn} operator, are assumed to (intentionally) execute on a scheduler that
+ * tolerates blocking, unless said scheduler is one of the well-known non-blocking schedulers. The
+ * same holds for factory methods such as {@code Mono#fromCallable} and {@code Mono#defer}: these
+ * execute the provided code on the subscribing thread, and thus only avoid blocking a non-blocking
+ * thread if combined with such a {@code subscribeOn} operator.
+ *
+ * <p>The set of methods considered to be blocking can be extended using the {@value
+ * #EXTRA_BLOCKING_METHODS_FLAG} flag.
+ */
+// XXX: Consider following method references and invocations of private methods transitively.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Avoid blocking calls inside Reactor operators; wrap them using `Mono#fromCallable` and "
+            + "offload them using `subscribeOn(Schedulers.boundedElastic())`",
+    link = BUG_PATTERNS_BASE_URL + "ReactorBlockingCall",
+    linkType = CUSTOM,
+    severity = WARNING,
+    tags = {CONCURRENCY, PERFORMANCE})
+@SuppressWarnings("java:S2160" /* Super class equality definition suffices. */)
+public final class ReactorBlockingCall extends BugChecker
+    implements MethodInvocationTreeMatcher, MemberReferenceTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String EXTRA_BLOCKING_METHODS_FLAG =
+      "ReactorBlockingCall:ExtraBlockingMethods";
+  private static final Matcher<ExpressionTree> REACTOR_OPERATOR =
+      anyOf(
+          instanceMethod()
+              .onDescendantOfAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono"),
+          staticMethod().onClassAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono"));
+  private static final Matcher<ExpressionTree> PUBLISH_ON =
+      instanceMethod()
+          .onDescendantOfAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono")
+          .named("publishOn");
+  private static final Matcher<ExpressionTree> SUBSCRIBE_ON =
+      instanceMethod()
+          .onDescendantOfAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono")
+          .named("subscribeOn");
+  private static final Matcher<ExpressionTree> NON_BLOCKING_SCHEDULER =
+      staticMethod()
+          .onClass("reactor.core.scheduler.Schedulers")
+          .namedAnyOf("immediate", "newParallel", "newSingle", "parallel", "single");
+
+  private final Matcher<ExpressionTree> blockingMethod;
+
+  /** Instantiates a default {@link ReactorBlockingCall} instance. */
+  public ReactorBlockingCall() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link ReactorBlockingCall}.
+   *
+   * @param flags Any provided command line flags.
+   */
+  @Inject
+  ReactorBlockingCall(ErrorProneFlags flags) {
+    blockingMethod = BlockingMethods.blockingMethod(flags, EXTRA_BLOCKING_METHODS_FLAG);
+  }
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    return blockingMethod.matches(tree, state)
+            && isExecutedByReactorOperator(state.getPath(), state)
+        ? describeMatch(tree)
+        : Description.NO_MATCH;
+  }
+
+  @Override
+  public Description matchMemberReference(MemberReferenceTree tree, VisitorState state) {
+    if (!isReactorOperatorArgument(state.getPath(), state)
+        || isOffloaded(state.getPath().getParentPath(), state)) {
+      return Description.NO_MATCH;
+    }
+
+    return blockingMethod.matches(tree, state) || invokesBlockingMethod(tree, state)
+        ? describeMatch(tree)
+        : Description.NO_MATCH;
+  }
+
+  /**
+   * Tells whether the code at the given path is part of a lambda expression passed to a Reactor
+   * operator or factory method that is not known to execute on a scheduler that tolerates blocking.
+   */
+  private static boolean isExecutedByReactorOperator(TreePath path, VisitorState state) {
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof MethodTree || leaf instanceof ClassTree) {
+        return false;
+      }
+
+      if (leaf instanceof LambdaExpressionTree && isReactorOperatorArgument(current, state)) {
+        return !isOffloaded(current.getParentPath(), state);
+      }
+    }
+
+    return false;
+  }
+
+  /** Tells whether the given path points to an argument of a Reactor operator or factory method. */
+  private static boolean isReactorOperatorArgument(TreePath path, VisitorState state) {
+    Tree parent = path.getParentPath().getLeaf();
+    return parent instanceof MethodInvocationTree
+        && ((MethodInvocationTree) parent).getArguments().contains(path.getLeaf())
+        && REACTOR_OPERATOR.matches((MethodInvocationTree) parent, state);
+  }
+
+  /**
+   * Tells whether the Reactor operator invocation at the given path is part of a chain that
+   * explicitly switches to a scheduler that (presumably) tolerates blocking.
+   */
+  private static boolean isOffloaded(TreePath operatorPath, VisitorState state) {
+    for (ExpressionTree receiver = ASTHelpers.getReceiver((ExpressionTree) operatorPath.getLeaf());
+        receiver instanceof MethodInvocationTree;
+        receiver = ASTHelpers.getReceiver(receiver)) {
+      if ((PUBLISH_ON.matches(receiver, state) || SUBSCRIBE_ON.matches(receiver, state))
+          && switchesToBlockingTolerantScheduler((MethodInvocationTree) receiver, state)) {
+        return true;
+      }
+    }
+
+    for (TreePath current = operatorPath;
+        current.getParentPath().getLeaf() instanceof MemberSelectTree
+            && current.getParentPath().getParentPath().getLeaf() instanceof MethodInvocationTree;
+        current = current.getParentPath().getParentPath()) {
+      MethodInvocationTree invocation =
+          (MethodInvocationTree) current.getParentPath().getParentPath().getLeaf();
+      if (SUBSCRIBE_ON.matches(invocation, state)
+          && switchesToBlockingTolerantScheduler(invocation, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean switchesToBlockingTolerantScheduler(
+      MethodInvocationTree schedulerSwitch, VisitorState state) {
+    return schedulerSwitch.getArguments().stream()
+        .noneMatch(arg -> NON_BLOCKING_SCHEDULER.matches(arg, state));
+  }
+
+  /**
+   * Tells whether the method referenced by the given {@link MemberReferenceTree} is defined in the
+   * current compilation unit and directly invokes a blocking method.
+   */
+  private boolean invokesBlockingMethod(MemberReferenceTree tree, VisitorState state) {
+    Symbol symbol = ASTHelpers.getSymbol(tree);
+    MethodTree method =
+        symbol instanceof MethodSymbol ? ASTHelpers.findMethod((MethodSymbol) symbol, state) : null;
+    if (method == null || method.getBody() == null) {
+      return false;
+    }
+
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitMethodInvocation(MethodInvocationTree node, @Nullable Void unused) {
+            return blockingMethod.matches(node, state)
+                || Boolean.TRUE.equals(super.visitMethodInvocation(node, unused));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(method.getBody(), null));
+  }
+}
@@ -0,0 +1,329 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.WARNING;
+import static com.google.errorprone.BugPattern.StandardTags.CONCURRENCY;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.constructor;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.NewClassTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.inject.Inject;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.BlockingMethods;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags questionable usages of Reactor {@link
+ * reactor.core.scheduler.Scheduler}s.
+ *
+ * <p>Three cases are flagged:
+ *
+ * <ul>
+ *   <li>The creation of a {@link reactor.core.scheduler.Scheduler} or {@link
+ *       java.util.concurrent.ExecutorService} outside of a context that is (presumably) executed
+ *       only once, such as a field initializer, a constructor or a Spring {@code @Bean} method.
+ *       Schedulers and executors created on a per-call basis are generally not disposed of, thus
+ *       leaking threads, and cause excessive context switching.
+ *   <li>A {@code subscribeOn} operator that directly follows a {@code publishOn} operator. Such a
+ *       {@code subscribeOn} operator only moves the subscription to another scheduler, while the
+ *       upstream elements are still emitted on the scheduler selected by {@code publishOn}.
+ *   <li>A {@code subscribeOn} operator that follows an operator of which an argument invokes a
+ *       blocking method. Such arguments are evaluated when the pipeline is assembled, and thus
+ *       block the assembling thread regardless of the selected scheduler.
+ * </ul>
+ *
+ * <p>The set of methods considered to be blocking can be extended using the {@value
+ * #EXTRA_BLOCKING_METHODS_FLAG} flag.
+ */
+// XXX: Schedulers and executors created inside a lambda expression are flagged, even if said lambda
+// expression is evaluated only once (e.g. because it is passed to `Suppliers#memoize`).
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid per-call scheduler creation and ineffective `subscribeOn` operators",
+    link = BUG_PATTERNS_BASE_URL + "ReactorSchedulerUsage",
+    linkType = CUSTOM,
+    severity = WARNING,
+    tags = {CONCURRENCY, PERFORMANCE})
+@SuppressWarnings("java:S2160" /* Super class equality definition suffices. */)
+public final class ReactorSchedulerUsage extends BugChecker
+    implements MethodInvocationTreeMatcher, NewClassTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String EXTRA_BLOCKING_METHODS_FLAG =
+      "ReactorSchedulerUsage:ExtraBlockingMethods";
+  private static final ImmutableSet<String> INITIALIZATION_ANNOTATIONS =
+      ImmutableSet.of(
+          "jakarta.annotation.PostConstruct",
+          "javax.annotation.PostConstruct",
+          "org.springframework.context.annotation.Bean");
+  private static final Matcher<ExpressionTree> SCHEDULER_CREATION =
+      staticMethod()
+          .onClass("reactor.core.scheduler.Schedulers")
+          .namedAnyOf(
+              "fromExecutor",
+              "fromExecutorService",
+              "newBoundedElastic",
+              "newElastic",
+              "newParallel",
+              "newSingle");
+  private static final Matcher<ExpressionTree> EXECUTOR_CREATION =
+      anyOf(
+          staticMethod()
+              .onClass(Executors.class.getName())
+              .namedAnyOf(
+                  "newCachedThreadPool",
+                  "newFixedThreadPool",
+                  "newScheduledThreadPool",
+                  "newSingleThreadExecutor",
+                  "newSingleThreadScheduledExecutor",
+                  "newThreadPerTaskExecutor",
+                  "newVirtualThreadPerTaskExecutor",
+                  "newWorkStealingPool"),
+          constructor().forClass(ForkJoinPool.class.getName()),
+          constructor().forClass(ScheduledThreadPoolExecutor.class.getName()),
+          constructor().forClass(ThreadPoolExecutor.class.getName()));
+  private static final Matcher<ExpressionTree> REACTOR_OPERATOR =
+      instanceMethod()
+          .onDescendantOfAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono");
+  private static final Matcher<ExpressionTree> REACTOR_FACTORY =
+      staticMethod().onClassAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono");
+  private static final Matcher<ExpressionTree> PUBLISH_ON =
+      instanceMethod()
+          .onDescendantOfAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono")
+          .named("publishOn");
+  private static final Matcher<ExpressionTree> SUBSCRIBE_ON =
+      instanceMethod()
+          .onDescendantOfAny("reactor.core.publisher.Flux", "reactor.core.publisher.Mono")
+          .named("subscribeOn");
+
+  private final Matcher<ExpressionTree> blockingMethod;
+
+  /** Instantiates a default {@link ReactorSchedulerUsage} instance. */
+  public ReactorSchedulerUsage() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link ReactorSchedulerUsage}.
+   *
+   * @param flags Any provided command line flags.
+   */
+  @Inject
+  ReactorSchedulerUsage(ErrorProneFlags flags) {
+    blockingMethod = BlockingMethods.blockingMethod(flags, EXTRA_BLOCKING_METHODS_FLAG);
+  }
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (SCHEDULER_CREATION.matches(tree, state) || EXECUTOR_CREATION.matches(tree, state)) {
+      return matchCreation(tree, state);
+    }
+
+    if (!SUBSCRIBE_ON.matches(tree, state)) {
+      return Description.NO_MATCH;
+    }
+
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    if (receiver != null && PUBLISH_ON.matches(receiver, state)) {
+      return buildDescription(tree)
+          .setMessage(
+              "`subscribeOn` directly following `publishOn` only moves the subscription to "
+                  + "another scheduler, while elements are still emitted on the scheduler selected "
+                  + "by `publishOn`; move `subscribeOn` upstream or drop it")
+          .build();
+    }
+
+    return matchEagerBlockingCall(tree, state);
+  }
+
+  @Override
+  public Description matchNewClass(NewClassTree tree, VisitorState state) {
+    return EXECUTOR_CREATION.matches(tree, state)
+        ? matchCreation(tree, state)
+        : Description.NO_MATCH;
+  }
+
+  private Description matchCreation(ExpressionTree tree, VisitorState state) {
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    if (parent instanceof MethodInvocationTree
+        && SCHEDULER_CREATION.matches((ExpressionTree) parent, state)) {
+      /* The enclosing scheduler creation is flagged instead. */
+      return Description.NO_MATCH;
+    }
+
+    if (isTryWithResourcesResource(state.getPath()) || isInitializationContext(state)) {
+      return Description.NO_MATCH;
+    }
+
+    return buildDescription(tree)
+        .setMessage(
+            "Schedulers and executors created on a per-call basis leak threads and cause excessive "
+                + "context switching; create them once, e.g. in a static field or a `@Bean` "
+                + "method, and dispose of them on shutdown")
+        .build();
+  }
+
+  private Description matchEagerBlockingCall(MethodInvocationTree tree, VisitorState state) {
+    for (ExpressionTree operator = ASTHelpers.getReceiver(tree);
+        operator instanceof MethodInvocationTree;
+        operator = ASTHelpers.getReceiver(operator)) {
+      boolean isFactory = REACTOR_FACTORY.matches(operator, state);
+      if (!isFactory && !REACTOR_OPERATOR.matches(operator, state)) {
+        return Description.NO_MATCH;
+      }
+
+      MethodInvocationTree invocation = (MethodInvocationTree) operator;
+      for (ExpressionTree argument : invocation.getArguments()) {
+        MethodInvocationTree blockingCall = findEagerBlockingCall(argument, state);
+        if (blockingCall != null) {
+          Description.Builder description =
+              buildDescription(tree)
+                  .setMessage(
+                      String.format(
+                          "`subscribeOn` does not offload `%s`, as it is evaluated upon assembly; "
+                              + "defer its evaluation, e.g. using `Mono#fromCallable`",
+                          SourceCode.treeToString(blockingCall, state)));
+          if (isFactory) {
+            deferEvaluation(invocation, state).ifPresent(description::addFix);
+          }
+          return description.build();
+        }
+      }
+
+      if (isFactory) {
+        return Description.NO_MATCH;
+      }
+    }
+
+    return Description.NO_MATCH;
+  }
+
+  /**
+   * Returns a blocking method invocation that is part of the given expression and that is evaluated
+   * eagerly, i.e. that is not part of a lambda expression or anonymous class, if any.
+   */
+  private @Nullable MethodInvocationTree findEagerBlockingCall(
+      ExpressionTree tree, VisitorState state) {
+    return new TreeScanner<@Nullable MethodInvocationTree, @Nullable Void>() {
+      @Override
+      public @Nullable MethodInvocationTree visitMethodInvocation(
+          MethodInvocationTree node, @Nullable Void unused) {
+        return blockingMethod.matches(node, state)
+            ? node
+            : super.visitMethodInvocation(node, unused);
+      }
+
+      @Override
+      public @Nullable MethodInvocationTree visitLambdaExpression(
+          LambdaExpressionTree node, @Nullable Void unused) {
+        return null;
+      }
+
+      @Override
+      public @Nullable MethodInvocationTree visitClass(ClassTree node, @Nullable Void unused) {
+        return null;
+      }
+
+      @Override
+      public @Nullable MethodInvocationTree reduce(
+          @Nullable MethodInvocationTree r1, @Nullable MethodInvocationTree r2) {
+        return r1 != null ? r1 : r2;
+      }
+    }.scan(tree, null);
+  }
+
+  /**
+   * Suggests wrapping the given {@link reactor.core.publisher.Mono} or {@link
+   * reactor.core.publisher.Flux} factory method invocation in a {@code defer} invocation, such that
+   * its arguments are evaluated upon subscription.
+   */
+  private static Optional<SuggestedFix> deferEvaluation(
+      MethodInvocationTree tree, VisitorState state) {
+    if (MoreASTHelpers.capturesNonEffectivelyFinalVariable(tree)) {
+      return Optional.empty();
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String type = SuggestedFixes.qualifyType(state, fix, ASTHelpers.getSymbol(tree).owner);
+    return Optional.of(
+        fix.replace(
+                tree,
+                String.format("%s.defer(() -> %s)", type, SourceCode.treeToString(tree, state)))
+            .build());
+  }
+
+  /**
+   * Tells whether the expression at the given path initializes a try-with-resources resource, in
+   * which case it is closed once the try statement completes.
+   */
+  private static boolean isTryWithResourcesResource(TreePath path) {
+    TreePath parentPath = path.getParentPath();
+    Tree parent = parentPath.getLeaf();
+    Tree grandParent = parentPath.getParentPath().getLeaf();
+    return parent instanceof VariableTree
+        && grandParent instanceof TryTree
+        && ((TryTree) grandParent).getResources().contains(parent);
+  }
+
+  /**
+   * Tells whether the code currently being analyzed is (presumably) executed only once per object
+   * or class, i.e. whether it is part of a field initializer, an initializer block, a constructor
+   * or a Spring bean initialization method.
+   */
+  private static boolean isInitializationContext(VisitorState state) {
+    for (TreePath path = state.getPath(); path != null; path = path.getParentPath()) {
+      Tree leaf = path.getLeaf();
+      if (leaf instanceof LambdaExpressionTree) {
+        return false;
+      }
+
+      if (leaf instanceof MethodTree) {
+        MethodSymbol symbol = ASTHelpers.getSymbol((MethodTree) leaf);
+        return symbol.isConstructor()
+            || INITIALIZATION_ANNOTATIONS.stream()
+                .anyMatch(annotation -> ASTHelpers.hasAnnotation(symbol, annotation, state));
+      }
+
+      if ((leaf instanceof VariableTree || leaf instanceof BlockTree)
+          && path.getParentPath().getLeaf() instanceof ClassTree) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,427 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.IfTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ConditionalExpressionTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.IfTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.Tree.Kind;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.Modifier;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link Map#containsKey(Object)} checks that are followed by
+ * another lookup of the same key, and suggests an alternative that requires only a single lookup.
+ *
+ * <p>The following patterns are flagged:
+ *
+ * <ul>
+ *   <li>{@code if (!map.containsKey(key)) { map.put(key, new V()); }}, optionally followed by a
+ *       statement that unconditionally invokes {@code map.get(key)} first, is replaced with a
+ *       {@link Map#computeIfAbsent(Object, java.util.function.Function)} invocation.
+ *   <li>{@code if (map.containsKey(key)) { value = map.get(key); }} is replaced with {@code value =
+ *       map.getOrDefault(key, value);}.
+ *   <li>{@code if (map.containsKey(key)) { V value = map.get(key); ... }} is replaced with a single
+ *       {@link Map#get(Object)} invocation followed by a {@code null} check.
+ * </ul>
+ *
+ * <p>Only maps and keys that are referenced by a variable or constant are considered, such that
+ * both lookups are guaranteed to operate on the same map and key.
+ *
+ * <p>NB: The first and last of these suggestions assume that the map does not contain {@code null}
+ * values, as is the case for most maps.
+ */
+// XXX: Also flag `if (map.containsKey(key)) { return map.get(key); }` and similar patterns in which
+// the result of the second lookup is not assigned to a variable.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid looking up the same map key more than once",
+    link = BUG_PATTERNS_BASE_URL + "RedundantMapLookup",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class RedundantMapLookup extends BugChecker implements IfTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final Matcher<ExpressionTree> MAP_CONTAINS_KEY =
+      instanceMethod().onDescendantOf(Map.class.getName()).named("containsKey");
+  private static final Matcher<ExpressionTree> MAP_GET =
+      instanceMethod().onDescendantOf(Map.class.getName()).named("get");
+  private static final Matcher<ExpressionTree> MAP_PUT =
+      instanceMethod().onDescendantOf(Map.class.getName()).named("put");
+
+  /** Instantiates a new {@link RedundantMapLookup} instance. */
+  public RedundantMapLookup() {}
+
+  @Override
+  public Description matchIf(IfTree tree, VisitorState state) {
+    ExpressionTree condition = ASTHelpers.stripParentheses(tree.getCondition());
+    boolean isNegated = condition.getKind() == Kind.LOGICAL_COMPLEMENT;
+    ExpressionTree check =
+        isNegated
+            ? ASTHelpers.stripParentheses(((UnaryTree) condition).getExpression())
+            : condition;
+    if (!MAP_CONTAINS_KEY.matches(check, state)) {
+      return Description.NO_MATCH;
+    }
+
+    MethodInvocationTree containsKey = (MethodInvocationTree) check;
+    ExpressionTree map = ASTHelpers.getReceiver(containsKey);
+    ExpressionTree key = containsKey.getArguments().get(0);
+    if (map == null || !isStable(map) || !isStable(key)) {
+      return Description.NO_MATCH;
+    }
+
+    Optional<SuggestedFix> fix =
+        isNegated
+            ? computeIfAbsent(tree, map, key, state)
+            : getOrDefault(tree, map, key, state).or(() -> getOnce(tree, map, key, state));
+    return fix.map(f -> describeMatch(tree, f)).orElse(Description.NO_MATCH);
+  }
+
+  /**
+   * Suggests replacing {@code if (!map.containsKey(key)) { map.put(key, new V()); }} with a {@link
+   * Map#computeIfAbsent(Object, java.util.function.Function)} invocation. If the next statement
+   * looks up the same key before evaluating anything else, then said lookup is replaced instead.
+   */
+  private static Optional<SuggestedFix> computeIfAbsent(
+      IfTree tree, ExpressionTree map, ExpressionTree key, VisitorState state) {
+    if (tree.getElseStatement() != null) {
+      return Optional.empty();
+    }
+
+    ExpressionTree put = getExpression(getSingleStatement(tree.getThenStatement()));
+    if (put == null || !isInvocationOn(put, MAP_PUT, map, key, state)) {
+      return Optional.empty();
+    }
+
+    ExpressionTree value = ((MethodInvocationTree) put).getArguments().get(1);
+    if (!(value instanceof NewClassTree)
+        || MoreASTHelpers.capturesNonEffectivelyFinalVariable(value)) {
+      return Optional.empty();
+    }
+
+    String replacement =
+        String.format(
+            "%s.computeIfAbsent(%s, %s -> %s)",
+            SourceCode.treeToString(map, state),
+            SourceCode.treeToString(key, state),
+            MoreASTHelpers.getUnusedName(
+                "k", state.findEnclosing(MethodTree.class, ClassTree.class)),
+            SourceCode.treeToString(value, state));
+
+    Optional<ExpressionTree> nextLookup =
+        getNextStatement(state)
+            .flatMap(next -> findLeadingInvocation(next, MAP_GET, map, key, state));
+    if (nextLookup.isEmpty()) {
+      return Optional.of(SuggestedFix.replace(tree, replacement + ';'));
+    }
+
+    return Optional.of(
+        SuggestedFix.builder().delete(tree).replace(nextLookup.orElseThrow(), replacement).build());
+  }
+
+  /**
+   * Suggests replacing {@code if (map.containsKey(key)) { value = map.get(key); }} with {@code
+   * value = map.getOrDefault(key, value);}.
+   */
+  private static Optional<SuggestedFix> getOrDefault(
+      IfTree tree, ExpressionTree map, ExpressionTree key, VisitorState state) {
+    if (tree.getElseStatement() != null) {
+      return Optional.empty();
+    }
+
+    ExpressionTree expression = getExpression(getSingleStatement(tree.getThenStatement()));
+    if (!(expression instanceof AssignmentTree)) {
+      return Optional.empty();
+    }
+
+    AssignmentTree assignment = (AssignmentTree) expression;
+    ExpressionTree variable = assignment.getVariable();
+    ExpressionTree get = ASTHelpers.stripParentheses(assignment.getExpression());
+    Type variableType = ASTHelpers.getType(variable);
+    Type valueType = ASTHelpers.getType(get);
+    if (!isInvocationOn(get, MAP_GET, map, key, state)
+        || !isStable(variable)
+        || isSameExpression(variable, map)
+        || isSameExpression(variable, key)
+        || variableType == null
+        || valueType == null
+        || !state.getTypes().isAssignable(variableType, valueType)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(
+        SuggestedFix.replace(
+            tree,
+            String.format(
+                "%s = %s.getOrDefault(%s, %s);",
+                SourceCode.treeToString(variable, state),
+                SourceCode.treeToString(map, state),
+                SourceCode.treeToString(key, state),
+                SourceCode.treeToString(variable, state))));
+  }
+
+  /**
+   * Suggests replacing {@code if (map.containsKey(key)) { V value = map.get(key); ... }} with a
+   * single lookup followed by a {@code null} check.
+   */
+  private static Optional<SuggestedFix> getOnce(
+      IfTree tree, ExpressionTree map, ExpressionTree key, VisitorState state) {
+    if (!(tree.getThenStatement() instanceof BlockTree)
+        || !(state.getPath().getParentPath().getLeaf() instanceof BlockTree)) {
+      return Optional.empty();
+    }
+
+    List<? extends StatementTree> statements =
+        ((BlockTree) tree.getThenStatement()).getStatements();
+    if (statements.isEmpty() || !(statements.get(0) instanceof VariableTree)) {
+      return Optional.empty();
+    }
+
+    VariableTree declaration = (VariableTree) statements.get(0);
+    VarSymbol symbol = ASTHelpers.getSymbol(declaration);
+    ExpressionTree initializer = declaration.getInitializer();
+    String name = declaration.getName().toString();
+    if (initializer == null
+        || !isInvocationOn(ASTHelpers.stripParentheses(initializer), MAP_GET, map, key, state)
+        || symbol.asType().isPrimitive()
+        || !declaration.getModifiers().getAnnotations().isEmpty()
+        || state.getSourceForNode(declaration.getType()) == null
+        || isDeclaredLater(name, tree, state)) {
+      return Optional.empty();
+    }
+
+    String hoistedDeclaration =
+        String.format(
+            "%s%s %s = %s;\n",
+            symbol.getModifiers().contains(Modifier.FINAL) ? "final " : "",
+            SourceCode.treeToString(declaration.getType(), state),
+            name,
+            SourceCode.treeToString(initializer, state));
+    return Optional.of(
+        SuggestedFix.builder()
+            .prefixWith(tree, hoistedDeclaration)
+            .replace(tree.getCondition(), String.format("(%s != null)", name))
+            .delete(declaration)
+            .build());
+  }
+
+  /**
+   * Tells whether a variable with the given name is declared by the else branch of the given if
+   * statement, or by any of the statements that follow it; in that case the variable declared by
+   * the then branch cannot be moved into the enclosing scope.
+   */
+  private static boolean isDeclaredLater(String name, IfTree tree, VisitorState state) {
+    BlockTree block = (BlockTree) state.getPath().getParentPath().getLeaf();
+    List<? extends StatementTree> statements = block.getStatements();
+    List<? extends StatementTree> laterStatements =
+        statements.subList(statements.indexOf(tree) + 1, statements.size());
+    return declaresVariable(tree.getElseStatement(), name)
+        || laterStatements.stream().anyMatch(statement -> declaresVariable(statement, name));
+  }
+
+  private static boolean declaresVariable(@Nullable Tree tree, String name) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitVariable(VariableTree node, @Nullable Void unused) {
+            return node.getName().contentEquals(name) || super.visitVariable(node, unused);
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  private static @Nullable StatementTree getSingleStatement(StatementTree tree) {
+    if (!(tree instanceof BlockTree)) {
+      return tree;
+    }
+
+    List<? extends StatementTree> statements = ((BlockTree) tree).getStatements();
+    return statements.size() == 1 ? statements.get(0) : null;
+  }
+
+  private static @Nullable ExpressionTree getExpression(@Nullable StatementTree tree) {
+    return tree instanceof ExpressionStatementTree
+        ? ASTHelpers.stripParentheses(((ExpressionStatementTree) tree).getExpression())
+        : null;
+  }
+
+  private static Optional<StatementTree> getNextStatement(VisitorState state) {
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    if (!(parent instanceof BlockTree)) {
+      return Optional.empty();
+    }
+
+    List<? extends StatementTree> statements = ((BlockTree) parent).getStatements();
+    int index = statements.indexOf(state.getPath().getLeaf());
+    return index + 1 < statements.size()
+        ? Optional.of(statements.get(index + 1))
+        : Optional.empty();
+  }
+
+  /**
+   * Returns the invocation of the given map method with the given key that is evaluated before any
+   * other code in the given statement, if any.
+   *
+   * <p>Invocations that are evaluated only conditionally, or only after other code that may throw
+   * an exception, are not returned.
+   */
+  private static Optional<ExpressionTree> findLeadingInvocation(
+      StatementTree statement,
+      Matcher<ExpressionTree> method,
+      ExpressionTree map,
+      ExpressionTree key,
+      VisitorState state) {
+    for (ExpressionTree current = getEvaluatedExpression(statement);
+        current != null;
+        current = getFirstEvaluatedOperand(current)) {
+      if (isInvocationOn(current, method, map, key, state)) {
+        return Optional.of(current);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  private static @Nullable ExpressionTree getEvaluatedExpression(StatementTree statement) {
+    if (statement instanceof VariableTree) {
+      return ((VariableTree) statement).getInitializer();
+    }
+
+    if (statement instanceof ReturnTree) {
+      return ((ReturnTree) statement).getExpression();
+    }
+
+    return getExpression(statement);
+  }
+
+  /**
+   * Returns the operand of the given expression that is unconditionally evaluated before any other
+   * part of said expression, if it can be determined.
+   */
+  private static @Nullable ExpressionTree getFirstEvaluatedOperand(ExpressionTree tree) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (expression instanceof MethodInvocationTree) {
+      MethodInvocationTree invocation = (MethodInvocationTree) expression;
+      ExpressionTree receiver = ASTHelpers.getReceiver(invocation);
+      if (receiver != null && !ASTHelpers.isStatic(ASTHelpers.getSymbol(invocation))) {
+        return receiver;
+      }
+
+      return invocation.getArguments().isEmpty() ? null : invocation.getArguments().get(0);
+    }
+
+    if (expression instanceof MemberSelectTree) {
+      return ((MemberSelectTree) expression).getExpression();
+    }
+
+    if (expression instanceof TypeCastTree) {
+      return ((TypeCastTree) expression).getExpression();
+    }
+
+    if (expression instanceof AssignmentTree) {
+      AssignmentTree assignment = (AssignmentTree) expression;
+      return assignment.getVariable() instanceof IdentifierTree ? assignment.getExpression() : null;
+    }
+
+    if (expression instanceof BinaryTree) {
+      return ((BinaryTree) expression).getLeftOperand();
+    }
+
+    if (expression instanceof ConditionalExpressionTree) {
+      return ((ConditionalExpressionTree) expression).getCondition();
+    }
+
+    return null;
+  }
+
+  /**
+   * Tells whether the given expression invokes the given map method on the given map, with the
+   * given key as its first argument.
+   */
+  private static boolean isInvocationOn(
+      @Nullable ExpressionTree tree,
+      Matcher<ExpressionTree> method,
+      ExpressionTree map,
+      ExpressionTree key,
+      VisitorState state) {
+    if (!(tree instanceof MethodInvocationTree) || !method.matches(tree, state)) {
+      return false;
+    }
+
+    MethodInvocationTree invocation = (MethodInvocationTree) tree;
+    ExpressionTree receiver = ASTHelpers.getReceiver(invocation);
+    return receiver != null
+        && isSameExpression(receiver, map)
+        && isSameExpression(invocation.getArguments().get(0), key);
+  }
+
+  /**
+   * Tells whether the given expression is guaranteed to evaluate to the same value each time it is
+   * evaluated, barring intermediate assignments.
+   */
+  private static boolean isStable(ExpressionTree tree) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (ASTHelpers.constValue(expression) != null) {
+      return true;
+    }
+
+    if (!(ASTHelpers.getSymbol(expression) instanceof VarSymbol)) {
+      return false;
+    }
+
+    return expression instanceof IdentifierTree
+        || (expression instanceof MemberSelectTree
+            && isStable(((MemberSelectTree) expression).getExpression()));
+  }
+
+  private static boolean isSameExpression(ExpressionTree tree1, ExpressionTree tree2) {
+    ExpressionTree expression1 = ASTHelpers.stripParentheses(tree1);
+    ExpressionTree expression2 = ASTHelpers.stripParentheses(tree2);
+    Object value = ASTHelpers.constValue(expression1);
+    return value != null
+        ? value.equals(ASTHelpers.constValue(expression2))
+        : ASTHelpers.sameVariable(expression1, expression2);
+  }
+}
@@ -0,0 +1,202 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.constructor;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.NewClassTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistableExpressions;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistedFields;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link BigDecimal} instances that are created each time a method
+ * or lambda expression is executed, even though they are derived from only constants.
+ *
+ * <p>Constructing a {@link BigDecimal} from a {@link String} or {@code double} requires parsing or
+ * formatting its representation. As {@link BigDecimal}s are immutable, such values can instead be
+ * created once and stored in a {@code private static final} field.
+ *
+ * <p>Note that {@link BigDecimal#valueOf(long)} returns cached instances for the values zero
+ * through ten, and that {@code BigDecimalRules} rewrites some other expressions to {@link
+ * BigDecimal#ZERO}, {@link BigDecimal#ONE} and {@link BigDecimal#TEN}; such expressions are not
+ * flagged.
+ */
+// XXX: Also flag arithmetic on constant `BigDecimal`s, such as `ONE.divide(HUNDRED)`.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Constant `BigDecimal`s should be created once and stored in a constant",
+    link = BUG_PATTERNS_BASE_URL + "RepeatedBigDecimalConstruction",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class RepeatedBigDecimalConstruction extends BugChecker
+    implements MethodInvocationTreeMatcher, NewClassTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String FIELD_NAME = "DECIMAL";
+  private static final ImmutableSet<String> WELL_KNOWN_STRING_VALUES =
+      ImmutableSet.of("0", "1", "10");
+  private static final Matcher<ExpressionTree> BIG_DECIMAL_CONSTRUCTOR =
+      constructor().forClass(BigDecimal.class.getName());
+  private static final Matcher<ExpressionTree> BIG_DECIMAL_FACTORY =
+      staticMethod().onClass(BigDecimal.class.getName()).named("valueOf");
+  private static final HoistableExpressions HOISTABLE_EXPRESSIONS = new ConstantBigDecimals();
+
+  /** Instantiates a new {@link RepeatedBigDecimalConstruction} instance. */
+  public RepeatedBigDecimalConstruction() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    return match(tree, state);
+  }
+
+  @Override
+  public Description matchNewClass(NewClassTree tree, VisitorState state) {
+    return match(tree, state);
+  }
+
+  private Description match(ExpressionTree tree, VisitorState state) {
+    if (!isHoistableExpression(tree, state)
+        || !FieldHoisting.isExecutedRepeatedly(state.getPath())) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    FieldHoisting.findTargetClass(state.getPath())
+        .filter(targetClass -> FieldHoisting.canReferenceStaticFields(tree, targetClass))
+        .flatMap(targetClass -> hoistConstant(tree, targetClass, state))
+        .ifPresent(description::addFix);
+    return description.build();
+  }
+
+  /**
+   * Tells whether the given expression creates a {@link BigDecimal} from only constants, and does
+   * not yield a cached or well-known instance.
+   */
+  private static boolean isHoistableExpression(ExpressionTree tree, VisitorState state) {
+    if (tree instanceof NewClassTree && BIG_DECIMAL_CONSTRUCTOR.matches(tree, state)) {
+      NewClassTree newClass = (NewClassTree) tree;
+      List<? extends ExpressionTree> arguments = newClass.getArguments();
+      return newClass.getClassBody() == null
+          && !(arguments.size() == 1
+              && WELL_KNOWN_STRING_VALUES.contains(ASTHelpers.constValue(arguments.get(0))))
+          && arguments.stream().allMatch(RepeatedBigDecimalConstruction::isConstant);
+    }
+
+    if (tree instanceof MethodInvocationTree && BIG_DECIMAL_FACTORY.matches(tree, state)) {
+      List<? extends ExpressionTree> arguments = ((MethodInvocationTree) tree).getArguments();
+      return !(arguments.size() == 1 && isCachedValue(arguments.get(0)))
+          && arguments.stream().allMatch(RepeatedBigDecimalConstruction::isConstant);
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether {@link BigDecimal#valueOf(long)} returns a cached instance for the given value.
+   */
+  private static boolean isCachedValue(ExpressionTree tree) {
+    Object value = ASTHelpers.constValue(tree);
+    if (value instanceof Integer || value instanceof Long) {
+      long longValue = ((Number) value).longValue();
+      return longValue >= 0 && longValue <= 10;
+    }
+
+    return false;
+  }
+
+  private static boolean isConstant(ExpressionTree tree) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (expression instanceof IdentifierTree || expression instanceof MemberSelectTree) {
+      Symbol symbol = ASTHelpers.getSymbol(expression);
+      if (symbol instanceof VarSymbol
+          && (symbol.getKind() == ElementKind.ENUM_CONSTANT
+              || symbol.getKind() == ElementKind.FIELD)
+          && ASTHelpers.isStatic(symbol)
+          && symbol.getModifiers().contains(Modifier.FINAL)) {
+        return true;
+      }
+    }
+
+    return ASTHelpers.constValue(expression) != null;
+  }
+
+  private static Optional<SuggestedFix> hoistConstant(
+      ExpressionTree tree, ClassTree targetClass, VisitorState state) {
+    String key = getKey(tree, state);
+    HoistedFields fields =
+        FieldHoisting.getHoistedFields(targetClass, HOISTABLE_EXPRESSIONS, state);
+    return fields
+        .getFieldName(key)
+        .map(
+            fieldName -> {
+              SuggestedFix.Builder fix = SuggestedFix.builder();
+              if (fields.isDeclaredBy(tree, key)) {
+                String declaration =
+                    String.format(
+                        "private static final %s %s = %s;",
+                        SuggestedFixes.qualifyType(state, fix, BigDecimal.class.getName()),
+                        fieldName,
+                        SourceCode.treeToString(tree, state));
+                fix.merge(
+                    FieldHoisting.addField(
+                        targetClass, declaration, ImmutableList.of(tree), state));
+              }
+
+              return fix.replace(tree, fieldName).build();
+            });
+  }
+
+  /**
+   * Returns a key that identifies the {@link BigDecimal} created by the given expression, based on
+   * its source code.
+   */
+  private static String getKey(ExpressionTree tree, VisitorState state) {
+    return CharMatcher.whitespace().removeFrom(SourceCode.treeToString(tree, state));
+  }
+
+  /** The constant {@link BigDecimal}s created by a class. */
+  private static final class ConstantBigDecimals implements HoistableExpressions {
+    @Override
+    public Optional<String> getKey(ExpressionTree tree, VisitorState state) {
+      return isHoistableExpression(tree, state)
+          ? Optional.of(RepeatedBigDecimalConstruction.getKey(tree, state))
+          : Optional.empty();
+    }
+
+    @Override
+    public String getFieldName(ExpressionTree tree, VisitorState state) {
+      return FIELD_NAME;
+    }
+  }
+}
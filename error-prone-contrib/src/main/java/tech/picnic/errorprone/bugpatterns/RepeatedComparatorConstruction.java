@@ -0,0 +1,318 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.TypeTag;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistableExpressions;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistedFields;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link Comparator} chains that are constructed each time a method
+ * or lambda expression is executed, even though they do not depend on any local state.
+ *
+ * <p>Chains such as {@code comparing(A::x).thenComparing(A::y)} allocate a new comparator instance
+ * for each link in the chain. If such a chain is built from only method references on types,
+ * non-capturing lambda expressions and constants, then it can instead be constructed once and
+ * stored in a {@code private static final} {@link Comparator} field.
+ *
+ * <p>Note that {@link Comparator#naturalOrder()}, {@link Comparator#reverseOrder()} and similar
+ * parameterless factory methods return shared instances; such invocations are not flagged.
+ */
+// XXX: Derive a more descriptive field name from the chain's key extractors, e.g. `BY_X_THEN_Y`.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Constant comparator chains should be constructed once and stored in a constant",
+    link = BUG_PATTERNS_BASE_URL + "RepeatedComparatorConstruction",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class RepeatedComparatorConstruction extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String FIELD_NAME = "COMPARATOR";
+  private static final Matcher<ExpressionTree> COMPARATOR_FACTORY =
+      anyOf(
+          staticMethod()
+              .onClass(Comparator.class.getName())
+              .namedAnyOf(
+                  "comparing",
+                  "comparingDouble",
+                  "comparingInt",
+                  "comparingLong",
+                  "naturalOrder",
+                  "nullsFirst",
+                  "nullsLast",
+                  "reverseOrder"),
+          staticMethod()
+              .onClass(Map.Entry.class.getCanonicalName())
+              .namedAnyOf("comparingByKey", "comparingByValue"));
+  private static final Matcher<ExpressionTree> COMPARATOR_OPERATION =
+      instanceMethod()
+          .onDescendantOf(Comparator.class.getName())
+          .namedAnyOf(
+              "reversed",
+              "thenComparing",
+              "thenComparingDouble",
+              "thenComparingInt",
+              "thenComparingLong");
+  private static final HoistableExpressions HOISTABLE_EXPRESSIONS = new ConstantChains();
+
+  /** Instantiates a new {@link RepeatedComparatorConstruction} instance. */
+  public RepeatedComparatorConstruction() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!isHoistableChain(tree, state)
+        || isPartOfConstantChain(state.getPath(), state)
+        || !FieldHoisting.isExecutedRepeatedly(state.getPath())) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    FieldHoisting.findTargetClass(state.getPath())
+        .filter(targetClass -> isDeclarable(ASTHelpers.getType(tree)))
+        .filter(targetClass -> FieldHoisting.canReferenceStaticFields(tree, targetClass))
+        .flatMap(targetClass -> hoistComparator(tree, targetClass, state))
+        .ifPresent(description::addFix);
+    return description.build();
+  }
+
+  /**
+   * Tells whether the given expression is a constant {@link Comparator} chain that allocates at
+   * least one object.
+   */
+  private static boolean isHoistableChain(MethodInvocationTree tree, VisitorState state) {
+    return isConstantChain(tree, state)
+        && !(COMPARATOR_FACTORY.matches(tree, state) && tree.getArguments().isEmpty());
+  }
+
+  /**
+   * Tells whether the given expression is a {@link Comparator} chain that does not depend on local
+   * state.
+   */
+  private static boolean isConstantChain(ExpressionTree tree, VisitorState state) {
+    if (!(tree instanceof MethodInvocationTree)) {
+      return false;
+    }
+
+    MethodInvocationTree invocation = (MethodInvocationTree) tree;
+    if (COMPARATOR_OPERATION.matches(invocation, state)) {
+      ExpressionTree receiver = ASTHelpers.getReceiver(invocation);
+      if (receiver == null || !isConstantChain(ASTHelpers.stripParentheses(receiver), state)) {
+        return false;
+      }
+    } else if (!COMPARATOR_FACTORY.matches(invocation, state)) {
+      return false;
+    }
+
+    return invocation.getArguments().stream().allMatch(argument -> isConstant(argument, state));
+  }
+
+  private static boolean isConstant(ExpressionTree tree, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (expression instanceof MemberReferenceTree) {
+      Symbol qualifier =
+          ASTHelpers.getSymbol(((MemberReferenceTree) expression).getQualifierExpression());
+      return qualifier instanceof ClassSymbol && !isLocal((ClassSymbol) qualifier);
+    }
+
+    if (expression instanceof LambdaExpressionTree) {
+      return !isCapturing((LambdaExpressionTree) expression);
+    }
+
+    if (expression instanceof IdentifierTree || expression instanceof MemberSelectTree) {
+      Symbol symbol = ASTHelpers.getSymbol(expression);
+      return symbol instanceof VarSymbol
+          && symbol.getKind() == ElementKind.FIELD
+          && ASTHelpers.isStatic(symbol)
+          && symbol.getModifiers().contains(Modifier.FINAL);
+    }
+
+    return ASTHelpers.constValue(expression) != null || isConstantChain(expression, state);
+  }
+
+  /**
+   * Tells whether the given lambda expression references local variables declared outside of it, or
+   * members of an enclosing instance.
+   */
+  private static boolean isCapturing(LambdaExpressionTree tree) {
+    Set<Symbol> declaredSymbols = new HashSet<>();
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitVariable(VariableTree node, @Nullable Void unused) {
+            declaredSymbols.add(ASTHelpers.getSymbol(node));
+            return super.visitVariable(node, unused);
+          }
+
+          @Override
+          public Boolean visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+            Symbol symbol = ASTHelpers.getSymbol(node);
+            if (symbol == null) {
+              return false;
+            }
+
+            if (MoreASTHelpers.isLocalVariable(symbol)) {
+              return !declaredSymbols.contains(symbol);
+            }
+
+            if (symbol instanceof ClassSymbol) {
+              return isLocal((ClassSymbol) symbol);
+            }
+
+            return node.getName().contentEquals("this")
+                || node.getName().contentEquals("super")
+                || ((symbol.getKind() == ElementKind.FIELD
+                        || symbol.getKind() == ElementKind.METHOD)
+                    && !ASTHelpers.isStatic(symbol));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  /** Tells whether the expression at the given path is part of a larger constant chain. */
+  private static boolean isPartOfConstantChain(TreePath path, VisitorState state) {
+    for (TreePath current = path.getParentPath();
+        current != null && !(current.getLeaf() instanceof MethodTree);
+        current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof MethodInvocationTree
+          && isConstantChain((MethodInvocationTree) leaf, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given class is a local or anonymous class, or is nested inside one. Such
+   * classes cannot be referenced from outside the enclosing method.
+   */
+  private static boolean isLocal(ClassSymbol symbol) {
+    for (ClassSymbol current = symbol;
+        current != null;
+        current = ASTHelpers.enclosingClass(current)) {
+      if (current.getNestingKind() == NestingKind.LOCAL
+          || current.getNestingKind() == NestingKind.ANONYMOUS) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /** Tells whether the given type can be used as the type of a static field. */
+  private static boolean isDeclarable(@Nullable Type type) {
+    return type != null
+        && !type.hasTag(TypeTag.TYPEVAR)
+        && !(type.tsym instanceof ClassSymbol && isLocal((ClassSymbol) type.tsym))
+        && type.getTypeArguments().stream()
+            .allMatch(
+                argument ->
+                    isDeclarable(
+                        argument.hasTag(TypeTag.WILDCARD)
+                            ? ((Type.WildcardType) argument).type
+                            : argument));
+  }
+
+  private static Optional<SuggestedFix> hoistComparator(
+      MethodInvocationTree tree, ClassTree targetClass, VisitorState state) {
+    String key = getKey(tree, state);
+    HoistedFields fields =
+        FieldHoisting.getHoistedFields(targetClass, HOISTABLE_EXPRESSIONS, state);
+    return fields
+        .getFieldName(key)
+        .map(
+            fieldName -> {
+              SuggestedFix.Builder fix = SuggestedFix.builder();
+              if (fields.isDeclaredBy(tree, key)) {
+                String declaration =
+                    String.format(
+                        "private static final %s %s = %s;",
+                        SuggestedFixes.prettyType(state, fix, ASTHelpers.getType(tree)),
+                        fieldName,
+                        SourceCode.treeToString(tree, state));
+                fix.merge(
+                    FieldHoisting.addField(
+                        targetClass, declaration, ImmutableList.of(tree), state));
+              }
+
+              return fix.replace(tree, fieldName).build();
+            });
+  }
+
+  /**
+   * Returns a key that identifies the comparator constructed by the given chain, based on its
+   * source code.
+   */
+  private static String getKey(ExpressionTree tree, VisitorState state) {
+    return CharMatcher.whitespace().removeFrom(SourceCode.treeToString(tree, state));
+  }
+
+  /** The constant comparator chains constructed by a class. */
+  private static final class ConstantChains implements HoistableExpressions {
+    @Override
+    public Optional<String> getKey(ExpressionTree tree, VisitorState state) {
+      return tree instanceof MethodInvocationTree
+              && isHoistableChain((MethodInvocationTree) tree, state)
+          ? Optional.of(RepeatedComparatorConstruction.getKey(tree, state))
+          : Optional.empty();
+    }
+
+    @Override
+    public String getFieldName(ExpressionTree tree, VisitorState state) {
+      return FIELD_NAME;
+    }
+  }
+}
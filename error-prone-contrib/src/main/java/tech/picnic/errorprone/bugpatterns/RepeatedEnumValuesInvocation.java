@@ -0,0 +1,361 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ArrayAccessTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+import tech.picnic.errorprone.bugpatterns.util.ThirdPartyLibrary;
+
+/**
+ * A {@link BugChecker} that flags invocations of an enum's synthetic {@code values()} method on
+ * code paths that are likely to be executed frequently.
+ *
+ * <p>Each invocation of {@code values()} allocates a defensive copy of the enum's constants. Inside
+ * loops, lambda expressions, stream pipelines and methods such as {@link Object#equals(Object)},
+ * {@link Object#hashCode()} and {@link Comparable#compareTo(Object)} this causes avoidable
+ * allocation churn. Where possible, the suggested fix caches the enum's constants in a {@code
+ * private static final} immutable list. Such a list preserves the enum's declaration order, such
+ * that code relying on said order (as enforced for {@link
+ * com.google.common.collect.Ordering#explicit explicit orderings} by {@link ExplicitEnumOrdering})
+ * continues to work as-is. Code that performs membership tests should instead consider {@link
+ * java.util.EnumSet#allOf(Class)}.
+ */
+// XXX: Consider also flagging `values()` invocations in methods that are invoked from a loop or
+// lambda expression.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Each `values()` invocation clones the enum's constants; consider caching them in a "
+            + "constant",
+    link = BUG_PATTERNS_BASE_URL + "RepeatedEnumValuesInvocation",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class RepeatedEnumValuesInvocation extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String FIELD_NAME_SUFFIX = "VALUES";
+  private static final ImmutableSet<String> FREQUENTLY_INVOKED_METHODS =
+      ImmutableSet.of("compareTo", "equals", "hashCode");
+  private static final ImmutableSet<String> READ_ONLY_LIST_METHODS =
+      ImmutableSet.of("contains", "get", "indexOf", "isEmpty", "size", "stream");
+  private static final Matcher<ExpressionTree> STREAM_FROM_ARRAY =
+      anyOf(
+          staticMethod().onClass(Arrays.class.getName()).named("stream"),
+          staticMethod().onClass(Stream.class.getName()).named("of"));
+  private static final Matcher<ExpressionTree> LIST_FROM_ARRAY =
+      anyOf(
+          staticMethod().onClass(Arrays.class.getName()).named("asList"),
+          staticMethod().onClass(List.class.getName()).named("of"),
+          staticMethod().onClass("com.google.common.collect.ImmutableList").named("copyOf"));
+
+  /** Instantiates a new {@link RepeatedEnumValuesInvocation} instance. */
+  public RepeatedEnumValuesInvocation() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    Optional<ClassSymbol> enumType = getEnumType(tree);
+    if (enumType.isEmpty() || !isInvokedRepeatedly(state.getPath(), state)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    FieldHoisting.findTargetClass(state.getPath())
+        .flatMap(
+            targetClass -> cacheValues(state.getPath(), enumType.orElseThrow(), targetClass, state))
+        .ifPresent(description::addFix);
+    return description.build();
+  }
+
+  /**
+   * Returns the enum type whose {@code values()} method is invoked by the given method invocation,
+   * if any.
+   */
+  private static Optional<ClassSymbol> getEnumType(MethodInvocationTree tree) {
+    MethodSymbol method = ASTHelpers.getSymbol(tree);
+    return method.getSimpleName().contentEquals("values")
+            && method.isStatic()
+            && method.getParameters().isEmpty()
+            && method.owner.getKind() == ElementKind.ENUM
+        ? Optional.of((ClassSymbol) method.owner)
+        : Optional.empty();
+  }
+
+  /**
+   * Tells whether the code at the given path is part of a loop, lambda expression, stream pipeline
+   * or frequently invoked method.
+   */
+  private static boolean isInvokedRepeatedly(TreePath path, VisitorState state) {
+    @Var
+    @Nullable
+    Tree child = null;
+    @Var boolean inLoopOrLambda = false;
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof ClassTree) {
+        return inLoopOrLambda;
+      }
+
+      if (leaf instanceof MethodTree) {
+        return inLoopOrLambda
+            || isStreamSource(path, state)
+            || FREQUENTLY_INVOKED_METHODS.contains(((MethodTree) leaf).getName().toString());
+      }
+
+      inLoopOrLambda |=
+          leaf instanceof LambdaExpressionTree
+              || MoreASTHelpers.isRepeatedlyExecutedPart(leaf, child);
+      child = leaf;
+    }
+
+    return false;
+  }
+
+  private static boolean isStreamSource(TreePath path, VisitorState state) {
+    Tree parent = path.getParentPath().getLeaf();
+    return parent instanceof MethodInvocationTree
+        && ((MethodInvocationTree) parent).getArguments().size() == 1
+        && STREAM_FROM_ARRAY.matches((MethodInvocationTree) parent, state);
+  }
+
+  private static Optional<SuggestedFix> cacheValues(
+      TreePath path, ClassSymbol enumType, ClassTree targetClass, VisitorState state) {
+    if (!FieldHoisting.canReferenceStaticFields(path.getLeaf(), targetClass)) {
+      return Optional.empty();
+    }
+
+    ClassSymbol targetSymbol = ASTHelpers.getSymbol(targetClass);
+    Optional<String> existingField = findValuesConstant(enumType, targetClass, state);
+    String fieldName = existingField.orElseGet(() -> getFieldName(enumType, targetSymbol));
+    if (existingField.isEmpty() && isNameTaken(fieldName, targetClass)) {
+      return Optional.empty();
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    if (!replaceValuesInvocation(path, fieldName, fix, state)) {
+      return Optional.empty();
+    }
+
+    if (existingField.isEmpty() && isFirstOccurrence(path, enumType, targetClass, state)) {
+      String elementType = SuggestedFixes.qualifyType(state, fix, enumType);
+      boolean useGuava = ThirdPartyLibrary.GUAVA.isIntroductionAllowed(state);
+      String listType =
+          SuggestedFixes.qualifyType(
+              state,
+              fix,
+              useGuava ? "com.google.common.collect.ImmutableList" : List.class.getName());
+      String declaration =
+          String.format(
+              "private static final %s<%s> %s = %s.%s(%s.values());",
+              listType, elementType, fieldName, listType, useGuava ? "copyOf" : "of", elementType);
+      fix.merge(FieldHoisting.addField(targetClass, declaration, ImmutableList.of(), state));
+    }
+
+    return Optional.of(fix.build());
+  }
+
+  private static String getFieldName(ClassSymbol enumType, ClassSymbol targetClass) {
+    return enumType.equals(targetClass)
+        ? FIELD_NAME_SUFFIX
+        : CaseFormat.UPPER_CAMEL.to(
+                CaseFormat.UPPER_UNDERSCORE, enumType.getSimpleName().toString())
+            + '_'
+            + FIELD_NAME_SUFFIX;
+  }
+
+  private static boolean isNameTaken(String name, ClassTree targetClass) {
+    return targetClass.getMembers().stream()
+        .anyMatch(
+            member ->
+                member instanceof VariableTree
+                    && ((VariableTree) member).getName().contentEquals(name));
+  }
+
+  /**
+   * Returns the name of a {@code static final} field declared by the given class that holds a list
+   * of the given enum's constants, if any.
+   */
+  private static Optional<String> findValuesConstant(
+      ClassSymbol enumType, ClassTree targetClass, VisitorState state) {
+    for (Tree member : targetClass.getMembers()) {
+      if (member instanceof VariableTree) {
+        VariableTree variable = (VariableTree) member;
+        VarSymbol symbol = ASTHelpers.getSymbol(variable);
+        ExpressionTree initializer = variable.getInitializer();
+        if (symbol.isStatic()
+            && symbol.getModifiers().contains(Modifier.FINAL)
+            && initializer instanceof MethodInvocationTree
+            && LIST_FROM_ARRAY.matches(initializer, state)
+            && isValuesInvocationOf(enumType, (MethodInvocationTree) initializer)
+            && !ASTHelpers.getSymbol(initializer).getSimpleName().contentEquals("asList")) {
+          return Optional.of(variable.getName().toString());
+        }
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  private static boolean isValuesInvocationOf(ClassSymbol enumType, MethodInvocationTree tree) {
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    return arguments.size() == 1
+        && arguments.get(0) instanceof MethodInvocationTree
+        && getEnumType((MethodInvocationTree) arguments.get(0))
+            .filter(enumType::equals)
+            .isPresent();
+  }
+
+  /**
+   * Replaces the {@code values()} invocation at the given path with a reference to the given list
+   * field, if the context in which the invocation occurs permits this.
+   */
+  private static boolean replaceValuesInvocation(
+      TreePath path, String fieldName, SuggestedFix.Builder fix, VisitorState state) {
+    Tree tree = path.getLeaf();
+    Tree parent = path.getParentPath().getLeaf();
+    if (parent instanceof EnhancedForLoopTree) {
+      fix.replace(tree, fieldName);
+      return true;
+    }
+
+    if (parent instanceof MemberSelectTree
+        && ((MemberSelectTree) parent).getIdentifier().contentEquals("length")) {
+      fix.replace(parent, fieldName + ".size()");
+      return true;
+    }
+
+    if (parent instanceof ArrayAccessTree && ((ArrayAccessTree) parent).getExpression() == tree) {
+      fix.replace(
+          parent,
+          String.format(
+              "%s.get(%s)",
+              fieldName, SourceCode.treeToString(((ArrayAccessTree) parent).getIndex(), state)));
+      return true;
+    }
+
+    if (parent instanceof MethodInvocationTree
+        && ((MethodInvocationTree) parent).getArguments().size() == 1) {
+      if (STREAM_FROM_ARRAY.matches((MethodInvocationTree) parent, state)) {
+        fix.replace(parent, fieldName + ".stream()");
+        return true;
+      }
+
+      if (LIST_FROM_ARRAY.matches((MethodInvocationTree) parent, state)
+          && (!isArraysAsList((MethodInvocationTree) parent)
+              || isReadOnlyUse(path.getParentPath()))) {
+        fix.replace(parent, fieldName);
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean isArraysAsList(MethodInvocationTree tree) {
+    return ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("asList");
+  }
+
+  /**
+   * Tells whether the list at the given path is only read, such that replacing it with an immutable
+   * list does not change the code's behavior.
+   */
+  private static boolean isReadOnlyUse(TreePath path) {
+    Tree tree = path.getLeaf();
+    Tree parent = path.getParentPath().getLeaf();
+    if (parent instanceof EnhancedForLoopTree) {
+      return ((EnhancedForLoopTree) parent).getExpression() == tree;
+    }
+
+    return parent instanceof MemberSelectTree
+        && READ_ONLY_LIST_METHODS.contains(((MemberSelectTree) parent).getIdentifier().toString());
+  }
+
+  /**
+   * Tells whether the given path points at the first {@code values()} invocation of the given enum
+   * type within the given class for which a field should be introduced.
+   */
+  private static boolean isFirstOccurrence(
+      TreePath path, ClassSymbol enumType, ClassTree targetClass, VisitorState state) {
+    Tree tree = path.getLeaf();
+    return Boolean.TRUE.equals(
+        new TreePathScanner<@Nullable Boolean, @Nullable Void>() {
+          @Override
+          public @Nullable Boolean visitClass(ClassTree node, @Nullable Void unused) {
+            return node != targetClass && FieldHoisting.canDeclareStaticFields(node)
+                ? null
+                : super.visitClass(node, unused);
+          }
+
+          @Override
+          public @Nullable Boolean visitMethodInvocation(
+              MethodInvocationTree node, @Nullable Void unused) {
+            TreePath currentPath = getCurrentPath();
+            if (getEnumType(node).filter(enumType::equals).isPresent()
+                && isInvokedRepeatedly(currentPath, state)
+                && FieldHoisting.canReferenceStaticFields(node, targetClass)
+                && replaceValuesInvocation(
+                    currentPath, FIELD_NAME_SUFFIX, SuggestedFix.builder(), state)) {
+              return node == tree;
+            }
+
+            return super.visitMethodInvocation(node, unused);
+          }
+
+          @Override
+          public @Nullable Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            /* `r2` holds the result of the preceding (sibling) trees. */
+            return r2 != null ? r2 : r1;
+          }
+        }.scan(getPathTo(targetClass, path), null));
+  }
+
+  private static TreePath getPathTo(ClassTree targetClass, TreePath path) {
+    @Var TreePath current = path;
+    while (current.getLeaf() != targetClass) {
+      current = current.getParentPath();
+    }
+    return current;
+  }
+}
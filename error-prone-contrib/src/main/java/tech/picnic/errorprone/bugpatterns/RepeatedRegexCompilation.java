@@ -0,0 +1,262 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CharMatcher;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistableExpressions;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistedFields;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags regular expressions that are compiled each time a method or
+ * lambda expression is executed, even though the regular expression is a compile-time constant.
+ *
+ * <p>{@link String#matches(String)}, {@link String#replaceAll(String, String)}, {@link
+ * String#replaceFirst(String, String)}, {@link String#split(String)} and {@link
+ * Pattern#matches(String, CharSequence)} compile their regular expression argument on every
+ * invocation, as does an explicit {@link Pattern#compile(String)} invocation. When the regular
+ * expression is constant, it is more efficient to compile it once and to store the result in a
+ * {@code private static final} {@link Pattern} field.
+ *
+ * <p>NB: {@link String#split(String)} does not compile single-character separators and escaped
+ * non-alphanumeric characters; such invocations are not flagged.
+ */
+// XXX: Also flag Guava's `Splitter#onPattern(String)` with a constant argument.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Constant regular expressions should be compiled once and stored in a constant",
+    link = BUG_PATTERNS_BASE_URL + "RepeatedRegexCompilation",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class RepeatedRegexCompilation extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String FIELD_NAME = "PATTERN";
+  private static final String SPLIT_FAST_PATH_METACHARACTERS = ".$|()[{^?*+\\";
+  private static final CharMatcher ASCII_ALPHANUMERIC =
+      CharMatcher.inRange('0', '9')
+          .or(CharMatcher.inRange('a', 'z'))
+          .or(CharMatcher.inRange('A', 'Z'));
+  private static final Matcher<ExpressionTree> STRING_REGEX_METHOD =
+      instanceMethod()
+          .onExactClass(String.class.getName())
+          .namedAnyOf("matches", "replaceAll", "replaceFirst", "split");
+  private static final Matcher<ExpressionTree> PATTERN_COMPILE =
+      staticMethod().onClass(Pattern.class.getName()).named("compile");
+  private static final Matcher<ExpressionTree> PATTERN_MATCHES =
+      staticMethod().onClass(Pattern.class.getName()).named("matches");
+  private static final HoistableExpressions HOISTABLE_EXPRESSIONS = new ConstantRegexes();
+
+  /** Instantiates a new {@link RepeatedRegexCompilation} instance. */
+  public RepeatedRegexCompilation() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    Optional<String> key = getConstantRegexKey(tree, state);
+    if (key.isEmpty() || !FieldHoisting.isExecutedRepeatedly(state.getPath())) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    FieldHoisting.findTargetClass(state.getPath())
+        .filter(targetClass -> FieldHoisting.canReferenceStaticFields(tree, targetClass))
+        .flatMap(targetClass -> hoistPattern(tree, key.orElseThrow(), targetClass, state))
+        .ifPresent(description::addFix);
+    return description.build();
+  }
+
+  /**
+   * Returns a key that uniquely identifies the {@link Pattern} compiled by the given method
+   * invocation, if said invocation compiles a constant regular expression.
+   */
+  private static Optional<String> getConstantRegexKey(
+      MethodInvocationTree tree, VisitorState state) {
+    boolean isPatternCompilation = PATTERN_COMPILE.matches(tree, state);
+    if (!isPatternCompilation
+        && !PATTERN_MATCHES.matches(tree, state)
+        && !STRING_REGEX_METHOD.matches(tree, state)) {
+      return Optional.empty();
+    }
+
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    String regex = ASTHelpers.constValue(arguments.get(0), String.class);
+    if (regex == null || (isSplit(tree) && isSplitFastPath(regex))) {
+      return Optional.empty();
+    }
+
+    if (!isPatternCompilation || arguments.size() == 1) {
+      return Optional.of(regex + '\0' + 0);
+    }
+
+    Integer flags = ASTHelpers.constValue(arguments.get(1), Integer.class);
+    return flags == null ? Optional.empty() : Optional.of(regex + '\0' + flags);
+  }
+
+  private static boolean isSplit(MethodInvocationTree tree) {
+    return ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("split");
+  }
+
+  /**
+   * Tells whether {@link String#split(String)} avoids compiling the given regular expression. This
+   * mirrors the fast path of the JDK implementation.
+   */
+  private static boolean isSplitFastPath(String regex) {
+    if (regex.length() == 1) {
+      return SPLIT_FAST_PATH_METACHARACTERS.indexOf(regex.charAt(0)) < 0;
+    }
+
+    return regex.length() == 2
+        && regex.charAt(0) == '\\'
+        && !ASCII_ALPHANUMERIC.matches(regex.charAt(1))
+        && !Character.isSurrogate(regex.charAt(1));
+  }
+
+  private static Optional<SuggestedFix> hoistPattern(
+      MethodInvocationTree tree, String key, ClassTree targetClass, VisitorState state) {
+    HoistedFields fields =
+        FieldHoisting.getHoistedFields(targetClass, HOISTABLE_EXPRESSIONS, state);
+    return fields
+        .getFieldName(key)
+        .map(
+            fieldName -> {
+              SuggestedFix.Builder fix = SuggestedFix.builder();
+              if (fields.isDeclaredBy(tree, key)) {
+                String patternType =
+                    SuggestedFixes.qualifyType(state, fix, Pattern.class.getName());
+                String declaration =
+                    String.format(
+                        "private static final %s %s = %s.compile(%s);",
+                        patternType, fieldName, patternType, getCompileArguments(tree, state));
+                fix.merge(
+                    FieldHoisting.addField(targetClass, declaration, tree.getArguments(), state));
+              }
+
+              return fix.replace(tree, getReplacement(tree, fieldName, state)).build();
+            });
+  }
+
+  private static String getCompileArguments(MethodInvocationTree tree, VisitorState state) {
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    String regex = toStaticExpression(arguments.get(0), state);
+    return PATTERN_COMPILE.matches(tree, state) && arguments.size() == 2
+        ? regex + ", " + toStaticExpression(arguments.get(1), state)
+        : regex;
+  }
+
+  /**
+   * Returns source code representing the given constant expression that can be used in a static
+   * context; references to local variables are replaced with their constant value.
+   */
+  private static String toStaticExpression(ExpressionTree tree, VisitorState state) {
+    return referencesLocalVariable(tree)
+        ? state.getConstantExpression(ASTHelpers.constValue(tree))
+        : SourceCode.treeToString(tree, state);
+  }
+
+  private static boolean referencesLocalVariable(Tree tree) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+            Symbol symbol = ASTHelpers.getSymbol(node);
+            return symbol != null && MoreASTHelpers.isLocalVariable(symbol);
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  private static String getReplacement(
+      MethodInvocationTree tree, String fieldName, VisitorState state) {
+    List<? extends ExpressionTree> arguments = tree.getArguments();
+    if (PATTERN_COMPILE.matches(tree, state)) {
+      return fieldName;
+    }
+
+    if (PATTERN_MATCHES.matches(tree, state)) {
+      return String.format(
+          "%s.matcher(%s).matches()", fieldName, SourceCode.treeToString(arguments.get(1), state));
+    }
+
+    String receiver =
+        SourceCode.treeToString(ASTHelpers.stripParentheses(ASTHelpers.getReceiver(tree)), state);
+    String methodName = ASTHelpers.getSymbol(tree).getSimpleName().toString();
+    switch (methodName) {
+      case "matches":
+        return String.format("%s.matcher(%s).matches()", fieldName, receiver);
+      case "split":
+        return arguments.size() == 1
+            ? String.format("%s.split(%s)", fieldName, receiver)
+            : String.format(
+                "%s.split(%s, %s)",
+                fieldName, receiver, SourceCode.treeToString(arguments.get(1), state));
+      default:
+        return String.format(
+            "%s.matcher(%s).%s(%s)",
+            fieldName, receiver, methodName, SourceCode.treeToString(arguments.get(1), state));
+    }
+  }
+
+  /** The constant regular expressions compiled by a class. */
+  private static final class ConstantRegexes implements HoistableExpressions {
+    @Override
+    public Optional<String> getKey(ExpressionTree tree, VisitorState state) {
+      return tree instanceof MethodInvocationTree
+          ? getConstantRegexKey((MethodInvocationTree) tree, state)
+          : Optional.empty();
+    }
+
+    @Override
+    public Optional<String> getFieldKey(ExpressionTree initializer, VisitorState state) {
+      return PATTERN_COMPILE.matches(initializer, state)
+          ? getKey(initializer, state)
+          : Optional.empty();
+    }
+
+    @Override
+    public String getFieldName(ExpressionTree tree, VisitorState state) {
+      return FIELD_NAME;
+    }
+
+    /**
+     * Only the regular expression is stored in a field, such that e.g. the receiver of a {@link
+     * String#split(String)} invocation may itself be hoisted.
+     */
+    @Override
+    public boolean isHoistedInFull() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistableExpressions;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistedFields;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link DateTimeFormatter} and {@link ZoneId} instances that are
+ * created each time a method or lambda expression is executed, even though they do not depend on
+ * any local state.
+ *
+ * <p>Creating a {@link DateTimeFormatter} involves parsing its pattern and building a tree of
+ * printer-parsers, while {@link ZoneId#of(String)} parses the zone ID and looks up the associated
+ * rules. Both types are immutable and thread-safe, so if they are derived from only constants, then
+ * they can instead be created once and stored in a {@code private static final} field.
+ *
+ * <p>Note that {@link ZoneId#of(String)} invocations that are equivalent to {@link
+ * java.time.ZoneOffset#UTC} are not flagged; {@code TimeRules.UtcConstant} rewrites those.
+ */
+// XXX: Derive a more descriptive field name from constant zone IDs, e.g. `EUROPE_AMSTERDAM`.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Constant date-time formatters and time zones should be created once and stored in a constant",
+    link = BUG_PATTERNS_BASE_URL + "RepeatedTimeConstantConstruction",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class RepeatedTimeConstantConstruction extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String FORMATTER_FIELD_NAME = "FORMATTER";
+  private static final String ZONE_FIELD_NAME = "ZONE";
+  private static final ImmutableSet<String> UTC_ZONE_IDS =
+      ImmutableSet.of("+0", "-0", "GMT", "UTC", "Z");
+  private static final Matcher<ExpressionTree> FORMATTER_FACTORY =
+      staticMethod()
+          .onClass(DateTimeFormatter.class.getName())
+          .namedAnyOf("ofLocalizedDate", "ofLocalizedDateTime", "ofLocalizedTime", "ofPattern");
+  private static final Matcher<ExpressionTree> FORMATTER_OPERATION =
+      instanceMethod()
+          .onExactClass(DateTimeFormatter.class.getName())
+          .namedAnyOf(
+              "withChronology", "withDecimalStyle", "withLocale", "withResolverStyle", "withZone");
+  private static final Matcher<ExpressionTree> ZONE_FACTORY =
+      staticMethod().onClass(ZoneId.class.getName()).named("of");
+  private static final Matcher<ExpressionTree> TIME_CONSTANT_FACTORY =
+      anyOf(FORMATTER_FACTORY, ZONE_FACTORY);
+  private static final HoistableExpressions HOISTABLE_EXPRESSIONS = new TimeConstants();
+
+  /** Instantiates a new {@link RepeatedTimeConstantConstruction} instance. */
+  public RepeatedTimeConstantConstruction() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!isHoistableExpression(tree, state)
+        || isPartOfConstantExpression(state.getPath(), state)
+        || !FieldHoisting.isExecutedRepeatedly(state.getPath())) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    FieldHoisting.findTargetClass(state.getPath())
+        .filter(targetClass -> FieldHoisting.canReferenceStaticFields(tree, targetClass))
+        .flatMap(targetClass -> hoistConstant(tree, targetClass, state))
+        .ifPresent(description::addFix);
+    return description.build();
+  }
+
+  /**
+   * Tells whether the given expression creates a {@link DateTimeFormatter} or {@link ZoneId} that
+   * does not depend on local state, and that is not trivially equivalent to an existing constant.
+   */
+  private static boolean isHoistableExpression(MethodInvocationTree tree, VisitorState state) {
+    return isConstantExpression(tree, state)
+        && !(ZONE_FACTORY.matches(tree, state)
+            && UTC_ZONE_IDS.contains(ASTHelpers.constValue(tree.getArguments().get(0))));
+  }
+
+  /**
+   * Tells whether the given expression is a {@link DateTimeFormatter} or {@link ZoneId} factory
+   * method invocation, or a {@link DateTimeFormatter} customization chain, that does not depend on
+   * local state.
+   */
+  private static boolean isConstantExpression(ExpressionTree tree, VisitorState state) {
+    if (!(tree instanceof MethodInvocationTree)) {
+      return false;
+    }
+
+    MethodInvocationTree invocation = (MethodInvocationTree) tree;
+    if (FORMATTER_OPERATION.matches(invocation, state)) {
+      ExpressionTree receiver = ASTHelpers.getReceiver(invocation);
+      if (receiver == null || !isConstant(receiver, state)) {
+        return false;
+      }
+    } else if (!TIME_CONSTANT_FACTORY.matches(invocation, state)) {
+      return false;
+    }
+
+    return invocation.getArguments().stream().allMatch(argument -> isConstant(argument, state));
+  }
+
+  private static boolean isConstant(ExpressionTree tree, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree);
+    if (expression instanceof IdentifierTree || expression instanceof MemberSelectTree) {
+      Symbol symbol = ASTHelpers.getSymbol(expression);
+      if (symbol instanceof VarSymbol
+          && (symbol.getKind() == ElementKind.ENUM_CONSTANT
+              || symbol.getKind() == ElementKind.FIELD)
+          && ASTHelpers.isStatic(symbol)
+          && symbol.getModifiers().contains(Modifier.FINAL)) {
+        return true;
+      }
+    }
+
+    return ASTHelpers.constValue(expression) != null || isConstantExpression(expression, state);
+  }
+
+  /** Tells whether the expression at the given path is part of a larger constant expression. */
+  private static boolean isPartOfConstantExpression(TreePath path, VisitorState state) {
+    for (TreePath current = path.getParentPath();
+        current != null && !(current.getLeaf() instanceof MethodTree);
+        current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof MethodInvocationTree
+          && isConstantExpression((MethodInvocationTree) leaf, state)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static Optional<SuggestedFix> hoistConstant(
+      MethodInvocationTree tree, ClassTree targetClass, VisitorState state) {
+    String key = getKey(tree, state);
+    HoistedFields fields =
+        FieldHoisting.getHoistedFields(targetClass, HOISTABLE_EXPRESSIONS, state);
+    return fields
+        .getFieldName(key)
+        .map(
+            fieldName -> {
+              SuggestedFix.Builder fix = SuggestedFix.builder();
+              if (fields.isDeclaredBy(tree, key)) {
+                String declaration =
+                    String.format(
+                        "private static final %s %s = %s;",
+                        SuggestedFixes.prettyType(state, fix, ASTHelpers.getType(tree)),
+                        fieldName,
+                        SourceCode.treeToString(tree, state));
+                fix.merge(
+                    FieldHoisting.addField(
+                        targetClass, declaration, ImmutableList.of(tree), state));
+              }
+
+              return fix.replace(tree, fieldName).build();
+            });
+  }
+
+  /**
+   * Returns a key that identifies the object created by the given expression, based on its source
+   * code.
+   */
+  private static String getKey(ExpressionTree tree, VisitorState state) {
+    return CharMatcher.whitespace().removeFrom(SourceCode.treeToString(tree, state));
+  }
+
+  /** The constant {@link DateTimeFormatter} and {@link ZoneId} expressions evaluated by a class. */
+  private static final class TimeConstants implements HoistableExpressions {
+    @Override
+    public Optional<String> getKey(ExpressionTree tree, VisitorState state) {
+      return tree instanceof MethodInvocationTree
+              && isHoistableExpression((MethodInvocationTree) tree, state)
+          ? Optional.of(RepeatedTimeConstantConstruction.getKey(tree, state))
+          : Optional.empty();
+    }
+
+    @Override
+    public String getFieldName(ExpressionTree tree, VisitorState state) {
+      return ZONE_FACTORY.matches(tree, state) ? ZONE_FIELD_NAME : FORMATTER_FIELD_NAME;
+    }
+  }
+}
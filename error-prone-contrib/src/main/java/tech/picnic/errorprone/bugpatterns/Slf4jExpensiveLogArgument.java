@@ -0,0 +1,368 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.Matchers.isSubtypeOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+import static java.util.stream.Collectors.joining;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.base.Ascii;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.IfTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.Tree.Kind;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.BaseStream;
+import java.util.stream.IntStream;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+import tech.picnic.errorprone.bugpatterns.util.ThirdPartyLibrary;
+
+/**
+ * A {@link BugChecker} that flags SLF4J {@code trace} and {@code debug} log statements with
+ * arguments that are expensive to compute.
+ *
+ * <p>Such arguments are evaluated even if the associated log level is disabled, which is commonly
+ * the case for these log levels in production environments. This check suggests to defer their
+ * evaluation using SLF4J 2's fluent logging API (if available), or to guard the log statement using
+ * {@code isTraceEnabled()} or {@code isDebugEnabled()}.
+ *
+ * <p>Arguments are considered expensive if they involve string concatenation or formatting,
+ * explicit {@link Object#toString()} invocations, {@link Arrays#toString(Object[])}, JSON
+ * serialization or stream pipelines. String concatenations passed as format string are disregarded,
+ * as {@link FormatStringConcatenation} already flags those.
+ */
+// XXX: Also recognize early returns of the form `if (!LOG.isDebugEnabled()) { return; }`.
+// XXX: Consider also flagging `info` statements, possibly behind a flag.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary =
+        "Expensive log statement arguments are evaluated even if the log level is disabled; "
+            + "defer their evaluation or guard the log statement",
+    link = BUG_PATTERNS_BASE_URL + "Slf4jExpensiveLogArgument",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class Slf4jExpensiveLogArgument extends BugChecker
+    implements MethodInvocationTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final Matcher<ExpressionTree> MARKER = isSubtypeOf("org.slf4j.Marker");
+  private static final Matcher<ExpressionTree> THROWABLE = isSubtypeOf(Throwable.class);
+  private static final Matcher<ExpressionTree> SLF4J_FINE_GRAINED_LOGGER_INVOCATION =
+      instanceMethod().onDescendantOf("org.slf4j.Logger").namedAnyOf("trace", "debug");
+  private static final Matcher<ExpressionTree> SLF4J_LEVEL_CHECK =
+      instanceMethod()
+          .onDescendantOf("org.slf4j.Logger")
+          .namedAnyOf("isTraceEnabled", "isDebugEnabled");
+  private static final Matcher<ExpressionTree> EXPENSIVE_OPERATION =
+      anyOf(
+          instanceMethod().anyClass().named("toString").withNoParameters(),
+          staticMethod().onClass(String.class.getName()).namedAnyOf("format", "join"),
+          instanceMethod().onExactClass(String.class.getName()).named("formatted"),
+          staticMethod().onClass(Arrays.class.getName()).namedAnyOf("deepToString", "toString"),
+          instanceMethod()
+              .onDescendantOfAny(
+                  "com.fasterxml.jackson.databind.ObjectMapper",
+                  "com.fasterxml.jackson.databind.ObjectWriter")
+              .namedAnyOf("writeValueAsBytes", "writeValueAsString"),
+          instanceMethod().onDescendantOf("com.google.gson.Gson").named("toJson"),
+          instanceMethod().onDescendantOf(BaseStream.class.getName()),
+          instanceMethod()
+              .onDescendantOf(Collection.class.getName())
+              .namedAnyOf("parallelStream", "stream"));
+
+  /** Instantiates a new {@link Slf4jExpensiveLogArgument} instance. */
+  public Slf4jExpensiveLogArgument() {}
+
+  @Override
+  public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+    if (!SLF4J_FINE_GRAINED_LOGGER_INVOCATION.matches(tree, state)
+        || !hasExpensiveArgument(tree, state)
+        || isGuarded(tree, state.getPath(), state)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    if (ThirdPartyLibrary.SLF4J_FLUENT_API.isIntroductionAllowed(state)
+        && canDeferEvaluation(tree, state)) {
+      description.addFix(SuggestedFix.replace(tree, toFluentLogStatement(tree, state)));
+    }
+
+    Tree parent = state.getPath().getParentPath().getLeaf();
+    if (parent instanceof ExpressionStatementTree) {
+      description.addFix(
+          SuggestedFix.replace(
+              parent,
+              String.format(
+                  "if (%s) { %s }",
+                  withReceiver(tree, getLevelCheck(tree, state), state),
+                  SourceCode.treeToString(parent, state))));
+    }
+
+    return description.build();
+  }
+
+  /**
+   * Tells whether the given log statement at the given path is (transitively) part of the then
+   * branch of an {@code if} statement whose condition requires the statement's log level to be
+   * enabled on the same logger.
+   */
+  private static boolean isGuarded(MethodInvocationTree tree, TreePath path, VisitorState state) {
+    @Var
+    @Nullable
+    Tree child = null;
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof MethodTree
+          || leaf instanceof ClassTree
+          || leaf instanceof LambdaExpressionTree) {
+        return false;
+      }
+
+      if (leaf instanceof IfTree
+          && ((IfTree) leaf).getThenStatement().equals(child)
+          && requiresLevelEnabled(((IfTree) leaf).getCondition(), tree, state)) {
+        return true;
+      }
+
+      child = leaf;
+    }
+
+    return false;
+  }
+
+  /**
+   * Tells whether the given condition can only be {@code true} if the given log statement's level
+   * is enabled; i.e., whether it is a (conjunction involving a) non-negated level check for the
+   * same logger.
+   */
+  private static boolean requiresLevelEnabled(
+      ExpressionTree condition, MethodInvocationTree tree, VisitorState state) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(condition);
+    if (expression.getKind() == Kind.CONDITIONAL_AND) {
+      BinaryTree conjunction = (BinaryTree) expression;
+      return requiresLevelEnabled(conjunction.getLeftOperand(), tree, state)
+          || requiresLevelEnabled(conjunction.getRightOperand(), tree, state);
+    }
+
+    return expression instanceof MethodInvocationTree
+        && SLF4J_LEVEL_CHECK.matches(expression, state)
+        && ASTHelpers.getSymbol((MethodInvocationTree) expression)
+            .getSimpleName()
+            .contentEquals(String.format("is%sEnabled", getLevel(tree)))
+        && isSameLogger(ASTHelpers.getReceiver(expression), ASTHelpers.getReceiver(tree));
+  }
+
+  private static boolean isSameLogger(
+      @Nullable ExpressionTree logger1, @Nullable ExpressionTree logger2) {
+    return logger1 == null || logger2 == null
+        ? logger1 == logger2
+        : ASTHelpers.sameVariable(logger1, logger2);
+  }
+
+  private static String getLevelCheck(MethodInvocationTree tree, VisitorState state) {
+    List<? extends ExpressionTree> args = tree.getArguments();
+    return String.format(
+        "is%sEnabled(%s)",
+        getLevel(tree),
+        MARKER.matches(args.get(0), state) ? SourceCode.treeToString(args.get(0), state) : "");
+  }
+
+  /**
+   * Tells whether any of the given log statement's arguments is expensive to compute, disregarding
+   * the format string concatenation flagged by {@link FormatStringConcatenation}, if any.
+   */
+  private static boolean hasExpensiveArgument(MethodInvocationTree tree, VisitorState state) {
+    List<? extends ExpressionTree> args = tree.getArguments();
+    int formatStringConcatenation = getFormatStringConcatenationIndex(args, state);
+    return IntStream.range(0, args.size())
+        .anyMatch(i -> i != formatStringConcatenation && isExpensive(args.get(i), state));
+  }
+
+  /**
+   * Returns the index of the argument that {@link FormatStringConcatenation} considers to be a
+   * format string built using string concatenation, or {@code -1} if there is no such argument.
+   * Like said check, this considers the first two arguments, in order.
+   */
+  private static int getFormatStringConcatenationIndex(
+      List<? extends ExpressionTree> args, VisitorState state) {
+    for (int i = 0; i < Math.min(args.size(), 2); i++) {
+      ExpressionTree argument = ASTHelpers.stripParentheses(args.get(i));
+      if (argument instanceof BinaryTree
+          && ASTHelpers.isSameType(
+              ASTHelpers.getType(argument), state.getSymtab().stringType, state)
+          && ASTHelpers.constValue(argument, String.class) == null) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  private static boolean isExpensive(ExpressionTree argument, VisitorState state) {
+    return containsMatch(argument, EXPENSIVE_OPERATION, state)
+        || containsConcatenation(argument, state);
+  }
+
+  private static boolean containsMatch(
+      Tree tree, Matcher<ExpressionTree> matcher, VisitorState state) {
+    return Boolean.TRUE.equals(
+        new EagerlyEvaluatedCodeScanner() {
+          @Override
+          public Boolean visitMethodInvocation(MethodInvocationTree node, @Nullable Void unused) {
+            return matcher.matches(node, state)
+                || Boolean.TRUE.equals(super.visitMethodInvocation(node, unused));
+          }
+        }.scan(tree, null));
+  }
+
+  private static boolean containsConcatenation(Tree tree, VisitorState state) {
+    return Boolean.TRUE.equals(
+        new EagerlyEvaluatedCodeScanner() {
+          @Override
+          public Boolean visitBinary(BinaryTree node, @Nullable Void unused) {
+            return (node.getKind() == Kind.PLUS
+                    && ASTHelpers.constValue(node) == null
+                    && ASTHelpers.isSameType(
+                        ASTHelpers.getType(node), state.getSymtab().stringType, state))
+                || Boolean.TRUE.equals(super.visitBinary(node, unused));
+          }
+        }.scan(tree, null));
+  }
+
+  /**
+   * Tells whether all expensive arguments of the given log statement can be moved into a lambda
+   * expression. This is not the case if they reference local variables that are not effectively
+   * final.
+   */
+  private static boolean canDeferEvaluation(MethodInvocationTree tree, VisitorState state) {
+    return tree.getArguments().stream()
+        .filter(arg -> isExpensive(arg, state))
+        .noneMatch(Slf4jExpensiveLogArgument::referencesNonFinalLocalVariable);
+  }
+
+  private static boolean referencesNonFinalLocalVariable(Tree tree) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+            Symbol symbol = ASTHelpers.getSymbol(node);
+            return symbol != null
+                && MoreASTHelpers.isLocalVariable(symbol)
+                && !ASTHelpers.isConsideredFinal(symbol);
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  /**
+   * Converts the given log statement into an equivalent statement that uses SLF4J's fluent logging
+   * API, wrapping each expensive argument in a {@link java.util.function.Supplier}.
+   */
+  private static String toFluentLogStatement(MethodInvocationTree tree, VisitorState state) {
+    List<? extends ExpressionTree> args = tree.getArguments();
+    int lTrim = MARKER.matches(args.get(0), state) ? 1 : 0;
+    int rTrim =
+        args.size() > lTrim + 1 && THROWABLE.matches(args.get(args.size() - 1), state) ? 1 : 0;
+
+    StringBuilder replacement =
+        new StringBuilder(withReceiver(tree, String.format("at%s()", getLevel(tree)), state));
+    if (lTrim > 0) {
+      replacement
+          .append(".addMarker(")
+          .append(SourceCode.treeToString(args.get(0), state))
+          .append(')');
+    }
+    replacement.append(".setMessage(").append(toLazyArgument(args.get(lTrim), state)).append(')');
+    replacement.append(
+        args.subList(lTrim + 1, args.size() - rTrim).stream()
+            .map(arg -> ".addArgument(" + toLazyArgument(arg, state) + ')')
+            .collect(joining()));
+    if (rTrim > 0) {
+      replacement
+          .append(".setCause(")
+          .append(SourceCode.treeToString(args.get(args.size() - 1), state))
+          .append(')');
+    }
+
+    return replacement.append(".log()").toString();
+  }
+
+  private static String toLazyArgument(ExpressionTree argument, VisitorState state) {
+    String source = SourceCode.treeToString(argument, state);
+    return isExpensive(argument, state) ? "() -> " + source : source;
+  }
+
+  private static String withReceiver(
+      MethodInvocationTree tree, String methodInvocation, VisitorState state) {
+    ExpressionTree receiver = ASTHelpers.getReceiver(tree);
+    return receiver == null
+        ? methodInvocation
+        : SourceCode.treeToString(receiver, state) + '.' + methodInvocation;
+  }
+
+  private static String getLevel(MethodInvocationTree tree) {
+    String methodName = ASTHelpers.getSymbol(tree).getSimpleName().toString();
+    return Ascii.toUpperCase(methodName.substring(0, 1)) + methodName.substring(1);
+  }
+
+  /**
+   * A {@link TreeScanner} that does not descend into code that is not evaluated eagerly, such as
+   * lambda expressions and anonymous classes.
+   */
+  private abstract static class EagerlyEvaluatedCodeScanner
+      extends TreeScanner<Boolean, @Nullable Void> {
+    @Override
+    public Boolean visitLambdaExpression(LambdaExpressionTree node, @Nullable Void unused) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitMemberReference(MemberReferenceTree node, @Nullable Void unused) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitNewClass(NewClassTree node, @Nullable Void unused) {
+      return node.getClassBody() == null && Boolean.TRUE.equals(super.visitNewClass(node, unused));
+    }
+
+    @Override
+    public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+      return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+    }
+  }
+}
@@ -0,0 +1,552 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.AssignmentTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.CompoundAssignmentTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.suppliers.Suppliers;
+import com.google.errorprone.util.ASTHelpers;
+import com.google.errorprone.util.FindIdentifiers;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.DoWhileLoopTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.Tree.Kind;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.tree.WhileLoopTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.MoreASTHelpers;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@link String} variables that are accumulated inside a loop using
+ * string concatenation.
+ *
+ * <p>As strings are immutable, each iteration copies all characters accumulated so far, resulting
+ * in quadratic running time. A {@link StringBuilder} avoids this.
+ *
+ * <p>If the accumulated variable is declared immediately before the loop, and is only accumulated
+ * inside said loop, the suggested fix introduces a {@link StringBuilder}. If additionally the loop
+ * iterates over a collection and appends a single {@link CharSequence} per element, an alternative
+ * fix using {@link String#join(CharSequence, Iterable)} or {@link
+ * java.util.stream.Collectors#joining()} is suggested.
+ */
+// XXX: Also recognize accumulation with a separator, such as `if (!s.isEmpty()) { s += ", "; }`,
+// and suggest `Collectors.joining(", ")` or `String.join(", ", ...)` in that case.
+// XXX: Consider presizing the suggested `StringBuilder` if an upper bound on the resulting string's
+// length can be derived.
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Don't accumulate strings inside a loop using string concatenation",
+    link = BUG_PATTERNS_BASE_URL + "StringConcatenationInLoop",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = PERFORMANCE)
+public final class StringConcatenationInLoop extends BugChecker
+    implements AssignmentTreeMatcher, CompoundAssignmentTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final Matcher<ExpressionTree> STRING_CONCAT =
+      instanceMethod().onExactClass(String.class.getName()).named("concat");
+  private static final Supplier<Type> STRING_TYPE = Suppliers.STRING_TYPE;
+  private static final Supplier<Type> CHAR_SEQUENCE_TYPE =
+      Suppliers.typeFromClass(CharSequence.class);
+  private static final Supplier<Type> COLLECTION_TYPE = Suppliers.typeFromClass(Collection.class);
+
+  /** Instantiates a new {@link StringConcatenationInLoop} instance. */
+  public StringConcatenationInLoop() {}
+
+  @Override
+  public Description matchAssignment(AssignmentTree tree, VisitorState state) {
+    return match(tree, state);
+  }
+
+  @Override
+  public Description matchCompoundAssignment(CompoundAssignmentTree tree, VisitorState state) {
+    return match(tree, state);
+  }
+
+  private Description match(ExpressionTree tree, VisitorState state) {
+    if (!(state.getPath().getParentPath().getLeaf() instanceof ExpressionStatementTree)) {
+      return Description.NO_MATCH;
+    }
+
+    Optional<Accumulation> accumulation = Accumulation.of(tree, state);
+    if (accumulation.isEmpty()) {
+      return Description.NO_MATCH;
+    }
+
+    VarSymbol variable = accumulation.orElseThrow().variable();
+    Tree loop = getInnermostEnclosingLoop(state.getPath());
+    if (loop == null || isDeclaredIn(variable, loop)) {
+      return Description.NO_MATCH;
+    }
+
+    Optional<AccumulatingLoop> accumulatingLoop = AccumulatingLoop.of(variable, state);
+    if (accumulatingLoop.isEmpty()) {
+      return describeMatch(tree);
+    }
+
+    /* All accumulations are rewritten at once; only report the first. */
+    AccumulatingLoop fixable = accumulatingLoop.orElseThrow();
+    if (!fixable.accumulations().get(0).tree().equals(tree)) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description = buildDescription(tree);
+    fixable.toStringBuilder(state).ifPresent(description::addFix);
+    fixable.toJoin(state).ifPresent(description::addFix);
+    return description.build();
+  }
+
+  /**
+   * Returns the innermost loop of which the code at the given path is executed repeatedly, if any.
+   */
+  private static @Nullable Tree getInnermostEnclosingLoop(TreePath path) {
+    @Var
+    @Nullable
+    Tree child = null;
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof ClassTree
+          || leaf instanceof MethodTree
+          || leaf instanceof LambdaExpressionTree) {
+        return null;
+      }
+
+      if (MoreASTHelpers.isRepeatedlyExecutedPart(leaf, child)) {
+        return leaf;
+      }
+
+      child = leaf;
+    }
+
+    return null;
+  }
+
+  private static boolean isDeclaredIn(VarSymbol variable, Tree tree) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitVariable(VariableTree node, @Nullable Void unused) {
+            return variable.equals(ASTHelpers.getSymbol(node))
+                || Boolean.TRUE.equals(super.visitVariable(node, unused));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  private static boolean isSubtype(
+      @Nullable Type type, Supplier<Type> superType, VisitorState state) {
+    return ASTHelpers.isSubtype(type, superType.get(state), state);
+  }
+
+  /** A statement-level assignment that appends zero or more operands to a string variable. */
+  private static final class Accumulation {
+    private final ExpressionTree tree;
+    private final VarSymbol variable;
+    private final ImmutableList<ExpressionTree> operands;
+    private final int variableReferences;
+
+    private Accumulation(
+        ExpressionTree tree,
+        VarSymbol variable,
+        ImmutableList<ExpressionTree> operands,
+        int variableReferences) {
+      this.tree = tree;
+      this.variable = variable;
+      this.operands = operands;
+      this.variableReferences = variableReferences;
+    }
+
+    static Optional<Accumulation> of(ExpressionTree tree, VisitorState state) {
+      if (tree instanceof CompoundAssignmentTree) {
+        CompoundAssignmentTree assignment = (CompoundAssignmentTree) tree;
+        return tree.getKind() == Kind.PLUS_ASSIGNMENT
+            ? getStringVariable(assignment.getVariable(), state)
+                .map(
+                    variable ->
+                        new Accumulation(
+                            tree, variable, flatten(assignment.getExpression(), state), 1))
+            : Optional.empty();
+      }
+
+      if (!(tree instanceof AssignmentTree)) {
+        return Optional.empty();
+      }
+
+      AssignmentTree assignment = (AssignmentTree) tree;
+      return getStringVariable(assignment.getVariable(), state)
+          .flatMap(
+              variable ->
+                  getAppendedOperands(assignment.getExpression(), variable, state)
+                      .map(operands -> new Accumulation(tree, variable, operands, 2)));
+    }
+
+    ExpressionTree tree() {
+      return tree;
+    }
+
+    VarSymbol variable() {
+      return variable;
+    }
+
+    /**
+     * Returns the number of references to the accumulated variable that are part of this
+     * accumulation.
+     */
+    int variableReferences() {
+      return variableReferences;
+    }
+
+    ImmutableList<ExpressionTree> operands() {
+      return operands;
+    }
+
+    /**
+     * Returns the source code of an equivalent invocation of {@link StringBuilder#append} on the
+     * given builder, if any.
+     */
+    Optional<String> toAppend(String builder, VisitorState state) {
+      StringBuilder replacement = new StringBuilder(builder);
+      for (ExpressionTree operand : operands) {
+        if (operand.getKind() == Kind.NULL_LITERAL
+            || state.getTypes().isArray(ASTHelpers.getType(operand))) {
+          /* `StringBuilder#append` treats these operands differently. */
+          return Optional.empty();
+        }
+        replacement.append(".append(").append(SourceCode.treeToString(operand, state)).append(')');
+      }
+      return Optional.of(replacement.toString());
+    }
+
+    private static Optional<VarSymbol> getStringVariable(
+        ExpressionTree variable, VisitorState state) {
+      Symbol symbol = ASTHelpers.getSymbol(variable);
+      return symbol instanceof VarSymbol
+              && ASTHelpers.isSameType(symbol.type, STRING_TYPE.get(state), state)
+          ? Optional.of((VarSymbol) symbol)
+          : Optional.empty();
+    }
+
+    /**
+     * Returns the operands appended to the given variable by the given expression, if it is of the
+     * form {@code variable + a + b} or {@code variable.concat(a).concat(b)}.
+     */
+    private static Optional<ImmutableList<ExpressionTree>> getAppendedOperands(
+        ExpressionTree expression, VarSymbol variable, VisitorState state) {
+      if (STRING_CONCAT.matches(expression, state)) {
+        List<ExpressionTree> operands = new ArrayList<>();
+        @Var ExpressionTree current = expression;
+        while (STRING_CONCAT.matches(current, state)) {
+          operands.add(0, ((MethodInvocationTree) current).getArguments().get(0));
+          current = ASTHelpers.getReceiver(current);
+        }
+        return isReferenceTo(current, variable)
+            ? Optional.of(ImmutableList.copyOf(operands))
+            : Optional.empty();
+      }
+
+      ImmutableList<ExpressionTree> operands = flatten(expression, state);
+      return operands.size() > 1 && isReferenceTo(operands.get(0), variable)
+          ? Optional.of(operands.subList(1, operands.size()))
+          : Optional.empty();
+    }
+
+    /**
+     * Splits the given string concatenation expression into the operands that are successively
+     * converted to strings and appended.
+     */
+    private static ImmutableList<ExpressionTree> flatten(
+        ExpressionTree expression, VisitorState state) {
+      ImmutableList.Builder<ExpressionTree> operands = ImmutableList.builder();
+      flattenInto(expression, operands, state);
+      return operands.build();
+    }
+
+    private static void flattenInto(
+        ExpressionTree expression,
+        ImmutableList.Builder<ExpressionTree> operands,
+        VisitorState state) {
+      if (expression.getKind() == Kind.PLUS
+          && isSubtype(ASTHelpers.getType(expression), STRING_TYPE, state)) {
+        BinaryTree binary = (BinaryTree) expression;
+        if (isSubtype(ASTHelpers.getType(binary.getLeftOperand()), STRING_TYPE, state)) {
+          flattenInto(binary.getLeftOperand(), operands, state);
+        } else {
+          operands.add(binary.getLeftOperand());
+        }
+        operands.add(binary.getRightOperand());
+      } else {
+        operands.add(expression);
+      }
+    }
+
+    private static boolean isReferenceTo(@Nullable ExpressionTree tree, VarSymbol variable) {
+      return (tree instanceof IdentifierTree || tree instanceof MemberSelectTree)
+          && variable.equals(ASTHelpers.getSymbol(tree));
+    }
+  }
+
+  /**
+   * A loop that accumulates a local {@link String} variable declared by the statement immediately
+   * preceding it, without otherwise referencing said variable.
+   */
+  private static final class AccumulatingLoop {
+    private final VariableTree declaration;
+    private final StatementTree loop;
+    private final ImmutableList<Accumulation> accumulations;
+
+    private AccumulatingLoop(
+        VariableTree declaration, StatementTree loop, ImmutableList<Accumulation> accumulations) {
+      this.declaration = declaration;
+      this.loop = loop;
+      this.accumulations = accumulations;
+    }
+
+    static Optional<AccumulatingLoop> of(VarSymbol variable, VisitorState state) {
+      if (variable.getKind() != ElementKind.LOCAL_VARIABLE) {
+        return Optional.empty();
+      }
+
+      for (TreePath current = state.getPath(); current != null; current = current.getParentPath()) {
+        Tree parent = current.getParentPath() == null ? null : current.getParentPath().getLeaf();
+        if (parent instanceof BlockTree) {
+          List<? extends StatementTree> statements = ((BlockTree) parent).getStatements();
+          int index = statements.indexOf(current.getLeaf());
+          if (index > 0
+              && statements.get(index - 1) instanceof VariableTree
+              && variable.equals(ASTHelpers.getSymbol(statements.get(index - 1)))) {
+            return forDeclaration(
+                (VariableTree) statements.get(index - 1), statements.get(index), variable, state);
+          }
+        }
+
+        if (parent instanceof MethodTree || parent instanceof LambdaExpressionTree) {
+          break;
+        }
+      }
+
+      return Optional.empty();
+    }
+
+    private static Optional<AccumulatingLoop> forDeclaration(
+        VariableTree declaration, StatementTree statement, VarSymbol variable, VisitorState state) {
+      if (!(statement instanceof EnhancedForLoopTree
+              || statement instanceof ForLoopTree
+              || statement instanceof WhileLoopTree
+              || statement instanceof DoWhileLoopTree)
+          || declaration.getInitializer() == null
+          || declaration.getInitializer().getKind() == Kind.NULL_LITERAL) {
+        return Optional.empty();
+      }
+
+      List<Accumulation> accumulations = new ArrayList<>();
+      int[] references = {0};
+      new TreeScanner<@Nullable Void, @Nullable Void>() {
+        @Override
+        public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+          if (variable.equals(ASTHelpers.getSymbol(node))) {
+            references[0]++;
+          }
+          return super.visitIdentifier(node, unused);
+        }
+
+        @Override
+        public @Nullable Void visitExpressionStatement(
+            ExpressionStatementTree node, @Nullable Void unused) {
+          Accumulation.of(node.getExpression(), state)
+              .filter(accumulation -> accumulation.variable().equals(variable))
+              .ifPresent(accumulations::add);
+          return super.visitExpressionStatement(node, unused);
+        }
+      }.scan(statement, null);
+
+      int accumulationReferences =
+          accumulations.stream().mapToInt(Accumulation::variableReferences).sum();
+      return accumulations.isEmpty() || accumulationReferences != references[0]
+          ? Optional.empty()
+          : Optional.of(
+              new AccumulatingLoop(declaration, statement, ImmutableList.copyOf(accumulations)));
+    }
+
+    ImmutableList<Accumulation> accumulations() {
+      return accumulations;
+    }
+
+    /** Suggests accumulating the string using a {@link StringBuilder}. */
+    Optional<SuggestedFix> toStringBuilder(VisitorState state) {
+      String name = declaration.getName() + "Builder";
+      if (FindIdentifiers.findIdent(name, state) != null) {
+        return Optional.empty();
+      }
+
+      SuggestedFix.Builder fix = SuggestedFix.builder();
+      for (Accumulation accumulation : accumulations) {
+        Optional<String> append = accumulation.toAppend(name, state);
+        if (append.isEmpty()) {
+          return Optional.empty();
+        }
+        fix.replace(accumulation.tree(), append.orElseThrow());
+      }
+
+      ExpressionTree initializer = declaration.getInitializer();
+      String initialValue =
+          "".equals(ASTHelpers.constValue(initializer, String.class))
+              ? ""
+              : SourceCode.treeToString(initializer, state);
+      return Optional.of(
+          fix.replace(
+                  declaration,
+                  String.format("StringBuilder %s = new StringBuilder(%s);", name, initialValue))
+              .postfixWith(
+                  loop,
+                  String.format(
+                      "\n%sString %s = %s.toString();",
+                      getModifiers(state), declaration.getName(), name))
+              .build());
+    }
+
+    /**
+     * Suggests replacing the declaration and loop with a single {@link String#join(CharSequence,
+     * Iterable)} or {@link java.util.stream.Collectors#joining()} expression, if the loop iterates
+     * over a collection and appends a single {@link CharSequence} per element.
+     */
+    Optional<SuggestedFix> toJoin(VisitorState state) {
+      if (!(loop instanceof EnhancedForLoopTree)
+          || accumulations.size() != 1
+          || !"".equals(ASTHelpers.constValue(declaration.getInitializer(), String.class))) {
+        return Optional.empty();
+      }
+
+      EnhancedForLoopTree forLoop = (EnhancedForLoopTree) loop;
+      ImmutableList<ExpressionTree> operands = accumulations.get(0).operands();
+      if (!isSubtype(ASTHelpers.getType(forLoop.getExpression()), COLLECTION_TYPE, state)
+          || operands.size() != 1
+          || !isSubtype(ASTHelpers.getType(operands.get(0)), CHAR_SEQUENCE_TYPE, state)
+          || !isOnlyStatement(accumulations.get(0).tree(), forLoop.getStatement())) {
+        return Optional.empty();
+      }
+
+      ExpressionTree element = operands.get(0);
+      VarSymbol elementVariable = ASTHelpers.getSymbol(forLoop.getVariable());
+      String collection = SourceCode.treeToString(forLoop.getExpression(), state);
+      SuggestedFix.Builder fix = SuggestedFix.builder();
+      String joined;
+      if (elementVariable.equals(ASTHelpers.getSymbol(element))) {
+        if (!isIterableOfCharSequence(forLoop.getExpression(), state)) {
+          return Optional.empty();
+        }
+        joined = String.format("String.join(\"\", %s)", collection);
+      } else {
+        if (!isCapturable(element, elementVariable)) {
+          return Optional.empty();
+        }
+        joined =
+            String.format(
+                "%s.stream().map(%s -> %s).collect(%s())",
+                collection,
+                forLoop.getVariable().getName(),
+                SourceCode.treeToString(element, state),
+                SuggestedFixes.qualifyStaticImport(
+                    "java.util.stream.Collectors.joining", fix, state));
+      }
+
+      return Optional.of(
+          fix.replace(
+                  ASTHelpers.getStartPosition(declaration),
+                  state.getEndPosition(loop),
+                  String.format(
+                      "%sString %s = %s;", getModifiers(state), declaration.getName(), joined))
+              .build());
+    }
+
+    private String getModifiers(VisitorState state) {
+      String modifiers = state.getSourceForNode(declaration.getModifiers());
+      return modifiers == null || modifiers.isEmpty() ? "" : modifiers + ' ';
+    }
+
+    private static boolean isIterableOfCharSequence(ExpressionTree iterable, VisitorState state) {
+      Type type = ASTHelpers.getType(iterable);
+      Type iterableType =
+          type == null ? null : state.getTypes().asSuper(type, state.getSymtab().iterableType.tsym);
+      return iterableType != null
+          && iterableType.getTypeArguments().size() == 1
+          && isSubtype(iterableType.getTypeArguments().get(0), CHAR_SEQUENCE_TYPE, state);
+    }
+
+    private static boolean isOnlyStatement(ExpressionTree expression, StatementTree body) {
+      StatementTree statement =
+          body instanceof BlockTree && ((BlockTree) body).getStatements().size() == 1
+              ? ((BlockTree) body).getStatements().get(0)
+              : body;
+      return statement instanceof ExpressionStatementTree
+          && ((ExpressionStatementTree) statement).getExpression().equals(expression);
+    }
+
+    /**
+     * Tells whether the given expression only references local variables that may be captured by a
+     * lambda expression, apart from the given loop variable.
+     */
+    private static boolean isCapturable(ExpressionTree expression, VarSymbol loopVariable) {
+      return !Boolean.TRUE.equals(
+          new TreeScanner<Boolean, @Nullable Void>() {
+            @Override
+            public Boolean visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+              Symbol symbol = ASTHelpers.getSymbol(node);
+              return symbol instanceof VarSymbol
+                  && !symbol.equals(loopVariable)
+                  && (symbol.getKind() == ElementKind.LOCAL_VARIABLE
+                      || symbol.getKind() == ElementKind.PARAMETER)
+                  && !ASTHelpers.isConsideredFinal(symbol);
+            }
+
+            @Override
+            public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+              return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+            }
+          }.scan(expression, null));
+    }
+  }
+}
@@ -0,0 +1,377 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import static com.google.errorprone.BugPattern.LinkType.CUSTOM;
+import static com.google.errorprone.BugPattern.SeverityLevel.SUGGESTION;
+import static com.google.errorprone.BugPattern.StandardTags.CONCURRENCY;
+import static com.google.errorprone.BugPattern.StandardTags.PERFORMANCE;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static tech.picnic.errorprone.bugpatterns.util.Documentation.BUG_PATTERNS_BASE_URL;
+
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MethodTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.SynchronizedTreeMatcher;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.SynchronizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.inject.Inject;
+import javax.lang.model.element.Modifier;
+import org.jspecify.annotations.Nullable;
+import tech.picnic.errorprone.bugpatterns.util.BlockingMethods;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting;
+import tech.picnic.errorprone.bugpatterns.util.SourceCode;
+
+/**
+ * A {@link BugChecker} that flags {@code synchronized} methods and blocks inside of which a
+ * blocking method is invoked, either directly or transitively through private methods of the same
+ * class.
+ *
+ * <p>A virtual thread that blocks while holding an intrinsic monitor cannot unmount from its
+ * carrier thread. Such pinned carrier threads are unavailable to other virtual threads, limiting
+ * throughput. A {@link ReentrantLock} does not have this limitation.
+ *
+ * <p>If the monitor is the enclosing instance or class, then a fix is suggested that replaces all
+ * uses of said monitor in the enclosing class with a newly introduced {@link ReentrantLock}. This
+ * fix assumes that the monitor is not also acquired by code outside of the enclosing class. No fix
+ * is suggested if the enclosing class itself invokes {@link Object#wait()} or {@link
+ * Object#notify()}, or if the enclosing class is an enum whose constructors or initializers use the
+ * monitor.
+ *
+ * <p>The set of methods considered to be blocking can be extended using the {@value
+ * #EXTRA_BLOCKING_METHODS_FLAG} flag.
+ */
+@AutoService(BugChecker.class)
+@BugPattern(
+    summary = "Avoid blocking calls while holding an intrinsic monitor",
+    link = BUG_PATTERNS_BASE_URL + "SynchronizedBlockingCall",
+    linkType = CUSTOM,
+    severity = SUGGESTION,
+    tags = {CONCURRENCY, PERFORMANCE})
+@SuppressWarnings("java:S2160" /* Super class equality definition suffices. */)
+public final class SynchronizedBlockingCall extends BugChecker
+    implements MethodTreeMatcher, SynchronizedTreeMatcher {
+  private static final long serialVersionUID = 1L;
+  private static final String EXTRA_BLOCKING_METHODS_FLAG =
+      "SynchronizedBlockingCall:ExtraBlockingMethods";
+  private static final Matcher<ExpressionTree> MONITOR_METHOD =
+      instanceMethod()
+          .onDescendantOf(Object.class.getName())
+          .namedAnyOf("notify", "notifyAll", "wait");
+
+  private final Matcher<ExpressionTree> blockingMethod;
+
+  /** Instantiates a default {@link SynchronizedBlockingCall} instance. */
+  public SynchronizedBlockingCall() {
+    this(ErrorProneFlags.empty());
+  }
+
+  /**
+   * Instantiates a customized {@link SynchronizedBlockingCall}.
+   *
+   * @param flags Any provided command line flags.
+   */
+  @Inject
+  SynchronizedBlockingCall(ErrorProneFlags flags) {
+    blockingMethod = BlockingMethods.blockingMethod(flags, EXTRA_BLOCKING_METHODS_FLAG);
+  }
+
+  @Override
+  public Description matchMethod(MethodTree tree, VisitorState state) {
+    ClassTree enclosingClass = state.findEnclosing(ClassTree.class);
+    if (!tree.getModifiers().getFlags().contains(Modifier.SYNCHRONIZED)
+        || tree.getBody() == null
+        || enclosingClass == null) {
+      return Description.NO_MATCH;
+    }
+
+    Monitor monitor =
+        ASTHelpers.isStatic(ASTHelpers.getSymbol(tree)) ? Monitor.CLASS : Monitor.INSTANCE;
+    return match(tree, tree.getBody(), monitor, enclosingClass, state);
+  }
+
+  @Override
+  public Description matchSynchronized(SynchronizedTree tree, VisitorState state) {
+    ClassTree enclosingClass = state.findEnclosing(ClassTree.class);
+    if (enclosingClass == null) {
+      return Description.NO_MATCH;
+    }
+
+    Monitor monitor = getMonitor(tree, ASTHelpers.getSymbol(enclosingClass));
+    return match(tree, tree.getBlock(), monitor, enclosingClass, state);
+  }
+
+  private Description match(
+      Tree tree, BlockTree body, Monitor monitor, ClassTree enclosingClass, VisitorState state) {
+    ClassSymbol enclosingClassSymbol = ASTHelpers.getSymbol(enclosingClass);
+    MethodInvocationTree blockingCall = findBlockingCall(body, enclosingClassSymbol, state);
+    if (blockingCall == null) {
+      return Description.NO_MATCH;
+    }
+
+    Description.Builder description =
+        buildDescription(tree)
+            .setMessage(
+                String.format(
+                    "Blocking call `%s` is made while holding an intrinsic monitor, which pins "
+                        + "virtual threads to their carrier thread; consider using a "
+                        + "`ReentrantLock` instead",
+                    SourceCode.treeToString(blockingCall, state)));
+    if (monitor != Monitor.OTHER && isFirstBlockingUse(tree, monitor, enclosingClass, state)) {
+      replaceWithLock(monitor, enclosingClass, state).ifPresent(description::addFix);
+    }
+
+    return description.build();
+  }
+
+  /**
+   * Returns a blocking method invocation that is executed as part of the given block, possibly
+   * through an invocation of a private method declared by the given class, if any.
+   */
+  private @Nullable MethodInvocationTree findBlockingCall(
+      BlockTree block, ClassSymbol enclosingClass, VisitorState state) {
+    Set<Symbol> visitedMethods = new HashSet<>();
+    return new TreeScanner<@Nullable MethodInvocationTree, @Nullable Void>() {
+      @Override
+      public @Nullable MethodInvocationTree visitMethodInvocation(
+          MethodInvocationTree node, @Nullable Void unused) {
+        if (blockingMethod.matches(node, state) && !MONITOR_METHOD.matches(node, state)) {
+          return node;
+        }
+
+        MethodSymbol symbol = ASTHelpers.getSymbol(node);
+        if (symbol.getModifiers().contains(Modifier.PRIVATE)
+            && symbol.owner.equals(enclosingClass)
+            && visitedMethods.add(symbol)) {
+          MethodTree method = ASTHelpers.findMethod(symbol, state);
+          if (method != null && method.getBody() != null) {
+            MethodInvocationTree blockingCall = scan(method.getBody(), null);
+            if (blockingCall != null) {
+              return blockingCall;
+            }
+          }
+        }
+
+        return super.visitMethodInvocation(node, unused);
+      }
+
+      @Override
+      public @Nullable MethodInvocationTree visitLambdaExpression(
+          LambdaExpressionTree node, @Nullable Void unused) {
+        return null;
+      }
+
+      @Override
+      public @Nullable MethodInvocationTree visitClass(ClassTree node, @Nullable Void unused) {
+        return null;
+      }
+
+      @Override
+      public @Nullable MethodInvocationTree reduce(
+          @Nullable MethodInvocationTree r1, @Nullable MethodInvocationTree r2) {
+        return r1 != null ? r1 : r2;
+      }
+    }.scan(block, null);
+  }
+
+  /**
+   * Tells whether the given {@code synchronized} method or statement is the first use of the given
+   * monitor in the given class that involves a blocking call. Only the first such use is provided
+   * with a suggested fix, as said fix replaces all uses of the monitor at once.
+   */
+  private boolean isFirstBlockingUse(
+      Tree tree, Monitor monitor, ClassTree enclosingClass, VisitorState state) {
+    ClassSymbol enclosingClassSymbol = ASTHelpers.getSymbol(enclosingClass);
+    for (Tree use : findMonitorUses(monitor, enclosingClass)) {
+      BlockTree body =
+          use instanceof MethodTree
+              ? ((MethodTree) use).getBody()
+              : ((SynchronizedTree) use).getBlock();
+      if (body != null && findBlockingCall(body, enclosingClassSymbol, state) != null) {
+        return use.equals(tree);
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Suggests replacing all uses of the given monitor in the given class with a {@link
+   * ReentrantLock}, if this can be done without changing the class's synchronization semantics.
+   */
+  private static Optional<SuggestedFix> replaceWithLock(
+      Monitor monitor, ClassTree enclosingClass, VisitorState state) {
+    String lockName = monitor == Monitor.CLASS ? "LOCK" : "lock";
+    ImmutableList<Tree> uses = findMonitorUses(monitor, enclosingClass);
+    if (invokesMonitorMethod(enclosingClass, state)
+        || declaresMember(enclosingClass, lockName)
+        || (monitor == Monitor.CLASS && !FieldHoisting.canDeclareStaticFields(enclosingClass))
+        || hasNestedUses(uses)
+        || !uses.stream()
+            .allMatch(use -> FieldHoisting.canReferenceStaticFields(use, enclosingClass))) {
+      return Optional.empty();
+    }
+
+    SuggestedFix.Builder fix = SuggestedFix.builder();
+    String lockType = SuggestedFixes.qualifyType(state, fix, ReentrantLock.class.getName());
+    String declaration =
+        String.format(
+            "private %sfinal %s %s = new %s();",
+            monitor == Monitor.CLASS ? "static " : "", lockType, lockName, lockType);
+    fix.merge(FieldHoisting.addField(enclosingClass, declaration, ImmutableList.of(), state));
+
+    for (Tree use : uses) {
+      if (use instanceof MethodTree) {
+        MethodTree method = (MethodTree) use;
+        SuggestedFixes.removeModifiers(
+                method.getModifiers(), state, ImmutableSet.of(Modifier.SYNCHRONIZED))
+            .ifPresent(fix::merge);
+        fix.replace(
+            method.getBody(), String.format("{%s}", guard(method.getBody(), lockName, state)));
+      } else {
+        fix.replace(use, guard(((SynchronizedTree) use).getBlock(), lockName, state));
+      }
+    }
+
+    return Optional.of(fix.build());
+  }
+
+  private static String guard(BlockTree block, String lockName, VisitorState state) {
+    return String.format(
+        "%s.lock(); try %s finally { %s.unlock(); }",
+        lockName, SourceCode.treeToString(block, state), lockName);
+  }
+
+  /**
+   * Returns the {@code synchronized} methods and statements in the given class that use the given
+   * monitor, in source order.
+   */
+  private static ImmutableList<Tree> findMonitorUses(Monitor monitor, ClassTree enclosingClass) {
+    ClassSymbol enclosingClassSymbol = ASTHelpers.getSymbol(enclosingClass);
+    ImmutableList.Builder<Tree> uses = ImmutableList.builder();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitClass(ClassTree node, @Nullable Void unused) {
+        return node.equals(enclosingClass) ? super.visitClass(node, unused) : null;
+      }
+
+      @Override
+      public @Nullable Void visitMethod(MethodTree node, @Nullable Void unused) {
+        if (node.getModifiers().getFlags().contains(Modifier.SYNCHRONIZED)
+            && node.getBody() != null
+            && ASTHelpers.isStatic(ASTHelpers.getSymbol(node)) == (monitor == Monitor.CLASS)) {
+          uses.add(node);
+        }
+        return super.visitMethod(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitSynchronized(SynchronizedTree node, @Nullable Void unused) {
+        if (getMonitor(node, enclosingClassSymbol) == monitor) {
+          uses.add(node);
+        }
+        return super.visitSynchronized(node, unused);
+      }
+    }.scan(enclosingClass, null);
+    return uses.build();
+  }
+
+  private static Monitor getMonitor(SynchronizedTree tree, ClassSymbol enclosingClass) {
+    ExpressionTree expression = ASTHelpers.stripParentheses(tree.getExpression());
+    if (expression instanceof IdentifierTree
+        && ((IdentifierTree) expression).getName().contentEquals("this")) {
+      return Monitor.INSTANCE;
+    }
+
+    if (expression instanceof MemberSelectTree
+        && ((MemberSelectTree) expression).getIdentifier().contentEquals("class")
+        && enclosingClass.equals(
+            ASTHelpers.getSymbol(((MemberSelectTree) expression).getExpression()))) {
+      return Monitor.CLASS;
+    }
+
+    return Monitor.OTHER;
+  }
+
+  private static boolean invokesMonitorMethod(ClassTree tree, VisitorState state) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitClass(ClassTree node, @Nullable Void unused) {
+            return node.equals(tree) && Boolean.TRUE.equals(super.visitClass(node, unused));
+          }
+
+          @Override
+          public Boolean visitMethodInvocation(MethodInvocationTree node, @Nullable Void unused) {
+            return MONITOR_METHOD.matches(node, state)
+                || Boolean.TRUE.equals(super.visitMethodInvocation(node, unused));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  private static boolean declaresMember(ClassTree tree, String name) {
+    return tree.getMembers().stream()
+        .anyMatch(
+            member ->
+                member instanceof VariableTree
+                    && ((VariableTree) member).getName().contentEquals(name));
+  }
+
+  /** Tells whether any of the given trees is nested inside of another. */
+  private static boolean hasNestedUses(ImmutableList<Tree> uses) {
+    Set<Tree> nested = new HashSet<>();
+    for (Tree use : uses) {
+      new TreeScanner<@Nullable Void, @Nullable Void>() {
+        @Override
+        public @Nullable Void scan(Tree tree, @Nullable Void unused) {
+          if (tree != null && !tree.equals(use)) {
+            nested.add(tree);
+          }
+          return super.scan(tree, unused);
+        }
+      }.scan(use, null);
+    }
+
+    return uses.stream().anyMatch(nested::contains);
+  }
+
+  /** The monitor acquired by a {@code synchronized} method or statement. */
+  private enum Monitor {
+    /** The instance of the enclosing class. */
+    INSTANCE,
+    /** The {@link Class} object of the enclosing class. */
+    CLASS,
+    /** Some other object. */
+    OTHER
+  }
+}
@@ -0,0 +1,128 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.matchers.Matchers.anyOf;
+import static com.google.errorprone.matchers.method.MethodMatchers.instanceMethod;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.matchers.Matcher;
+import com.sun.source.tree.ExpressionTree;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A collection of {@link Matcher}s that identify methods that are known to block the calling
+ * thread.
+ *
+ * <p>These matchers are meant to be used by {@link com.google.errorprone.bugpatterns.BugChecker}s
+ * that flag blocking operations in contexts where blocking is undesirable. Such checkers should
+ * generally allow users to extend the set of known blocking methods; see {@link
+ * #blockingMethod(ErrorProneFlags, String)}.
+ */
+// XXX: Some of the types listed here also have non-blocking implementations (e.g.
+// `ByteArrayInputStream`). Consider excluding those.
+public final class BlockingMethods {
+  /** Matches invocations of and references to well-known blocking methods. */
+  public static final Matcher<ExpressionTree> KNOWN_BLOCKING_METHOD =
+      anyOf(
+          instanceMethod()
+              .onDescendantOf("reactor.core.publisher.Mono")
+              .namedAnyOf("block", "blockOptional"),
+          instanceMethod()
+              .onDescendantOf("reactor.core.publisher.Flux")
+              .namedAnyOf("blockFirst", "blockLast"),
+          staticMethod().onClass(Thread.class.getName()).named("sleep"),
+          instanceMethod().onDescendantOf(Thread.class.getName()).named("join"),
+          instanceMethod().onDescendantOf(Object.class.getName()).named("wait"),
+          instanceMethod().onDescendantOf(Future.class.getName()).named("get"),
+          instanceMethod().onDescendantOf(CompletableFuture.class.getName()).named("join"),
+          instanceMethod()
+              .onDescendantOf(ExecutorService.class.getName())
+              .namedAnyOf("awaitTermination", "invokeAll", "invokeAny"),
+          instanceMethod().onDescendantOf(BlockingQueue.class.getName()).namedAnyOf("put", "take"),
+          instanceMethod()
+              .onDescendantOfAny(
+                  Condition.class.getName(),
+                  CountDownLatch.class.getName(),
+                  CyclicBarrier.class.getName())
+              .named("await"),
+          instanceMethod().onDescendantOf(Semaphore.class.getName()).named("acquire"),
+          instanceMethod()
+              .onDescendantOf(Lock.class.getName())
+              .namedAnyOf("lock", "lockInterruptibly"),
+          instanceMethod()
+              .onDescendantOfAny(InputStream.class.getName(), Reader.class.getName())
+              .namedAnyOf("read", "readAllBytes", "readNBytes", "skip", "transferTo"),
+          instanceMethod()
+              .onDescendantOfAny(OutputStream.class.getName(), Writer.class.getName())
+              .namedAnyOf("flush", "write"),
+          staticMethod()
+              .onClass(Files.class.getName())
+              .namedAnyOf(
+                  "copy",
+                  "lines",
+                  "newBufferedReader",
+                  "newBufferedWriter",
+                  "newInputStream",
+                  "newOutputStream",
+                  "readAllBytes",
+                  "readAllLines",
+                  "readString",
+                  "write",
+                  "writeString"),
+          staticMethod()
+              .onClass(InetAddress.class.getName())
+              .namedAnyOf("getAllByName", "getByName", "getLocalHost"),
+          instanceMethod().onDescendantOf(Socket.class.getName()).named("connect"),
+          instanceMethod().onDescendantOf(URL.class.getName()).named("openStream"),
+          instanceMethod().onDescendantOf("java.net.http.HttpClient").named("send"),
+          staticMethod().onClass("java.sql.DriverManager").named("getConnection"),
+          instanceMethod().onDescendantOf("javax.sql.DataSource").named("getConnection"),
+          instanceMethod()
+              .onDescendantOf("java.sql.Statement")
+              .namedAnyOf(
+                  "execute",
+                  "executeBatch",
+                  "executeLargeBatch",
+                  "executeLargeUpdate",
+                  "executeQuery",
+                  "executeUpdate"),
+          instanceMethod().onDescendantOf("java.sql.Connection").namedAnyOf("commit", "rollback"),
+          instanceMethod().onDescendantOf("java.sql.ResultSet").named("next"));
+
+  private BlockingMethods() {}
+
+  /**
+   * Returns a {@link Matcher} of invocations of and references to well-known blocking methods, as
+   * well as any additional blocking methods specified using the given Error Prone flag.
+   *
+   * @param flags Any provided command line flags.
+   * @param extraBlockingMethodsFlag The name of the flag through which users may specify the
+   *     signatures of additional blocking methods, in a format supported by {@link
+   *     MethodMatcherFactory}.
+   * @return A non-{@code null} {@link Matcher}.
+   */
+  // XXX: `ErrorProneFlags#getList` splits by comma, but method signatures may also contain commas.
+  // As such, only methods accepting at most one argument can currently be specified.
+  public static Matcher<ExpressionTree> blockingMethod(
+      ErrorProneFlags flags, String extraBlockingMethodsFlag) {
+    return anyOf(
+        KNOWN_BLOCKING_METHOD,
+        new MethodMatcherFactory().create(Flags.getList(flags, extraBlockingMethodsFlag)));
+  }
+}
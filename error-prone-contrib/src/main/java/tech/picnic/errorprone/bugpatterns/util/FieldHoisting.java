@@ -0,0 +1,464 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static java.util.stream.Collectors.toCollection;
+
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
+import com.google.errorprone.fixes.SuggestedFix;
+import com.google.errorprone.fixes.SuggestedFixes;
+import com.google.errorprone.fixes.SuggestedFixes.AdditionPosition;
+import com.google.errorprone.suppliers.Supplier;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A collection of helper methods for {@link com.google.errorprone.bugpatterns.BugChecker}s that
+ * suggest to store the result of an expression in a (static) field, such that it is computed only
+ * once.
+ */
+// XXX: Java 16+ allows inner classes to declare static fields. Once Java 16 is the oldest
+// supported target, the restrictions in `canDeclareStaticFields` can be relaxed.
+public final class FieldHoisting {
+  /* Class trees do not override `Object#equals`, so the innermost maps are identity-based. */
+  private static final Supplier<Map<HoistableExpressions, Map<ClassTree, HoistedFields>>>
+      HOISTED_FIELDS = VisitorState.memoize(state -> new ConcurrentHashMap<>());
+
+  private FieldHoisting() {}
+
+  /**
+   * Tells whether the code at the given path is part of a method or lambda expression, rather than
+   * a field initializer or initializer block.
+   *
+   * @param path The path of interest.
+   * @return Whether the code at the given path may be executed more than once per class.
+   */
+  public static boolean isExecutedRepeatedly(TreePath path) {
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof MethodTree || leaf instanceof LambdaExpressionTree) {
+        return true;
+      }
+      if (leaf instanceof ClassTree) {
+        return false;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the innermost class enclosing the given path that can declare static fields.
+   *
+   * @param path The path of interest.
+   * @return The class to which a static field can be added, if any.
+   */
+  public static Optional<ClassTree> findTargetClass(TreePath path) {
+    for (TreePath current = path; current != null; current = current.getParentPath()) {
+      Tree leaf = current.getLeaf();
+      if (leaf instanceof ClassTree && canDeclareStaticFields((ClassTree) leaf)) {
+        return Optional.of((ClassTree) leaf);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Tells whether the given class can declare static fields.
+   *
+   * <p>This is the case for top-level classes and enums, and for static nested classes and enums.
+   *
+   * @param tree The class of interest.
+   * @return Whether static fields can be added to the given class.
+   */
+  public static boolean canDeclareStaticFields(ClassTree tree) {
+    ClassSymbol symbol = ASTHelpers.getSymbol(tree);
+    return (symbol.getKind() == ElementKind.CLASS || symbol.getKind() == ElementKind.ENUM)
+        && (symbol.getNestingKind() == NestingKind.TOP_LEVEL
+            || (symbol.getNestingKind() == NestingKind.MEMBER && ASTHelpers.isStatic(symbol)));
+  }
+
+  /**
+   * Tells whether the given tree, which is part of the given class, may reference a static field
+   * added to said class using {@link #addField(ClassTree, String, Iterable, VisitorState)}.
+   *
+   * <p>This is not the case for code in the constructors, instance initializers and field
+   * initializers of an enum: such code may not reference the enum's static fields, or only fields
+   * declared before it.
+   *
+   * @param tree The tree of interest.
+   * @param targetClass The class to which a static field would be added.
+   * @return Whether the given tree may reference the added static field.
+   */
+  public static boolean canReferenceStaticFields(Tree tree, ClassTree targetClass) {
+    if (ASTHelpers.getSymbol(targetClass).getKind() != ElementKind.ENUM) {
+      return true;
+    }
+
+    return targetClass.getMembers().stream()
+        .filter(FieldHoisting::isEnumInitializationCode)
+        .noneMatch(member -> contains(member, tree));
+  }
+
+  private static boolean isEnumInitializationCode(Tree member) {
+    return member instanceof VariableTree
+        || (member instanceof BlockTree && !((BlockTree) member).isStatic())
+        || (member instanceof MethodTree
+            && ASTHelpers.getSymbol((MethodTree) member).isConstructor());
+  }
+
+  private static boolean contains(Tree tree, Tree subtree) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean scan(Tree node, @Nullable Void unused) {
+            return node == subtree || Boolean.TRUE.equals(super.scan(node, unused));
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  /**
+   * Returns a fix that adds the given field declaration to the given class.
+   *
+   * <p>In a class, the field is declared directly after the last field of said class referenced by
+   * the given trees, so as to avoid illegal forward references, or else as the class's first
+   * member. In an enum, the field is declared as the enum's last member, as enum constants must
+   * precede all other members.
+   *
+   * @param targetClass The class to which to add the field.
+   * @param declaration The source code of the field declaration.
+   * @param dependencies The trees that make up the field's initializer, if any.
+   * @param state The {@link VisitorState} from which to derive the class's source code.
+   * @return A fix that adds the given field declaration.
+   */
+  public static SuggestedFix addField(
+      ClassTree targetClass,
+      String declaration,
+      Iterable<? extends Tree> dependencies,
+      VisitorState state) {
+    if (ASTHelpers.getSymbol(targetClass).getKind() == ElementKind.ENUM) {
+      return SuggestedFixes.addMembers(targetClass, state, AdditionPosition.LAST, declaration);
+    }
+
+    Optional<VariableTree> lastDependency = findLastReferencedField(dependencies, targetClass);
+    return lastDependency.isPresent()
+        ? SuggestedFix.postfixWith(lastDependency.orElseThrow(), '\n' + declaration)
+        : SuggestedFixes.addMembers(targetClass, state, AdditionPosition.FIRST, declaration);
+  }
+
+  /**
+   * Returns the last field declared by the given class that is referenced by the given trees, if
+   * any.
+   */
+  private static Optional<VariableTree> findLastReferencedField(
+      Iterable<? extends Tree> trees, ClassTree targetClass) {
+    Set<Symbol> referencedSymbols = new HashSet<>();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+        Symbol symbol = ASTHelpers.getSymbol(node);
+        if (symbol != null) {
+          referencedSymbols.add(symbol);
+        }
+        return super.visitIdentifier(node, unused);
+      }
+
+      @Override
+      public @Nullable Void visitMemberSelect(MemberSelectTree node, @Nullable Void unused) {
+        Symbol symbol = ASTHelpers.getSymbol(node);
+        if (symbol != null) {
+          referencedSymbols.add(symbol);
+        }
+        return super.visitMemberSelect(node, unused);
+      }
+    }.scan(trees, null);
+
+    @Var VariableTree lastReferencedField = null;
+    for (Tree member : targetClass.getMembers()) {
+      if (member instanceof VariableTree
+          && referencedSymbols.contains(ASTHelpers.getSymbol((VariableTree) member))) {
+        lastReferencedField = (VariableTree) member;
+      }
+    }
+
+    return Optional.ofNullable(lastReferencedField);
+  }
+
+  /**
+   * Determines the static fields in which the hoistable expressions evaluated by the given class
+   * are (to be) stored.
+   *
+   * <p>Expressions that compute the same value share a field. This is either an existing {@code
+   * static final} field initialized with such an expression, or a new field named after the method
+   * in which the value is first computed.
+   *
+   * <p>The result is computed once per class and {@link HoistableExpressions} instance, such that
+   * checks may invoke this method for each hoistable expression they flag.
+   *
+   * @param targetClass The class to which static fields would be added.
+   * @param expressions The expressions that may be stored in a static field; this should be a
+   *     constant.
+   * @param state The {@link VisitorState} from which to derive the class's source code.
+   * @return The fields associated with the given class's hoistable expressions.
+   */
+  public static HoistedFields getHoistedFields(
+      ClassTree targetClass, HoistableExpressions expressions, VisitorState state) {
+    return HOISTED_FIELDS
+        .get(state)
+        .computeIfAbsent(expressions, e -> Collections.synchronizedMap(new WeakHashMap<>()))
+        .computeIfAbsent(targetClass, c -> collectHoistedFields(c, expressions, state));
+  }
+
+  private static HoistedFields collectHoistedFields(
+      ClassTree targetClass, HoistableExpressions expressions, VisitorState state) {
+    Map<String, String> fieldNames = new HashMap<>();
+    for (Tree member : targetClass.getMembers()) {
+      if (member instanceof VariableTree) {
+        VariableTree variable = (VariableTree) member;
+        VarSymbol symbol = ASTHelpers.getSymbol(variable);
+        ExpressionTree initializer = variable.getInitializer();
+        if (symbol.isStatic()
+            && symbol.getModifiers().contains(Modifier.FINAL)
+            && initializer != null) {
+          expressions
+              .getFieldKey(initializer, state)
+              .ifPresent(key -> fieldNames.putIfAbsent(key, variable.getName().toString()));
+        }
+      }
+    }
+
+    Set<String> takenNames =
+        targetClass.getMembers().stream()
+            .filter(VariableTree.class::isInstance)
+            .map(member -> ((VariableTree) member).getName().toString())
+            .collect(toCollection(HashSet::new));
+    Map<String, Integer> baseNameUsages = new HashMap<>();
+    ImmutableMap.Builder<String, ExpressionTree> declaringExpressions = ImmutableMap.builder();
+    for (Map.Entry<String, Occurrence> occurrence :
+        new OccurrenceCollector(targetClass, expressions, state).collect().entrySet()) {
+      if (fieldNames.containsKey(occurrence.getKey())) {
+        continue;
+      }
+
+      String baseName = occurrence.getValue().baseName;
+      @Var String fieldName;
+      do {
+        int usages = baseNameUsages.merge(baseName, 1, Integer::sum);
+        fieldName = usages == 1 ? baseName : baseName + '_' + usages;
+      } while (!takenNames.add(fieldName));
+      fieldNames.put(occurrence.getKey(), fieldName);
+      declaringExpressions.put(occurrence.getKey(), occurrence.getValue().tree);
+    }
+
+    return new HoistedFields(ImmutableMap.copyOf(fieldNames), declaringExpressions.buildOrThrow());
+  }
+
+  /** The expressions that a {@link com.google.errorprone.bugpatterns.BugChecker} hoists. */
+  public interface HoistableExpressions {
+    /**
+     * Returns a key that identifies the value computed by the given expression, if said expression
+     * may be stored in a static field.
+     *
+     * @param tree The expression of interest.
+     * @param state The {@link VisitorState} from which to derive the expression's source code.
+     * @return A key that is equal for all expressions that compute the same value, if applicable.
+     */
+    Optional<String> getKey(ExpressionTree tree, VisitorState state);
+
+    /**
+     * Returns a key that identifies the value stored in an existing static field, if said field can
+     * be reused to replace hoistable expressions.
+     *
+     * @param initializer The field's initializer.
+     * @param state The {@link VisitorState} from which to derive the expression's source code.
+     * @return A key that is equal to that of the expressions that compute the stored value, if
+     *     applicable.
+     */
+    default Optional<String> getFieldKey(ExpressionTree initializer, VisitorState state) {
+      return getKey(initializer, state);
+    }
+
+    /**
+     * Returns the name of a field in which the value of the given expression may be stored, sans
+     * any prefix derived from the method in which it is computed.
+     *
+     * @param tree The hoistable expression of interest.
+     * @param state The {@link VisitorState} with which to inspect the expression.
+     * @return An upper underscore field name.
+     */
+    String getFieldName(ExpressionTree tree, VisitorState state);
+
+    /**
+     * Tells whether hoistable expressions are stored in a field in their entirety, such that their
+     * subexpressions need not be hoisted separately.
+     *
+     * @return Whether subexpressions of hoistable expressions may be ignored.
+     */
+    default boolean isHoistedInFull() {
+      return true;
+    }
+  }
+
+  /**
+   * The static fields in which the hoistable expressions evaluated by a class are (to be) stored.
+   */
+  public static final class HoistedFields {
+    private final ImmutableMap<String, String> fieldNames;
+    private final ImmutableMap<String, ExpressionTree> declaringExpressions;
+
+    private HoistedFields(
+        ImmutableMap<String, String> fieldNames,
+        ImmutableMap<String, ExpressionTree> declaringExpressions) {
+      this.fieldNames = fieldNames;
+      this.declaringExpressions = declaringExpressions;
+    }
+
+    /**
+     * Returns the name of the field in which the value with the given key is (to be) stored.
+     *
+     * @param key The key of a hoistable expression.
+     * @return The name of the associated field, if any.
+     */
+    public Optional<String> getFieldName(String key) {
+      return Optional.ofNullable(fieldNames.get(key));
+    }
+
+    /**
+     * Tells whether a fix that hoists the given expression should declare the associated field.
+     * This is the case for the first occurrence of a value that is not yet stored in a field.
+     *
+     * @param tree The hoistable expression of interest.
+     * @param key The key of the hoistable expression.
+     * @return Whether the field associated with the expression should be declared.
+     */
+    public boolean isDeclaredBy(ExpressionTree tree, String key) {
+      return declaringExpressions.get(key) == tree;
+    }
+  }
+
+  /** The first occurrence of a hoistable expression evaluated by a class. */
+  private static final class Occurrence {
+    private final ExpressionTree tree;
+    private final String baseName;
+
+    Occurrence(ExpressionTree tree, String baseName) {
+      this.tree = tree;
+      this.baseName = baseName;
+    }
+  }
+
+  /**
+   * Collects the hoistable expressions that are repeatedly evaluated by the code of a given class,
+   * excluding nested classes that can declare their own static fields.
+   *
+   * <p>The scanner's parameter denotes the field name prefix derived from the enclosing method, if
+   * any; the empty string denotes a constructor or field initializer.
+   */
+  private static final class OccurrenceCollector
+      extends TreeScanner<@Nullable Void, @Nullable String> {
+    private final Map<String, Occurrence> occurrences = new LinkedHashMap<>();
+    private final ClassTree targetClass;
+    private final HoistableExpressions expressions;
+    private final VisitorState state;
+
+    OccurrenceCollector(
+        ClassTree targetClass, HoistableExpressions expressions, VisitorState state) {
+      this.targetClass = targetClass;
+      this.expressions = expressions;
+      this.state = state;
+    }
+
+    Map<String, Occurrence> collect() {
+      scan(targetClass, null);
+      return occurrences;
+    }
+
+    @Override
+    public @Nullable Void visitClass(ClassTree node, @Nullable String prefix) {
+      return node != targetClass && canDeclareStaticFields(node)
+          ? null
+          : super.visitClass(node, null);
+    }
+
+    @Override
+    public @Nullable Void visitMethod(MethodTree node, @Nullable String prefix) {
+      String methodName = node.getName().toString();
+      return super.visitMethod(
+          node,
+          ASTHelpers.getSymbol(node).isConstructor()
+              ? ""
+              : CaseFormat.LOWER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, methodName) + '_');
+    }
+
+    @Override
+    public @Nullable Void visitLambdaExpression(
+        LambdaExpressionTree node, @Nullable String prefix) {
+      return super.visitLambdaExpression(node, prefix == null ? "" : prefix);
+    }
+
+    @Override
+    public @Nullable Void visitMethodInvocation(
+        MethodInvocationTree node, @Nullable String prefix) {
+      return register(node, prefix) ? null : super.visitMethodInvocation(node, prefix);
+    }
+
+    @Override
+    public @Nullable Void visitNewClass(NewClassTree node, @Nullable String prefix) {
+      return register(node, prefix) ? null : super.visitNewClass(node, prefix);
+    }
+
+    /**
+     * Registers the given expression if it is hoistable, and tells whether its subexpressions may
+     * be ignored.
+     */
+    private boolean register(ExpressionTree tree, @Nullable String prefix) {
+      if (prefix == null) {
+        return false;
+      }
+
+      Optional<String> key = expressions.getKey(tree, state);
+      if (key.isEmpty() || !canReferenceStaticFields(tree, targetClass)) {
+        return false;
+      }
+
+      occurrences.putIfAbsent(
+          key.orElseThrow(), new Occurrence(tree, prefix + expressions.getFieldName(tree, state)));
+      return expressions.isHoistedInFull();
+    }
+  }
+}
@@ -4,13 +4,28 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
 import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.DoWhileLoopTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
 import com.sun.source.tree.LambdaExpressionTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.tree.WhileLoopTree;
+import com.sun.source.util.TreeScanner;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.Symbol;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.element.ElementKind;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A collection of helper methods for working with the AST.
@@ -19,6 +34,13 @@ import java.util.Optional;
  * com.google.errorprone.util.ASTHelpers}.
  */
 public final class MoreASTHelpers {
+  private static final ImmutableSet<ElementKind> LOCAL_VARIABLE_KINDS =
+      ImmutableSet.of(
+          ElementKind.EXCEPTION_PARAMETER,
+          ElementKind.LOCAL_VARIABLE,
+          ElementKind.PARAMETER,
+          ElementKind.RESOURCE_VARIABLE);
+
   private MoreASTHelpers() {}
 
   /**
@@ -79,4 +101,92 @@ public final class MoreASTHelpers {
   public static boolean areSameType(Tree treeA, Tree treeB, VisitorState state) {
     return ASTHelpers.isSameType(ASTHelpers.getType(treeA), ASTHelpers.getType(treeB), state);
   }
+
+  /**
+   * Tells whether the given symbol denotes a local variable, including method, lambda and exception
+   * parameters and resource variables.
+   *
+   * @param symbol The symbol of interest.
+   * @return Whether the given symbol denotes a variable that is local to a method or lambda
+   *     expression.
+   */
+  public static boolean isLocalVariable(Symbol symbol) {
+    return LOCAL_VARIABLE_KINDS.contains(symbol.getKind());
+  }
+
+  /**
+   * Tells whether the given child of the given tree is executed repeatedly when the latter is
+   * executed once. This is the case for all parts of a loop, except for the initializer of a {@code
+   * for} loop and the expression iterated over by an enhanced {@code for} loop.
+   *
+   * @param tree The tree of interest.
+   * @param child The child of the given tree, if any.
+   * @return Whether the given tree is a loop that may execute the given child more than once.
+   */
+  public static boolean isRepeatedlyExecutedPart(Tree tree, @Nullable Tree child) {
+    if (tree instanceof EnhancedForLoopTree) {
+      return child != ((EnhancedForLoopTree) tree).getExpression();
+    }
+
+    if (tree instanceof ForLoopTree) {
+      return !((ForLoopTree) tree).getInitializer().contains(child);
+    }
+
+    return tree instanceof WhileLoopTree || tree instanceof DoWhileLoopTree;
+  }
+
+  /**
+   * Tells whether the given tree references a local variable or parameter that is neither final nor
+   * effectively final. Such a tree cannot be moved into a lambda expression or anonymous class.
+   *
+   * @param tree The tree of interest.
+   * @return Whether the given tree references a non-effectively final local variable.
+   */
+  public static boolean capturesNonEffectivelyFinalVariable(Tree tree) {
+    return Boolean.TRUE.equals(
+        new TreeScanner<Boolean, @Nullable Void>() {
+          @Override
+          public Boolean visitIdentifier(IdentifierTree node, @Nullable Void unused) {
+            Symbol symbol = ASTHelpers.getSymbol(node);
+            return symbol != null
+                && (symbol.getKind() == ElementKind.LOCAL_VARIABLE
+                    || symbol.getKind() == ElementKind.PARAMETER)
+                && (symbol.flags() & (Flags.FINAL | Flags.EFFECTIVELY_FINAL)) == 0;
+          }
+
+          @Override
+          public Boolean reduce(@Nullable Boolean r1, @Nullable Boolean r2) {
+            return Boolean.TRUE.equals(r1) || Boolean.TRUE.equals(r2);
+          }
+        }.scan(tree, null));
+  }
+
+  /**
+   * Returns a variable name derived from the given name that is not yet declared within the given
+   * scope.
+   *
+   * <p>If the given name itself is already in use, then successive numeric suffixes, starting at
+   * {@code 2}, are tried instead.
+   *
+   * @param name The preferred variable name.
+   * @param scope The tree, such as a method or class, whose variable declarations to avoid.
+   * @return The given name, or a numbered variant thereof, that does not clash with any variable
+   *     declared within the given scope.
+   */
+  public static String getUnusedName(String name, Tree scope) {
+    Set<String> declaredNames = new HashSet<>();
+    new TreeScanner<@Nullable Void, @Nullable Void>() {
+      @Override
+      public @Nullable Void visitVariable(VariableTree node, @Nullable Void unused) {
+        declaredNames.add(node.getName().toString());
+        return super.visitVariable(node, unused);
+      }
+    }.scan(scope, null);
+
+    @Var String candidate = name;
+    for (int i = 2; declaredNames.contains(candidate); i++) {
+      candidate = name + i;
+    }
+    return candidate;
+  }
 }
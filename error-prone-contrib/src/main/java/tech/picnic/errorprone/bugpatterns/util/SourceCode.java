@@ -1,22 +1,16 @@
 package tech.picnic.errorprone.bugpatterns.util;
 
-import static com.sun.tools.javac.parser.Tokens.TokenKind.RPAREN;
 import static com.sun.tools.javac.util.Position.NOPOS;
 import static java.util.stream.Collectors.joining;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.CharMatcher;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Streams;
 import com.google.errorprone.VisitorState;
 import com.google.errorprone.fixes.SuggestedFix;
-import com.google.errorprone.util.ErrorProneToken;
-import com.google.errorprone.util.ErrorProneTokens;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.Tree;
 import com.sun.tools.javac.util.JCDiagnostic.DiagnosticPosition;
 import com.sun.tools.javac.util.Position;
-import java.util.Optional;
 
 /**
  * A collection of Error Prone utility methods for dealing with the source code representation of
@@ -95,24 +89,20 @@ public final class SourceCode {
       return unwrapMethodInvocationDroppingWhitespaceAndComments(tree, state);
     }
 
-    ImmutableList<ErrorProneToken> tokens =
-        ErrorProneTokens.getTokens(
-            sourceCode.subSequence(startPosition, endPosition).toString(), state.context);
+    int leftParenPosition =
+        SourceCodeScanner.skipWhitespaceAndComments(sourceCode, startPosition, endPosition);
+    if (leftParenPosition == -1 || sourceCode.charAt(leftParenPosition) != '(') {
+      return unwrapMethodInvocationDroppingWhitespaceAndComments(tree, state);
+    }
 
-    Optional<Integer> leftParenPosition =
-        tokens.stream().findFirst().map(t -> startPosition + t.endPos());
-    Optional<Integer> rightParenPosition =
-        Streams.findLast(tokens.stream().filter(t -> t.kind() == RPAREN))
-            .map(t -> startPosition + t.pos());
-    if (leftParenPosition.isEmpty() || rightParenPosition.isEmpty()) {
+    int rightParenPosition =
+        SourceCodeScanner.indexOfClosingParenthesis(sourceCode, leftParenPosition, endPosition);
+    if (rightParenPosition == -1) {
       return unwrapMethodInvocationDroppingWhitespaceAndComments(tree, state);
     }
 
     return SuggestedFix.replace(
-        tree,
-        sourceCode
-            .subSequence(leftParenPosition.orElseThrow(), rightParenPosition.orElseThrow())
-            .toString());
+        tree, sourceCode.subSequence(leftParenPosition + 1, rightParenPosition).toString());
   }
 
   @VisibleForTesting
@@ -0,0 +1,187 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.errorprone.annotations.Var;
+
+/**
+ * A lightweight scanner of Java source code that operates directly on a {@link CharSequence}.
+ *
+ * <p>Unlike {@link com.google.errorprone.util.ErrorProneTokens}, this class does not copy or
+ * tokenize the source code under consideration; it merely knows enough about the lexical structure
+ * of Java to skip over comments, string literals, character literals and text blocks. This makes it
+ * suitable for cheaply locating syntactic elements such as parentheses during fix generation.
+ */
+// XXX: This class does not handle Unicode escapes that denote quote characters or comment
+// delimiters. Such code is sufficiently rare that this does not seem worth the extra complexity.
+public final class SourceCodeScanner {
+  private static final String TEXT_BLOCK_DELIMITER = "\"\"\"";
+
+  private SourceCodeScanner() {}
+
+  /**
+   * Returns the index of the first character in the given range that is neither whitespace nor part
+   * of a comment.
+   *
+   * @param source The source code to scan.
+   * @param fromIndex The (inclusive) index at which to start scanning.
+   * @param toIndex The (exclusive) index at which to stop scanning.
+   * @return The index of the first non-whitespace, non-comment character in the given range, or
+   *     {@code -1} if there is no such character.
+   */
+  public static int skipWhitespaceAndComments(CharSequence source, int fromIndex, int toIndex) {
+    @Var int index = fromIndex;
+    while (index < toIndex) {
+      if (Character.isWhitespace(source.charAt(index))) {
+        index++;
+      } else {
+        int commentEnd = skipComment(source, index, toIndex);
+        if (commentEnd == index) {
+          return index;
+        }
+        index = commentEnd;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the index of the closing parenthesis that balances the opening parenthesis at the given
+   * index.
+   *
+   * <p>Parentheses that are part of a comment, string literal, character literal or text block are
+   * ignored.
+   *
+   * @param source The source code to scan.
+   * @param openingParenthesisIndex The index of an opening parenthesis.
+   * @param toIndex The (exclusive) index at which to stop scanning.
+   * @return The index of the matching closing parenthesis, or {@code -1} if it does not occur
+   *     within the given range.
+   */
+  public static int indexOfClosingParenthesis(
+      CharSequence source, int openingParenthesisIndex, int toIndex) {
+    checkArgument(
+        source.charAt(openingParenthesisIndex) == '(',
+        "No opening parenthesis at index %s",
+        openingParenthesisIndex);
+
+    @Var int depth = 0;
+    @Var int index = openingParenthesisIndex;
+    while (index < toIndex) {
+      char c = source.charAt(index);
+      if (c == '(') {
+        depth++;
+        index++;
+      } else if (c == ')') {
+        depth--;
+        if (depth == 0) {
+          return index;
+        }
+        index++;
+      } else {
+        int end = skipCommentOrLiteral(source, index, toIndex);
+        index = end == index ? index + 1 : end;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the index just past the comment, string literal, character literal or text block that
+   * starts at the given index, or the given index itself if no such element starts there.
+   */
+  private static int skipCommentOrLiteral(CharSequence source, int index, int toIndex) {
+    char c = source.charAt(index);
+    if (c == '"') {
+      return startsWith(source, index, toIndex, TEXT_BLOCK_DELIMITER)
+          ? skipTextBlock(source, index + TEXT_BLOCK_DELIMITER.length(), toIndex)
+          : skipQuoted(source, index + 1, toIndex, '"');
+    }
+    if (c == '\'') {
+      return skipQuoted(source, index + 1, toIndex, '\'');
+    }
+    return skipComment(source, index, toIndex);
+  }
+
+  /**
+   * Returns the index just past the comment that starts at the given index, or the given index
+   * itself if no comment starts there. Unterminated comments extend to {@code toIndex}.
+   */
+  private static int skipComment(CharSequence source, int index, int toIndex) {
+    if (index + 1 >= toIndex || source.charAt(index) != '/') {
+      return index;
+    }
+
+    char next = source.charAt(index + 1);
+    if (next == '/') {
+      for (int i = index + 2; i < toIndex; i++) {
+        char c = source.charAt(i);
+        if (c == '\n' || c == '\r') {
+          return i;
+        }
+      }
+      return toIndex;
+    }
+
+    if (next == '*') {
+      for (int i = index + 2; i + 1 < toIndex; i++) {
+        if (source.charAt(i) == '*' && source.charAt(i + 1) == '/') {
+          return i + 2;
+        }
+      }
+      return toIndex;
+    }
+
+    return index;
+  }
+
+  /**
+   * Returns the index just past the closing quote of a string or character literal whose content
+   * starts at the given index. Unterminated literals extend to {@code toIndex}.
+   */
+  private static int skipQuoted(CharSequence source, int index, int toIndex, char quote) {
+    for (int i = index; i < toIndex; i++) {
+      char c = source.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == quote) {
+        return i + 1;
+      }
+    }
+
+    return toIndex;
+  }
+
+  /**
+   * Returns the index just past the closing delimiter of a text block whose content starts at the
+   * given index. Unterminated text blocks extend to {@code toIndex}.
+   */
+  private static int skipTextBlock(CharSequence source, int index, int toIndex) {
+    for (int i = index; i < toIndex; i++) {
+      char c = source.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (startsWith(source, i, toIndex, TEXT_BLOCK_DELIMITER)) {
+        return i + TEXT_BLOCK_DELIMITER.length();
+      }
+    }
+
+    return toIndex;
+  }
+
+  private static boolean startsWith(CharSequence source, int index, int toIndex, String prefix) {
+    if (index + prefix.length() > toIndex) {
+      return false;
+    }
+
+    for (int i = 0; i < prefix.length(); i++) {
+      if (source.charAt(index + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
@@ -26,6 +26,18 @@ public enum ThirdPartyLibrary {
    * @see <a href="https://assertj.github.io/doc">AssertJ documentation</a>
    */
   ASSERTJ("org.assertj.core.api.Assertions"),
+  /**
+   * Eclipse Collections.
+   *
+   * @see <a href="https://eclipse.dev/collections">Home page</a>
+   */
+  ECLIPSE_COLLECTIONS("org.eclipse.collections.api.list.primitive.IntList"),
+  /**
+   * Fastutil.
+   *
+   * @see <a href="https://fastutil.di.unimi.it">Home page</a>
+   */
+  FASTUTIL("it.unimi.dsi.fastutil.ints.IntList"),
   /**
    * Google's Guava.
    *
@@ -44,7 +56,14 @@ public enum ThirdPartyLibrary {
    *
    * @see <a href="https://projectreactor.io">Home page</a>
    */
-  REACTOR("reactor.core.publisher.Flux");
+  REACTOR("reactor.core.publisher.Flux"),
+  /**
+   * SLF4J's fluent logging API, introduced in SLF4J 2.0.0.
+   *
+   * @see <a href="https://www.slf4j.org/manual.html#fluent">SLF4J fluent logging API
+   *     documentation</a>
+   */
+  SLF4J_FLUENT_API("org.slf4j.spi.LoggingEventBuilder");
 
   private static final String IGNORE_CLASSPATH_COMPAT_FLAG =
       "ErrorProneSupport:IgnoreClasspathCompat";
@@ -2,8 +2,10 @@ package tech.picnic.errorprone.refasterrules;
 
 import com.google.errorprone.refaster.Refaster;
 import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.AlsoNegation;
 import com.google.errorprone.refaster.annotation.BeforeTemplate;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
 
 /** Refaster rules related to expressions dealing with {@link BigDecimal}s. */
@@ -66,4 +68,125 @@ final class BigDecimalRules {
       return BigDecimal.valueOf(value);
     }
   }
+
+  /**
+   * Prefer {@link BigDecimal#valueOf(double)} over the equivalent but more verbose construction
+   * from a string representation.
+   */
+  static final class BigDecimalValueOfDoubleString {
+    @BeforeTemplate
+    BigDecimal before(double value) {
+      return Refaster.anyOf(
+          new BigDecimal(Double.toString(value)), new BigDecimal(String.valueOf(value)));
+    }
+
+    @AfterTemplate
+    BigDecimal after(double value) {
+      return BigDecimal.valueOf(value);
+    }
+  }
+
+  /**
+   * Prefer {@link BigDecimal#valueOf(long)} over construction from a string representation, as the
+   * former does not require parsing and reuses cached instances for small values.
+   */
+  static final class BigDecimalValueOfLongString {
+    @BeforeTemplate
+    BigDecimal before(long value) {
+      return Refaster.anyOf(
+          new BigDecimal(Long.toString(value)), new BigDecimal(String.valueOf(value)));
+    }
+
+    @AfterTemplate
+    BigDecimal after(long value) {
+      return BigDecimal.valueOf(value);
+    }
+  }
+
+  /** Prefer {@link BigDecimal#signum()} over comparison with {@link BigDecimal#ZERO}. */
+  static final class BigDecimalSignum {
+    @BeforeTemplate
+    int before(BigDecimal value) {
+      return value.compareTo(BigDecimal.ZERO);
+    }
+
+    @AfterTemplate
+    int after(BigDecimal value) {
+      return value.signum();
+    }
+  }
+
+  /** Prefer {@link BigDecimal#signum()} over comparison with {@link BigDecimal#ZERO}. */
+  static final class BigDecimalSignumIsZero {
+    @BeforeTemplate
+    boolean before(BigDecimal value) {
+      return BigDecimal.ZERO.compareTo(value) == 0;
+    }
+
+    @AfterTemplate
+    @AlsoNegation
+    boolean after(BigDecimal value) {
+      return value.signum() == 0;
+    }
+  }
+
+  /** Prefer {@link BigDecimal#signum()} over comparison with {@link BigDecimal#ZERO}. */
+  static final class BigDecimalSignumIsPositive {
+    @BeforeTemplate
+    boolean before(BigDecimal value) {
+      return BigDecimal.ZERO.compareTo(value) < 0;
+    }
+
+    @AfterTemplate
+    @AlsoNegation
+    boolean after(BigDecimal value) {
+      return value.signum() > 0;
+    }
+  }
+
+  /** Prefer {@link BigDecimal#signum()} over comparison with {@link BigDecimal#ZERO}. */
+  static final class BigDecimalSignumIsNegative {
+    @BeforeTemplate
+    boolean before(BigDecimal value) {
+      return BigDecimal.ZERO.compareTo(value) > 0;
+    }
+
+    @AfterTemplate
+    @AlsoNegation
+    boolean after(BigDecimal value) {
+      return value.signum() < 0;
+    }
+  }
+
+  /** Don't unnecessarily strip trailing zeros more than once. */
+  static final class BigDecimalStripTrailingZeros {
+    @BeforeTemplate
+    BigDecimal before(BigDecimal value) {
+      return value.stripTrailingZeros().stripTrailingZeros();
+    }
+
+    @AfterTemplate
+    BigDecimal after(BigDecimal value) {
+      return value.stripTrailingZeros();
+    }
+  }
+
+  /**
+   * Don't unnecessarily strip trailing zeros or set the scale before setting the scale; the result
+   * of {@link BigDecimal#setScale(int, RoundingMode)} depends only on the numerical value of its
+   * receiver.
+   */
+  static final class BigDecimalSetScale {
+    @BeforeTemplate
+    BigDecimal before(BigDecimal value, int scale, RoundingMode roundingMode) {
+      return Refaster.anyOf(
+          value.stripTrailingZeros().setScale(scale, roundingMode),
+          value.setScale(scale, roundingMode).setScale(scale, roundingMode));
+    }
+
+    @AfterTemplate
+    BigDecimal after(BigDecimal value, int scale, RoundingMode roundingMode) {
+      return value.setScale(scale, roundingMode);
+    }
+  }
 }
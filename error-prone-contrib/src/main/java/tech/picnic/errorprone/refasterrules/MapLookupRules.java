@@ -0,0 +1,82 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import com.google.errorprone.refaster.annotation.NotMatches;
+import java.util.Map;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+import tech.picnic.errorprone.refaster.matchers.RequiresComputation;
+
+/**
+ * Refaster rules that replace multiple {@link Map} lookups of the same key with a single lookup.
+ *
+ * <p>See also {@code MapRules.MapGetOrDefault} and the {@code RedundantMapLookup} check, which
+ * covers statement-level patterns that cannot be expressed using Refaster.
+ */
+@OnlineDocumentation
+final class MapLookupRules {
+  private MapLookupRules() {}
+
+  /**
+   * Prefer {@link Map#getOrDefault(Object, Object)} over a {@link Map#containsKey(Object)} check
+   * followed by a separate lookup.
+   *
+   * <p>Unlike the conditional expression, {@link Map#getOrDefault(Object, Object)} evaluates the
+   * default value also if the key is present. This rule therefore only applies to default values
+   * that do not require computation, and thus have no side effects.
+   */
+  static final class MapGetOrDefaultIfContainsKey<K, V, T> {
+    @BeforeTemplate
+    V before(Map<K, V> map, T key, @NotMatches(RequiresComputation.class) V defaultValue) {
+      return Refaster.anyOf(
+          map.containsKey(key) ? map.get(key) : defaultValue,
+          !map.containsKey(key) ? defaultValue : map.get(key));
+    }
+
+    @AfterTemplate
+    V after(Map<K, V> map, T key, V defaultValue) {
+      return map.getOrDefault(key, defaultValue);
+    }
+  }
+
+  /**
+   * Prefer {@link Map#merge(Object, Object, java.util.function.BiFunction)} over a separate lookup
+   * and update of an {@link Integer} counter.
+   *
+   * <p>Note that if the key is absent, then {@code map.get(key) + amount} throws a {@link
+   * NullPointerException}, while the replacement code associates the key with the given amount.
+   */
+  static final class MapMergeIntegerSum<K> {
+    @BeforeTemplate
+    @SuppressWarnings("UnnecessaryBoxedVariable" /* Excludes amounts of a narrower type. */)
+    void before(Map<K, Integer> map, K key, Integer amount) {
+      map.put(key, Refaster.anyOf(map.get(key), map.getOrDefault(key, 0)) + amount);
+    }
+
+    @AfterTemplate
+    void after(Map<K, Integer> map, K key, Integer amount) {
+      map.merge(key, amount, Integer::sum);
+    }
+  }
+
+  /**
+   * Prefer {@link Map#merge(Object, Object, java.util.function.BiFunction)} over a separate lookup
+   * and update of a {@link Long} counter.
+   *
+   * <p>Note that if the key is absent, then {@code map.get(key) + amount} throws a {@link
+   * NullPointerException}, while the replacement code associates the key with the given amount.
+   */
+  static final class MapMergeLongSum<K> {
+    @BeforeTemplate
+    @SuppressWarnings("UnnecessaryBoxedVariable" /* Excludes amounts of a narrower type. */)
+    void before(Map<K, Long> map, K key, Long amount) {
+      map.put(key, Refaster.anyOf(map.get(key), map.getOrDefault(key, 0L)) + amount);
+    }
+
+    @AfterTemplate
+    void after(Map<K, Long> map, K key, Long amount) {
+      map.merge(key, amount, Long::sum);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static com.google.errorprone.refaster.ImportPolicy.STATIC_IMPORT_ALWAYS;
+import static java.util.function.Function.identity;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import com.google.errorprone.refaster.annotation.MayOptionallyUse;
+import com.google.errorprone.refaster.annotation.Placeholder;
+import com.google.errorprone.refaster.annotation.UseImportPolicy;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+
+/**
+ * Refaster rules that remove Reactor operators that don't affect the outcome of a reactive
+ * pipeline, or that replace them with cheaper equivalents.
+ *
+ * <p>Each operator in a {@link Mono} or {@link Flux} pipeline is instantiated upon subscription,
+ * and operators that subscribe to an inner publisher per element additionally incur a per-element
+ * subscription. Such redundant operators may moreover prevent Reactor from fusing adjacent ({@link
+ * reactor.core.Fuseable}) operators.
+ *
+ * <p>See also {@code ReactorRules.MonoIdentity}, {@code ReactorRules.ConcatMapIterableIdentity},
+ * {@code ReactorRules.MonoMap} and {@code ReactorRules.FluxMap}, which cover related cases.
+ */
+@OnlineDocumentation
+final class ReactorFusionRules {
+  private ReactorFusionRules() {}
+
+  /** Don't apply an identity operator to a {@link Mono}. */
+  static final class MonoIdentityOperator<T> {
+    @BeforeTemplate
+    Mono<T> before(Mono<T> mono) {
+      return Refaster.anyOf(
+          mono.map(Refaster.anyOf(identity(), x -> x)),
+          mono.filter(x -> true),
+          mono.flatMap(Mono::just));
+    }
+
+    @AfterTemplate
+    @CanIgnoreReturnValue
+    Mono<T> after(Mono<T> mono) {
+      return mono;
+    }
+  }
+
+  /** Don't apply an identity operator to a {@link Flux}. */
+  static final class FluxIdentityOperator<T> {
+    @BeforeTemplate
+    Flux<T> before(Flux<T> flux) {
+      return Refaster.anyOf(
+          flux.map(Refaster.anyOf(identity(), x -> x)),
+          flux.filter(x -> true),
+          flux.concatMap(Mono::just),
+          flux.concatMap(Flux::just),
+          flux.flatMap(Mono::just),
+          flux.flatMap(Flux::just),
+          flux.flatMapSequential(Mono::just),
+          flux.flatMapSequential(Flux::just));
+    }
+
+    @AfterTemplate
+    @CanIgnoreReturnValue
+    Flux<T> after(Flux<T> flux) {
+      return flux;
+    }
+  }
+
+  /**
+   * Prefer {@link Flux#map(Function)} over {@link Flux#flatMap(Function)} and {@link
+   * Flux#flatMapSequential(Function)} with a function that wraps its result in a single-element
+   * publisher, as the former doesn't require an inner subscription per element.
+   */
+  abstract static class FluxFlatMapToMap<T, S> {
+    @Placeholder(allowsIdentity = true)
+    abstract S transformation(@MayOptionallyUse T value);
+
+    @BeforeTemplate
+    Flux<S> before(Flux<T> flux) {
+      return Refaster.anyOf(
+          flux.flatMap(x -> Mono.just(transformation(x))),
+          flux.flatMap(x -> Flux.just(transformation(x))),
+          flux.flatMapSequential(x -> Mono.just(transformation(x))),
+          flux.flatMapSequential(x -> Flux.just(transformation(x))));
+    }
+
+    @AfterTemplate
+    Flux<S> after(Flux<T> flux) {
+      return flux.map(x -> transformation(x));
+    }
+  }
+
+  /**
+   * Prefer {@link Flux#concatMapIterable(Function)} over {@link Flux#flatMap(Function)} and {@link
+   * Flux#flatMapSequential(Function)} with an inner {@link Flux#fromIterable(Iterable)}
+   * subscription per element.
+   */
+  static final class FluxFlatMapFromIterable<T> {
+    @BeforeTemplate
+    Flux<T> before(Flux<? extends Iterable<T>> flux) {
+      return Refaster.anyOf(
+          flux.flatMap(list -> Flux.fromIterable(list)),
+          flux.flatMap(Flux::fromIterable),
+          flux.flatMapSequential(list -> Flux.fromIterable(list)),
+          flux.flatMapSequential(Flux::fromIterable));
+    }
+
+    @AfterTemplate
+    @UseImportPolicy(STATIC_IMPORT_ALWAYS)
+    Flux<T> after(Flux<? extends Iterable<T>> flux) {
+      return flux.concatMapIterable(identity());
+    }
+  }
+
+  /**
+   * Prefer {@link Mono#flatMapIterable(Function)} over {@link Mono#flatMapMany(Function)} with an
+   * inner {@link Flux#fromIterable(Iterable)} subscription.
+   */
+  static final class MonoFlatMapManyFromIterable<T> {
+    @BeforeTemplate
+    Flux<T> before(Mono<? extends Iterable<T>> mono) {
+      return Refaster.anyOf(
+          mono.flatMapMany(list -> Flux.fromIterable(list)), mono.flatMapMany(Flux::fromIterable));
+    }
+
+    @AfterTemplate
+    @UseImportPolicy(STATIC_IMPORT_ALWAYS)
+    Flux<T> after(Mono<? extends Iterable<T>> mono) {
+      return mono.flatMapIterable(identity());
+    }
+  }
+
+  /** Prefer {@link Mono#then()} over subscribing to an empty publisher upon completion. */
+  static final class MonoThenEmpty<T> {
+    @BeforeTemplate
+    Mono<@Nullable Void> before(Mono<T> mono) {
+      return Refaster.anyOf(mono.then(Mono.empty()), mono.thenEmpty(Mono.empty()));
+    }
+
+    @AfterTemplate
+    Mono<@Nullable Void> after(Mono<T> mono) {
+      return mono.then();
+    }
+  }
+
+  /** Prefer {@link Flux#then()} over subscribing to an empty publisher upon completion. */
+  static final class FluxThenEmpty<T> {
+    @BeforeTemplate
+    Mono<@Nullable Void> before(Flux<T> flux) {
+      return Refaster.anyOf(flux.then(Mono.empty()), flux.thenEmpty(Mono.empty()));
+    }
+
+    @AfterTemplate
+    Mono<@Nullable Void> after(Flux<T> flux) {
+      return flux.then();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static com.google.errorprone.refaster.ImportPolicy.STATIC_IMPORT_ALWAYS;
+import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.toList;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import com.google.errorprone.refaster.annotation.UseImportPolicy;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+
+/**
+ * Refaster rules that fuse {@link Stream} pipelines by removing intermediate collections and
+ * operations that don't affect the outcome.
+ *
+ * <p>Note that intermediate collections force eager evaluation of the upstream part of a stream
+ * pipeline. The rules in this collection assume that the operations passed to said pipeline are
+ * free of side effects, such that the resulting change in evaluation order is not observable.
+ * Intermediate collections are only removed if they accept {@code null} elements, as otherwise the
+ * removal would suppress a {@link NullPointerException}.
+ *
+ * <p>See also {@code StreamRules.StreamIsEmpty}, {@code StreamRules.StreamMin} and {@code
+ * StreamRules.StreamMax}, which cover intermediate collections tested for emptiness and sorted
+ * streams of which only the first element is consumed.
+ */
+@OnlineDocumentation
+final class StreamFusionRules {
+  private StreamFusionRules() {}
+
+  /** Don't collect a stream into a list only to stream the list's elements. */
+  static final class StreamCollectToListStream<T> {
+    @BeforeTemplate
+    Stream<T> before(Stream<T> stream) {
+      return stream.collect(toList()).stream();
+    }
+
+    @AfterTemplate
+    @CanIgnoreReturnValue
+    Stream<T> after(Stream<T> stream) {
+      return stream;
+    }
+  }
+
+  /** Prefer {@link Stream#count()} over collecting a stream into a list only to count it. */
+  static final class StreamCollectToListSize<T> {
+    @BeforeTemplate
+    int before(Stream<T> stream) {
+      return stream.collect(toList()).size();
+    }
+
+    @AfterTemplate
+    int after(Stream<T> stream) {
+      return Math.toIntExact(stream.count());
+    }
+  }
+
+  /**
+   * Prefer {@link Stream#min(Comparator)} over sorting a stream only to retain its first element.
+   */
+  static final class StreamSortedLimitOne<T> {
+    @BeforeTemplate
+    Stream<T> before(Stream<T> stream, Comparator<? super T> comparator) {
+      return stream.sorted(comparator).limit(1);
+    }
+
+    @AfterTemplate
+    Stream<T> after(Stream<T> stream, Comparator<? super T> comparator) {
+      return stream.min(comparator).stream();
+    }
+  }
+
+  /**
+   * Prefer {@link Stream#min(Comparator)} over sorting a stream only to retain its first element.
+   */
+  static final class StreamSortedNaturalOrderLimitOne<T extends Comparable<? super T>> {
+    @BeforeTemplate
+    Stream<T> before(Stream<T> stream) {
+      return stream.sorted().limit(1);
+    }
+
+    @AfterTemplate
+    @UseImportPolicy(STATIC_IMPORT_ALWAYS)
+    Stream<T> after(Stream<T> stream) {
+      return stream.min(naturalOrder()).stream();
+    }
+  }
+}
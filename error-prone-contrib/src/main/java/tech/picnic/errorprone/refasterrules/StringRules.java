@@ -20,6 +20,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import org.jspecify.annotations.Nullable;
 import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
 
@@ -205,4 +208,39 @@ final class StringRules {
       return Utf8.encodedLength(str);
     }
   }
+
+  /**
+   * Prefer {@link Pattern#splitAsStream(CharSequence)} over splitting into an intermediate array.
+   */
+  static final class PatternSplitAsStream {
+    @BeforeTemplate
+    Stream<String> before(Pattern pattern, CharSequence input) {
+      return Refaster.anyOf(Arrays.stream(pattern.split(input)), Stream.of(pattern.split(input)));
+    }
+
+    @AfterTemplate
+    Stream<String> after(Pattern pattern, CharSequence input) {
+      return pattern.splitAsStream(input);
+    }
+  }
+
+  /**
+   * Prefer {@link String#replace(CharSequence, CharSequence)} over compiling a {@link Pattern} that
+   * matches a literal string.
+   */
+  static final class StringReplaceLiteral {
+    @BeforeTemplate
+    String before(String str, String target, String replacement) {
+      return Refaster.anyOf(
+          str.replaceAll(Pattern.quote(target), Matcher.quoteReplacement(replacement)),
+          Pattern.compile(target, Pattern.LITERAL)
+              .matcher(str)
+              .replaceAll(Matcher.quoteReplacement(replacement)));
+    }
+
+    @AfterTemplate
+    String after(String str, String target, String replacement) {
+      return str.replace(target, replacement);
+    }
+  }
 }
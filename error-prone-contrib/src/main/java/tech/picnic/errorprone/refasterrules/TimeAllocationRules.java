@@ -0,0 +1,56 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.errorprone.refaster.Refaster;
+import com.google.errorprone.refaster.annotation.AfterTemplate;
+import com.google.errorprone.refaster.annotation.BeforeTemplate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import tech.picnic.errorprone.refaster.annotation.OnlineDocumentation;
+
+/**
+ * Refaster rules that avoid the allocation of intermediate {@code java.time} objects in expressions
+ * that are commonly evaluated on hot code paths.
+ *
+ * <p>See also {@code TimeRules.UtcConstant} and the {@code RepeatedTimeConstantConstruction} check,
+ * which suggests hoisting constant {@link java.time.format.DateTimeFormatter} and {@link ZoneId}
+ * instances into static fields.
+ */
+// XXX: Consider rewriting `Duration.between(a, b).toMillis()` to `a.until(b, ChronoUnit.MILLIS)`.
+// This is not behavior preserving on JDKs prior to 18, as those truncate the sub-millisecond part
+// of the nanosecond difference separately.
+@OnlineDocumentation
+final class TimeAllocationRules {
+  private TimeAllocationRules() {}
+
+  /** Prefer {@link Clock#millis()} over the creation of an intermediate {@link Instant}. */
+  static final class ClockMillis {
+    @BeforeTemplate
+    long before(Clock clock) {
+      return Refaster.anyOf(clock.instant().toEpochMilli(), Instant.now(clock).toEpochMilli());
+    }
+
+    @AfterTemplate
+    long after(Clock clock) {
+      return clock.millis();
+    }
+  }
+
+  /**
+   * Prefer {@link Instant#until(java.time.temporal.Temporal, java.time.temporal.TemporalUnit)} over
+   * the creation of an intermediate {@link Duration}.
+   */
+  static final class InstantNanosUntil {
+    @BeforeTemplate
+    long before(Instant a, Instant b) {
+      return Duration.between(a, b).toNanos();
+    }
+
+    @AfterTemplate
+    long after(Instant a, Instant b) {
+      return a.until(b, ChronoUnit.NANOS);
+    }
+  }
+}
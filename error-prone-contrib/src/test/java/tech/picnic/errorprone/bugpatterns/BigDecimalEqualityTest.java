@@ -0,0 +1,85 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class BigDecimalEqualityTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(BigDecimalEquality.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "import java.util.Map;",
+            "import java.util.Objects;",
+            "",
+            "class A {",
+            "  private final BigDecimal amount = BigDecimal.ZERO;",
+            "",
+            "  void m(BigDecimal a, BigDecimal b, Object o, String s) {",
+            "    a.compareTo(b);",
+            "    a.equals(o);",
+            "    s.equals(a);",
+            "    Objects.equals(a, o);",
+            "    Objects.equals(s, a);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    a.equals(b);",
+            "    // BUG: Diagnostic contains:",
+            "    BigDecimal.ZERO.equals(a);",
+            "    // BUG: Diagnostic contains:",
+            "    Objects.equals(a, b);",
+            "    // BUG: Diagnostic contains:",
+            "    com.google.common.base.Objects.equal(a, b);",
+            "  }",
+            "",
+            "  boolean m2(BigDecimal a, Map<String, BigDecimal> map) {",
+            "    // BUG: Diagnostic contains:",
+            "    return a.equals(map.get(\"x\"));",
+            "  }",
+            "",
+            "  @Override",
+            "  public boolean equals(Object o) {",
+            "    return o instanceof A && amount.equals(((A) o).amount);",
+            "  }",
+            "",
+            "  @Override",
+            "  public int hashCode() {",
+            "    return amount.hashCode();",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(BigDecimalEquality.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "",
+            "class A {",
+            "  boolean m(BigDecimal a, BigDecimal b, boolean flag) {",
+            "    if (!a.equals(new BigDecimal(\"1.0\"))) {",
+            "      return a.add(b).equals(BigDecimal.TEN);",
+            "    }",
+            "    return flag == b.equals((BigDecimal.ZERO)) && BigDecimal.ONE.equals(a);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "",
+            "class A {",
+            "  boolean m(BigDecimal a, BigDecimal b, boolean flag) {",
+            "    if (a.compareTo(new BigDecimal(\"1.0\")) != 0) {",
+            "      return a.add(b).compareTo(BigDecimal.TEN) == 0;",
+            "    }",
+            "    return flag == (b.compareTo((BigDecimal.ZERO)) == 0) && BigDecimal.ONE.equals(a);",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -0,0 +1,191 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class BlockingTaskExecutorTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(BlockingTaskExecutor.class, getClass())
+        .setArgs("-XepOpt:BlockingTaskExecutor:IgnoreTargetVersion=true")
+        .addSourceLines(
+            "A.java",
+            "import java.io.IOException;",
+            "import java.nio.file.Files;",
+            "import java.nio.file.Path;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import java.util.concurrent.ExecutorService;",
+            "import java.util.concurrent.Executors;",
+            "",
+            "class A {",
+            "  // BUG: Diagnostic contains:",
+            "  private final ExecutorService blockingExecutor = Executors.newFixedThreadPool(4);",
+            "  private final ExecutorService computingExecutor = Executors.newFixedThreadPool(4);",
+            "  private final ExecutorService mixedExecutor = Executors.newFixedThreadPool(4);",
+            "  private final ExecutorService pinningExecutor = Executors.newCachedThreadPool();",
+            "  private final ExecutorService escapingExecutor = Executors.newCachedThreadPool();",
+            "  final ExecutorService nonPrivateExecutor = Executors.newCachedThreadPool();",
+            "",
+            "  void m(Path path, Runnable runnable) {",
+            "    blockingExecutor.submit(() -> Files.readString(path));",
+            "    blockingExecutor.execute(this::read);",
+            "    CompletableFuture.runAsync(this::delegatingRead, blockingExecutor);",
+            "",
+            "    computingExecutor.execute(() -> System.out.println(path));",
+            "",
+            "    mixedExecutor.execute(this::read);",
+            "    CompletableFuture.runAsync(() -> System.out.println(path), mixedExecutor);",
+            "",
+            "    pinningExecutor.execute(this::read);",
+            "    pinningExecutor.execute(this::synchronizedRead);",
+            "",
+            "    escapingExecutor.execute(this::read);",
+            "    consume(escapingExecutor);",
+            "",
+            "    nonPrivateExecutor.execute(this::read);",
+            "",
+            "    ExecutorService opaqueTaskExecutor = Executors.newFixedThreadPool(2);",
+            "    opaqueTaskExecutor.execute(this::read);",
+            "    opaqueTaskExecutor.execute(runnable);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    ExecutorService localExecutor = Executors.newFixedThreadPool(2);",
+            "    localExecutor.execute(",
+            "        new Runnable() {",
+            "          @Override",
+            "          public void run() {",
+            "            read();",
+            "          }",
+            "        });",
+            "    localExecutor.shutdown();",
+            "",
+            "    ExecutorService synchronizingExecutor = Executors.newFixedThreadPool(2);",
+            "    synchronizingExecutor.execute(",
+            "        () -> {",
+            "          synchronized (this) {",
+            "            read();",
+            "          }",
+            "        });",
+            "  }",
+            "",
+            "  private void read() {",
+            "    try {",
+            "      Files.readAllBytes(Path.of(\"foo\"));",
+            "    } catch (IOException e) {",
+            "      throw new IllegalStateException(e);",
+            "    }",
+            "  }",
+            "",
+            "  private synchronized void synchronizedRead() {",
+            "    read();",
+            "  }",
+            "",
+            "  private void delegatingRead() {",
+            "    read();",
+            "  }",
+            "",
+            "  private static void consume(ExecutorService executor) {}",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationBeforeJava21() {
+    CompilationTestHelper.newInstance(BlockingTaskExecutor.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.nio.file.Files;",
+            "import java.nio.file.Path;",
+            "import java.util.concurrent.ExecutorService;",
+            "import java.util.concurrent.Executors;",
+            "",
+            "class A {",
+            "  void m(Path path) {",
+            "    ExecutorService executor = Executors.newFixedThreadPool(2);",
+            "    executor.submit(() -> Files.readString(path));",
+            "  }",
+            "}")
+        .setArgs("--release", "17")
+        .doTest();
+  }
+
+  @Test
+  void identificationWithExtraBlockingMethods() {
+    CompilationTestHelper.newInstance(BlockingTaskExecutor.class, getClass())
+        .setArgs(
+            "-XepOpt:BlockingTaskExecutor:ExtraBlockingMethods=A#load()",
+            "-XepOpt:BlockingTaskExecutor:IgnoreTargetVersion=true")
+        .addSourceLines(
+            "A.java",
+            "import java.util.concurrent.ExecutorService;",
+            "import java.util.concurrent.Executors;",
+            "",
+            "class A {",
+            "  void m() {",
+            "    // BUG: Diagnostic contains:",
+            "    ExecutorService executor = Executors.newFixedThreadPool(2);",
+            "    executor.submit(() -> load());",
+            "  }",
+            "",
+            "  String load() {",
+            "    return \"foo\";",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  /**
+   * The replacement is verified without compiling it, as {@code
+   * Executors#newVirtualThreadPerTaskExecutor()} does not exist on the pre-Java 21 runtimes on
+   * which this test may run.
+   */
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(BlockingTaskExecutor.class, getClass())
+        .setArgs("-XepOpt:BlockingTaskExecutor:IgnoreTargetVersion=true")
+        .addInputLines(
+            "A.java",
+            "import java.nio.file.Files;",
+            "import java.nio.file.Path;",
+            "import java.util.concurrent.ExecutorService;",
+            "import java.util.concurrent.Executors;",
+            "",
+            "class A {",
+            "  private final ExecutorService executor;",
+            "",
+            "  A() {",
+            "    executor = Executors.newCachedThreadPool();",
+            "  }",
+            "",
+            "  void m(Path path) {",
+            "    ExecutorService localExecutor = Executors.newFixedThreadPool(2);",
+            "    localExecutor.submit(() -> Files.readString(path));",
+            "    executor.submit(() -> Files.readAllLines(path));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.nio.file.Files;",
+            "import java.nio.file.Path;",
+            "import java.util.concurrent.ExecutorService;",
+            "import java.util.concurrent.Executors;",
+            "",
+            "class A {",
+            "  private final ExecutorService executor;",
+            "",
+            "  A() {",
+            "    executor = Executors.newVirtualThreadPerTaskExecutor();",
+            "  }",
+            "",
+            "  void m(Path path) {",
+            "    ExecutorService localExecutor = Executors.newVirtualThreadPerTaskExecutor();",
+            "    localExecutor.submit(() -> Files.readString(path));",
+            "    executor.submit(() -> Files.readAllLines(path));",
+            "  }",
+            "}")
+        .allowBreakingChanges()
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
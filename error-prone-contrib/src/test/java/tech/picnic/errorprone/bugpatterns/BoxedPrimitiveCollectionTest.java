@@ -0,0 +1,107 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class BoxedPrimitiveCollectionTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(BoxedPrimitiveCollection.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.ArrayList;",
+            "import java.util.HashMap;",
+            "import java.util.HashSet;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "import java.util.Set;",
+            "import java.util.stream.Stream;",
+            "",
+            "class A {",
+            "  // BUG: Diagnostic contains: `List<Integer>` is accessed inside a loop or stream operation,",
+            "  // incurring (un)boxing overhead; consider using `int[]` or `IntStream` instead",
+            "  private final List<Integer> hotList = new ArrayList<>();",
+            "  // BUG: Diagnostic contains: consider using `LongStream` instead",
+            "  private final Set<Long> hotSet = new HashSet<>();",
+            "  private final List<Integer> coldList = new ArrayList<>();",
+            "  private final List<String> stringList = new ArrayList<>();",
+            "  private final List<Boolean> booleanList = new ArrayList<>();",
+            "  // BUG: Diagnostic contains: consider using a primitive-specialized collection, such as",
+            "  // those offered by Fastutil or Eclipse Collections instead",
+            "  private final Set<Short> shortSet = new HashSet<>();",
+            "  // BUG: Diagnostic contains: consider using a primitive-specialized collection, such as",
+            "  // those offered by Fastutil or Eclipse Collections instead",
+            "  private final Map<Integer, Long> map = new HashMap<>();",
+            "  private final Map<String, Long> stringKeyedMap = new HashMap<>();",
+            "",
+            "  void m() {",
+            "    coldList.add(0);",
+            "    for (int i = 0; i < 10; i++) {",
+            "      this.hotList.add(i);",
+            "      stringList.add(\"foo\");",
+            "      booleanList.add(true);",
+            "      shortSet.add((short) i);",
+            "      map.put(i, 1L);",
+            "      stringKeyedMap.put(\"foo\", 1L);",
+            "    }",
+            "    Stream.of(1L).filter(hotSet::contains);",
+            "",
+            "    // BUG: Diagnostic contains: consider using `double[]` or `DoubleStream` instead",
+            "    List<Double> whileLocal = new ArrayList<>();",
+            "    while (whileLocal.isEmpty()) {",
+            "      whileLocal.add(1.0);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains: consider using `char[]` instead",
+            "    List<Character> lambdaLocal = new ArrayList<>();",
+            "    Stream.of('a').map(c -> lambdaLocal.contains(c));",
+            "",
+            "    // BUG: Diagnostic contains: consider using `float[]` instead",
+            "    List<Float> doWhileLocal = new ArrayList<>();",
+            "    do {",
+            "      doWhileLocal.add(1.0F);",
+            "    } while (doWhileLocal.size() < 10);",
+            "",
+            "    List<Byte> forEachLocal = new ArrayList<>();",
+            "    for (byte b : forEachLocal) {}",
+            "",
+            "    List<Integer> coldLocal = new ArrayList<>();",
+            "    coldLocal.add(1);",
+            "    Stream.of(coldLocal).map(List::size);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationWithPrimitiveCollectionLibraries() {
+    CompilationTestHelper.newInstance(BoxedPrimitiveCollection.class, getClass())
+        .setArgs("-XepOpt:ErrorProneSupport:IgnoreClasspathCompat=true")
+        .addSourceLines(
+            "A.java",
+            "import java.util.HashMap;",
+            "import java.util.HashSet;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "import java.util.Set;",
+            "",
+            "class A {",
+            "  // BUG: Diagnostic contains: consider using `it.unimi.dsi.fastutil.ints.Int2LongMap` or",
+            "  // `org.eclipse.collections.api.map.primitive.IntLongMap` instead",
+            "  private final Map<Integer, Long> map = new HashMap<>();",
+            "  // BUG: Diagnostic contains: consider using `it.unimi.dsi.fastutil.shorts.ShortSet` or",
+            "  // `org.eclipse.collections.api.set.primitive.ShortSet` instead",
+            "  private final Set<Short> set = new HashSet<>();",
+            "  private final Map<String, Long> stringKeyedMap = new HashMap<>();",
+            "",
+            "  void m(List<Integer> list) {",
+            "    for (int i : list) {",
+            "      map.put(i, 1L);",
+            "      set.add((short) i);",
+            "      stringKeyedMap.put(\"foo\", 1L);",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+}
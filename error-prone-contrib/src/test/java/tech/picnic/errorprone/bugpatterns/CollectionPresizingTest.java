@@ -0,0 +1,229 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class CollectionPresizingTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(CollectionPresizing.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import com.google.common.collect.ImmutableMap;",
+            "import com.google.common.collect.Lists;",
+            "import com.google.common.collect.Maps;",
+            "import java.util.ArrayList;",
+            "import java.util.HashMap;",
+            "import java.util.HashSet;",
+            "import java.util.LinkedList;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "import java.util.Set;",
+            "",
+            "class A {",
+            "  private final List<String> field = new ArrayList<>();",
+            "",
+            "  void m(List<String> list, String[] array, Map<String, Integer> map, int n, long size) {",
+            "    List<String> a1 = new ArrayList<>();",
+            "    a1.add(\"foo\");",
+            "",
+            "    List<String> a2 = new ArrayList<>(list.size());",
+            "    for (String s : list) {",
+            "      a2.add(s);",
+            "    }",
+            "",
+            "    List<String> a3 = new LinkedList<>();",
+            "    for (String s : list) {",
+            "      a3.add(s);",
+            "    }",
+            "",
+            "    List<String> a4 = new ArrayList<>();",
+            "    for (String s : list) {",
+            "      if (s.isEmpty()) {",
+            "        a4.add(s);",
+            "      }",
+            "    }",
+            "",
+            "    List<String> a5 = new ArrayList<>();",
+            "    for (String s : list) {",
+            "      field.add(s);",
+            "    }",
+            "",
+            "    List<String> a6 = new ArrayList<>();",
+            "    for (String s : getList()) {",
+            "      a6.add(s);",
+            "    }",
+            "",
+            "    List<Integer> a7 = new ArrayList<>();",
+            "    for (int i = 1; i < n; i++) {",
+            "      a7.add(i);",
+            "    }",
+            "",
+            "    List<Integer> a8 = new ArrayList<>();",
+            "    for (int i = 0; i < getList().size(); i++) {",
+            "      a8.add(i);",
+            "    }",
+            "",
+            "    List<Integer> a9 = new ArrayList<>();",
+            "    int k = 0;",
+            "    for (String s : list) {",
+            "      a9.add(k);",
+            "    }",
+            "",
+            "    List<Integer> a10 = new ArrayList<>();",
+            "    while (a10.size() < n) {",
+            "      a10.add(0);",
+            "    }",
+            "",
+            "    List<Long> a11 = new ArrayList<>();",
+            "    for (long i = 0; i < size; i++) {",
+            "      a11.add(i);",
+            "    }",
+            "",
+            "    List<Integer> a12 = new ArrayList<>();",
+            "    for (int i = 0; i < size; i++) {",
+            "      a12.add(i);",
+            "    }",
+            "",
+            "    Set<Integer> a13 = new HashSet<>();",
+            "    for (int i = 0; i < -1; i++) {",
+            "      a13.add(i);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    List<String> b1 = new ArrayList<>();",
+            "    for (String s : list) {",
+            "      b1.add(s);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Set<String> b2 = new HashSet<>();",
+            "    for (String s : array) b2.add(s);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Map<String, Integer> b3 = new HashMap<>();",
+            "    for (Map.Entry<String, Integer> e : map.entrySet()) {",
+            "      String key = e.getKey().trim();",
+            "      b3.put(key, e.getValue());",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    ImmutableList.Builder<Integer> b4 = ImmutableList.builder();",
+            "    for (int i = 0; i < n; i++) {",
+            "      b4.add(i);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    ImmutableMap.Builder<Integer, String> b5 = ImmutableMap.builder();",
+            "    for (int i = 0; i < list.size(); ++i) {",
+            "      b5.put(i, list.get(i));",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    List<String> b6 = Lists.newArrayList();",
+            "    for (String s : field) {",
+            "      b6.add(s);",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Map<String, String> b7 = Maps.newHashMap();",
+            "    for (int i = 0; i < array.length; i++) {",
+            "      b7.put(array[i], array[i]);",
+            "    }",
+            "  }",
+            "",
+            "  private List<String> getList() {",
+            "    return field;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(CollectionPresizing.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableSet;",
+            "import com.google.common.collect.Sets;",
+            "import java.util.ArrayList;",
+            "import java.util.HashMap;",
+            "import java.util.LinkedHashSet;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "import java.util.Set;",
+            "",
+            "class A {",
+            "  void m(List<String> list, String[] array, Map<String, Integer> map) {",
+            "    List<String> a = new ArrayList<String>();",
+            "    for (String s : list) {",
+            "      a.add(s);",
+            "    }",
+            "",
+            "    Map<String, Integer> b = new HashMap<>();",
+            "    for (String key : map.keySet()) {",
+            "      b.put(key, 0);",
+            "    }",
+            "",
+            "    Set<String> c = new LinkedHashSet<String>();",
+            "    for (String s : array) {",
+            "      c.add(s);",
+            "    }",
+            "",
+            "    ImmutableSet.Builder<String> d = ImmutableSet.<String>builder();",
+            "    for (String s : list) {",
+            "      d.add(s);",
+            "    }",
+            "",
+            "    Set<String> e = Sets.newHashSet();",
+            "    for (int i = 0; i < 10; i++) {",
+            "      e.add(list.get(i));",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableSet;",
+            "import com.google.common.collect.Maps;",
+            "import com.google.common.collect.Sets;",
+            "import java.util.ArrayList;",
+            "import java.util.HashMap;",
+            "import java.util.LinkedHashSet;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "import java.util.Set;",
+            "",
+            "class A {",
+            "  void m(List<String> list, String[] array, Map<String, Integer> map) {",
+            "    List<String> a = new ArrayList<String>(list.size());",
+            "    for (String s : list) {",
+            "      a.add(s);",
+            "    }",
+            "",
+            "    Map<String, Integer> b = Maps.newHashMapWithExpectedSize(map.size());",
+            "    for (String key : map.keySet()) {",
+            "      b.put(key, 0);",
+            "    }",
+            "",
+            "    Set<String> c = Sets.<String>newLinkedHashSetWithExpectedSize(array.length);",
+            "    for (String s : array) {",
+            "      c.add(s);",
+            "    }",
+            "",
+            "    ImmutableSet.Builder<String> d = ImmutableSet.<String>builderWithExpectedSize(list.size());",
+            "    for (String s : list) {",
+            "      d.add(s);",
+            "    }",
+            "",
+            "    Set<String> e = Sets.newHashSetWithExpectedSize(10);",
+            "    for (int i = 0; i < 10; i++) {",
+            "      e.add(list.get(i));",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -34,6 +34,9 @@ final class ErrorProneTestHelperSourceFormatTest {
             "        .addSourceLines(\"D.java\", \"class D {\" + getClass())",
             "        // BUG: Diagnostic contains: Test code should follow the Google Java style",
             "        .addSourceLines(\"E.java\", \"class E { }\")",
+            "        // Identical to a previously flagged source, so flagged as well.",
+            "        // BUG: Diagnostic contains: Test code should follow the Google Java style",
+            "        .addSourceLines(\"F.java\", \"class E { }\")",
             "        .doTest();",
             "",
             "    refactoringTestHelper",
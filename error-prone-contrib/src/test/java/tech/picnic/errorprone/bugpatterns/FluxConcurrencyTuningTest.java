@@ -0,0 +1,120 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class FluxConcurrencyTuningTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(FluxConcurrencyTuning.class, getClass())
+        .addSourceLines(
+            "io/r2dbc/spi/Statement.java",
+            "package io.r2dbc.spi;",
+            "",
+            "import org.reactivestreams.Publisher;",
+            "",
+            "public interface Statement {",
+            "  Publisher<Object> execute();",
+            "}")
+        .addSourceLines(
+            "A.java",
+            "import io.r2dbc.spi.Statement;",
+            "import java.util.List;",
+            "import java.util.stream.Stream;",
+            "import org.springframework.web.reactive.function.client.WebClient;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  private static final int MAX_CONCURRENCY = 8;",
+            "",
+            "  void m(WebClient webClient, Statement statement, List<String> list) {",
+            "    Flux.just(\"foo\").concatMap(Flux::just);",
+            "    Flux.just(\"foo\").concatMap(s -> Mono.just(s.length()));",
+            "    Flux.just(\"foo\").concatMap(s -> Mono.just(s.length()), 1);",
+            "",
+            "    // BUG: Diagnostic contains: `Flux#concatMap` subscribes to I/O-bound",
+            "    Flux.just(\"foo\").concatMap(s -> webClient.get().uri(s).retrieve().bodyToMono(String.class));",
+            "    // BUG: Diagnostic contains: `Flux#concatMap` subscribes to I/O-bound",
+            "    Flux.just(\"foo\").concatMap(s -> webClient.get().uri(s).retrieve().bodyToMono(String.class), 4);",
+            "    // BUG: Diagnostic contains: `Flux#concatMap` subscribes to I/O-bound",
+            "    Flux.just(statement).concatMap(s -> Mono.from(s.execute()));",
+            "    // BUG: Diagnostic contains: `Flux#concatMap` subscribes to I/O-bound",
+            "    Flux.just(statement).concatMap(Statement::execute);",
+            "",
+            "    Flux.fromIterable(list).flatMap(Flux::just, MAX_CONCURRENCY);",
+            "    Flux.fromIterable(list).flatMap(Flux::just, 16, 32);",
+            "    Flux.just(\"foo\").flatMap(Flux::just, Integer.MAX_VALUE);",
+            "    Mono.just(list).flatMap(Mono::just);",
+            "",
+            "    // BUG: Diagnostic contains: Unbounded concurrency",
+            "    Flux.fromIterable(list).flatMap(Flux::just, Integer.MAX_VALUE);",
+            "    // BUG: Diagnostic contains: Unbounded concurrency",
+            "    Flux.fromIterable(list).map(String::length).flatMap(Flux::just, Integer.MAX_VALUE, 32);",
+            "    // BUG: Diagnostic contains: Unbounded concurrency",
+            "    Flux.fromArray(new String[0]).flatMapSequential(Flux::just, Integer.MAX_VALUE);",
+            "    // BUG: Diagnostic contains: Unbounded concurrency",
+            "    Flux.fromStream(Stream.of(\"foo\")).flatMapDelayError(Flux::just, Integer.MAX_VALUE, 32);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(FluxConcurrencyTuning.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.List;",
+            "import org.springframework.web.reactive.function.client.WebClient;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  private static final int MAX_CONCURRENCY = 8;",
+            "  private static final int PREFETCH = 16;",
+            "",
+            "  void m(WebClient webClient, List<String> list) {",
+            "    Flux.just(\"foo\").concatMap(s -> webClient.get().uri(s).retrieve().bodyToMono(String.class));",
+            "    Flux.just(\"foo\").concatMap(s -> webClient.get().uri(s).retrieve().bodyToMono(String.class), 4);",
+            "    Flux.just(\"foo\").concatMap(s -> webClient.get().uri(s).retrieve().bodyToMono(String.class), 0);",
+            "",
+            "    Flux.fromIterable(list).flatMap(Flux::just, Integer.MAX_VALUE);",
+            "    Flux.fromIterable(list).flatMapSequential(Flux::just, Integer.MAX_VALUE, 32);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.List;",
+            "import org.springframework.web.reactive.function.client.WebClient;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  private static final int MAX_CONCURRENCY = 8;",
+            "  private static final int PREFETCH = 16;",
+            "",
+            "  void m(WebClient webClient, List<String> list) {",
+            "    Flux.just(\"foo\")",
+            "        .flatMapSequential(",
+            "            s -> webClient.get().uri(s).retrieve().bodyToMono(String.class),",
+            "            MAX_CONCURRENCY,",
+            "            PREFETCH);",
+            "    Flux.just(\"foo\")",
+            "        .flatMapSequential(",
+            "            s -> webClient.get().uri(s).retrieve().bodyToMono(String.class),",
+            "            MAX_CONCURRENCY,",
+            "            4);",
+            "    Flux.just(\"foo\")",
+            "        .flatMapSequential(",
+            "            s -> webClient.get().uri(s).retrieve().bodyToMono(String.class),",
+            "            MAX_CONCURRENCY,",
+            "            PREFETCH);",
+            "",
+            "    Flux.fromIterable(list).flatMap(Flux::just, MAX_CONCURRENCY);",
+            "    Flux.fromIterable(list).flatMapSequential(Flux::just, MAX_CONCURRENCY, 32);",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+}
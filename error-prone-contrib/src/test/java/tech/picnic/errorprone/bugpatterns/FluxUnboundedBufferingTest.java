@@ -0,0 +1,112 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class FluxUnboundedBufferingTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(FluxUnboundedBuffering.class, getClass())
+        .addSourceLines(
+            "reactor/kafka/receiver/KafkaReceiver.java",
+            "package reactor.kafka.receiver;",
+            "",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "public interface KafkaReceiver<K, V> {",
+            "  Flux<V> receive();",
+            "}")
+        .addSourceLines(
+            "A.java",
+            "import static com.google.common.collect.ImmutableList.toImmutableList;",
+            "import static java.util.stream.Collectors.counting;",
+            "",
+            "import java.time.Duration;",
+            "import java.util.ArrayList;",
+            "import org.springframework.web.reactive.function.client.WebClient;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.kafka.receiver.KafkaReceiver;",
+            "",
+            "class A {",
+            "  void m(WebClient webClient, KafkaReceiver<String, String> receiver, Flux<Long> flux) {",
+            "    flux.collectList();",
+            "    flux.buffer();",
+            "    Flux.range(0, 10).collectList();",
+            "    Flux.interval(Duration.ofSeconds(1)).take(10).collectList();",
+            "    Flux.interval(Duration.ofSeconds(1)).buffer(10);",
+            "    Flux.interval(Duration.ofSeconds(1)).takeUntilOther(flux).map(i -> i + 1).buffer();",
+            "    Flux.interval(Duration.ofSeconds(1)).reduce(0L, Long::sum);",
+            "    Flux.interval(Duration.ofSeconds(1)).collect(counting());",
+            "    Flux.interval(Duration.ofSeconds(1)).collect(() -> new long[1], (a, i) -> a[0] += i);",
+            "    Flux.interval(Duration.ofSeconds(1)).count();",
+            "    receiver.receive().next();",
+            "",
+            "    // BUG: Diagnostic contains: unbounded source `Flux.interval(Duration.ofSeconds(1))`",
+            "    Flux.interval(Duration.ofSeconds(1)).collectList();",
+            "    // BUG: Diagnostic contains: `collectMap` buffers",
+            "    Flux.interval(Duration.ofSeconds(1)).map(i -> i * 2).collectMap(i -> i);",
+            "    // BUG: Diagnostic contains: `buffer` buffers",
+            "    Flux.interval(Duration.ofSeconds(1)).filter(i -> i > 0).buffer();",
+            "    // BUG: Diagnostic contains: `sort` buffers",
+            "    Flux.interval(Duration.ofSeconds(1)).sort();",
+            "    // BUG: Diagnostic contains: `collect` buffers",
+            "    Flux.interval(Duration.ofSeconds(1)).collect(toImmutableList());",
+            "    // BUG: Diagnostic contains: `collect` buffers",
+            "    Flux.interval(Duration.ofSeconds(1)).collect(ArrayList::new, ArrayList::add);",
+            "    // BUG: Diagnostic contains: `reduce` buffers",
+            "    Flux.interval(Duration.ofSeconds(1)).reduce(new ArrayList<Long>(), (l, i) -> l);",
+            "    // BUG: Diagnostic contains: unbounded source `flux.repeat()`",
+            "    flux.repeat().collectSortedList();",
+            "    // BUG: Diagnostic contains: bodyToFlux(String.class)`",
+            "    webClient.get().retrieve().bodyToFlux(String.class).collectList();",
+            "    // BUG: Diagnostic contains: unbounded source `receiver.receive()`",
+            "    receiver.receive().collectList();",
+            "",
+            "    Flux<Long> ticks = Flux.interval(Duration.ofSeconds(1)).map(i -> i + 1);",
+            "    Flux<Long> mapped = ticks.filter(i -> i > 0);",
+            "    // BUG: Diagnostic contains: unbounded source `Flux.interval(Duration.ofSeconds(1))`",
+            "    mapped.collectList();",
+            "    mapped.take(Duration.ofMinutes(1)).collectList();",
+            "",
+            "    Flux<Long> reassigned = Flux.interval(Duration.ofSeconds(1));",
+            "    reassigned = flux;",
+            "    reassigned.collectList();",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(FluxUnboundedBuffering.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.time.Duration;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  private static final int MAX_BUFFER_SIZE = 100;",
+            "",
+            "  void m() {",
+            "    Flux.interval(Duration.ofSeconds(1)).buffer();",
+            "    Flux.interval(Duration.ofSeconds(1)).collectList();",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.time.Duration;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  private static final int MAX_BUFFER_SIZE = 100;",
+            "",
+            "  void m() {",
+            "    Flux.interval(Duration.ofSeconds(1)).buffer(MAX_BUFFER_SIZE);",
+            "    Flux.interval(Duration.ofSeconds(1)).collectList();",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -18,6 +18,8 @@ final class FormatStringConcatenationTest {
             "import static org.assertj.core.api.Assertions.assertThat;",
             "import static org.assertj.core.api.SoftAssertions.assertSoftly;",
             "",
+            "import com.google.errorprone.annotations.FormatMethod;",
+            "import com.google.errorprone.annotations.FormatString;",
             "import java.util.Formatter;",
             "import java.util.Locale;",
             "import org.assertj.core.api.Assertions;",
@@ -297,7 +299,41 @@ final class FormatStringConcatenationTest {
             "    LOG.warn((Marker) null, \"str \" + toString());",
             "    // BUG: Diagnostic contains:",
             "    LOG.warn((Marker) null, \"{} \" + toString(), \"arg\");",
+            "",
+            "    LOG.atDebug().log(\"str\");",
+            "    LOG.atDebug().log(\"str {}\", toString());",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.atDebug().log(\"str \" + toString());",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.atDebug().log(\"{} \" + toString(), \"arg\");",
+            "  }",
+            "",
+            "  void formatMethod() {",
+            "    format(0, \"str\");",
+            "    format(0, \"str \" + 0);",
+            "    format(0, \"str %s\", toString());",
+            "    formatWithoutVarargs(\"str \" + toString(), \"arg\");",
+            "    formatWithAnnotatedParameter(\"str \" + toString(), \"str\");",
+            "    notAFormatMethod(\"str \" + toString());",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    format(0, \"str \" + toString());",
+            "    // BUG: Diagnostic contains:",
+            "    format(0, \"%s \" + toString(), \"arg\");",
+            "    // BUG: Diagnostic contains:",
+            "    formatWithAnnotatedParameter(\"str\", \"str \" + toString());",
             "  }",
+            "",
+            "  @FormatMethod",
+            "  void format(int i, String format, Object... args) {}",
+            "",
+            "  @FormatMethod",
+            "  void formatWithoutVarargs(String format, Object arg) {}",
+            "",
+            "  @FormatMethod",
+            "  void formatWithAnnotatedParameter(String str, @FormatString String format, Object... args) {}",
+            "",
+            "  void notAFormatMethod(String format, Object... args) {}",
             "}")
         .doTest();
   }
@@ -310,6 +346,7 @@ final class FormatStringConcatenationTest {
             "import static com.google.common.base.Preconditions.checkArgument;",
             "import static org.assertj.core.api.Assertions.assertThat;",
             "",
+            "import com.google.errorprone.annotations.FormatMethod;",
             "import java.util.Locale;",
             "import org.slf4j.Logger;",
             "import org.slf4j.LoggerFactory;",
@@ -353,12 +390,23 @@ final class FormatStringConcatenationTest {
             "    LOG.debug(\"{} \" + toString(), \"arg\");",
             "    LOG.debug((Marker) null, \"{} \" + toString(), \"arg\");",
             "  }",
+            "",
+            "  void formatMethod() {",
+            "    format(0, \"str \" + toString());",
+            "",
+            "    // Flagged but not auto-fixed.",
+            "    format(0, \"%s \" + toString(), \"arg\");",
+            "  }",
+            "",
+            "  @FormatMethod",
+            "  void format(int i, String format, Object... args) {}",
             "}")
         .addOutputLines(
             "A.java",
             "import static com.google.common.base.Preconditions.checkArgument;",
             "import static org.assertj.core.api.Assertions.assertThat;",
             "",
+            "import com.google.errorprone.annotations.FormatMethod;",
             "import java.util.Locale;",
             "import org.slf4j.Logger;",
             "import org.slf4j.LoggerFactory;",
@@ -402,6 +450,16 @@ final class FormatStringConcatenationTest {
             "    LOG.debug(\"{} \" + toString(), \"arg\");",
             "    LOG.debug((Marker) null, \"{} \" + toString(), \"arg\");",
             "  }",
+            "",
+            "  void formatMethod() {",
+            "    format(0, \"str %s\", toString());",
+            "",
+            "    // Flagged but not auto-fixed.",
+            "    format(0, \"%s \" + toString(), \"arg\");",
+            "  }",
+            "",
+            "  @FormatMethod",
+            "  void format(int i, String format, Object... args) {}",
             "}")
         .doTest(TestMode.TEXT_MATCH);
   }
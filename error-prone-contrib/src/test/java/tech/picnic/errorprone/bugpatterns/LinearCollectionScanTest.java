@@ -0,0 +1,212 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class LinearCollectionScanTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(LinearCollectionScan.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import java.util.ArrayList;",
+            "import java.util.Collection;",
+            "import java.util.List;",
+            "import java.util.Set;",
+            "import java.util.function.Predicate;",
+            "import java.util.stream.Stream;",
+            "",
+            "class A {",
+            "  private static final List<String> KNOWN = List.of(\"a\", \"b\");",
+            "",
+            "  private final List<String> values = new ArrayList<>();",
+            "",
+            "  void m(List<String> list, Collection<String> collection, Set<String> set, String[] array) {",
+            "    list.contains(\"foo\");",
+            "    set.removeAll(set);",
+            "    list.removeAll(set);",
+            "    for (String s : list) {",
+            "      set.contains(s);",
+            "      list.remove(0);",
+            "      List<String> local = new ArrayList<>();",
+            "      local.contains(s);",
+            "      getList().contains(s);",
+            "    }",
+            "    for (String s : list.subList(0, list.indexOf(\"foo\"))) {}",
+            "    Predicate<String> predicate = list::contains;",
+            "    Stream.of(\"foo\").filter(set::contains);",
+            "    Stream.of(\"foo\").filter(s -> set.contains(s));",
+            "    Runnable runnable = () -> list.contains(\"foo\");",
+            "",
+            "    for (String s : array) {",
+            "      // BUG: Diagnostic contains: `contains` performs a linear scan of `list`",
+            "      list.contains(s);",
+            "      // BUG: Diagnostic contains: `indexOf` performs a linear scan of `list`",
+            "      list.indexOf(s);",
+            "      // BUG: Diagnostic contains: `lastIndexOf` performs a linear scan of `list`",
+            "      list.lastIndexOf(s);",
+            "      // BUG: Diagnostic contains: `remove` performs a linear scan of `list`",
+            "      list.remove(s);",
+            "      // BUG: Diagnostic contains: `contains` performs a linear scan of `collection`",
+            "      collection.contains(s);",
+            "      // BUG: Diagnostic contains: `contains` performs a linear scan of `this.values`",
+            "      this.values.contains(s);",
+            "    }",
+            "    int i = 0;",
+            "    while (i++ < 10) {",
+            "      // BUG: Diagnostic contains:",
+            "      values.contains(\"foo\");",
+            "    }",
+            "    // BUG: Diagnostic contains: `contains` performs a linear scan of `list`",
+            "    Stream.of(\"foo\").filter(list::contains);",
+            "    // BUG: Diagnostic contains: `contains` performs a linear scan of `list`",
+            "    Stream.of(\"foo\").anyMatch(s -> list.contains(s));",
+            "    // BUG: Diagnostic contains: `contains` performs a linear scan of `getList()`",
+            "    Stream.of(\"foo\").filter(getList()::contains);",
+            "    // BUG: Diagnostic contains: `indexOf` performs a linear scan of `list`",
+            "    set.forEach(list::indexOf);",
+            "    // BUG: Diagnostic contains: `removeAll` looks up each element of the receiver",
+            "    set.removeAll(list);",
+            "    // BUG: Diagnostic contains: `retainAll` looks up each element of the receiver",
+            "    collection.retainAll(ImmutableList.of(\"foo\"));",
+            "  }",
+            "",
+            "  List<String> getList() {",
+            "    return values;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationSize() {
+    CompilationTestHelper.newInstance(LinearCollectionScan.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "import java.util.Set;",
+            "",
+            "class A {",
+            "  private static final List<String> KNOWN = List.of(\"a\", \"b\");",
+            "",
+            "  void m(List<String> list, Set<String> set, String[] array) {",
+            "    List<String> fixed = Arrays.asList(\"a\", \"b\");",
+            "    List<String> arbitrary = Arrays.asList(array);",
+            "    for (String s : array) {",
+            "      // BUG: Diagnostic contains: `KNOWN` (of small, fixed size)",
+            "      KNOWN.contains(s);",
+            "      // BUG: Diagnostic contains: `fixed` (of small, fixed size)",
+            "      fixed.contains(s);",
+            "      // BUG: Diagnostic contains: `arbitrary` (of unbounded size)",
+            "      arbitrary.contains(s);",
+            "      // BUG: Diagnostic contains: `list` (of unbounded size)",
+            "      list.contains(s);",
+            "    }",
+            "    // BUG: Diagnostic contains: `List` (of small, fixed size)",
+            "    set.removeAll(List.of(\"a\"));",
+            "    // BUG: Diagnostic contains: `List` (of unbounded size)",
+            "    set.removeAll(list);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(LinearCollectionScan.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "import java.util.Set;",
+            "import java.util.stream.Collectors;",
+            "",
+            "class A {",
+            "  int m1(List<String> list, List<String> other) {",
+            "    int count = 0;",
+            "    for (String s : other) {",
+            "      if (list.contains(s) || list.contains(s + s)) {",
+            "        count++;",
+            "      }",
+            "    }",
+            "    return count;",
+            "  }",
+            "",
+            "  List<Integer> m2(List<? extends Integer> list, List<Integer> other) {",
+            "    List<Integer> listSet = new ArrayList<>();",
+            "    return other.stream().filter(list::contains).collect(Collectors.toList());",
+            "  }",
+            "",
+            "  void m3(List<String> list, List<String> other) {",
+            "    for (String s : other) {",
+            "      list.contains(s);",
+            "      list.indexOf(s);",
+            "    }",
+            "  }",
+            "",
+            "  void m4(List<String> list, List<String> other) {",
+            "    for (String s : other) {",
+            "      list.contains(s);",
+            "    }",
+            "    for (String s : other) {",
+            "      list.contains(s);",
+            "    }",
+            "  }",
+            "",
+            "  void m5(Set<String> set, List<String> list) {",
+            "    set.removeAll(list);",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.ArrayList;",
+            "import java.util.HashSet;",
+            "import java.util.List;",
+            "import java.util.Set;",
+            "import java.util.stream.Collectors;",
+            "",
+            "class A {",
+            "  int m1(List<String> list, List<String> other) {",
+            "    int count = 0;",
+            "    Set<String> listSet = new HashSet<>(list);",
+            "    for (String s : other) {",
+            "      if (listSet.contains(s) || listSet.contains(s + s)) {",
+            "        count++;",
+            "      }",
+            "    }",
+            "    return count;",
+            "  }",
+            "",
+            "  List<Integer> m2(List<? extends Integer> list, List<Integer> other) {",
+            "    List<Integer> listSet = new ArrayList<>();",
+            "    Set<Integer> listSet2 = new HashSet<>(list);",
+            "    return other.stream().filter(listSet2::contains).collect(Collectors.toList());",
+            "  }",
+            "",
+            "  void m3(List<String> list, List<String> other) {",
+            "    for (String s : other) {",
+            "      list.contains(s);",
+            "      list.indexOf(s);",
+            "    }",
+            "  }",
+            "",
+            "  void m4(List<String> list, List<String> other) {",
+            "    for (String s : other) {",
+            "      list.contains(s);",
+            "    }",
+            "    for (String s : other) {",
+            "      list.contains(s);",
+            "    }",
+            "  }",
+            "",
+            "  void m5(Set<String> set, List<String> list) {",
+            "    set.removeAll(new HashSet<>(list));",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
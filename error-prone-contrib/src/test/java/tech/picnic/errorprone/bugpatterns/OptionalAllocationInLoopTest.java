@@ -0,0 +1,144 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class OptionalAllocationInLoopTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(OptionalAllocationInLoop.class, getClass())
+        .setArgs("-XepOpt:OptionalAllocationInLoop:Packages=pkg")
+        .addSourceLines(
+            "pkg/sub/A.java",
+            "package pkg.sub;",
+            "",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "",
+            "class A {",
+            "  void m(List<String> list, Optional<String> optional) {",
+            "    Optional.ofNullable(list).isPresent();",
+            "    list.forEach(s -> Optional.ofNullable(s).isPresent());",
+            "",
+            "    for (String s : list) {",
+            "      optional.isPresent();",
+            "      optional.map(String::length).orElse(0);",
+            "      Optional.ofNullable(s).orElseThrow();",
+            "",
+            "      // BUG: Diagnostic contains:",
+            "      Optional.ofNullable(s).isPresent();",
+            "      // BUG: Diagnostic contains:",
+            "      Optional.ofNullable(s).map(String::trim).filter(String::isEmpty).orElse(\"\");",
+            "    }",
+            "    for (int i = 0; i < list.size(); i++) {",
+            "      // BUG: Diagnostic contains:",
+            "      Optional.ofNullable(list.get(i)).isEmpty();",
+            "    }",
+            "    while (!list.isEmpty()) {",
+            "      // BUG: Diagnostic contains:",
+            "      Optional.ofNullable(list.remove(0)).orElseGet(() -> \"\");",
+            "    }",
+            "  }",
+            "}")
+        .addSourceLines(
+            "other/B.java",
+            "package other;",
+            "",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "",
+            "class B {",
+            "  void m(List<String> list) {",
+            "    for (String s : list) {",
+            "      Optional.ofNullable(s).isPresent();",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationWithoutPackages() {
+    CompilationTestHelper.newInstance(OptionalAllocationInLoop.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "",
+            "class A {",
+            "  void m(List<String> list) {",
+            "    for (String s : list) {",
+            "      Optional.ofNullable(s).isPresent();",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(OptionalAllocationInLoop.class, getClass())
+        .setArgs("-XepOpt:OptionalAllocationInLoop:Packages=pkg")
+        .addInputLines(
+            "pkg/A.java",
+            "package pkg;",
+            "",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "",
+            "class A {",
+            "  private static final String DEFAULT = \"default\";",
+            "",
+            "  void m(List<String> list, StringBuilder sb) {",
+            "    for (String s : list) {",
+            "      boolean b1 = Optional.ofNullable(s).isPresent();",
+            "      boolean b2 = !Optional.ofNullable(s).isEmpty();",
+            "      boolean b3 = Optional.ofNullable(s).map(String::trim).isPresent();",
+            "      boolean b4 = Optional.ofNullable(s).map(v -> v + v).isEmpty();",
+            "      boolean b5 = Optional.ofNullable(s).map(String::length).isPresent();",
+            "      boolean b6 = Optional.ofNullable(s).map(v -> v.length() + 1).isEmpty();",
+            "      String s1 = Optional.ofNullable(s).orElse(DEFAULT);",
+            "      String s2 = Optional.ofNullable(s).orElseGet(() -> s + s);",
+            "      String s3 = Optional.ofNullable(s).map(String::valueOf).orElse(null);",
+            "      String s4 = Optional.ofNullable(s).map(v -> sb.append(v).toString()).orElse(null);",
+            "      sb.append(Optional.ofNullable(s).map(sb::indexOf).orElse(null));",
+            "      Integer i1 = Optional.ofNullable(s).map(String::length).orElse(0);",
+            "      String s5 = Optional.ofNullable(s).orElse(String.valueOf(list.size()));",
+            "      String s6 = Optional.ofNullable(list.get(0)).orElse(DEFAULT);",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "pkg/A.java",
+            "package pkg;",
+            "",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "",
+            "class A {",
+            "  private static final String DEFAULT = \"default\";",
+            "",
+            "  void m(List<String> list, StringBuilder sb) {",
+            "    for (String s : list) {",
+            "      boolean b1 = s != null;",
+            "      boolean b2 = !(s == null);",
+            "      boolean b3 = s != null && s.trim() != null;",
+            "      boolean b4 = s == null || (s + s) == null;",
+            "      boolean b5 = Optional.ofNullable(s).map(String::length).isPresent();",
+            "      boolean b6 = Optional.ofNullable(s).map(v -> v.length() + 1).isEmpty();",
+            "      String s1 = s != null ? s : DEFAULT;",
+            "      String s2 = s != null ? s : (s + s);",
+            "      String s3 = s == null ? null : String.valueOf(s);",
+            "      String s4 = s == null ? null : sb.append(s).toString();",
+            "      sb.append(s == null ? null : sb.indexOf(s));",
+            "      Integer i1 = Optional.ofNullable(s).map(String::length).orElse(0);",
+            "      String s5 = Optional.ofNullable(s).orElse(String.valueOf(list.size()));",
+            "      String s6 = Optional.ofNullable(list.get(0)).orElse(DEFAULT);",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -0,0 +1,99 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class ParallelStreamMisuseTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(ParallelStreamMisuse.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import java.util.Arrays;",
+            "import java.util.LinkedList;",
+            "import java.util.List;",
+            "import java.util.stream.IntStream;",
+            "import java.util.stream.Stream;",
+            "import org.springframework.scheduling.annotation.Scheduled;",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  void m(List<String> list, LinkedList<String> linkedList, String[] array) {",
+            "    list.parallelStream().count();",
+            "    list.stream().parallel().map(String::length).count();",
+            "    Arrays.asList(array).parallelStream().count();",
+            "    Stream.of(array).parallel().count();",
+            "    IntStream.range(0, 1_000_000).parallel().sum();",
+            "    list.parallelStream().map(s -> list.stream().count()).count();",
+            "    Flux.just(list).map(l -> l.size());",
+            "",
+            "    // BUG: Diagnostic contains: small number of elements",
+            "    List.of(1, 2, 3).parallelStream().count();",
+            "    // BUG: Diagnostic contains: small number of elements",
+            "    ImmutableList.of(\"a\", \"b\").stream().parallel().count();",
+            "    // BUG: Diagnostic contains: small number of elements",
+            "    Stream.of(\"a\", \"b\").parallel().count();",
+            "    // BUG: Diagnostic contains: small number of elements",
+            "    IntStream.range(0, 10).parallel().sum();",
+            "    // BUG: Diagnostic contains: cannot be split efficiently",
+            "    linkedList.parallelStream().count();",
+            "    // BUG: Diagnostic contains: cannot be split efficiently",
+            "    linkedList.stream().parallel().count();",
+            "    // BUG: Diagnostic contains: cannot be split efficiently",
+            "    Stream.iterate(1, i -> i + 1).parallel().limit(100).count();",
+            "    // BUG: Diagnostic contains: encounter order",
+            "    list.parallelStream().map(String::length).forEachOrdered(System.out::println);",
+            "    // BUG: Diagnostic contains: encounter order",
+            "    list.stream().parallel().filter(String::isEmpty).findFirst();",
+            "    list.parallelStream()",
+            "        // BUG: Diagnostic contains: Nesting parallel streams",
+            "        .map(s -> list.parallelStream().filter(s::equals).count())",
+            "        .count();",
+            "    // BUG: Diagnostic contains: Reactor operators",
+            "    Flux.just(list).map(l -> l.parallelStream().count());",
+            "  }",
+            "",
+            "  @Scheduled(fixedRate = 1_000)",
+            "  void scheduled(List<String> list) {",
+            "    // BUG: Diagnostic contains: `@Scheduled` methods",
+            "    list.parallelStream().count();",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(ParallelStreamMisuse.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.LinkedList;",
+            "import java.util.List;",
+            "import java.util.stream.Stream;",
+            "",
+            "class A {",
+            "  void m(LinkedList<String> linkedList) {",
+            "    List.of(1, 2, 3).parallelStream().count();",
+            "    linkedList.stream().parallel().map(String::length).count();",
+            "    Stream.of(\"a\", \"b\").parallel().findFirst();",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.LinkedList;",
+            "import java.util.List;",
+            "import java.util.stream.Stream;",
+            "",
+            "class A {",
+            "  void m(LinkedList<String> linkedList) {",
+            "    List.of(1, 2, 3).stream().count();",
+            "    linkedList.stream().map(String::length).count();",
+            "    Stream.of(\"a\", \"b\").findFirst();",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
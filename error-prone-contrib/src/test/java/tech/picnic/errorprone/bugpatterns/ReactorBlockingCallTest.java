@@ -0,0 +1,151 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class ReactorBlockingCallTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(ReactorBlockingCall.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import java.io.IOException;",
+            "import java.io.InputStream;",
+            "import java.sql.Connection;",
+            "import java.sql.SQLException;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import java.util.concurrent.ExecutionException;",
+            "import java.util.concurrent.Future;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import reactor.core.scheduler.Schedulers;",
+            "",
+            "class A {",
+            "  void m(",
+            "      Mono<String> mono,",
+            "      Future<String> future,",
+            "      CompletableFuture<String> completableFuture,",
+            "      InputStream is,",
+            "      Connection conn) {",
+            "    mono.block();",
+            "    Flux.just(1).map(i -> i + 1);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).flatMap(i -> Mono.just(mono.block()));",
+            "    Flux.just(1)",
+            "        .map(",
+            "            i -> {",
+            "              try {",
+            "                // BUG: Diagnostic contains:",
+            "                Thread.sleep(i);",
+            "              } catch (InterruptedException e) {",
+            "                throw new IllegalStateException(e);",
+            "              }",
+            "              return i;",
+            "            });",
+            "    Mono.just(1)",
+            "        .filter(",
+            "            i -> {",
+            "              try {",
+            "                // BUG: Diagnostic contains:",
+            "                return future.get() != null;",
+            "              } catch (InterruptedException | ExecutionException e) {",
+            "                throw new IllegalStateException(e);",
+            "              }",
+            "            });",
+            "    Flux.just(1)",
+            "        .doOnNext(",
+            "            i -> {",
+            "              try {",
+            "                // BUG: Diagnostic contains:",
+            "                is.read();",
+            "                // BUG: Diagnostic contains:",
+            "                conn.commit();",
+            "              } catch (IOException | SQLException e) {",
+            "                throw new IllegalStateException(e);",
+            "              }",
+            "            });",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).map(i -> ImmutableList.of(i).stream().map(j -> mono.block()));",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(completableFuture).map(CompletableFuture::join);",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).map(this::blockingHelper);",
+            "    Flux.just(1).map(this::nonBlockingHelper);",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).map(i -> mono.block()).subscribeOn(Schedulers.parallel());",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).publishOn(Schedulers.single()).map(i -> mono.block());",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.fromCallable(() -> mono.block());",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.fromSupplier(mono::block);",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.fromCallable(() -> mono.block()).subscribeOn(Schedulers.parallel());",
+            "    // BUG: Diagnostic contains:",
+            "    Mono.defer(() -> Mono.just(mono.block()));",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.create(sink -> sink.next(mono.block()));",
+            "",
+            "    Flux.just(1)",
+            "        .flatMap(",
+            "            i ->",
+            "                Mono.fromCallable(() -> mono.block())",
+            "                    .subscribeOn(Schedulers.boundedElastic()));",
+            "    Mono.fromSupplier(mono::block).subscribeOn(Schedulers.boundedElastic());",
+            "    Mono.defer(() -> Mono.just(mono.block())).subscribeOn(Schedulers.boundedElastic());",
+            "    Flux.just(1).map(i -> mono.block()).subscribeOn(Schedulers.boundedElastic());",
+            "    Flux.just(1).publishOn(Schedulers.boundedElastic()).map(i -> mono.block());",
+            "    Flux.just(1).map(i -> mono).map(Mono::block).subscribeOn(Schedulers.boundedElastic());",
+            "    Flux.just(1)",
+            "        .map(",
+            "            i ->",
+            "                new Object() {",
+            "                  String m() {",
+            "                    return mono.block();",
+            "                  }",
+            "                });",
+            "  }",
+            "",
+            "  String blockingHelper(int i) {",
+            "    return Mono.just(i).map(String::valueOf).block();",
+            "  }",
+            "",
+            "  String nonBlockingHelper(int i) {",
+            "    return String.valueOf(i);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationOfExtraBlockingMethod() {
+    CompilationTestHelper.newInstance(ReactorBlockingCall.class, getClass())
+        .setArgs(ImmutableList.of("-XepOpt:ReactorBlockingCall:ExtraBlockingMethods=A#fetch(int)"))
+        .addSourceLines(
+            "A.java",
+            "import reactor.core.publisher.Flux;",
+            "",
+            "class A {",
+            "  void m() {",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).map(i -> fetch(i));",
+            "    // BUG: Diagnostic contains:",
+            "    Flux.just(1).map(this::fetch);",
+            "    Flux.just(1).map(i -> fetch(String.valueOf(i)));",
+            "  }",
+            "",
+            "  String fetch(int i) {",
+            "    return String.valueOf(i);",
+            "  }",
+            "",
+            "  String fetch(String s) {",
+            "    return s;",
+            "  }",
+            "}")
+        .doTest();
+  }
+}
@@ -0,0 +1,146 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class ReactorSchedulerUsageTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(ReactorSchedulerUsage.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.concurrent.ExecutorService;",
+            "import java.util.concurrent.Executors;",
+            "import java.util.concurrent.ForkJoinPool;",
+            "import java.util.function.Supplier;",
+            "import org.springframework.context.annotation.Bean;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import reactor.core.scheduler.Scheduler;",
+            "import reactor.core.scheduler.Schedulers;",
+            "",
+            "class A {",
+            "  private static final Scheduler SCHEDULER = Schedulers.newParallel(\"foo\");",
+            "",
+            "  private final ExecutorService executor = Executors.newFixedThreadPool(2);",
+            "  private final Scheduler scheduler;",
+            "",
+            "  static {",
+            "    Schedulers.newSingle(\"bar\");",
+            "  }",
+            "",
+            "  A() {",
+            "    scheduler = Schedulers.fromExecutor(Executors.newCachedThreadPool());",
+            "  }",
+            "",
+            "  @Bean",
+            "  Scheduler scheduler() {",
+            "    return Schedulers.newBoundedElastic(10, 100, \"baz\");",
+            "  }",
+            "",
+            "  void m() {",
+            "    Schedulers.parallel();",
+            "    Schedulers.boundedElastic();",
+            "",
+            "    // BUG: Diagnostic contains: per-call basis",
+            "    Schedulers.newParallel(\"qux\");",
+            "    // BUG: Diagnostic contains: per-call basis",
+            "    Schedulers.fromExecutor(Executors.newFixedThreadPool(4));",
+            "    // BUG: Diagnostic contains: per-call basis",
+            "    ExecutorService executorService = Executors.newSingleThreadExecutor();",
+            "    // BUG: Diagnostic contains: per-call basis",
+            "    new ForkJoinPool(2);",
+            "    // BUG: Diagnostic contains: per-call basis",
+            "    Supplier<Scheduler> supplier = () -> Schedulers.newSingle(\"quux\");",
+            "  }",
+            "",
+            "  void m2(Mono<String> mono, Flux<String> flux) {",
+            "    mono.publishOn(Schedulers.parallel());",
+            "    mono.subscribeOn(Schedulers.boundedElastic()).publishOn(Schedulers.parallel());",
+            "    mono.publishOn(Schedulers.parallel()).map(String::length).subscribeOn(SCHEDULER);",
+            "    Mono.fromCallable(() -> mono.block()).subscribeOn(Schedulers.boundedElastic());",
+            "    flux.filter(s -> !mono.block().isEmpty()).subscribeOn(SCHEDULER);",
+            "",
+            "    // BUG: Diagnostic contains: directly following `publishOn`",
+            "    mono.publishOn(Schedulers.parallel()).subscribeOn(Schedulers.boundedElastic());",
+            "    // BUG: Diagnostic contains: directly following `publishOn`",
+            "    flux.publishOn(Schedulers.parallel()).subscribeOn(SCHEDULER);",
+            "",
+            "    // BUG: Diagnostic contains: does not offload `mono.block()`",
+            "    Mono.just(mono.block()).subscribeOn(Schedulers.boundedElastic());",
+            "    // BUG: Diagnostic contains: does not offload `flux.blockFirst()`",
+            "    flux.map(String::length).concatWith(Mono.just(flux.blockFirst().length())).subscribeOn(SCHEDULER);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationWithExtraBlockingMethods() {
+    CompilationTestHelper.newInstance(ReactorSchedulerUsage.class, getClass())
+        .setArgs("-XepOpt:ReactorSchedulerUsage:ExtraBlockingMethods=A#load()")
+        .addSourceLines(
+            "A.java",
+            "import reactor.core.publisher.Mono;",
+            "import reactor.core.scheduler.Schedulers;",
+            "",
+            "class A {",
+            "  void m() {",
+            "    Mono.just(toString()).subscribeOn(Schedulers.boundedElastic());",
+            "",
+            "    // BUG: Diagnostic contains: does not offload `load()`",
+            "    Mono.just(load()).subscribeOn(Schedulers.boundedElastic());",
+            "  }",
+            "",
+            "  String load() {",
+            "    return \"foo\";",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(ReactorSchedulerUsage.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import reactor.core.scheduler.Schedulers;",
+            "",
+            "class A {",
+            "  void m(Mono<String> mono, Flux<Integer> flux) {",
+            "    Mono.just(mono.block()).map(String::length).subscribeOn(Schedulers.boundedElastic());",
+            "    Flux.fromIterable(flux.collectList().block()).subscribeOn(Schedulers.boundedElastic());",
+            "  }",
+            "",
+            "  void m2(Mono<String> mono) {",
+            "    mono = mono.map(String::trim);",
+            "    Mono.just(mono.block()).subscribeOn(Schedulers.boundedElastic());",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "import reactor.core.scheduler.Schedulers;",
+            "",
+            "class A {",
+            "  void m(Mono<String> mono, Flux<Integer> flux) {",
+            "    Mono.defer(() -> Mono.just(mono.block()))",
+            "        .map(String::length)",
+            "        .subscribeOn(Schedulers.boundedElastic());",
+            "    Flux.defer(() -> Flux.fromIterable(flux.collectList().block()))",
+            "        .subscribeOn(Schedulers.boundedElastic());",
+            "  }",
+            "",
+            "  void m2(Mono<String> mono) {",
+            "    mono = mono.map(String::trim);",
+            "    Mono.just(mono.block()).subscribeOn(Schedulers.boundedElastic());",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+}
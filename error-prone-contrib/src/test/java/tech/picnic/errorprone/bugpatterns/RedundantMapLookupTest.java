@@ -0,0 +1,199 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class RedundantMapLookupTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(RedundantMapLookup.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "class A {",
+            "  private final Map<String, List<String>> lists = null;",
+            "",
+            "  void m(Map<String, List<String>> map, Map<String, Integer> counts, String key, String other) {",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(other, new ArrayList<>());",
+            "    }",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, List.of());",
+            "    }",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>());",
+            "    } else {",
+            "      map.get(key).clear();",
+            "    }",
+            "    if (!map.containsKey(key.trim())) {",
+            "      map.put(key.trim(), new ArrayList<>());",
+            "    }",
+            "    if (!getMap().containsKey(key)) {",
+            "      getMap().put(key, new ArrayList<>());",
+            "    }",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>());",
+            "      map.get(key).add(key);",
+            "    }",
+            "    if (map.containsKey(key)) {",
+            "      map.get(other).clear();",
+            "    }",
+            "    if (map.containsKey(key)) {",
+            "      return;",
+            "    }",
+            "    @SuppressWarnings(\"unused\")",
+            "    Object object = null;",
+            "    if (counts.containsKey(key)) {",
+            "      object = counts.get(key);",
+            "    }",
+            "    if (counts.containsKey(key)) {",
+            "      int count = counts.get(key);",
+            "    }",
+            "    if (map.containsKey(key)) {",
+            "      List<String> values = map.get(key);",
+            "    } else {",
+            "      List<String> values = List.of();",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>());",
+            "    }",
+            "    // BUG: Diagnostic contains:",
+            "    if (!lists.containsKey(\"foo\")) {",
+            "      lists.put(\"foo\", new ArrayList<>());",
+            "    }",
+            "    @SuppressWarnings(\"unused\")",
+            "    Integer count = 0;",
+            "    // BUG: Diagnostic contains:",
+            "    if (counts.containsKey(key)) {",
+            "      count = counts.get(key);",
+            "    }",
+            "    // BUG: Diagnostic contains:",
+            "    if (map.containsKey(key)) {",
+            "      List<String> values = map.get(key);",
+            "      values.clear();",
+            "    }",
+            "  }",
+            "",
+            "  void capture(Map<String, List<String>> map, String key) {",
+            "    int size = 1;",
+            "    size++;",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>(size));",
+            "    }",
+            "  }",
+            "",
+            "  Map<String, List<String>> getMap() {",
+            "    return null;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(RedundantMapLookup.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "class A {",
+            "  void m1(Map<String, List<String>> map, String key) {",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>());",
+            "    }",
+            "    map.get(key).add(\"foo\");",
+            "  }",
+            "",
+            "  void m2(Map<String, List<String>> map, String key, String k) {",
+            "    if (!map.containsKey(key)) map.put(key, new ArrayList<>());",
+            "  }",
+            "",
+            "  int m3(Map<String, Integer> counts, String key) {",
+            "    int count = 0;",
+            "    if (counts.containsKey(key)) {",
+            "      count = counts.get(key);",
+            "    }",
+            "    return count;",
+            "  }",
+            "",
+            "  void m4(Map<String, List<String>> map, String key) {",
+            "    if (map.containsKey(key)) {",
+            "      final List<String> values = map.get(key);",
+            "      values.clear();",
+            "    } else {",
+            "      map.put(key, new ArrayList<>());",
+            "    }",
+            "  }",
+            "",
+            "  void m5(Map<String, List<String>> map, String key, boolean flag) {",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>());",
+            "    }",
+            "    if (flag) {",
+            "      map.get(key).add(\"foo\");",
+            "    }",
+            "  }",
+            "",
+            "  void m6(Map<String, List<String>> map, String key, List<String> values) {",
+            "    if (!map.containsKey(key)) {",
+            "      map.put(key, new ArrayList<>());",
+            "    }",
+            "    values.add(map.get(key).toString());",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.ArrayList;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "class A {",
+            "  void m1(Map<String, List<String>> map, String key) {",
+            "",
+            "    map.computeIfAbsent(key, k -> new ArrayList<>()).add(\"foo\");",
+            "  }",
+            "",
+            "  void m2(Map<String, List<String>> map, String key, String k) {",
+            "    map.computeIfAbsent(key, k2 -> new ArrayList<>());",
+            "  }",
+            "",
+            "  int m3(Map<String, Integer> counts, String key) {",
+            "    int count = 0;",
+            "    count = counts.getOrDefault(key, count);",
+            "    return count;",
+            "  }",
+            "",
+            "  void m4(Map<String, List<String>> map, String key) {",
+            "    final List<String> values = map.get(key);",
+            "    if (values != null) {",
+            "",
+            "      values.clear();",
+            "    } else {",
+            "      map.put(key, new ArrayList<>());",
+            "    }",
+            "  }",
+            "",
+            "  void m5(Map<String, List<String>> map, String key, boolean flag) {",
+            "    map.computeIfAbsent(key, k -> new ArrayList<>());",
+            "    if (flag) {",
+            "      map.get(key).add(\"foo\");",
+            "    }",
+            "  }",
+            "",
+            "  void m6(Map<String, List<String>> map, String key, List<String> values) {",
+            "    map.computeIfAbsent(key, k -> new ArrayList<>());",
+            "    values.add(map.get(key).toString());",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
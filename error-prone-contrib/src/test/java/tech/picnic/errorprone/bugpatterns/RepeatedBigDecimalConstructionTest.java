@@ -0,0 +1,181 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class RepeatedBigDecimalConstructionTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(RepeatedBigDecimalConstruction.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "import java.math.MathContext;",
+            "import java.util.List;",
+            "import java.util.function.Function;",
+            "",
+            "class A {",
+            "  private static final String RATE = \"0.21\";",
+            "  private static final BigDecimal VAT = new BigDecimal(RATE);",
+            "  private static final Function<BigDecimal, BigDecimal> HALVE =",
+            "      // BUG: Diagnostic contains:",
+            "      d -> d.multiply(new BigDecimal(\"0.5\"));",
+            "",
+            "  private final BigDecimal instanceDecimal = new BigDecimal(\"1.5\");",
+            "",
+            "  static {",
+            "    new BigDecimal(\"2.5\");",
+            "  }",
+            "",
+            "  void m(List<BigDecimal> amounts, String value, long unscaled, MathContext context) {",
+            "    new BigDecimal(value);",
+            "    new BigDecimal(RATE, context);",
+            "    BigDecimal.valueOf(unscaled);",
+            "    BigDecimal.valueOf(unscaled, 2);",
+            "    BigDecimal.valueOf(0);",
+            "    BigDecimal.valueOf(10L);",
+            "    new BigDecimal(\"1\");",
+            "",
+            "    for (BigDecimal amount : amounts) {",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(new BigDecimal(\"1.21\"));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(new BigDecimal(RATE));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(new BigDecimal(\"1.21\", MathContext.DECIMAL64));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(BigDecimal.valueOf(0.5));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(BigDecimal.valueOf(100));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(BigDecimal.valueOf(121, 2));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(new BigDecimal(5));",
+            "      // BUG: Diagnostic contains:",
+            "      amount.multiply(new BigDecimal(10L));",
+            "    }",
+            "",
+            "    new Object() {",
+            "      void m() {",
+            "        // BUG: Diagnostic contains:",
+            "        new BigDecimal(\"1.21\");",
+            "      }",
+            "    };",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedBigDecimalConstruction.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  private static final String RATE = \"0.21\";",
+            "  private static final BigDecimal EXISTING = new BigDecimal(\"1.5\");",
+            "",
+            "  A(BigDecimal amount) {",
+            "    amount.add(new BigDecimal(\"0.01\"));",
+            "  }",
+            "",
+            "  BigDecimal applyVat(List<BigDecimal> amounts) {",
+            "    BigDecimal total = BigDecimal.ZERO;",
+            "    for (BigDecimal amount : amounts) {",
+            "      total = total.add(amount.multiply(new BigDecimal(RATE)));",
+            "      total = total.add(new BigDecimal(\"1.5\")).subtract(BigDecimal.valueOf(0.5));",
+            "    }",
+            "    return total.multiply(new BigDecimal(RATE));",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    BigDecimal hundred() {",
+            "      return BigDecimal.valueOf(100);",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  private static final BigDecimal DECIMAL = new BigDecimal(\"0.01\");",
+            "  private static final BigDecimal APPLY_VAT_DECIMAL_2 = BigDecimal.valueOf(0.5);",
+            "  private static final String RATE = \"0.21\";",
+            "  private static final BigDecimal APPLY_VAT_DECIMAL = new BigDecimal(RATE);",
+            "  private static final BigDecimal EXISTING = new BigDecimal(\"1.5\");",
+            "",
+            "  A(BigDecimal amount) {",
+            "    amount.add(DECIMAL);",
+            "  }",
+            "",
+            "  BigDecimal applyVat(List<BigDecimal> amounts) {",
+            "    BigDecimal total = BigDecimal.ZERO;",
+            "    for (BigDecimal amount : amounts) {",
+            "      total = total.add(amount.multiply(APPLY_VAT_DECIMAL));",
+            "      total = total.add(EXISTING).subtract(APPLY_VAT_DECIMAL_2);",
+            "    }",
+            "    return total.multiply(APPLY_VAT_DECIMAL);",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    private static final BigDecimal HUNDRED_DECIMAL = BigDecimal.valueOf(100);",
+            "",
+            "    BigDecimal hundred() {",
+            "      return HUNDRED_DECIMAL;",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementInEnum() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedBigDecimalConstruction.class, getClass())
+        .addInputLines(
+            "E.java",
+            "import java.math.BigDecimal;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  private final BigDecimal rate;",
+            "",
+            "  E() {",
+            "    rate = BigDecimal.ONE.add(new BigDecimal(\"0.21\"));",
+            "  }",
+            "",
+            "  BigDecimal apply(BigDecimal amount) {",
+            "    return amount.multiply(rate).add(new BigDecimal(\"0.21\"));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "E.java",
+            "import java.math.BigDecimal;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  private final BigDecimal rate;",
+            "",
+            "  E() {",
+            "    rate = BigDecimal.ONE.add(new BigDecimal(\"0.21\"));",
+            "  }",
+            "",
+            "  BigDecimal apply(BigDecimal amount) {",
+            "    return amount.multiply(rate).add(APPLY_DECIMAL);",
+            "  }",
+            "",
+            "  private static final BigDecimal APPLY_DECIMAL = new BigDecimal(\"0.21\");",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
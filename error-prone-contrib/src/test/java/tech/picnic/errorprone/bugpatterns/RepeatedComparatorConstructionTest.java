@@ -0,0 +1,193 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class RepeatedComparatorConstructionTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(RepeatedComparatorConstruction.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import static java.util.Comparator.comparing;",
+            "import static java.util.Comparator.naturalOrder;",
+            "import static java.util.Comparator.reverseOrder;",
+            "",
+            "import java.util.Comparator;",
+            "import java.util.List;",
+            "import java.util.function.Function;",
+            "",
+            "class A {",
+            "  private static final Comparator<String> BY_LENGTH = comparing(String::length);",
+            "  private static final Function<String, Integer> LENGTH = String::length;",
+            "",
+            "  private final Function<String, Integer> instanceLength = String::length;",
+            "",
+            "  static {",
+            "    comparing(String::length);",
+            "  }",
+            "",
+            "  void m(List<String> list, Function<String, Integer> keyExtractor, int offset) {",
+            "    list.sort(naturalOrder());",
+            "    list.sort(reverseOrder());",
+            "    list.sort(comparing(keyExtractor));",
+            "    list.sort(comparing(instanceLength));",
+            "    list.sort(comparing(s -> s.length() + offset));",
+            "    list.sort(comparing(s -> s.length() + instanceLength.apply(s)));",
+            "    list.sort(comparing(this::key));",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(comparing(String::length));",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(comparing(String::length).thenComparing(keyExtractor));",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(comparing(String::length).thenComparing(naturalOrder()));",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(comparing(String::length, reverseOrder()).reversed());",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(comparing(LENGTH).thenComparing(comparing(String::isEmpty)));",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(Comparator.comparingInt(s -> s.length() % 2));",
+            "    // BUG: Diagnostic contains:",
+            "    list.sort(Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));",
+            "    // BUG: Diagnostic contains:",
+            "    list.forEach(s -> list.sort(comparing(String::length)));",
+            "  }",
+            "",
+            "  <T extends Comparable<T>> void m2(List<List<T>> lists) {",
+            "    // BUG: Diagnostic contains:",
+            "    lists.sort(comparing(List::size));",
+            "  }",
+            "",
+            "  void m3(List<String> list) {",
+            "    class Local {",
+            "      int key() {",
+            "        return 0;",
+            "      }",
+            "    }",
+            "",
+            "    Comparator<Local> byKey = comparing(Local::key);",
+            "    list.sort(comparing(s -> new Local().key()));",
+            "  }",
+            "",
+            "  private int key(String s) {",
+            "    return s.length();",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedComparatorConstruction.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import static java.util.Comparator.comparing;",
+            "",
+            "import java.util.Comparator;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "class A {",
+            "  private static final Comparator<String> BY_LENGTH = comparing(String::length);",
+            "",
+            "  void sortByLength(List<String> list) {",
+            "    list.sort(comparing(String::length).thenComparing(String::isEmpty));",
+            "    list.sort(comparing(String::length));",
+            "  }",
+            "",
+            "  void sortEntries(List<Map.Entry<String, Integer>> entries, List<String> list) {",
+            "    entries.sort(Map.Entry.comparingByValue(Comparator.reverseOrder()));",
+            "    list.sort(comparing(String::length).thenComparing(String::isEmpty));",
+            "  }",
+            "",
+            "  <T> void sortGeneric(List<List<T>> lists) {",
+            "    lists.sort(comparing(List::size));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import static java.util.Comparator.comparing;",
+            "",
+            "import java.util.Comparator;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "class A {",
+            "  private static final Comparator<String> SORT_BY_LENGTH_COMPARATOR =",
+            "      comparing(String::length).thenComparing(String::isEmpty);",
+            "  private static final Comparator<Map.Entry<String, Integer>> SORT_ENTRIES_COMPARATOR =",
+            "      Map.Entry.comparingByValue(Comparator.reverseOrder());",
+            "  private static final Comparator<String> BY_LENGTH = comparing(String::length);",
+            "",
+            "  void sortByLength(List<String> list) {",
+            "    list.sort(SORT_BY_LENGTH_COMPARATOR);",
+            "    list.sort(BY_LENGTH);",
+            "  }",
+            "",
+            "  void sortEntries(List<Map.Entry<String, Integer>> entries, List<String> list) {",
+            "    entries.sort(SORT_ENTRIES_COMPARATOR);",
+            "    list.sort(SORT_BY_LENGTH_COMPARATOR);",
+            "  }",
+            "",
+            "  <T> void sortGeneric(List<List<T>> lists) {",
+            "    lists.sort(comparing(List::size));",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementInEnum() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedComparatorConstruction.class, getClass())
+        .addInputLines(
+            "E.java",
+            "import static java.util.Comparator.comparing;",
+            "",
+            "import java.util.Comparator;",
+            "import java.util.List;",
+            "import java.util.function.Consumer;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  private final Consumer<List<String>> sorter = l -> l.sort(comparing(String::length));",
+            "",
+            "  E() {",
+            "    List.of(\"a\").stream().sorted(comparing(String::length));",
+            "  }",
+            "",
+            "  void sort(List<String> list) {",
+            "    list.sort(comparing(String::length));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "E.java",
+            "import static java.util.Comparator.comparing;",
+            "",
+            "import java.util.Comparator;",
+            "import java.util.List;",
+            "import java.util.function.Consumer;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  private final Consumer<List<String>> sorter = l -> l.sort(comparing(String::length));",
+            "",
+            "  E() {",
+            "    List.of(\"a\").stream().sorted(comparing(String::length));",
+            "  }",
+            "",
+            "  void sort(List<String> list) {",
+            "    list.sort(SORT_COMPARATOR);",
+            "  }",
+            "",
+            "  private static final Comparator<String> SORT_COMPARATOR = comparing(String::length);",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -0,0 +1,187 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class RepeatedEnumValuesInvocationTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(RepeatedEnumValuesInvocation.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import java.math.RoundingMode;",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "import java.util.function.Supplier;",
+            "",
+            "class A {",
+            "  private static final ImmutableList<RoundingMode> MODES =",
+            "      ImmutableList.copyOf(RoundingMode.values());",
+            "  private static final Supplier<RoundingMode[]> SUPPLIER =",
+            "      // BUG: Diagnostic contains:",
+            "      () -> RoundingMode.values();",
+            "",
+            "  static {",
+            "    for (RoundingMode mode : RoundingMode.values()) {}",
+            "  }",
+            "",
+            "  void m(List<String> list) {",
+            "    RoundingMode[] modes = RoundingMode.values();",
+            "    for (RoundingMode mode : RoundingMode.values()) {}",
+            "    for (int i = 0, n = RoundingMode.values().length; i < n; i++) {}",
+            "    Arrays.asList(RoundingMode.values());",
+            "",
+            "    for (String s : list) {",
+            "      // BUG: Diagnostic contains:",
+            "      for (RoundingMode mode : RoundingMode.values()) {}",
+            "    }",
+            "    for (int i = 0;",
+            "        // BUG: Diagnostic contains:",
+            "        i < RoundingMode.values().length;",
+            "        i++) {}",
+            "    while (list.isEmpty()) {",
+            "      // BUG: Diagnostic contains:",
+            "      modes = RoundingMode.values();",
+            "    }",
+            "    do {",
+            "      // BUG: Diagnostic contains:",
+            "      modes = RoundingMode.values();",
+            "    } while (list.isEmpty());",
+            "    // BUG: Diagnostic contains:",
+            "    list.forEach(s -> RoundingMode.values());",
+            "    // BUG: Diagnostic contains:",
+            "    Arrays.stream(RoundingMode.values()).count();",
+            "  }",
+            "",
+            "  @Override",
+            "  public boolean equals(Object o) {",
+            "    // BUG: Diagnostic contains:",
+            "    return RoundingMode.values().length > 0;",
+            "  }",
+            "",
+            "  @Override",
+            "  public int hashCode() {",
+            "    // BUG: Diagnostic contains:",
+            "    return RoundingMode.values()[0].hashCode();",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedEnumValuesInvocation.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import java.math.RoundingMode;",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "import java.util.function.Supplier;",
+            "import java.util.stream.Stream;",
+            "",
+            "class A {",
+            "  private final String field = \"\";",
+            "",
+            "  void m(List<String> list) {",
+            "    for (String s : list) {",
+            "      for (RoundingMode mode : RoundingMode.values()) {}",
+            "      int n = RoundingMode.values().length;",
+            "      RoundingMode mode = RoundingMode.values()[n - 1];",
+            "      List<RoundingMode> modes = Arrays.asList(RoundingMode.values());",
+            "      for (RoundingMode m : Arrays.asList(RoundingMode.values())) {}",
+            "      Arrays.asList(RoundingMode.values()).stream().count();",
+            "      RoundingMode[] array = RoundingMode.values();",
+            "    }",
+            "    Stream.of(RoundingMode.values()).count();",
+            "  }",
+            "",
+            "  enum E {",
+            "    A,",
+            "    B;",
+            "",
+            "    private final Supplier<Long> count = () -> Arrays.stream(values()).count();",
+            "",
+            "    E() {",
+            "      for (String s : List.of(\"a\")) {",
+            "        Arrays.stream(values()).count();",
+            "      }",
+            "    }",
+            "",
+            "    static E fromOrdinal(int ordinal) {",
+            "      return Arrays.stream(values()).filter(e -> e.ordinal() == ordinal).findFirst().get();",
+            "    }",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    private static final ImmutableList<RoundingMode> MODES =",
+            "        ImmutableList.copyOf(RoundingMode.values());",
+            "",
+            "    @Override",
+            "    public int hashCode() {",
+            "      return RoundingMode.values().length;",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import com.google.common.collect.ImmutableList;",
+            "import java.math.RoundingMode;",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "import java.util.function.Supplier;",
+            "import java.util.stream.Stream;",
+            "",
+            "class A {",
+            "  private static final ImmutableList<RoundingMode> ROUNDING_MODE_VALUES =",
+            "      ImmutableList.copyOf(RoundingMode.values());",
+            "  private final String field = \"\";",
+            "",
+            "  void m(List<String> list) {",
+            "    for (String s : list) {",
+            "      for (RoundingMode mode : ROUNDING_MODE_VALUES) {}",
+            "      int n = ROUNDING_MODE_VALUES.size();",
+            "      RoundingMode mode = ROUNDING_MODE_VALUES.get(n - 1);",
+            "      List<RoundingMode> modes = Arrays.asList(RoundingMode.values());",
+            "      for (RoundingMode m : ROUNDING_MODE_VALUES) {}",
+            "      ROUNDING_MODE_VALUES.stream().count();",
+            "      RoundingMode[] array = RoundingMode.values();",
+            "    }",
+            "    ROUNDING_MODE_VALUES.stream().count();",
+            "  }",
+            "",
+            "  enum E {",
+            "    A,",
+            "    B;",
+            "",
+            "    private final Supplier<Long> count = () -> Arrays.stream(values()).count();",
+            "",
+            "    E() {",
+            "      for (String s : List.of(\"a\")) {",
+            "        Arrays.stream(values()).count();",
+            "      }",
+            "    }",
+            "",
+            "    static E fromOrdinal(int ordinal) {",
+            "      return VALUES.stream().filter(e -> e.ordinal() == ordinal).findFirst().get();",
+            "    }",
+            "",
+            "    private static final ImmutableList<E> VALUES = ImmutableList.copyOf(E.values());",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    private static final ImmutableList<RoundingMode> MODES =",
+            "        ImmutableList.copyOf(RoundingMode.values());",
+            "",
+            "    @Override",
+            "    public int hashCode() {",
+            "      return MODES.size();",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+}
@@ -0,0 +1,196 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class RepeatedRegexCompilationTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(RepeatedRegexCompilation.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.function.Predicate;",
+            "import java.util.regex.Pattern;",
+            "",
+            "class A {",
+            "  private static final String REGEX = \"a+\";",
+            "  private static final Pattern PATTERN = Pattern.compile(\"b+\");",
+            "  private static final Predicate<String> PREDICATE =",
+            "      // BUG: Diagnostic contains:",
+            "      s -> s.matches(\"c+\");",
+            "",
+            "  private final Pattern instancePattern = Pattern.compile(\"d+\");",
+            "",
+            "  static {",
+            "    Pattern.compile(\"e+\");",
+            "  }",
+            "",
+            "  void m(String str, String regex, int flags) {",
+            "    str.matches(regex);",
+            "    str.replaceAll(regex, \"\");",
+            "    str.split(\",\");",
+            "    str.split(\"\\\\.\");",
+            "    str.split(\"\\\\.\", 2);",
+            "    str.replace(\"a+\", \"\");",
+            "    Pattern.compile(regex);",
+            "    Pattern.compile(REGEX, flags);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    str.matches(\"a+\");",
+            "    // BUG: Diagnostic contains:",
+            "    str.matches(REGEX);",
+            "    // BUG: Diagnostic contains:",
+            "    str.replaceAll(\"a+\", \"\");",
+            "    // BUG: Diagnostic contains:",
+            "    str.replaceFirst(\"a+\", \"\");",
+            "    // BUG: Diagnostic contains:",
+            "    str.split(\"a+\");",
+            "    // BUG: Diagnostic contains:",
+            "    str.split(\", \", 2);",
+            "    // BUG: Diagnostic contains:",
+            "    str.split(\".\");",
+            "    // BUG: Diagnostic contains:",
+            "    str.split(\"\\\\d\");",
+            "    // BUG: Diagnostic contains:",
+            "    Pattern.compile(\"a+\");",
+            "    // BUG: Diagnostic contains:",
+            "    Pattern.compile(\"a+\", Pattern.CASE_INSENSITIVE);",
+            "    // BUG: Diagnostic contains:",
+            "    Pattern.matches(\"a+\", str);",
+            "",
+            "    new Object() {",
+            "      void m() {",
+            "        // BUG: Diagnostic contains:",
+            "        str.matches(\"a+\");",
+            "      }",
+            "    };",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedRegexCompilation.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.regex.Pattern;",
+            "",
+            "class A {",
+            "  private static final String REGEX = \"a+\";",
+            "  private static final Pattern EXISTING = Pattern.compile(\"b+\");",
+            "",
+            "  private final String field = \"\";",
+            "",
+            "  boolean parseLine(String str) {",
+            "    str.replaceAll(REGEX, \"\");",
+            "    str.replaceFirst(\"a+\", \"-\");",
+            "    str.split(\"b+\");",
+            "    str.split(\"c+\", 2);",
+            "    Pattern pattern = Pattern.compile(\"c+\", Pattern.CASE_INSENSITIVE);",
+            "    return Pattern.matches(\"d+\", str) && (str + str).matches(\"e+\");",
+            "  }",
+            "",
+            "  Pattern parseLine(int i) {",
+            "    final String regex = \"f+\";",
+            "    return Pattern.compile(regex);",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    Pattern field() {",
+            "      return Pattern.compile(\"g+\");",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.regex.Pattern;",
+            "",
+            "class A {",
+            "  private static final Pattern PARSE_LINE_PATTERN_2 = Pattern.compile(\"c+\");",
+            "  private static final Pattern PARSE_LINE_PATTERN_3 =",
+            "      Pattern.compile(\"c+\", Pattern.CASE_INSENSITIVE);",
+            "  private static final Pattern PARSE_LINE_PATTERN_4 = Pattern.compile(\"d+\");",
+            "  private static final Pattern PARSE_LINE_PATTERN_5 = Pattern.compile(\"e+\");",
+            "  private static final Pattern PARSE_LINE_PATTERN_6 = Pattern.compile(\"f+\");",
+            "  private static final String REGEX = \"a+\";",
+            "  private static final Pattern PARSE_LINE_PATTERN = Pattern.compile(REGEX);",
+            "  private static final Pattern EXISTING = Pattern.compile(\"b+\");",
+            "",
+            "  private final String field = \"\";",
+            "",
+            "  boolean parseLine(String str) {",
+            "    PARSE_LINE_PATTERN.matcher(str).replaceAll(\"\");",
+            "    PARSE_LINE_PATTERN.matcher(str).replaceFirst(\"-\");",
+            "    EXISTING.split(str);",
+            "    PARSE_LINE_PATTERN_2.split(str, 2);",
+            "    Pattern pattern = PARSE_LINE_PATTERN_3;",
+            "    return PARSE_LINE_PATTERN_4.matcher(str).matches()",
+            "        && PARSE_LINE_PATTERN_5.matcher(str + str).matches();",
+            "  }",
+            "",
+            "  Pattern parseLine(int i) {",
+            "    final String regex = \"f+\";",
+            "    return PARSE_LINE_PATTERN_6;",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    private static final Pattern FIELD_PATTERN = Pattern.compile(\"g+\");",
+            "",
+            "    Pattern field() {",
+            "      return FIELD_PATTERN;",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementInEnum() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedRegexCompilation.class, getClass())
+        .addInputLines(
+            "E.java",
+            "import java.util.function.Predicate;",
+            "",
+            "enum E {",
+            "  A(\"a\"),",
+            "  B(\"b\");",
+            "",
+            "  private final Predicate<String> predicate = s -> s.matches(\"c+\");",
+            "  private final String[] parts;",
+            "",
+            "  E(String str) {",
+            "    parts = str.split(\"d+\");",
+            "  }",
+            "",
+            "  boolean matches(String str) {",
+            "    return str.matches(\"d+\");",
+            "  }",
+            "}")
+        .addOutputLines(
+            "E.java",
+            "import java.util.function.Predicate;",
+            "import java.util.regex.Pattern;",
+            "",
+            "enum E {",
+            "  A(\"a\"),",
+            "  B(\"b\");",
+            "",
+            "  private final Predicate<String> predicate = s -> s.matches(\"c+\");",
+            "  private final String[] parts;",
+            "",
+            "  E(String str) {",
+            "    parts = str.split(\"d+\");",
+            "  }",
+            "",
+            "  boolean matches(String str) {",
+            "    return MATCHES_PATTERN.matcher(str).matches();",
+            "  }",
+            "",
+            "  private static final Pattern MATCHES_PATTERN = Pattern.compile(\"d+\");",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -0,0 +1,195 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class RepeatedTimeConstantConstructionTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(RepeatedTimeConstantConstruction.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.time.Instant;",
+            "import java.time.LocalDate;",
+            "import java.time.ZoneId;",
+            "import java.time.format.DateTimeFormatter;",
+            "import java.time.format.FormatStyle;",
+            "import java.util.Locale;",
+            "import java.util.function.Function;",
+            "",
+            "class A {",
+            "  private static final String PATTERN = \"yyyy-MM-dd\";",
+            "  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(\"HH:mm\");",
+            "  private static final Function<LocalDate, String> FORMAT =",
+            "      // BUG: Diagnostic contains:",
+            "      d -> d.format(DateTimeFormatter.ofPattern(\"dd-MM\"));",
+            "",
+            "  private final ZoneId instanceZone = ZoneId.of(\"Europe/Amsterdam\");",
+            "",
+            "  static {",
+            "    ZoneId.of(\"Europe/Paris\");",
+            "  }",
+            "",
+            "  void m(String pattern, Locale locale, String zoneId, Instant instant) {",
+            "    DateTimeFormatter.ofPattern(pattern);",
+            "    DateTimeFormatter.ofPattern(PATTERN, locale);",
+            "    FORMATTER.withLocale(locale);",
+            "    FORMATTER.withZone(instanceZone);",
+            "    ZoneId.of(zoneId);",
+            "    ZoneId.of(\"UTC\");",
+            "    ZoneId.of(\"Z\");",
+            "    DateTimeFormatter.ISO_LOCAL_DATE.format(instant.atZone(ZoneId.systemDefault()));",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    DateTimeFormatter.ofPattern(\"yyyy\");",
+            "    // BUG: Diagnostic contains:",
+            "    DateTimeFormatter.ofPattern(PATTERN, Locale.ROOT);",
+            "    // BUG: Diagnostic contains:",
+            "    DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT);",
+            "    // BUG: Diagnostic contains:",
+            "    DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "    // BUG: Diagnostic contains:",
+            "    FORMATTER.withZone(ZoneId.of(\"UTC\"));",
+            "    // BUG: Diagnostic contains:",
+            "    FORMATTER.withLocale(locale).withZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "    // BUG: Diagnostic contains:",
+            "    instant.atZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "",
+            "    new Object() {",
+            "      void m() {",
+            "        // BUG: Diagnostic contains:",
+            "        ZoneId.of(\"Europe/Amsterdam\");",
+            "      }",
+            "    };",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedTimeConstantConstruction.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.time.Instant;",
+            "import java.time.LocalDate;",
+            "import java.time.ZoneId;",
+            "import java.time.format.DateTimeFormatter;",
+            "import java.util.Locale;",
+            "",
+            "class A {",
+            "  private static final String PATTERN = \"yyyy-MM-dd\";",
+            "  private static final ZoneId EXISTING = ZoneId.of(\"Europe/Paris\");",
+            "",
+            "  A(Instant instant) {",
+            "    instant.atZone(ZoneId.of(\"Europe/Berlin\"));",
+            "  }",
+            "",
+            "  String formatDate(LocalDate date, Instant instant) {",
+            "    instant.atZone(ZoneId.of(\"Europe/Paris\"));",
+            "    instant.atZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "    DateTimeFormatter.ofPattern(\"dd/MM\").withLocale(Locale.ROOT).format(date);",
+            "    return date.format(DateTimeFormatter.ofPattern(PATTERN));",
+            "  }",
+            "",
+            "  String formatDate(Instant instant) {",
+            "    return DateTimeFormatter.ofPattern(PATTERN)",
+            "        .format(instant.atZone(ZoneId.of(\"Europe/Amsterdam\")));",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    ZoneId zone() {",
+            "      return ZoneId.of(\"Europe/Amsterdam\");",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.time.Instant;",
+            "import java.time.LocalDate;",
+            "import java.time.ZoneId;",
+            "import java.time.format.DateTimeFormatter;",
+            "import java.util.Locale;",
+            "",
+            "class A {",
+            "  private static final ZoneId ZONE = ZoneId.of(\"Europe/Berlin\");",
+            "  private static final ZoneId FORMAT_DATE_ZONE = ZoneId.of(\"Europe/Amsterdam\");",
+            "  private static final DateTimeFormatter FORMAT_DATE_FORMATTER =",
+            "      DateTimeFormatter.ofPattern(\"dd/MM\").withLocale(Locale.ROOT);",
+            "  private static final String PATTERN = \"yyyy-MM-dd\";",
+            "  private static final DateTimeFormatter FORMAT_DATE_FORMATTER_2 =",
+            "      DateTimeFormatter.ofPattern(PATTERN);",
+            "  private static final ZoneId EXISTING = ZoneId.of(\"Europe/Paris\");",
+            "",
+            "  A(Instant instant) {",
+            "    instant.atZone(ZONE);",
+            "  }",
+            "",
+            "  String formatDate(LocalDate date, Instant instant) {",
+            "    instant.atZone(EXISTING);",
+            "    instant.atZone(FORMAT_DATE_ZONE);",
+            "    FORMAT_DATE_FORMATTER.format(date);",
+            "    return date.format(FORMAT_DATE_FORMATTER_2);",
+            "  }",
+            "",
+            "  String formatDate(Instant instant) {",
+            "    return FORMAT_DATE_FORMATTER_2.format(instant.atZone(FORMAT_DATE_ZONE));",
+            "  }",
+            "",
+            "  static final class Nested {",
+            "    private static final ZoneId ZONE_ZONE = ZoneId.of(\"Europe/Amsterdam\");",
+            "",
+            "    ZoneId zone() {",
+            "      return ZONE_ZONE;",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementInEnum() {
+    BugCheckerRefactoringTestHelper.newInstance(RepeatedTimeConstantConstruction.class, getClass())
+        .addInputLines(
+            "E.java",
+            "import java.time.Instant;",
+            "import java.time.ZoneId;",
+            "import java.time.ZonedDateTime;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  E() {",
+            "    Instant.EPOCH.atZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "  }",
+            "",
+            "  ZonedDateTime toZonedDateTime(Instant instant) {",
+            "    return instant.atZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "E.java",
+            "import java.time.Instant;",
+            "import java.time.ZoneId;",
+            "import java.time.ZonedDateTime;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  E() {",
+            "    Instant.EPOCH.atZone(ZoneId.of(\"Europe/Amsterdam\"));",
+            "  }",
+            "",
+            "  ZonedDateTime toZonedDateTime(Instant instant) {",
+            "    return instant.atZone(TO_ZONED_DATE_TIME_ZONE);",
+            "  }",
+            "",
+            "  private static final ZoneId TO_ZONED_DATE_TIME_ZONE = ZoneId.of(\"Europe/Amsterdam\");",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
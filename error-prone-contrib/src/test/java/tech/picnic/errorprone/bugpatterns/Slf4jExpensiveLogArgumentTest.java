@@ -0,0 +1,196 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.FixChoosers;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class Slf4jExpensiveLogArgumentTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(Slf4jExpensiveLogArgument.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "import java.util.function.Supplier;",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "  private static final Logger OTHER_LOG = LoggerFactory.getLogger(String.class);",
+            "  private static final String PREFIX = \"foo\";",
+            "",
+            "  void m(Object o, int[] array, List<String> list, Supplier<String> supplier) {",
+            "    LOG.trace(\"foo\");",
+            "    LOG.debug(\"foo {}\", o);",
+            "    LOG.debug(PREFIX + \"bar {}\", o);",
+            "    LOG.debug(\"foo \" + o);",
+            "    LOG.debug(\"foo {}\", \"bar \" + o);",
+            "    LOG.debug(\"foo {}\", list.size());",
+            "    LOG.debug(\"foo {}\", (Supplier<String>) () -> o.toString());",
+            "    LOG.info(\"foo {}\", o.toString());",
+            "    LOG.warn(\"foo {}\", String.format(\"%s\", o));",
+            "    if (LOG.isDebugEnabled()) {",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (o != null && LOG.isTraceEnabled()) {",
+            "      LOG.trace(\"foo {}\", Arrays.toString(array));",
+            "    }",
+            "    if ((LOG.isDebugEnabled())) {",
+            "      if (o != null) {",
+            "        LOG.debug(\"foo {}\", o.toString());",
+            "      }",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.trace(\"foo {}\", o.toString());",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"foo {} {}\", o, \"bar \" + o);",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(String.format(\"foo %s\", o));",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"foo {}\", Arrays.toString(array));",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"foo {} {}\", o, list.stream().map(String::length).toArray());",
+            "    // BUG: Diagnostic contains:",
+            "    LOG.debug(\"foo {}\", String.join(\",\", list));",
+            "    if (o != null) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (LOG.isTraceEnabled()) {",
+            "      LOG.trace(\"foo {}\", o.toString());",
+            "    } else {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (!LOG.isDebugEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (o != null || LOG.isDebugEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (LOG.isTraceEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (OTHER_LOG.isDebugEnabled()) {",
+            "      // BUG: Diagnostic contains:",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    Runnable r =",
+            "        () -> {",
+            "          if (LOG.isDebugEnabled()) {",
+            "            Runnable r2 =",
+            "                () ->",
+            "                    // BUG: Diagnostic contains:",
+            "                    LOG.debug(\"foo {}\", o.toString());",
+            "          }",
+            "        };",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacementFirstSuggestedFix() {
+    BugCheckerRefactoringTestHelper.newInstance(Slf4jExpensiveLogArgument.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.Arrays;",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "",
+            "  void m(Object o, int[] array, Marker marker, Throwable t) {",
+            "    LOG.debug(\"foo {}\", o.toString());",
+            "    LOG.trace(\"foo {} {}\", o, \"bar \" + o);",
+            "    LOG.debug(marker, \"foo {} {}\", o, Arrays.toString(array), t);",
+            "",
+            "    int i = 0;",
+            "    i++;",
+            "    LOG.debug(\"foo {}\", Arrays.toString(new int[] {i}));",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.Arrays;",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "",
+            "  void m(Object o, int[] array, Marker marker, Throwable t) {",
+            "    LOG.atDebug().setMessage(\"foo {}\").addArgument(() -> o.toString()).log();",
+            "    LOG.atTrace().setMessage(\"foo {} {}\").addArgument(o).addArgument(() -> \"bar \" + o).log();",
+            "    LOG.atDebug()",
+            "        .addMarker(marker)",
+            "        .setMessage(\"foo {} {}\")",
+            "        .addArgument(o)",
+            "        .addArgument(() -> Arrays.toString(array))",
+            "        .setCause(t)",
+            "        .log();",
+            "",
+            "    int i = 0;",
+            "    i++;",
+            "    if (LOG.isDebugEnabled()) {",
+            "      LOG.debug(\"foo {}\", Arrays.toString(new int[] {i}));",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementSecondSuggestedFix() {
+    BugCheckerRefactoringTestHelper.newInstance(Slf4jExpensiveLogArgument.class, getClass())
+        .setFixChooser(FixChoosers.SECOND)
+        .addInputLines(
+            "A.java",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "",
+            "  void m(Object o, Marker marker) {",
+            "    LOG.debug(\"foo {}\", o.toString());",
+            "    LOG.trace(\"foo {} {}\", o, \"bar \" + o);",
+            "    LOG.debug(marker, \"foo {}\", o.toString());",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import org.slf4j.Logger;",
+            "import org.slf4j.LoggerFactory;",
+            "import org.slf4j.Marker;",
+            "",
+            "class A {",
+            "  private static final Logger LOG = LoggerFactory.getLogger(A.class);",
+            "",
+            "  void m(Object o, Marker marker) {",
+            "    if (LOG.isDebugEnabled()) {",
+            "      LOG.debug(\"foo {}\", o.toString());",
+            "    }",
+            "    if (LOG.isTraceEnabled()) {",
+            "      LOG.trace(\"foo {} {}\", o, \"bar \" + o);",
+            "    }",
+            "    if (LOG.isDebugEnabled(marker)) {",
+            "      LOG.debug(marker, \"foo {}\", o.toString());",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+}
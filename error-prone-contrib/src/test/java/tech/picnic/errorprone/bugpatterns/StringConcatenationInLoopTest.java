@@ -0,0 +1,200 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.FixChoosers;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class StringConcatenationInLoopTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(StringConcatenationInLoop.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  private String field = \"\";",
+            "",
+            "  void m(List<String> list) {",
+            "    String s = \"\";",
+            "    s += \"a\";",
+            "    list.forEach(e -> field += e);",
+            "    for (String e : list) {",
+            "      String local = \"\";",
+            "      local += e;",
+            "      local = local + e;",
+            "      int i = 0;",
+            "      i += 1;",
+            "      s = e + s;",
+            "      s = \"prefix\" + e;",
+            "    }",
+            "",
+            "    for (String e : list) {",
+            "      // BUG: Diagnostic contains:",
+            "      s += e;",
+            "    }",
+            "    for (int i = 0; i < list.size(); i++) {",
+            "      // BUG: Diagnostic contains:",
+            "      s = s + list.get(i) + \",\";",
+            "    }",
+            "    while (!list.isEmpty()) {",
+            "      // BUG: Diagnostic contains:",
+            "      s = s.concat(list.remove(0));",
+            "    }",
+            "    for (String e : list) {",
+            "      // BUG: Diagnostic contains:",
+            "      this.field += e;",
+            "      for (String f : list) {",
+            "        String local = \"\";",
+            "        for (String g : list) {",
+            "          // BUG: Diagnostic contains:",
+            "          local += g;",
+            "        }",
+            "      }",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacementFirstSuggestedFix() {
+    BugCheckerRefactoringTestHelper.newInstance(StringConcatenationInLoop.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  String m1(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String m2(List<Integer> list, String prefix) {",
+            "    String s = prefix;",
+            "    for (int i = 0; i < list.size(); i++) {",
+            "      s = s + i + \": \" + list.get(i);",
+            "      if (i % 2 == 0) {",
+            "        s = s.concat(\"!\").concat(\"?\");",
+            "      }",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String m3(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "      if (s.length() > 10) {",
+            "        break;",
+            "      }",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String m4(List<char[]> list) {",
+            "    String s = \"\";",
+            "    for (char[] e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  String m1(List<String> list) {",
+            "    StringBuilder sBuilder = new StringBuilder();",
+            "    for (String e : list) {",
+            "      sBuilder.append(e);",
+            "    }",
+            "    String s = sBuilder.toString();",
+            "    return s;",
+            "  }",
+            "",
+            "  String m2(List<Integer> list, String prefix) {",
+            "    StringBuilder sBuilder = new StringBuilder(prefix);",
+            "    for (int i = 0; i < list.size(); i++) {",
+            "      sBuilder.append(i).append(\": \").append(list.get(i));",
+            "      if (i % 2 == 0) {",
+            "        sBuilder.append(\"!\").append(\"?\");",
+            "      }",
+            "    }",
+            "    String s = sBuilder.toString();",
+            "    return s;",
+            "  }",
+            "",
+            "  String m3(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "      if (s.length() > 10) {",
+            "        break;",
+            "      }",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String m4(List<char[]> list) {",
+            "    String s = \"\";",
+            "    for (char[] e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+
+  @Test
+  void replacementSecondSuggestedFix() {
+    BugCheckerRefactoringTestHelper.newInstance(StringConcatenationInLoop.class, getClass())
+        .setFixChooser(FixChoosers.SECOND)
+        .addInputLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  String m1(List<String> list) {",
+            "    String s = \"\";",
+            "    for (String e : list) {",
+            "      s += e;",
+            "    }",
+            "    return s;",
+            "  }",
+            "",
+            "  String m2(List<Integer> list) {",
+            "    String s = \"\";",
+            "    for (Integer e : list) {",
+            "      s += String.valueOf(e);",
+            "    }",
+            "    return s;",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import static java.util.stream.Collectors.joining;",
+            "",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  String m1(List<String> list) {",
+            "    String s = String.join(\"\", list);",
+            "    return s;",
+            "  }",
+            "",
+            "  String m2(List<Integer> list) {",
+            "    String s = list.stream().map(e -> String.valueOf(e)).collect(joining());",
+            "    return s;",
+            "  }",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
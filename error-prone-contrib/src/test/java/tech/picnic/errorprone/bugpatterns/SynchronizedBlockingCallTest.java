@@ -0,0 +1,301 @@
+package tech.picnic.errorprone.bugpatterns;
+
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.CompilationTestHelper;
+import org.junit.jupiter.api.Test;
+
+final class SynchronizedBlockingCallTest {
+  @Test
+  void identification() {
+    CompilationTestHelper.newInstance(SynchronizedBlockingCall.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.io.IOException;",
+            "import java.io.InputStream;",
+            "import java.sql.Connection;",
+            "import java.sql.SQLException;",
+            "",
+            "class A {",
+            "  private final Object mutex = new Object();",
+            "  private int counter;",
+            "",
+            "  synchronized void increment() {",
+            "    counter++;",
+            "  }",
+            "",
+            "  void waitForCounter() throws InterruptedException {",
+            "    synchronized (mutex) {",
+            "      while (counter == 0) {",
+            "        mutex.wait();",
+            "      }",
+            "    }",
+            "  }",
+            "",
+            "  synchronized Runnable deferredRead(InputStream is) {",
+            "    return () -> {",
+            "      try {",
+            "        is.read();",
+            "      } catch (IOException e) {",
+            "        throw new IllegalStateException(e);",
+            "      }",
+            "    };",
+            "  }",
+            "",
+            "  synchronized void delegate(B b) throws IOException {",
+            "    b.read();",
+            "  }",
+            "",
+            "  // BUG: Diagnostic contains: Blocking call `is.read()`",
+            "  synchronized int read(InputStream is) throws IOException {",
+            "    return is.read();",
+            "  }",
+            "",
+            "  // BUG: Diagnostic contains: Blocking call `connection.commit()`",
+            "  static synchronized void commit(Connection connection) throws SQLException {",
+            "    connection.commit();",
+            "  }",
+            "",
+            "  void readWithMutex(InputStream is) throws IOException {",
+            "    // BUG: Diagnostic contains: Blocking call `is.readAllBytes()`",
+            "    synchronized (mutex) {",
+            "      is.readAllBytes();",
+            "    }",
+            "  }",
+            "",
+            "  void readTransitively(InputStream is) throws IOException {",
+            "    // BUG: Diagnostic contains: Blocking call `is.skip(1)`",
+            "    synchronized (this) {",
+            "      skip(is);",
+            "    }",
+            "  }",
+            "",
+            "  private void skip(InputStream is) throws IOException {",
+            "    skipAgain(is);",
+            "  }",
+            "",
+            "  private void skipAgain(InputStream is) throws IOException {",
+            "    is.skip(1);",
+            "    skip(is);",
+            "  }",
+            "",
+            "  static class B {",
+            "    void read() throws IOException {",
+            "      System.in.read();",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void identificationWithExtraBlockingMethods() {
+    CompilationTestHelper.newInstance(SynchronizedBlockingCall.class, getClass())
+        .setArgs("-XepOpt:SynchronizedBlockingCall:ExtraBlockingMethods=A#load()")
+        .addSourceLines(
+            "A.java",
+            "class A {",
+            "  synchronized void m1() {",
+            "    toString();",
+            "  }",
+            "",
+            "  // BUG: Diagnostic contains: Blocking call `load()`",
+            "  synchronized void m2() {",
+            "    load();",
+            "  }",
+            "",
+            "  String load() {",
+            "    return \"foo\";",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void replacement() {
+    BugCheckerRefactoringTestHelper.newInstance(SynchronizedBlockingCall.class, getClass())
+        .addInputLines(
+            "A.java",
+            "import java.io.IOException;",
+            "import java.io.InputStream;",
+            "",
+            "class A {",
+            "  private int counter;",
+            "",
+            "  synchronized void increment() {",
+            "    counter++;",
+            "  }",
+            "",
+            "  synchronized int read(InputStream is) throws IOException {",
+            "    return is.read();",
+            "  }",
+            "",
+            "  void skip(InputStream is) throws IOException {",
+            "    synchronized (this) {",
+            "      is.skip(counter);",
+            "    }",
+            "  }",
+            "",
+            "  static synchronized byte[] readAll(InputStream is) throws IOException {",
+            "    return is.readAllBytes();",
+            "  }",
+            "",
+            "  static void close(InputStream is) throws IOException {",
+            "    synchronized (A.class) {",
+            "      is.close();",
+            "    }",
+            "  }",
+            "",
+            "  static class B {",
+            "    synchronized void await() throws InterruptedException {",
+            "      while (System.nanoTime() > 0) {",
+            "        wait();",
+            "      }",
+            "    }",
+            "",
+            "    synchronized void read(InputStream is) throws IOException {",
+            "      is.read();",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "import java.io.IOException;",
+            "import java.io.InputStream;",
+            "import java.util.concurrent.locks.ReentrantLock;",
+            "",
+            "class A {",
+            "  private final ReentrantLock lock = new ReentrantLock();",
+            "  private static final ReentrantLock LOCK = new ReentrantLock();",
+            "  private int counter;",
+            "",
+            "  void increment() {",
+            "    lock.lock();",
+            "    try {",
+            "      counter++;",
+            "    } finally {",
+            "      lock.unlock();",
+            "    }",
+            "  }",
+            "",
+            "  int read(InputStream is) throws IOException {",
+            "    lock.lock();",
+            "    try {",
+            "      return is.read();",
+            "    } finally {",
+            "      lock.unlock();",
+            "    }",
+            "  }",
+            "",
+            "  void skip(InputStream is) throws IOException {",
+            "    lock.lock();",
+            "    try {",
+            "      is.skip(counter);",
+            "    } finally {",
+            "      lock.unlock();",
+            "    }",
+            "  }",
+            "",
+            "  static byte[] readAll(InputStream is) throws IOException {",
+            "    LOCK.lock();",
+            "    try {",
+            "      return is.readAllBytes();",
+            "    } finally {",
+            "      LOCK.unlock();",
+            "    }",
+            "  }",
+            "",
+            "  static void close(InputStream is) throws IOException {",
+            "    LOCK.lock();",
+            "    try {",
+            "      is.close();",
+            "    } finally {",
+            "      LOCK.unlock();",
+            "    }",
+            "  }",
+            "",
+            "  static class B {",
+            "    synchronized void await() throws InterruptedException {",
+            "      while (System.nanoTime() > 0) {",
+            "        wait();",
+            "      }",
+            "    }",
+            "",
+            "    synchronized void read(InputStream is) throws IOException {",
+            "      is.read();",
+            "    }",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void replacementInEnum() {
+    BugCheckerRefactoringTestHelper.newInstance(SynchronizedBlockingCall.class, getClass())
+        .addInputLines(
+            "E.java",
+            "import java.io.IOException;",
+            "import java.io.InputStream;",
+            "import java.util.concurrent.CompletableFuture;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  static synchronized byte[] readAll(InputStream is) throws IOException {",
+            "    return is.readAllBytes();",
+            "  }",
+            "",
+            "  enum F {",
+            "    C;",
+            "",
+            "    F() {",
+            "      synchronized (F.class) {",
+            "        CompletableFuture.completedFuture(1).join();",
+            "      }",
+            "    }",
+            "",
+            "    static synchronized void join(CompletableFuture<?> future) {",
+            "      future.join();",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "E.java",
+            "import java.io.IOException;",
+            "import java.io.InputStream;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import java.util.concurrent.locks.ReentrantLock;",
+            "",
+            "enum E {",
+            "  A,",
+            "  B;",
+            "",
+            "  static byte[] readAll(InputStream is) throws IOException {",
+            "    LOCK.lock();",
+            "    try {",
+            "      return is.readAllBytes();",
+            "    } finally {",
+            "      LOCK.unlock();",
+            "    }",
+            "  }",
+            "",
+            "  enum F {",
+            "    C;",
+            "",
+            "    F() {",
+            "      synchronized (F.class) {",
+            "        CompletableFuture.completedFuture(1).join();",
+            "      }",
+            "    }",
+            "",
+            "    static synchronized void join(CompletableFuture<?> future) {",
+            "      future.join();",
+            "    }",
+            "  }",
+            "",
+            "  private static final ReentrantLock LOCK = new ReentrantLock();",
+            "}")
+        .doTest(TestMode.TEXT_MATCH);
+  }
+}
@@ -0,0 +1,124 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.ErrorProneFlags;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.MemberReferenceTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MethodInvocationTree;
+import javax.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+final class BlockingMethodsTest {
+  @Test
+  void knownBlockingMethod() {
+    CompilationTestHelper.newInstance(TestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.io.InputStream;",
+            "import java.nio.file.Files;",
+            "import java.nio.file.Path;",
+            "import java.util.concurrent.CompletableFuture;",
+            "import java.util.concurrent.locks.Lock;",
+            "import java.util.function.Function;",
+            "import reactor.core.publisher.Flux;",
+            "import reactor.core.publisher.Mono;",
+            "",
+            "class A {",
+            "  void m(",
+            "      Mono<String> mono,",
+            "      Flux<String> flux,",
+            "      CompletableFuture<String> future,",
+            "      Lock lock,",
+            "      InputStream is,",
+            "      Path path)",
+            "      throws Exception {",
+            "    mono.map(String::length);",
+            "    future.thenApply(String::length);",
+            "    lock.tryLock();",
+            "    is.available();",
+            "    Files.exists(path);",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    mono.block();",
+            "    // BUG: Diagnostic contains:",
+            "    flux.blockLast();",
+            "    // BUG: Diagnostic contains:",
+            "    Thread.sleep(1);",
+            "    // BUG: Diagnostic contains:",
+            "    future.join();",
+            "    // BUG: Diagnostic contains:",
+            "    lock.lock();",
+            "    // BUG: Diagnostic contains:",
+            "    is.read();",
+            "    // BUG: Diagnostic contains:",
+            "    Files.readString(path);",
+            "    // BUG: Diagnostic contains:",
+            "    Function<CompletableFuture<String>, String> f = CompletableFuture::join;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void extraBlockingMethod() {
+    CompilationTestHelper.newInstance(TestChecker.class, getClass())
+        .setArgs(ImmutableList.of("-XepOpt:BlockingMethodsTest:ExtraBlockingMethods=A#fetch()"))
+        .addSourceLines(
+            "A.java",
+            "class A {",
+            "  void m() {",
+            "    toString();",
+            "    // BUG: Diagnostic contains:",
+            "    fetch();",
+            "  }",
+            "",
+            "  String fetch() {",
+            "    return \"\";",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  /**
+   * A {@link BugChecker} that flags method invocations and method references matched by {@link
+   * BlockingMethods#blockingMethod(ErrorProneFlags, String)}.
+   */
+  @BugPattern(summary = "Interacts with `BlockingMethods` for testing purposes", severity = ERROR)
+  @SuppressWarnings("java:S2160" /* Super class equality definition suffices. */)
+  public static final class TestChecker extends BugChecker
+      implements MethodInvocationTreeMatcher, MemberReferenceTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    private final Matcher<ExpressionTree> delegate;
+
+    /**
+     * Instantiates a customized {@link TestChecker}.
+     *
+     * @param flags Any provided command line flags.
+     */
+    @Inject
+    TestChecker(ErrorProneFlags flags) {
+      delegate = BlockingMethods.blockingMethod(flags, "BlockingMethodsTest:ExtraBlockingMethods");
+    }
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      return delegate.matches(tree, state) ? describeMatch(tree) : Description.NO_MATCH;
+    }
+
+    @Override
+    public Description matchMemberReference(MemberReferenceTree tree, VisitorState state) {
+      return delegate.matches(tree, state) ? describeMatch(tree) : Description.NO_MATCH;
+    }
+  }
+}
@@ -0,0 +1,308 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+import static com.google.errorprone.matchers.method.MethodMatchers.staticMethod;
+
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.BugCheckerRefactoringTestHelper;
+import com.google.errorprone.BugCheckerRefactoringTestHelper.TestMode;
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.bugpatterns.BugChecker;
+import com.google.errorprone.bugpatterns.BugChecker.LiteralTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.VariableTreeMatcher;
+import com.google.errorprone.matchers.Description;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import org.junit.jupiter.api.Test;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistableExpressions;
+import tech.picnic.errorprone.bugpatterns.util.FieldHoisting.HoistedFields;
+
+final class FieldHoistingTest {
+  @Test
+  void findTargetClass() {
+    CompilationTestHelper.newInstance(FindTargetClassTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.function.Supplier;",
+            "",
+            "class A {",
+            "  // BUG: Diagnostic contains: repeated=false, target=A, referenceable=true",
+            "  private final String field = \"a\";",
+            "",
+            "  static {",
+            "    // BUG: Diagnostic contains: repeated=false, target=A, referenceable=true",
+            "    String s = \"b\";",
+            "  }",
+            "",
+            "  void m() {",
+            "    // BUG: Diagnostic contains: repeated=true, target=A, referenceable=true",
+            "    String s = \"c\";",
+            "    // BUG: Diagnostic contains: repeated=true, target=A, referenceable=true",
+            "    Supplier<String> supplier = () -> \"d\";",
+            "",
+            "    class Local {",
+            "      // BUG: Diagnostic contains: repeated=false, target=A, referenceable=true",
+            "      private final String field = \"e\";",
+            "    }",
+            "  }",
+            "",
+            "  class Inner {",
+            "    void m() {",
+            "      // BUG: Diagnostic contains: repeated=true, target=A, referenceable=true",
+            "      String s = \"f\";",
+            "    }",
+            "  }",
+            "",
+            "  static class Nested {",
+            "    void m() {",
+            "      // BUG: Diagnostic contains: repeated=true, target=Nested, referenceable=true",
+            "      String s = \"g\";",
+            "    }",
+            "  }",
+            "",
+            "  enum E {",
+            "    // BUG: Diagnostic contains: repeated=false, target=E, referenceable=false",
+            "    CONSTANT(\"h\");",
+            "",
+            "    // BUG: Diagnostic contains: repeated=true, target=E, referenceable=false",
+            "    private final Supplier<String> supplier = () -> \"i\";",
+            "",
+            "    {",
+            "      // BUG: Diagnostic contains: repeated=false, target=E, referenceable=false",
+            "      String s = \"j\";",
+            "    }",
+            "",
+            "    static {",
+            "      // BUG: Diagnostic contains: repeated=false, target=E, referenceable=true",
+            "      String s = \"k\";",
+            "    }",
+            "",
+            "    E(String str) {",
+            "      // BUG: Diagnostic contains: repeated=true, target=E, referenceable=false",
+            "      String s = \"l\";",
+            "    }",
+            "",
+            "    void m() {",
+            "      // BUG: Diagnostic contains: repeated=true, target=E, referenceable=true",
+            "      String s = \"m\";",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void addField() {
+    BugCheckerRefactoringTestHelper.newInstance(AddFieldTestChecker.class, getClass())
+        .addInputLines(
+            "A.java",
+            "class A {",
+            "  private static final int FIRST = 1;",
+            "  private static final int SECOND = 2;",
+            "  private static final int THIRD = 3;",
+            "",
+            "  void m() {",
+            "    int hoistedIndependent = 0;",
+            "    int hoistedDependent = FIRST + SECOND;",
+            "  }",
+            "",
+            "  enum E {",
+            "    ONE,",
+            "    TWO;",
+            "",
+            "    void m() {",
+            "      int hoistedEnum = ONE.ordinal();",
+            "    }",
+            "  }",
+            "}")
+        .addOutputLines(
+            "A.java",
+            "class A {",
+            "  private static final int HOISTED_INDEPENDENT = 0;",
+            "  private static final int FIRST = 1;",
+            "  private static final int SECOND = 2;",
+            "  private static final int HOISTED_DEPENDENT = FIRST + SECOND;",
+            "  private static final int THIRD = 3;",
+            "",
+            "  void m() {",
+            "    int hoistedIndependent = 0;",
+            "    int hoistedDependent = FIRST + SECOND;",
+            "  }",
+            "",
+            "  enum E {",
+            "    ONE,",
+            "    TWO;",
+            "",
+            "    void m() {",
+            "      int hoistedEnum = ONE.ordinal();",
+            "    }",
+            "",
+            "    private static final int HOISTED_ENUM = ONE.ordinal();",
+            "  }",
+            "}")
+        .doTest(TestMode.AST_MATCH);
+  }
+
+  @Test
+  void getHoistedFields() {
+    CompilationTestHelper.newInstance(GetHoistedFieldsTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.function.Supplier;",
+            "",
+            "class A {",
+            "  // BUG: Diagnostic contains: field=EXISTING, declared=false",
+            "  private static final String EXISTING = String.valueOf(1);",
+            "  private static final int M_VALUE = 0;",
+            "",
+            "  A() {",
+            "    // BUG: Diagnostic contains: field=VALUE, declared=true",
+            "    String s = String.valueOf(2);",
+            "  }",
+            "",
+            "  // BUG: Diagnostic contains: field=VALUE_2, declared=true",
+            "  private final Supplier<String> supplier = () -> String.valueOf(3);",
+            "",
+            "  void m() {",
+            "    // BUG: Diagnostic contains: field=EXISTING, declared=false",
+            "    String s1 = String.valueOf(1);",
+            "    // BUG: Diagnostic contains: field=VALUE, declared=false",
+            "    String s2 = String.valueOf(2);",
+            "    // BUG: Diagnostic contains: field=M_VALUE_2, declared=true",
+            "    String s3 = String.valueOf(4);",
+            "    // BUG: Diagnostic contains: field=M_VALUE_2, declared=false",
+            "    String s4 = String.valueOf(4);",
+            "    // BUG: Diagnostic contains: field=M_VALUE_3, declared=true",
+            "    String s5 = String.valueOf(5);",
+            "  }",
+            "",
+            "  static class Nested {",
+            "    void m() {",
+            "      // BUG: Diagnostic contains: field=M_VALUE, declared=true",
+            "      String s = String.valueOf(4);",
+            "    }",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link FieldHoisting#isExecutedRepeatedly}, {@link
+   * FieldHoisting#findTargetClass} and {@link FieldHoisting#canReferenceStaticFields}.
+   */
+  @BugPattern(summary = "Interacts with `FieldHoisting` for testing purposes", severity = ERROR)
+  public static final class FindTargetClassTestChecker extends BugChecker
+      implements LiteralTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchLiteral(LiteralTree tree, VisitorState state) {
+      return FieldHoisting.findTargetClass(state.getPath())
+          .map(
+              targetClass ->
+                  buildDescription(tree)
+                      .setMessage(
+                          String.format(
+                              "repeated=%s, target=%s, referenceable=%s",
+                              FieldHoisting.isExecutedRepeatedly(state.getPath()),
+                              targetClass.getSimpleName(),
+                              FieldHoisting.canReferenceStaticFields(tree, targetClass)))
+                      .build())
+          .orElse(Description.NO_MATCH);
+    }
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link FieldHoisting#addField} for each local variable
+   * whose name starts with {@code hoisted}.
+   */
+  @BugPattern(summary = "Interacts with `FieldHoisting` for testing purposes", severity = ERROR)
+  public static final class AddFieldTestChecker extends BugChecker implements VariableTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchVariable(VariableTree tree, VisitorState state) {
+      VarSymbol symbol = ASTHelpers.getSymbol(tree);
+      ExpressionTree initializer = tree.getInitializer();
+      if (symbol.getKind() != ElementKind.LOCAL_VARIABLE
+          || !symbol.getSimpleName().toString().startsWith("hoisted")
+          || initializer == null) {
+        return Description.NO_MATCH;
+      }
+
+      String declaration =
+          String.format(
+              "private static final int %s = %s;",
+              CaseFormat.LOWER_CAMEL.to(
+                  CaseFormat.UPPER_UNDERSCORE, symbol.getSimpleName().toString()),
+              SourceCode.treeToString(initializer, state));
+      return describeMatch(
+          tree,
+          FieldHoisting.addField(
+              FieldHoisting.findTargetClass(state.getPath()).orElseThrow(),
+              declaration,
+              ImmutableList.of(initializer),
+              state));
+    }
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link FieldHoisting#getHoistedFields} for each {@code
+   * String#valueOf(int)} invocation with a constant argument.
+   */
+  @BugPattern(summary = "Interacts with `FieldHoisting` for testing purposes", severity = ERROR)
+  public static final class GetHoistedFieldsTestChecker extends BugChecker
+      implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+    private static final Matcher<ExpressionTree> STRING_VALUE_OF =
+        staticMethod().onClass(String.class.getName()).named("valueOf").withParameters("int");
+    private static final HoistableExpressions HOISTABLE_EXPRESSIONS =
+        new HoistableExpressions() {
+          @Override
+          public Optional<String> getKey(ExpressionTree tree, VisitorState state) {
+            return STRING_VALUE_OF.matches(tree, state)
+                ? Optional.ofNullable(
+                        ASTHelpers.constValue(((MethodInvocationTree) tree).getArguments().get(0)))
+                    .map(String::valueOf)
+                : Optional.empty();
+          }
+
+          @Override
+          public String getFieldName(ExpressionTree tree, VisitorState state) {
+            return "VALUE";
+          }
+        };
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      Optional<String> key = HOISTABLE_EXPRESSIONS.getKey(tree, state);
+      if (key.isEmpty()) {
+        return Description.NO_MATCH;
+      }
+
+      HoistedFields fields =
+          FieldHoisting.getHoistedFields(
+              FieldHoisting.findTargetClass(state.getPath()).orElseThrow(),
+              HOISTABLE_EXPRESSIONS,
+              state);
+      return buildDescription(tree)
+          .setMessage(
+              String.format(
+                  "field=%s, declared=%s",
+                  fields.getFieldName(key.orElseThrow()).orElse("none"),
+                  fields.isDeclaredBy(tree, key.orElseThrow())))
+          .build();
+    }
+  }
+}
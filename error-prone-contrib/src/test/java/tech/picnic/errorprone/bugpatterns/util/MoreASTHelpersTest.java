@@ -7,16 +7,24 @@ import com.google.common.collect.Maps;
 import com.google.errorprone.BugPattern;
 import com.google.errorprone.CompilationTestHelper;
 import com.google.errorprone.VisitorState;
+import com.google.errorprone.annotations.Var;
 import com.google.errorprone.bugpatterns.BugChecker;
 import com.google.errorprone.bugpatterns.BugChecker.ExpressionStatementTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.IdentifierTreeMatcher;
+import com.google.errorprone.bugpatterns.BugChecker.MethodInvocationTreeMatcher;
 import com.google.errorprone.bugpatterns.BugChecker.MethodTreeMatcher;
 import com.google.errorprone.bugpatterns.BugChecker.ReturnTreeMatcher;
 import com.google.errorprone.matchers.Description;
+import com.google.errorprone.util.ASTHelpers;
 import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.ReturnTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.tools.javac.code.Symbol;
 import java.util.List;
 import java.util.function.BiFunction;
 import org.junit.jupiter.api.Test;
@@ -137,6 +145,140 @@ final class MoreASTHelpersTest {
         .doTest();
   }
 
+  @Test
+  void isRepeatedlyExecutedPart() {
+    CompilationTestHelper.newInstance(IsRepeatedlyExecutedPartTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.util.List;",
+            "",
+            "class A {",
+            "  void m(List<Integer> list) {",
+            "    touch();",
+            "    for (int i = touch();",
+            "        // BUG: Diagnostic contains:",
+            "        i < touch();",
+            "        // BUG: Diagnostic contains:",
+            "        i += touch()) {",
+            "      // BUG: Diagnostic contains:",
+            "      touch();",
+            "    }",
+            "",
+            "    for (int i : List.of(touch())) {",
+            "      // BUG: Diagnostic contains:",
+            "      touch();",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    while (touch() > 0) {",
+            "      // BUG: Diagnostic contains:",
+            "      touch();",
+            "    }",
+            "",
+            "    do {",
+            "      // BUG: Diagnostic contains:",
+            "      touch();",
+            "      // BUG: Diagnostic contains:",
+            "    } while (touch() > 0);",
+            "",
+            "    list.forEach(i -> touch());",
+            "  }",
+            "",
+            "  int touch() {",
+            "    return 0;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void isLocalVariable() {
+    CompilationTestHelper.newInstance(IsLocalVariableTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.io.StringReader;",
+            "import java.util.function.IntSupplier;",
+            "",
+            "class A {",
+            "  private int field;",
+            "",
+            "  void m(int param) throws Exception {",
+            "    int local = field;",
+            "    try (StringReader resource = new StringReader(\"\")) {",
+            "      // BUG: Diagnostic contains:",
+            "      resource.read();",
+            "    } catch (RuntimeException e) {",
+            "      // BUG: Diagnostic contains:",
+            "      throw e;",
+            "    }",
+            "",
+            "    // BUG: Diagnostic contains:",
+            "    String.valueOf(param);",
+            "    // BUG: Diagnostic contains:",
+            "    String.valueOf(local);",
+            "    String.valueOf(field);",
+            "    // BUG: Diagnostic contains:",
+            "    IntSupplier supplier = () -> param;",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void capturesNonEffectivelyFinalVariable() {
+    CompilationTestHelper.newInstance(
+            CapturesNonEffectivelyFinalVariableTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "class A {",
+            "  private int field;",
+            "",
+            "  void m(int param, int reassignedParam) {",
+            "    reassignedParam++;",
+            "    int local = 1;",
+            "    final int finalLocal = 2;",
+            "    int reassignedLocal = 3;",
+            "    reassignedLocal = 4;",
+            "",
+            "    String.valueOf(field);",
+            "    String.valueOf(param);",
+            "    String.valueOf(local + finalLocal);",
+            "    // BUG: Diagnostic contains:",
+            "    String.valueOf(reassignedParam);",
+            "    // BUG: Diagnostic contains:",
+            "    String.valueOf(reassignedLocal);",
+            "    // BUG: Diagnostic contains:",
+            "    String.valueOf(local + reassignedLocal);",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  @Test
+  void getUnusedName() {
+    CompilationTestHelper.newInstance(GetUnusedNameTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "class A {",
+            "  private int field;",
+            "",
+            "  // BUG: Diagnostic contains: local, field, other",
+            "  void m1() {}",
+            "",
+            "  // BUG: Diagnostic contains: local2, field, other",
+            "  void m2(int local) {}",
+            "",
+            "  // BUG: Diagnostic contains: local3, field2, other2",
+            "  void m3(int local, int other) {",
+            "    int local2 = 0;",
+            "    Runnable r = () -> {",
+            "      int field = 1;",
+            "    };",
+            "  }",
+            "}")
+        .doTest();
+  }
+
   private static String createMethodSearchDiagnosticsMessage(
       BiFunction<String, VisitorState, Object> valueFunction, VisitorState state) {
     return Maps.toMap(ImmutableSet.of("foo", "bar", "baz"), key -> valueFunction.apply(key, state))
@@ -224,4 +366,88 @@ final class MoreASTHelpersTest {
           : Description.NO_MATCH;
     }
   }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link MoreASTHelpers#isRepeatedlyExecutedPart(Tree,
+   * Tree)} for each invocation of a method named {@code touch}.
+   */
+  @BugPattern(summary = "Interacts with `MoreASTHelpers` for testing purposes", severity = ERROR)
+  public static final class IsRepeatedlyExecutedPartTestChecker extends BugChecker
+      implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      if (!ASTHelpers.getSymbol(tree).getSimpleName().contentEquals("touch")) {
+        return Description.NO_MATCH;
+      }
+
+      @Var Tree child = tree;
+      for (TreePath path = state.getPath().getParentPath();
+          !(path.getLeaf() instanceof MethodTree);
+          path = path.getParentPath()) {
+        if (MoreASTHelpers.isRepeatedlyExecutedPart(path.getLeaf(), child)) {
+          return describeMatch(tree);
+        }
+
+        child = path.getLeaf();
+      }
+
+      return Description.NO_MATCH;
+    }
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link MoreASTHelpers#isLocalVariable(Symbol)} for each
+   * identifier.
+   */
+  @BugPattern(summary = "Interacts with `MoreASTHelpers` for testing purposes", severity = ERROR)
+  public static final class IsLocalVariableTestChecker extends BugChecker
+      implements IdentifierTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchIdentifier(IdentifierTree tree, VisitorState state) {
+      Symbol symbol = ASTHelpers.getSymbol(tree);
+      return symbol != null && MoreASTHelpers.isLocalVariable(symbol)
+          ? describeMatch(tree)
+          : Description.NO_MATCH;
+    }
+  }
+
+  /**
+   * A {@link BugChecker} that delegates to {@link
+   * MoreASTHelpers#capturesNonEffectivelyFinalVariable(Tree)}.
+   */
+  @BugPattern(summary = "Interacts with `MoreASTHelpers` for testing purposes", severity = ERROR)
+  public static final class CapturesNonEffectivelyFinalVariableTestChecker extends BugChecker
+      implements MethodInvocationTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethodInvocation(MethodInvocationTree tree, VisitorState state) {
+      return MoreASTHelpers.capturesNonEffectivelyFinalVariable(tree)
+          ? describeMatch(tree)
+          : Description.NO_MATCH;
+    }
+  }
+
+  /** A {@link BugChecker} that delegates to {@link MoreASTHelpers#getUnusedName(String, Tree)}. */
+  @BugPattern(summary = "Interacts with `MoreASTHelpers` for testing purposes", severity = ERROR)
+  public static final class GetUnusedNameTestChecker extends BugChecker
+      implements MethodTreeMatcher {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Description matchMethod(MethodTree tree, VisitorState state) {
+      return buildDescription(tree)
+          .setMessage(
+              String.join(
+                  ", ",
+                  MoreASTHelpers.getUnusedName("local", tree),
+                  MoreASTHelpers.getUnusedName("field", tree),
+                  MoreASTHelpers.getUnusedName("other", tree)))
+          .build();
+    }
+  }
 }
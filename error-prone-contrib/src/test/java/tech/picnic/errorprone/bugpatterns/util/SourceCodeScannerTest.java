@@ -0,0 +1,86 @@
+package tech.picnic.errorprone.bugpatterns.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+final class SourceCodeScannerTest {
+  private static Stream<Arguments> skipWhitespaceAndCommentsTestCases() {
+    /* { source, expected } */
+    return Stream.of(
+        arguments("", -1),
+        arguments(" \t\n", -1),
+        arguments("(", 0),
+        arguments("  (", 2),
+        arguments("/* a */(", 7),
+        arguments("/** a */ /* b */ (", 17),
+        arguments("// a\n(", 5),
+        arguments("// a\r\n  (", 8),
+        arguments("// a (", -1),
+        arguments("/* a (", -1),
+        arguments("/ (", 0),
+        arguments("/", 0));
+  }
+
+  @MethodSource("skipWhitespaceAndCommentsTestCases")
+  @ParameterizedTest
+  void skipWhitespaceAndComments(String source, int expected) {
+    assertThat(SourceCodeScanner.skipWhitespaceAndComments(source, 0, source.length()))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  void skipWhitespaceAndCommentsRespectsBounds() {
+    assertThat(SourceCodeScanner.skipWhitespaceAndComments("a  b  c", 1, 3)).isEqualTo(-1);
+    assertThat(SourceCodeScanner.skipWhitespaceAndComments("a  b  c", 1, 4)).isEqualTo(3);
+    assertThat(SourceCodeScanner.skipWhitespaceAndComments("a /* */ b", 1, 5)).isEqualTo(-1);
+  }
+
+  private static Stream<Arguments> indexOfClosingParenthesisTestCases() {
+    /* { source, expected } */
+    return Stream.of(
+        arguments("()", 1),
+        arguments("(a, b)", 5),
+        arguments("((a), (b))", 9),
+        arguments("(a))", 2),
+        arguments("(", -1),
+        arguments("((a)", -1),
+        arguments("(\")\")", 4),
+        arguments("(\"\\\")\")", 6),
+        arguments("(')')", 4),
+        arguments("('\\'', ')')", 10),
+        arguments("(\"\"\"\n)\"\"\")", 9),
+        arguments("(\"\"\"\n\\\"\"\")\"\"\")", 13),
+        arguments("(/* ) */)", 8),
+        arguments("(// )\n)", 6),
+        arguments("(a / b)", 6),
+        arguments("(\")", -1),
+        arguments("(/* )", -1));
+  }
+
+  @MethodSource("indexOfClosingParenthesisTestCases")
+  @ParameterizedTest
+  void indexOfClosingParenthesis(String source, int expected) {
+    assertThat(SourceCodeScanner.indexOfClosingParenthesis(source, 0, source.length()))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  void indexOfClosingParenthesisRespectsBounds() {
+    assertThat(SourceCodeScanner.indexOfClosingParenthesis("a(b)c", 1, 3)).isEqualTo(-1);
+    assertThat(SourceCodeScanner.indexOfClosingParenthesis("a(b)c", 1, 4)).isEqualTo(3);
+  }
+
+  @Test
+  void indexOfClosingParenthesisRequiresOpeningParenthesis() {
+    assertThatThrownBy(() -> SourceCodeScanner.indexOfClosingParenthesis("a()", 0, 3))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("No opening parenthesis at index 0");
+  }
+}
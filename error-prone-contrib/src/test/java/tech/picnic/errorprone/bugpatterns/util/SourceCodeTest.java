@@ -179,7 +179,8 @@ final class SourceCodeTest {
             "      {",
             "        0, /*a*/",
             "        ImmutableList /*b*/./*c*/ <Integer> /*d*/of /*e*/(/*f*/ 1 /*g*/, /*h*/ 2 /*i*/) /*j*/",
-            "      }",
+            "      },",
+            "      {ImmutableList.of(\")\", ')', /* ) */ (1 + (2)))}",
             "    };",
             "  }",
             "}")
@@ -189,7 +190,13 @@ final class SourceCodeTest {
             "",
             "class A {",
             "  Object[] m() {",
-            "    return new Object[][] {{}, {1}, {1, 2}, {0, /*a*/ /*f*/ 1 /*g*/, /*h*/ 2 /*i*/ /*j*/}};",
+            "    return new Object[][] {",
+            "      {},",
+            "      {1},",
+            "      {1, 2},",
+            "      {0, /*a*/ /*f*/ 1 /*g*/, /*h*/ 2 /*i*/ /*j*/},",
+            "      {\")\", ')', /* ) */ (1 + (2))}",
+            "    };",
             "  }",
             "}")
         .doTest(TestMode.TEXT_MATCH);
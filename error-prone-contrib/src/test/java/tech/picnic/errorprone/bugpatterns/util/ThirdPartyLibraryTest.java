@@ -23,7 +23,7 @@ final class ThirdPartyLibraryTest {
     CompilationTestHelper.newInstance(TestChecker.class, getClass())
         .addSourceLines(
             "A.java",
-            "// BUG: Diagnostic contains: ASSERTJ: true, GUAVA: true, NEW_RELIC_AGENT_API: true, REACTOR: true",
+            "// BUG: Diagnostic contains: ASSERTJ: true, ECLIPSE_COLLECTIONS: false, FASTUTIL: false, GUAVA: true, NEW_RELIC_AGENT_API: true, REACTOR: true, SLF4J_FLUENT_API: true",
             "class A {}")
         .doTest();
   }
@@ -38,7 +38,7 @@ final class ThirdPartyLibraryTest {
             "import org.assertj.core.api.Assertions;",
             "import reactor.core.publisher.Flux;",
             "",
-            "// BUG: Diagnostic contains: ASSERTJ: true, GUAVA: true, NEW_RELIC_AGENT_API: true, REACTOR: true",
+            "// BUG: Diagnostic contains: ASSERTJ: true, ECLIPSE_COLLECTIONS: false, FASTUTIL: false, GUAVA: true, NEW_RELIC_AGENT_API: true, REACTOR: true, SLF4J_FLUENT_API: true",
             "class A {",
             "  void m(Class<?> clazz) {",
             "    m(Assertions.class);",
@@ -56,7 +56,7 @@ final class ThirdPartyLibraryTest {
         .withClasspath(ImmutableList.class, Flux.class)
         .addSourceLines(
             "A.java",
-            "// BUG: Diagnostic contains: ASSERTJ: false, GUAVA: true, NEW_RELIC_AGENT_API: false, REACTOR: true",
+            "// BUG: Diagnostic contains: ASSERTJ: false, ECLIPSE_COLLECTIONS: false, FASTUTIL: false, GUAVA: true, NEW_RELIC_AGENT_API: false, REACTOR: true, SLF4J_FLUENT_API: false",
             "class A {}")
         .doTest();
   }
@@ -67,8 +67,8 @@ final class ThirdPartyLibraryTest {
         .withClasspath()
         .addSourceLines(
             "A.java",
-            "// BUG: Diagnostic contains: ASSERTJ: false, GUAVA: false, NEW_RELIC_AGENT_API: false, REACTOR:",
-            "// false",
+            "// BUG: Diagnostic contains: ASSERTJ: false, ECLIPSE_COLLECTIONS: false, FASTUTIL: false, GUAVA:",
+            "// false, NEW_RELIC_AGENT_API: false, REACTOR: false, SLF4J_FLUENT_API: false",
             "class A {}")
         .doTest();
   }
@@ -82,8 +82,12 @@ final class ThirdPartyLibraryTest {
         .addSourceLines(
             "A.java",
             String.format(
-                "// BUG: Diagnostic contains: ASSERTJ: %s, GUAVA: true, NEW_RELIC_AGENT_API: %s, REACTOR: true",
-                ignoreClassPath, ignoreClassPath),
+                "// BUG: Diagnostic contains: ASSERTJ: %s, ECLIPSE_COLLECTIONS: %s, FASTUTIL: %s, GUAVA: true, NEW_RELIC_AGENT_API: %s, REACTOR: true, SLF4J_FLUENT_API: %s",
+                ignoreClassPath,
+                ignoreClassPath,
+                ignoreClassPath,
+                ignoreClassPath,
+                ignoreClassPath),
             "class A {}")
         .doTest();
   }
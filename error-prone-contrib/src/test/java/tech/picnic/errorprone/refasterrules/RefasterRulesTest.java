@@ -54,6 +54,7 @@ final class RefasterRulesTest {
           JUnitToAssertJRules.class,
           LongStreamRules.class,
           MapEntryRules.class,
+          MapLookupRules.class,
           MapRules.class,
           MockitoRules.class,
           MultimapRules.class,
@@ -61,12 +62,15 @@ final class RefasterRulesTest {
           OptionalRules.class,
           PreconditionsRules.class,
           PrimitiveRules.class,
+          ReactorFusionRules.class,
           ReactorRules.class,
           RxJava2AdapterRules.class,
+          StreamFusionRules.class,
           StreamRules.class,
           StringRules.class,
           SuggestedFixRules.class,
           TestNGToAssertJRules.class,
+          TimeAllocationRules.class,
           TimeRules.class,
           WebClientRules.class);
 
@@ -2,6 +2,7 @@ package tech.picnic.errorprone.refasterrules;
 
 import com.google.common.collect.ImmutableSet;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
 
 final class BigDecimalRulesTest implements RefasterRuleCollectionTestCase {
@@ -20,4 +21,46 @@ final class BigDecimalRulesTest implements RefasterRuleCollectionTestCase {
   ImmutableSet<BigDecimal> testBigDecimalValueOf() {
     return ImmutableSet.of(new BigDecimal(2), new BigDecimal(2L), new BigDecimal(2.0));
   }
+
+  ImmutableSet<BigDecimal> testBigDecimalValueOfDoubleString() {
+    return ImmutableSet.of(
+        new BigDecimal(Double.toString(0.1)), new BigDecimal(String.valueOf(0.2)));
+  }
+
+  ImmutableSet<BigDecimal> testBigDecimalValueOfLongString() {
+    return ImmutableSet.of(new BigDecimal(Long.toString(1L)), new BigDecimal(String.valueOf(2L)));
+  }
+
+  ImmutableSet<Integer> testBigDecimalSignum() {
+    return ImmutableSet.of(
+        BigDecimal.ONE.compareTo(BigDecimal.ZERO), BigDecimal.TEN.compareTo(BigDecimal.ZERO));
+  }
+
+  ImmutableSet<Boolean> testBigDecimalSignumIsZero() {
+    return ImmutableSet.of(
+        BigDecimal.ZERO.compareTo(BigDecimal.ONE) == 0,
+        BigDecimal.ZERO.compareTo(BigDecimal.TEN) != 0);
+  }
+
+  ImmutableSet<Boolean> testBigDecimalSignumIsPositive() {
+    return ImmutableSet.of(
+        BigDecimal.ZERO.compareTo(BigDecimal.ONE) < 0,
+        BigDecimal.ZERO.compareTo(BigDecimal.TEN) >= 0);
+  }
+
+  ImmutableSet<Boolean> testBigDecimalSignumIsNegative() {
+    return ImmutableSet.of(
+        BigDecimal.ZERO.compareTo(BigDecimal.ONE) > 0,
+        BigDecimal.ZERO.compareTo(BigDecimal.TEN) <= 0);
+  }
+
+  BigDecimal testBigDecimalStripTrailingZeros() {
+    return BigDecimal.ONE.stripTrailingZeros().stripTrailingZeros();
+  }
+
+  ImmutableSet<BigDecimal> testBigDecimalSetScale() {
+    return ImmutableSet.of(
+        BigDecimal.ONE.stripTrailingZeros().setScale(2, RoundingMode.HALF_UP),
+        BigDecimal.TEN.setScale(2, RoundingMode.HALF_UP).setScale(2, RoundingMode.HALF_UP));
+  }
 }
@@ -2,6 +2,7 @@ package tech.picnic.errorprone.refasterrules;
 
 import com.google.common.collect.ImmutableSet;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
 
 final class BigDecimalRulesTest implements RefasterRuleCollectionTestCase {
@@ -20,4 +21,38 @@ final class BigDecimalRulesTest implements RefasterRuleCollectionTestCase {
   ImmutableSet<BigDecimal> testBigDecimalValueOf() {
     return ImmutableSet.of(BigDecimal.valueOf(2), BigDecimal.valueOf(2L), BigDecimal.valueOf(2.0));
   }
+
+  ImmutableSet<BigDecimal> testBigDecimalValueOfDoubleString() {
+    return ImmutableSet.of(BigDecimal.valueOf(0.1), BigDecimal.valueOf(0.2));
+  }
+
+  ImmutableSet<BigDecimal> testBigDecimalValueOfLongString() {
+    return ImmutableSet.of(BigDecimal.valueOf(1L), BigDecimal.valueOf(2L));
+  }
+
+  ImmutableSet<Integer> testBigDecimalSignum() {
+    return ImmutableSet.of(BigDecimal.ONE.signum(), BigDecimal.TEN.signum());
+  }
+
+  ImmutableSet<Boolean> testBigDecimalSignumIsZero() {
+    return ImmutableSet.of(BigDecimal.ONE.signum() == 0, BigDecimal.TEN.signum() != 0);
+  }
+
+  ImmutableSet<Boolean> testBigDecimalSignumIsPositive() {
+    return ImmutableSet.of(BigDecimal.ONE.signum() > 0, BigDecimal.TEN.signum() <= 0);
+  }
+
+  ImmutableSet<Boolean> testBigDecimalSignumIsNegative() {
+    return ImmutableSet.of(BigDecimal.ONE.signum() < 0, BigDecimal.TEN.signum() >= 0);
+  }
+
+  BigDecimal testBigDecimalStripTrailingZeros() {
+    return BigDecimal.ONE.stripTrailingZeros();
+  }
+
+  ImmutableSet<BigDecimal> testBigDecimalSetScale() {
+    return ImmutableSet.of(
+        BigDecimal.ONE.setScale(2, RoundingMode.HALF_UP),
+        BigDecimal.TEN.setScale(2, RoundingMode.HALF_UP));
+  }
 }
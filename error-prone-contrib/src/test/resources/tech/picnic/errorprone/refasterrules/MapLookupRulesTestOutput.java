@@ -0,0 +1,35 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.Map;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class MapLookupRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<Object> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(HashMap.class);
+  }
+
+  ImmutableSet<Integer> testMapGetOrDefaultIfContainsKey() {
+    return ImmutableSet.of(
+        ImmutableMap.of("foo", 1).getOrDefault("bar", 2),
+        ImmutableMap.of("baz", 3).getOrDefault("qux", 4),
+        ImmutableMap.of("quux", 5).containsKey("corge")
+            ? ImmutableMap.of("quux", 5).get("corge")
+            : Integer.valueOf(6));
+  }
+
+  void testMapMergeIntegerSum() {
+    Map<String, Integer> map = new HashMap<>();
+    map.merge("foo", 1, Integer::sum);
+    map.merge("bar", 2, Integer::sum);
+  }
+
+  void testMapMergeLongSum() {
+    Map<String, Long> map = new HashMap<>();
+    map.merge("foo", 1L, Long::sum);
+    map.merge("bar", 2L, Long::sum);
+  }
+}
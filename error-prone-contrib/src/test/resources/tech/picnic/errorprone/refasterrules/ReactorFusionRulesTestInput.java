@@ -0,0 +1,67 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static java.util.function.Function.identity;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class ReactorFusionRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<Object> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(identity());
+  }
+
+  ImmutableSet<Mono<Integer>> testMonoIdentityOperator() {
+    return ImmutableSet.of(
+        Mono.just(1).map(identity()),
+        Mono.just(2).map(n -> n),
+        Mono.just(3).filter(n -> true),
+        Mono.just(4).flatMap(Mono::just));
+  }
+
+  ImmutableSet<Flux<Integer>> testFluxIdentityOperator() {
+    return ImmutableSet.of(
+        Flux.just(1).map(identity()),
+        Flux.just(2).map(n -> n),
+        Flux.just(3).filter(n -> true),
+        Flux.just(4).concatMap(Mono::just),
+        Flux.just(5).concatMap(Flux::just),
+        Flux.just(6).flatMap(Mono::just),
+        Flux.just(7).flatMap(Flux::just),
+        Flux.just(8).flatMapSequential(Mono::just),
+        Flux.just(9).flatMapSequential(Flux::just));
+  }
+
+  ImmutableSet<Flux<Integer>> testFluxFlatMapToMap() {
+    return ImmutableSet.of(
+        Flux.just(1).flatMap(n -> Mono.just(n * 2)),
+        Flux.just(2).flatMap(n -> Flux.just(n * 2)),
+        Flux.just(3).flatMapSequential(n -> Mono.just(n * 2)),
+        Flux.just(4).flatMapSequential(n -> Flux.just(n * 2)));
+  }
+
+  ImmutableSet<Flux<String>> testFluxFlatMapFromIterable() {
+    return ImmutableSet.of(
+        Flux.just(ImmutableList.of("foo")).flatMap(list -> Flux.fromIterable(list)),
+        Flux.just(ImmutableList.of("bar")).flatMap(Flux::fromIterable),
+        Flux.just(ImmutableList.of("baz")).flatMapSequential(list -> Flux.fromIterable(list)),
+        Flux.just(ImmutableList.of("qux")).flatMapSequential(Flux::fromIterable));
+  }
+
+  ImmutableSet<Flux<String>> testMonoFlatMapManyFromIterable() {
+    return ImmutableSet.of(
+        Mono.just(ImmutableList.of("foo")).flatMapMany(list -> Flux.fromIterable(list)),
+        Mono.just(ImmutableList.of("bar")).flatMapMany(Flux::fromIterable));
+  }
+
+  ImmutableSet<Mono<Void>> testMonoThenEmpty() {
+    return ImmutableSet.of(Mono.just(1).then(Mono.empty()), Mono.just(2).thenEmpty(Mono.empty()));
+  }
+
+  ImmutableSet<Mono<Void>> testFluxThenEmpty() {
+    return ImmutableSet.of(Flux.just(1).then(Mono.empty()), Flux.just(2).thenEmpty(Mono.empty()));
+  }
+}
@@ -0,0 +1,63 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static java.util.function.Function.identity;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class ReactorFusionRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<Object> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(identity());
+  }
+
+  ImmutableSet<Mono<Integer>> testMonoIdentityOperator() {
+    return ImmutableSet.of(Mono.just(1), Mono.just(2), Mono.just(3), Mono.just(4));
+  }
+
+  ImmutableSet<Flux<Integer>> testFluxIdentityOperator() {
+    return ImmutableSet.of(
+        Flux.just(1),
+        Flux.just(2),
+        Flux.just(3),
+        Flux.just(4),
+        Flux.just(5),
+        Flux.just(6),
+        Flux.just(7),
+        Flux.just(8),
+        Flux.just(9));
+  }
+
+  ImmutableSet<Flux<Integer>> testFluxFlatMapToMap() {
+    return ImmutableSet.of(
+        Flux.just(1).map(n -> n * 2),
+        Flux.just(2).map(n -> n * 2),
+        Flux.just(3).map(n -> n * 2),
+        Flux.just(4).map(n -> n * 2));
+  }
+
+  ImmutableSet<Flux<String>> testFluxFlatMapFromIterable() {
+    return ImmutableSet.of(
+        Flux.just(ImmutableList.of("foo")).concatMapIterable(identity()),
+        Flux.just(ImmutableList.of("bar")).concatMapIterable(identity()),
+        Flux.just(ImmutableList.of("baz")).concatMapIterable(identity()),
+        Flux.just(ImmutableList.of("qux")).concatMapIterable(identity()));
+  }
+
+  ImmutableSet<Flux<String>> testMonoFlatMapManyFromIterable() {
+    return ImmutableSet.of(
+        Mono.just(ImmutableList.of("foo")).flatMapIterable(identity()),
+        Mono.just(ImmutableList.of("bar")).flatMapIterable(identity()));
+  }
+
+  ImmutableSet<Mono<Void>> testMonoThenEmpty() {
+    return ImmutableSet.of(Mono.just(1).then(), Mono.just(2).then());
+  }
+
+  ImmutableSet<Mono<Void>> testFluxThenEmpty() {
+    return ImmutableSet.of(Flux.just(1).then(), Flux.just(2).then());
+  }
+}
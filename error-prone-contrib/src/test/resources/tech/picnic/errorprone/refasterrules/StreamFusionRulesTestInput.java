@@ -0,0 +1,40 @@
+package tech.picnic.errorprone.refasterrules;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.reverseOrder;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.stream.Stream;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class StreamFusionRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<Object> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(naturalOrder(), toImmutableList(), toList(), toUnmodifiableList());
+  }
+
+  ImmutableSet<Stream<String>> testStreamCollectToListStream() {
+    return ImmutableSet.of(
+        Stream.of("foo").collect(toList()).stream(),
+        Stream.of("bar").collect(toUnmodifiableList()).stream(),
+        Stream.of("baz").collect(toImmutableList()).stream());
+  }
+
+  ImmutableSet<Integer> testStreamCollectToListSize() {
+    return ImmutableSet.of(
+        Stream.of("foo").collect(toList()).size(),
+        Stream.of("bar").collect(toUnmodifiableList()).size(),
+        Stream.of("baz").collect(toImmutableList()).size());
+  }
+
+  Stream<String> testStreamSortedLimitOne() {
+    return Stream.of("foo").sorted(reverseOrder()).limit(1);
+  }
+
+  Stream<String> testStreamSortedNaturalOrderLimitOne() {
+    return Stream.of("foo").sorted().limit(1);
+  }
+}
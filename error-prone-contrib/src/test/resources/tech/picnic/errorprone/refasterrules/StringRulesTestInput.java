@@ -13,6 +13,8 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
 
@@ -20,7 +22,14 @@ final class StringRulesTest implements RefasterRuleCollectionTestCase {
   @Override
   public ImmutableSet<Object> elidedTypesAndStaticImports() {
     return ImmutableSet.of(
-        Arrays.class, Joiner.class, Objects.class, Stream.class, Streams.class, joining(), UTF_8);
+        Arrays.class,
+        Joiner.class,
+        Matcher.class,
+        Objects.class,
+        Stream.class,
+        Streams.class,
+        joining(),
+        UTF_8);
   }
 
   ImmutableSet<Boolean> testStringIsEmpty() {
@@ -84,4 +93,18 @@ final class StringRulesTest implements RefasterRuleCollectionTestCase {
   int testUtf8EncodedLength() {
     return "foo".getBytes(UTF_8).length;
   }
+
+  ImmutableSet<Stream<String>> testPatternSplitAsStream() {
+    return ImmutableSet.of(
+        Arrays.stream(Pattern.compile("foo").split("bar")),
+        Stream.of(Pattern.compile("baz").split("qux")));
+  }
+
+  ImmutableSet<String> testStringReplaceLiteral() {
+    return ImmutableSet.of(
+        "foo".replaceAll(Pattern.quote("bar"), Matcher.quoteReplacement("baz")),
+        Pattern.compile("qux", Pattern.LITERAL)
+            .matcher("quux")
+            .replaceAll(Matcher.quoteReplacement("corge")));
+  }
 }
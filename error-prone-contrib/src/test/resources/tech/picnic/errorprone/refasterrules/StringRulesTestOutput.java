@@ -16,6 +16,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
 
@@ -23,7 +25,14 @@ final class StringRulesTest implements RefasterRuleCollectionTestCase {
   @Override
   public ImmutableSet<Object> elidedTypesAndStaticImports() {
     return ImmutableSet.of(
-        Arrays.class, Joiner.class, Objects.class, Stream.class, Streams.class, joining(), UTF_8);
+        Arrays.class,
+        Joiner.class,
+        Matcher.class,
+        Objects.class,
+        Stream.class,
+        Streams.class,
+        joining(),
+        UTF_8);
   }
 
   ImmutableSet<Boolean> testStringIsEmpty() {
@@ -86,4 +95,13 @@ final class StringRulesTest implements RefasterRuleCollectionTestCase {
   int testUtf8EncodedLength() {
     return Utf8.encodedLength("foo");
   }
+
+  ImmutableSet<Stream<String>> testPatternSplitAsStream() {
+    return ImmutableSet.of(
+        Pattern.compile("foo").splitAsStream("bar"), Pattern.compile("baz").splitAsStream("qux"));
+  }
+
+  ImmutableSet<String> testStringReplaceLiteral() {
+    return ImmutableSet.of("foo".replace("bar", "baz"), "quux".replace("qux", "corge"));
+  }
 }
@@ -0,0 +1,23 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.common.collect.ImmutableSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class TimeAllocationRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<Object> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(Duration.class);
+  }
+
+  ImmutableSet<Long> testClockMillis() {
+    return ImmutableSet.of(
+        Clock.systemUTC().instant().toEpochMilli(), Instant.now(Clock.systemUTC()).toEpochMilli());
+  }
+
+  long testInstantNanosUntil() {
+    return Duration.between(Instant.EPOCH, Instant.MAX).toNanos();
+  }
+}
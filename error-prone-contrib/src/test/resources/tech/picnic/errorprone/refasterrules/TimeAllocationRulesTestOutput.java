@@ -0,0 +1,23 @@
+package tech.picnic.errorprone.refasterrules;
+
+import com.google.common.collect.ImmutableSet;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import tech.picnic.errorprone.refaster.test.RefasterRuleCollectionTestCase;
+
+final class TimeAllocationRulesTest implements RefasterRuleCollectionTestCase {
+  @Override
+  public ImmutableSet<Object> elidedTypesAndStaticImports() {
+    return ImmutableSet.of(Duration.class);
+  }
+
+  ImmutableSet<Long> testClockMillis() {
+    return ImmutableSet.of(Clock.systemUTC().millis(), Clock.systemUTC().millis());
+  }
+
+  long testInstantNanosUntil() {
+    return Instant.EPOCH.until(Instant.MAX, ChronoUnit.NANOS);
+  }
+}
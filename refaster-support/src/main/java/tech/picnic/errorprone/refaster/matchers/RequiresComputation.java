@@ -0,0 +1,55 @@
+package tech.picnic.errorprone.refaster.matchers;
+
+import com.google.errorprone.VisitorState;
+import com.google.errorprone.matchers.Matcher;
+import com.google.errorprone.util.ASTHelpers;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.TypeCastTree;
+
+/**
+ * A matcher of expressions that may require non-trivial computation to evaluate, and that may thus
+ * have side effects.
+ *
+ * <p>Literals, compile-time constants, variable and field references, lambda expressions and method
+ * references with such a qualifier are not matched.
+ */
+public final class RequiresComputation implements Matcher<ExpressionTree> {
+  private static final long serialVersionUID = 1L;
+
+  /** Instantiates a new {@link RequiresComputation} instance. */
+  public RequiresComputation() {}
+
+  @Override
+  public boolean matches(ExpressionTree tree, VisitorState state) {
+    if (ASTHelpers.constValue(tree) != null
+        || tree instanceof LiteralTree
+        || tree instanceof IdentifierTree
+        || tree instanceof LambdaExpressionTree) {
+      return false;
+    }
+
+    if (tree instanceof MemberSelectTree) {
+      return matches(((MemberSelectTree) tree).getExpression(), state);
+    }
+
+    if (tree instanceof MemberReferenceTree) {
+      return matches(((MemberReferenceTree) tree).getQualifierExpression(), state);
+    }
+
+    if (tree instanceof ParenthesizedTree) {
+      return matches(((ParenthesizedTree) tree).getExpression(), state);
+    }
+
+    if (tree instanceof TypeCastTree) {
+      return matches(((TypeCastTree) tree).getExpression(), state);
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,104 @@
+package tech.picnic.errorprone.refaster.matchers;
+
+import static com.google.errorprone.BugPattern.SeverityLevel.ERROR;
+
+import com.google.errorprone.BugPattern;
+import com.google.errorprone.CompilationTestHelper;
+import com.google.errorprone.bugpatterns.BugChecker;
+import org.junit.jupiter.api.Test;
+
+final class RequiresComputationTest {
+  @Test
+  void matches() {
+    CompilationTestHelper.newInstance(MatcherTestChecker.class, getClass())
+        .addSourceLines(
+            "A.java",
+            "import java.math.BigDecimal;",
+            "import java.util.function.Function;",
+            "import java.util.function.Supplier;",
+            "",
+            "interface A {",
+            "  String CONSTANT = \"a\";",
+            "",
+            "  default String negative1() {",
+            "    return \"c\";",
+            "  }",
+            "",
+            "  default int negative2() {",
+            "    return 1 + 2;",
+            "  }",
+            "",
+            "  default String negative3(String param) {",
+            "    return param;",
+            "  }",
+            "",
+            "  default String negative4() {",
+            "    return CONSTANT;",
+            "  }",
+            "",
+            "  default String negative5() {",
+            "    return A.CONSTANT;",
+            "  }",
+            "",
+            "  default BigDecimal negative6() {",
+            "    return BigDecimal.ONE;",
+            "  }",
+            "",
+            "  default Object negative7(String param) {",
+            "    return (Object) (param);",
+            "  }",
+            "",
+            "  default Supplier<String> negative8() {",
+            "    return () -> CONSTANT;",
+            "  }",
+            "",
+            "  default Function<String, Integer> negative9() {",
+            "    return String::length;",
+            "  }",
+            "",
+            "  default String positive1() {",
+            "    // BUG: Diagnostic contains:",
+            "    return toString();",
+            "  }",
+            "",
+            "  default String positive2(String param) {",
+            "    // BUG: Diagnostic contains:",
+            "    return param + \"d\";",
+            "  }",
+            "",
+            "  default Object positive3() {",
+            "    // BUG: Diagnostic contains:",
+            "    return new Object();",
+            "  }",
+            "",
+            "  default int positive4() {",
+            "    // BUG: Diagnostic contains:",
+            "    return toString().length();",
+            "  }",
+            "",
+            "  default Supplier<Integer> positive5() {",
+            "    // BUG: Diagnostic contains:",
+            "    return toString()::length;",
+            "  }",
+            "",
+            "  default int positive6(int[] array) {",
+            "    // BUG: Diagnostic contains:",
+            "    return array[0];",
+            "  }",
+            "}")
+        .doTest();
+  }
+
+  /** A {@link BugChecker} that simply delegates to {@link RequiresComputation}. */
+  @BugPattern(summary = "Flags expressions matched by `RequiresComputation`", severity = ERROR)
+  public static final class MatcherTestChecker extends AbstractMatcherTestChecker {
+    private static final long serialVersionUID = 1L;
+
+    // XXX: This is a false positive reported by Checkstyle. See
+    // https://github.com/checkstyle/checkstyle/issues/10161#issuecomment-1242732120.
+    @SuppressWarnings("RedundantModifier")
+    public MatcherTestChecker() {
+      super(new RequiresComputation());
+    }
+  }
+}